@@ -0,0 +1,59 @@
+package com.example.student_management_system.benchmark;
+
+import com.example.student_management_system.service.CustomUserDetailsService;
+import com.example.student_management_system.service.UserAccountCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Login lookups (CustomUserDetailsService.loadUserByUsername) and sign-up (POST /register, AuthController.registerUser)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Counter {
+        private final AtomicLong next = new AtomicLong();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername_cached(SeededApp app, Counter counter) {
+        String username = SeededApp.username((int) (counter.next.getAndIncrement() % SeededApp.USERS));
+        return app.bean(CustomUserDetailsService.class).loadUserByUsername(username);
+    }
+
+    // Every call misses the cache and goes to the database
+    @Benchmark
+    public UserDetails loadUserByUsername_uncached(SeededApp app, Counter counter) {
+        String username = SeededApp.username((int) (counter.next.getAndIncrement() % SeededApp.USERS));
+        app.bean(UserAccountCache.class).evict(username);
+        return app.bean(CustomUserDetailsService.class).loadUserByUsername(username);
+    }
+
+    // Mostly the cost of hashing the password
+    @Benchmark
+    public MvcResult registerUser(SeededApp app, Counter counter) throws Exception {
+        return app.perform(post("/register")
+                .param("username", "signup-" + counter.next.getAndIncrement())
+                .param("password", SeededApp.PASSWORD)
+                .param("role", "STUDENT")
+                .with(csrf()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.student_management_system.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// GET /courses (CourseController.listCourses) and POST /courses/enroll/{id} (toggleEnrollment)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseBenchmark {
+
+    // Each benchmark thread picks its own random student/course pairs
+    @State(Scope.Thread)
+    public static class Picker {
+        private final SplittableRandom random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public MvcResult listCourses(SeededApp app) throws Exception {
+        return app.perform(get("/courses").with(app.student(0)));
+    }
+
+    // Enrolls or unenrolls (whichever applies) a random logged-in student in a random course
+    @Benchmark
+    public MvcResult toggleEnrollment(SeededApp app, Picker picker) throws Exception {
+        int student = picker.random.nextInt(Math.min(SeededApp.USERS, app.students));
+        Long courseId = app.courseIds.get(picker.random.nextInt(app.courseIds.size()));
+        return app.perform(post("/courses/enroll/" + courseId).with(app.student(student)).with(csrf()));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.student_management_system.benchmark;
+
+import com.example.student_management_system.dto.EnrollmentResult;
+import com.example.student_management_system.service.EnrollmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Enrollment clicks per second during a registration surge (16 students clicking at once on random courses):
+// synchronous (every click its own transaction) vs write-behind (answered from memory, written in batches).
+// After every iteration the pending clicks are written and the database work per click is printed:
+//   statements = JDBC round trips (a batch counts once), commits = transactions
+// e.g. "writeBehind=true: 812345 clicks, 1.02 statements/click, 0.004 commits/click"
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class EnrollmentBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class App extends SeededApp {
+
+        @Param({"false", "true"})
+        public boolean writeBehind;
+
+        private final StatementCounter counter = new StatementCounter();
+        private final LongAdder clicks = new LongAdder();
+        private EnrollmentService enrollmentService;
+
+        @Override
+        protected String[] properties() {
+            return new String[]{
+                    "app.enrollment.write-behind.enabled=" + writeBehind,
+                    "app.enrollment.write-behind.journal-dir=target/bench-enrollment-journal"
+            };
+        }
+
+        @Override
+        protected void configure(SpringApplicationBuilder builder) {
+            builder.initializers((ApplicationContextInitializer<ConfigurableApplicationContext>)
+                    context -> context.getBeanFactory().addBeanPostProcessor(counter));
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            enrollmentService = bean(EnrollmentService.class);
+            enrollmentService.flushPendingEnrollments();
+            clicks.reset();
+            counter.statements.reset();
+            counter.commits.reset();
+        }
+
+        @TearDown(Level.Iteration)
+        public void report() {
+            enrollmentService.flushPendingEnrollments();
+            long n = Math.max(1, clicks.sum());
+            System.out.printf("%n  writeBehind=%s: %d clicks, %.2f statements/click, %.3f commits/click%n",
+                    writeBehind, clicks.sum(), counter.statements.sum() / (double) n, counter.commits.sum() / (double) n);
+        }
+    }
+
+    @Benchmark
+    public EnrollmentResult toggle(App app) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long studentId = 1 + random.nextInt(app.students);
+        Long courseId = app.courseIds.get(random.nextInt(app.courseIds.size()));
+        app.clicks.increment();
+        return app.enrollmentService.toggle(studentId, courseId);
+    }
+
+    // Wraps the app's DataSource and counts what reaches the database: every execute*() call
+    // (executeBatch once per batch) and every commit
+    static class StatementCounter implements BeanPostProcessor {
+
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder commits = new LongAdder();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        return counted(Connection.class, super.getConnection());
+                    }
+
+                    @Override
+                    public Connection getConnection(String username, String password) throws SQLException {
+                        return counted(Connection.class, super.getConnection(username, password));
+                    }
+                };
+            }
+            return bean;
+        }
+
+        private <T> T counted(Class<T> type, T target) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("execute")) {
+                    statements.increment();
+                } else if (name.equals("commit")) {
+                    commits.increment();
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                Class<?> returned = method.getReturnType();
+                if (returned == CallableStatement.class) {
+                    return counted(CallableStatement.class, (CallableStatement) result);
+                } else if (returned == PreparedStatement.class) {
+                    return counted(PreparedStatement.class, (PreparedStatement) result);
+                } else if (returned == Statement.class && result != null) {
+                    return counted(Statement.class, (Statement) result);
+                }
+                return result;
+            }));
+        }
+    }
+}
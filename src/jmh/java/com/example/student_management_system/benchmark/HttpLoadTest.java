@@ -0,0 +1,207 @@
+package com.example.student_management_system.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// HTTP load test: many concurrent logged-in users hitting GET /students and GET /courses,
+// once with Tomcat's platform thread pool and once with virtual threads (Java 21+ only).
+//
+//   mvn -P benchmark verify -DskipJmh=true -DskipLoadTest=false -Dload.args="-Dload.users=1000 -Dload.seconds=30"
+//
+// Each user sends its next request as soon as the previous one is answered (closed loop).
+// Prints throughput, latency percentiles and error counts per mode, and writes them to target/load-result.json.
+public class HttpLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 1000);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 10);
+    private static final int STUDENTS = Integer.getInteger("load.students", 10_000);
+    private static final String RESULT_FILE = System.getProperty("load.result", "target/load-result.json");
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"[^>]*value=\"([^\"]+)\"");
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        results.put("platform", run());
+        if (Runtime.version().feature() >= 21) {
+            results.put("virtual", run("virtual-threads"));
+        } else {
+            System.out.println("Virtual threads need Java 21+, running on " + Runtime.version() + ": skipped");
+        }
+
+        StringBuilder json = new StringBuilder("{\n");
+        results.forEach((mode, values) -> {
+            json.append("  \"").append(mode).append("\": {");
+            List<String> fields = new ArrayList<>();
+            values.forEach((key, value) -> fields.add("\"" + key + "\": " + value));
+            json.append(String.join(", ", fields)).append("},\n");
+        });
+        json.setLength(json.length() - 2);
+        json.append("\n}\n");
+        java.nio.file.Files.writeString(java.nio.file.Path.of(RESULT_FILE), json);
+        System.out.println(json);
+        System.exit(0);
+    }
+
+    private static Map<String, Object> run(String... profiles) throws Exception {
+        SeededApp app = new SeededApp();
+        app.students = STUDENTS;
+        app.courses = 200;
+        app.coursesPerStudent = 5;
+        app.start(profiles);
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+            List<String> bases = List.of("http://localhost:" + app.port());
+            List<String[]> sessions = new ArrayList<>();
+            for (int u = 0; u < SeededApp.USERS; u++) {
+                sessions.add(login(client, bases.get(0), SeededApp.username(u)));
+            }
+
+            String mode = profiles.length == 0 ? "platform" : String.join(",", profiles);
+            System.out.printf("[%s] warming up %d s with %d users%n", mode, WARMUP_SECONDS, USERS);
+            drive(client, bases, sessions, USERS, WARMUP_SECONDS);
+            System.out.printf("[%s] measuring %d s with %d users%n", mode, SECONDS, USERS);
+            Map<String, Object> result = drive(client, bases, sessions, USERS, SECONDS);
+            System.out.printf("[%s] %s%n", mode, result);
+            return result;
+        } finally {
+            app.stop();
+        }
+    }
+
+    // Concurrent request loops for the given time. Each user logs in with one of the credentials (a header:
+    // session cookie or bearer token) and sends its requests to the bases in turn (one base = one app instance).
+    static Map<String, Object> drive(HttpClient client, List<String> bases, List<String[]> credentials, int users,
+                                     int seconds) throws Exception {
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong ok = new AtomicLong();
+        AtomicLong busy = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<CompletableFuture<Void>> loops = new ArrayList<>();
+
+        for (int u = 0; u < users; u++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            String[] credential = credentials.get(u % credentials.size());
+            AtomicInteger step = new AtomicInteger(u);
+            List<Long> mine = new ArrayList<>();
+            loop(client, bases, credential, step, end, mine, ok, busy, failed, done);
+            loops.add(done.thenRun(() -> latencies.add(mine.stream().mapToLong(Long::longValue).toArray())));
+        }
+        CompletableFuture.allOf(loops.toArray(CompletableFuture[]::new)).join();
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("users", users);
+        result.put("requests", all.length);
+        result.put("throughputPerSecond", Math.round(all.length / (double) seconds));
+        result.put("p50Ms", percentile(all, 0.50));
+        result.put("p99Ms", percentile(all, 0.99));
+        result.put("maxMs", all.length > 0 ? all[all.length - 1] / 1_000_000.0 : 0);
+        result.put("ok", ok.get());
+        result.put("busy503", busy.get());
+        result.put("failed", failed.get());
+        return result;
+    }
+
+    private static void loop(HttpClient client, List<String> bases, String[] credential, AtomicInteger step, long end,
+                             List<Long> latencies, AtomicLong ok, AtomicLong busy, AtomicLong failed,
+                             CompletableFuture<Void> done) {
+        if (System.nanoTime() >= end) {
+            done.complete(null);
+            return;
+        }
+        int next = step.getAndIncrement();
+        String path = next % 2 == 0 ? "/students" : "/courses";
+        String base = bases.get(next / 2 % bases.size());
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                .header(credential[0], credential[1])
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            latencies.add(System.nanoTime() - start);
+            if (error != null || response.statusCode() >= 500 && response.statusCode() != 503 || response.statusCode() >= 300 && response.statusCode() < 500) {
+                failed.incrementAndGet();
+            } else if (response.statusCode() == 503) {
+                busy.incrementAndGet();
+            } else {
+                ok.incrementAndGet();
+            }
+            loop(client, bases, credential, step, end, latencies, ok, busy, failed, done);
+        });
+    }
+
+    // Form login like a browser: fetch the CSRF token, post the credentials, keep the session cookie
+    static String[] login(HttpClient client, String base, String username) throws Exception {
+        HttpResponse<String> page = client.send(HttpRequest.newBuilder(URI.create(base + "/login")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        String cookie = sessionCookie(page);
+        Matcher csrf = CSRF.matcher(page.body());
+        if (!csrf.find()) {
+            throw new IllegalStateException("No CSRF token on the login page");
+        }
+        String form = "username=" + username + "&password=" + SeededApp.PASSWORD + "&_csrf=" + csrf.group(1);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(base + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .header("Cookie", cookie)
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (location.contains("error")) {
+            throw new IllegalStateException("Login failed for " + username);
+        }
+        return new String[]{"Cookie", response.headers().firstValue("Set-Cookie").map(HttpLoadTest::cookiePart).orElse(cookie)};
+    }
+
+    // Stateless login: POST /api/token, then send the token with every request
+    static String[] token(HttpClient client, String base, String username) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/api/token"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "username=" + username + "&password=" + SeededApp.PASSWORD))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher token = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !token.find()) {
+            throw new IllegalStateException("No token for " + username + ": HTTP " + response.statusCode());
+        }
+        return new String[]{"Authorization", "Bearer " + token.group(1)};
+    }
+
+    private static String sessionCookie(HttpResponse<?> response) {
+        return response.headers().firstValue("Set-Cookie").map(HttpLoadTest::cookiePart).orElse("");
+    }
+
+    private static String cookiePart(String setCookie) {
+        int semicolon = setCookie.indexOf(';');
+        return semicolon >= 0 ? setCookie.substring(0, semicolon) : setCookie;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1);
+        return Math.round(sorted[Math.max(0, index)] / 10_000.0) / 100.0;
+    }
+}
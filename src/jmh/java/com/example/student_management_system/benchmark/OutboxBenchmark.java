@@ -0,0 +1,108 @@
+package com.example.student_management_system.benchmark;
+
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.StudentRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Writes per second with the change outbox (ChangeOutbox) on and off: the same transactions, with or without
+// the event row (and the relay numbering the events in the background every second).
+//   createStudent:    INSERT of a new student
+//   updateStudent:    UPDATE of an existing student (new e-mail)
+//   toggleEnrollment: POST /courses/enroll/{id}, the whole request
+//   createStudents:   100 new students in one transaction (like a bulk import chunk)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutboxBenchmark {
+
+    private static final int CHUNK = 100;
+
+    @State(Scope.Benchmark)
+    public static class App extends SeededApp {
+
+        @Param({"true", "false"})
+        public boolean outbox;
+
+        @Override
+        protected String[] properties() {
+            return new String[]{"app.outbox.enabled=" + outbox};
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private final SplittableRandom random = new SplittableRandom(42);
+        private StudentRepository studentRepository;
+        private TransactionTemplate transactionTemplate;
+        private long created;
+
+        @Setup(Level.Trial)
+        public void setUp(App app) {
+            studentRepository = app.bean(StudentRepository.class);
+            transactionTemplate = app.bean(TransactionTemplate.class);
+        }
+
+        private Student newStudent() {
+            long n = ++created;
+            Student student = new Student();
+            student.setName("Outbox Student " + n);
+            student.setEmail("outbox" + n + "@example.com");
+            return student;
+        }
+    }
+
+    @Benchmark
+    public Student createStudent(Writer writer) {
+        return writer.studentRepository.save(writer.newStudent());
+    }
+
+    @Benchmark
+    public Student updateStudent(App app, Writer writer) {
+        long id = 1 + writer.random.nextInt(app.students);
+        return writer.transactionTemplate.execute(status -> {
+            Student student = writer.studentRepository.findById(id).orElseThrow();
+            student.setEmail("changed" + writer.random.nextInt() + "@example.com");
+            return student;
+        });
+    }
+
+    @Benchmark
+    public MvcResult toggleEnrollment(App app, Writer writer) throws Exception {
+        int student = writer.random.nextInt(Math.min(SeededApp.USERS, app.students));
+        Long courseId = app.courseIds.get(writer.random.nextInt(app.courseIds.size()));
+        return app.perform(post("/courses/enroll/" + courseId).with(app.student(student)).with(csrf()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public Integer createStudents(Writer writer) {
+        return writer.transactionTemplate.execute(status -> {
+            for (int i = 0; i < CHUNK; i++) {
+                writer.studentRepository.save(writer.newStudent());
+            }
+            return CHUNK;
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.student_management_system.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// GET /courses and GET /students with the page cache (PageCache) on and off:
+//   render*:     a full page, as on the first visit (cached fragments when on)
+//   revalidate*: the browser already has the page and sends its ETag back (If-None-Match); with the cache
+//                on that is a 304 without a body, off the page is rendered and sent again
+// Besides the time per request, prints the average bytes of the response body per request.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageCacheBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class App extends SeededApp {
+
+        @Param({"true", "false"})
+        public boolean pageCache;
+
+        @Override
+        protected String[] properties() {
+            return new String[]{"app.page-cache.enabled=" + pageCache};
+        }
+    }
+
+    // The viewer's session (the ETags depend on it), the ETags it got with its first visit, and the bytes sent since
+    @State(Scope.Thread)
+    public static class Browser {
+        private final MockHttpSession session = new MockHttpSession();
+        private String coursesETag;
+        private String studentsETag;
+        private long bytes;
+        private long responses;
+
+        @Setup(Level.Trial)
+        public void firstVisit(App app) throws Exception {
+            coursesETag = app.perform(get("/courses").session(session).with(app.student(0)))
+                    .getResponse().getHeader("ETag");
+            studentsETag = app.perform(get("/students").session(session).with(app.student(0)))
+                    .getResponse().getHeader("ETag");
+        }
+
+        private MvcResult count(MvcResult result) {
+            bytes += result.getResponse().getContentAsByteArray().length;
+            responses++;
+            return result;
+        }
+
+        @TearDown(Level.Trial)
+        public void report(App app) {
+            System.out.printf("%n[pageCache=%s] %d bytes per response on average (%d responses)%n",
+                    app.pageCache, responses == 0 ? 0 : bytes / responses, responses);
+        }
+    }
+
+    // Without an ETag (cache off) the browser has nothing to send and asks for the page again
+    private static MockHttpServletRequestBuilder revalidate(String page, Browser browser, String etag) {
+        MockHttpServletRequestBuilder request = get(page).session(browser.session);
+        return etag == null ? request : request.header("If-None-Match", etag);
+    }
+
+    @Benchmark
+    public MvcResult renderCourses(App app, Browser browser) throws Exception {
+        return browser.count(app.perform(get("/courses").session(browser.session).with(app.student(0))));
+    }
+
+    @Benchmark
+    public MvcResult revalidateCourses(App app, Browser browser) throws Exception {
+        return browser.count(app.perform(revalidate("/courses", browser, browser.coursesETag).with(app.student(0))));
+    }
+
+    @Benchmark
+    public MvcResult renderStudents(App app, Browser browser) throws Exception {
+        return browser.count(app.perform(get("/students").session(browser.session).with(app.student(0))));
+    }
+
+    @Benchmark
+    public MvcResult revalidateStudents(App app, Browser browser) throws Exception {
+        return browser.count(app.perform(revalidate("/students", browser, browser.studentsETag).with(app.student(0))));
+    }
+}
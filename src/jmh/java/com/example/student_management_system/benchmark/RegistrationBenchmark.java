@@ -0,0 +1,66 @@
+package com.example.student_management_system.benchmark;
+
+import com.example.student_management_system.model.User;
+import com.example.student_management_system.service.RegistrationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sustained sign-ups from 16 concurrent callers: registrations/s (Throughput) and latency
+// percentiles incl. p99 (SampleTime), inline on the caller's thread (the old AuthController path)
+// vs through the bounded registration pool.
+//
+// Inline, every caller burns CPU hashing at the same time, so each one is slow. Through the pool
+// only one hash per core runs, the rest queue; throughput is the same (it's CPU bound) but the
+// callers' threads are free while they wait, and once the queue is full the extra ones get a
+// fast rejection (counted in "rejected") instead of a long wait.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(16)
+@Fork(1)
+public class RegistrationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Counter {
+        private final AtomicLong next = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+    }
+
+    private static User newUser(Counter counter) {
+        User user = new User();
+        user.setUsername("reg-" + counter.next.getAndIncrement());
+        user.setPassword(SeededApp.PASSWORD);
+        user.setRole("STUDENT");
+        return user;
+    }
+
+    @Benchmark
+    public User synchronous(SeededApp app, Counter counter) {
+        return app.bean(RegistrationService.class).registerNow(newUser(counter));
+    }
+
+    @Benchmark
+    public User pipeline(SeededApp app, Counter counter) throws InterruptedException {
+        try {
+            return app.bean(RegistrationService.class).register(newUser(counter)).join();
+        } catch (RejectedExecutionException e) {
+            // What the browser would do after a 503: wait for Retry-After and try again later
+            counter.rejected.incrementAndGet();
+            Thread.sleep(100);
+            return null;
+        }
+    }
+}
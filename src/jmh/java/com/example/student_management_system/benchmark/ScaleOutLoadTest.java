@@ -0,0 +1,109 @@
+package com.example.student_management_system.benchmark;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Two app instances behind a round-robin "load balancer" that share the database but nothing else
+// (no session store), logged in with session cookies vs signed tokens (see AuthTokenService):
+//
+//   mvn -P benchmark verify -DskipJmh=true -DskipScaleOutTest=false -Dscaleout.args="-Dload.users=200"
+//
+//   1 node,  sessions   form login, every request to the node that has the session
+//   1 node,  tokens     POST /api/token, then Authorization: Bearer
+//   2 nodes, tokens     tokens from node 1, requests alternate between the nodes: all must succeed
+//   2 nodes, sessions   sessions from node 1, requests alternate: node 2 doesn't know them (redirect to login)
+//
+// Both instances run in this JVM (so on the same CPUs: requests per second per node is what to compare,
+// not the total). Prints throughput, latency and errors per scenario and writes them to
+// target/scale-out-result.json.
+public class ScaleOutLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 200);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 20);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 5);
+    private static final int STUDENTS = Integer.getInteger("load.students", 10_000);
+    private static final String RESULT_FILE = System.getProperty("load.result", "target/scale-out-result.json");
+
+    public static void main(String[] args) throws Exception {
+        // The one thing the instances share besides the database: the key tokens are signed with
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        String secret = "app.auth-token.secret=" + Base64.getEncoder().encodeToString(key);
+
+        SeededApp first = node(secret, true);
+        SeededApp second = null;
+        try {
+            second = node(secret, false);
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+            String node1 = "http://localhost:" + first.port();
+            String node2 = "http://localhost:" + second.port();
+
+            List<String[]> sessions = new ArrayList<>();
+            List<String[]> tokens = new ArrayList<>();
+            for (int u = 0; u < SeededApp.USERS; u++) {
+                sessions.add(HttpLoadTest.login(client, node1, SeededApp.username(u)));
+                tokens.add(HttpLoadTest.token(client, node1, SeededApp.username(u)));
+            }
+
+            Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+            results.put("1 node, sessions", run(client, List.of(node1), sessions));
+            results.put("1 node, tokens", run(client, List.of(node1), tokens));
+            results.put("2 nodes, tokens", run(client, List.of(node1, node2), tokens));
+            results.put("2 nodes, sessions", run(client, List.of(node1, node2), sessions));
+
+            StringBuilder json = new StringBuilder("{\n");
+            results.forEach((scenario, values) -> {
+                List<String> fields = new ArrayList<>();
+                values.forEach((name, value) -> fields.add("\"" + name + "\": " + value));
+                json.append("  \"").append(scenario).append("\": {").append(String.join(", ", fields)).append("},\n");
+            });
+            json.setLength(json.length() - 2);
+            json.append("\n}\n");
+            Files.writeString(Path.of(RESULT_FILE), json);
+            System.out.println(json);
+        } finally {
+            if (second != null) {
+                second.stop();
+            }
+            first.stop();
+        }
+        System.exit(0);
+    }
+
+    private static SeededApp node(String secret, boolean seed) {
+        SeededApp app = new SeededApp() {
+            @Override
+            protected String[] properties() {
+                return new String[]{secret};
+            }
+        };
+        app.students = STUDENTS;
+        app.courses = 200;
+        app.coursesPerStudent = 5;
+        app.seed = seed;
+        app.start();
+        return app;
+    }
+
+    private static Map<String, Object> run(HttpClient client, List<String> nodes, List<String[]> credentials)
+            throws Exception {
+        HttpLoadTest.drive(client, nodes, credentials, USERS, WARMUP_SECONDS);
+        Map<String, Object> result = HttpLoadTest.drive(client, nodes, credentials, USERS, SECONDS);
+        result.put("nodes", nodes.size());
+        result.put("throughputPerNode", (long) result.get("throughputPerSecond") / nodes.size());
+        System.out.printf("%d node(s), %s: %s%n", nodes.size(),
+                credentials.get(0)[0].equals("Cookie") ? "sessions" : "tokens", result);
+        return result;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.student_management_system.benchmark;
+
+import com.example.student_management_system.service.SearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Typeahead over 1M students: the in-memory SearchIndex vs the SQL substring scan
+// (what SearchService falls back to) on H2 in PostgreSQL mode.
+// Only the lookup is measured; loading the 10 hits by primary key is the same for both.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SearchBenchmark {
+
+    private static final String[] FIRST = {"John", "Joanna", "Maria", "Ahmed", "Wei", "Olga", "Carlos", "Fatima",
+            "Liam", "Noah", "Emma", "Mia", "Lucas", "Sofia", "Yuki", "Priya"};
+    private static final String[] LAST = {"Smith", "Smithers", "Garcia", "Khan", "Chen", "Ivanova", "Silva", "Rahman",
+            "Brown", "Jones", "Miller", "Davis", "Lopez", "Tanaka", "Patel", "Novak"};
+
+    @State(Scope.Benchmark)
+    public static class Data {
+
+        @Param("1000000")
+        public int students;
+
+        SearchIndex index;
+        Connection connection;
+        PreparedStatement sqlSearch;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            index = new SearchIndex();
+            connection = DriverManager.getConnection("jdbc:h2:mem:search;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE", "sa", "");
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute("create table students (id bigint primary key, name varchar(255), email varchar(255), department varchar(255))");
+            }
+
+            SplittableRandom random = new SplittableRandom(7);
+            try (PreparedStatement insert = connection.prepareStatement("insert into students values (?, ?, ?, ?)")) {
+                for (int id = 1; id <= students; id++) {
+                    String first = FIRST[random.nextInt(FIRST.length)];
+                    String last = LAST[random.nextInt(LAST.length)] + (char) ('a' + random.nextInt(26)) + random.nextInt(1000);
+                    String name = first + " " + last;
+                    String email = first.toLowerCase() + "." + last.toLowerCase() + id + "@example.com";
+                    String department = "Department " + random.nextInt(50);
+
+                    index.put(id, name, email, department);
+                    insert.setLong(1, id);
+                    insert.setString(2, name);
+                    insert.setString(3, email);
+                    insert.setString(4, department);
+                    insert.addBatch();
+                    if (id % 10_000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+
+            // Same shape as StudentRepository.searchByText
+            sqlSearch = connection.prepareStatement("select id from students " +
+                    "where lower(name) like ? or lower(email) like ? or lower(department) like ? order by id limit 10");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public List<Long> indexPrefix(Data data) {
+        return data.index.search("smithers", 10);
+    }
+
+    @Benchmark
+    public List<Long> indexTwoWords(Data data) {
+        return data.index.search("jo smi", 10);
+    }
+
+    // A prefix nobody has: the whole range is empty, the answer is "nothing"
+    @Benchmark
+    public List<Long> indexNoMatch(Data data) {
+        return data.index.search("zzq", 10);
+    }
+
+    @Benchmark
+    public List<Long> sqlLikeFallback(Data data) throws Exception {
+        return like(data, "%smithers%");
+    }
+
+    @Benchmark
+    public List<Long> sqlLikeNoMatch(Data data) throws Exception {
+        return like(data, "%zzq%");
+    }
+
+    private static List<Long> like(Data data, String pattern) throws Exception {
+        data.sqlSearch.setString(1, pattern);
+        data.sqlSearch.setString(2, pattern);
+        data.sqlSearch.setString(3, pattern);
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet rs = data.sqlSearch.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+}
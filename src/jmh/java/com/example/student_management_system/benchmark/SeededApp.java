@@ -0,0 +1,160 @@
+package com.example.student_management_system.benchmark;
+
+import com.example.student_management_system.StudentManagementSystemApplication;
+import com.example.student_management_system.repository.CourseRepository;
+import com.example.student_management_system.service.DepartmentRegistry;
+import com.example.student_management_system.service.UserAccountCache;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+
+// The whole app (security, controllers, templates, JPA) on an H2 database in PostgreSQL mode,
+// seeded once per benchmark run. Sizes can be changed from the command line:
+//   -Djmh.args="-p students=100000 -p courses=1000"
+@State(Scope.Benchmark)
+public class SeededApp {
+
+    // Students that also have a login: bench-0 ... bench-99 (password "password")
+    public static final int USERS = 100;
+    public static final String PASSWORD = "password";
+    private static final int DEPARTMENTS = 20;
+
+    @Param("10000")
+    public int students;
+
+    @Param("200")
+    public int courses;
+
+    @Param("5")
+    public int coursesPerStudent;
+
+    // false: another instance in this JVM already seeded the (shared, in-memory) database
+    public boolean seed = true;
+
+    public ConfigurableApplicationContext context;
+    public MockMvc mockMvc;
+    public List<Long> courseIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        start(new String[0]);
+    }
+
+    // Also used outside JMH (HttpLoadTest), e.g. with the "virtual-threads" profile
+    public void start(String... extraProfiles) {
+        List<String> profiles = new ArrayList<>(List.of("test", "benchmark"));
+        profiles.addAll(List.of(extraProfiles));
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(StudentManagementSystemApplication.class)
+                .profiles(profiles.toArray(String[]::new))
+                .properties(properties());
+        configure(builder);
+        context = builder.run();
+        if (seed) {
+            seed();
+        } else {
+            courseIds = bean(JdbcTemplate.class).queryForList("select id from courses order by id", Long.class);
+        }
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    // Extra "key=value" settings of the app, for benchmarks that compare two configurations
+    protected String[] properties() {
+        return new String[0];
+    }
+
+    // Anything else about the app, e.g. an initializer that wraps a bean to measure it
+    protected void configure(SpringApplicationBuilder builder) {
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // The real HTTP port (the benchmark profile starts Tomcat on a random one)
+    public int port() {
+        return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    // Logged in as one of the seeded students
+    public RequestPostProcessor student(int index) {
+        return user(username(index)).roles("STUDENT");
+    }
+
+    public static String username(int index) {
+        return "bench-" + index;
+    }
+
+    // Runs a request and fails on 4xx/5xx, so we never benchmark an error page by accident
+    public MvcResult perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        int status = result.getResponse().getStatus();
+        if (status >= 400) {
+            throw new IllegalStateException("Request failed with HTTP " + status);
+        }
+        return result;
+    }
+
+    private void seed() {
+        JdbcTemplate jdbc = bean(JdbcTemplate.class);
+        DepartmentRegistry departmentRegistry = bean(DepartmentRegistry.class);
+
+        List<Long> departmentIds = new ArrayList<>();
+        for (int d = 0; d < DEPARTMENTS; d++) {
+            departmentIds.add(departmentRegistry.resolveId("Department " + d));
+        }
+
+        List<Object[]> courseRows = new ArrayList<>();
+        for (int c = 0; c < courses; c++) {
+            courseRows.add(new Object[]{"Course " + c, "Description of course " + c});
+        }
+        jdbc.batchUpdate("insert into courses (title, description, seats_taken) values (?, ?, 0)", courseRows);
+        courseIds = jdbc.queryForList("select id from courses order by id", Long.class);
+
+        // Students get ids 1..N, the sequence continues after them
+        List<Object[]> studentRows = new ArrayList<>();
+        List<Object[]> enrollmentRows = new ArrayList<>();
+        for (int s = 1; s <= students; s++) {
+            studentRows.add(new Object[]{(long) s, "Student " + s, "student" + s + "@example.com", departmentIds.get(s % DEPARTMENTS)});
+            for (int k = 0; k < Math.min(coursesPerStudent, courses); k++) {
+                enrollmentRows.add(new Object[]{(long) s, courseIds.get((s + k) % courses)});
+            }
+        }
+        jdbc.batchUpdate("insert into students (id, name, email, department_id) values (?, ?, ?, ?)", studentRows);
+        jdbc.execute("alter sequence students_seq restart with " + (students + 1000));
+        jdbc.batchUpdate("insert into student_courses (student_id, course_id) values (?, ?)", enrollmentRows);
+        bean(CourseRepository.class).recountSeats();
+
+        String passwordHash = bean(PasswordEncoder.class).encode(PASSWORD);
+        for (int u = 0; u < Math.min(USERS, students); u++) {
+            jdbc.update("insert into users (username, password, role) values (?, ?, 'ROLE_STUDENT')", username(u), passwordHash);
+            jdbc.update("update students set user_id = (select id from users where username = ?) where id = ?", username(u), u + 1L);
+        }
+        bean(UserAccountCache.class).evictAll();
+    }
+}
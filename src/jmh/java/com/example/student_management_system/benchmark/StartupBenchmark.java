@@ -0,0 +1,226 @@
+package com.example.student_management_system.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Startup time of the packaged app, default vs fast startup (see the fast-startup profile in pom.xml):
+//
+//   mvn -P fast-startup,benchmark verify -DskipJmh=true -DskipStartupTest=false -Dstartup.args="-Dstartup.runs=5"
+//
+// Every run starts the app in a new JVM (on an empty in-memory H2 database) and measures the time until
+// the first GET /students answers 200: the time until the login page is up, plus signing up, logging in
+// and rendering the page, which with lazy initialization still creates some beans.
+//   default: java -cp application.jar ...
+//   fast:    AOT + a CDS archive + the fast-startup Spring profile (lazy beans, templates parsed at startup)
+// The CDS archive of the fast runs is made here by a training run, because it has to match the classpath
+// (the one built by the profile is for java -jar without H2). The modes take turns, so a busy machine
+// slows both down. Prints the medians and writes all runs to target/startup-result.json.
+public class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+    private static final int TIMEOUT_SECONDS = Integer.getInteger("startup.timeoutSeconds", 180);
+    private static final String JAR = System.getProperty("startup.jar", "target/fast-startup/application.jar");
+    private static final String RESULT_FILE = System.getProperty("startup.result", "target/startup-result.json");
+
+    private static final String MAIN_CLASS = "com.example.student_management_system.StudentManagementSystemApplication";
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"[^>]*value=\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(JAR).toAbsolutePath();
+        if (!Files.exists(jar)) {
+            throw new IllegalStateException(jar + " not found, build it with mvn -P fast-startup package");
+        }
+        Path archive = jar.resolveSibling("startup-benchmark.jsa");
+        String classpath = jar + File.pathSeparator + h2Jar();
+
+        System.out.println("Training run for the CDS archive " + archive);
+        List<String> training = new ArrayList<>(List.of("-XX:ArchiveClassesAtExit=" + archive,
+                "-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-startup", "-Dspring.context.exit=onRefresh"));
+        Process trainingRun = launch(jar, classpath, training, freePort(), "training");
+        if (trainingRun.waitFor() != 0 || !Files.exists(archive)) {
+            throw new IllegalStateException("Training run failed, see " + log(jar, "training"));
+        }
+
+        List<String> fast = List.of("-XX:SharedArchiveFile=" + archive,
+                "-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-startup");
+        Map<String, List<long[]>> runs = new LinkedHashMap<>();
+        runs.put("default", new ArrayList<>());
+        runs.put("fast", new ArrayList<>());
+        for (int run = 1; run <= RUNS; run++) {
+            for (String mode : runs.keySet()) {
+                long[] times = measure(jar, classpath, mode.equals("fast") ? fast : List.of(), mode + "-" + run);
+                System.out.printf("[%s] run %d: login page after %d ms, first GET /students after %d ms%n",
+                        mode, run, times[0], times[1]);
+                runs.get(mode).add(times);
+            }
+        }
+
+        StringBuilder json = new StringBuilder("{\n");
+        Map<String, Long> medians = new LinkedHashMap<>();
+        runs.forEach((mode, times) -> {
+            long[] ready = times.stream().mapToLong(t -> t[0]).sorted().toArray();
+            long[] firstPage = times.stream().mapToLong(t -> t[1]).sorted().toArray();
+            medians.put(mode, median(firstPage));
+            json.append("  \"").append(mode).append("\": {\"runs\": ").append(times.size())
+                    .append(", \"medianLoginPageMs\": ").append(median(ready))
+                    .append(", \"medianFirstStudentsMs\": ").append(median(firstPage))
+                    .append(", \"firstStudentsMs\": ").append(Arrays.toString(firstPage)).append("},\n");
+        });
+        json.append("  \"speedup\": ")
+                .append(String.format("%.2f", medians.get("default") / (double) medians.get("fast")))
+                .append("\n}\n");
+        Files.writeString(Path.of(RESULT_FILE), json);
+        System.out.println(json);
+        System.exit(0);
+    }
+
+    // {ms until GET /login answers, ms until the first GET /students answers 200}, from the launch
+    private static long[] measure(Path jar, String classpath, List<String> jvmOptions, String name) throws Exception {
+        int port = freePort();
+        String base = "http://localhost:" + port;
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+
+        long start = System.nanoTime();
+        Process app = launch(jar, classpath, jvmOptions, port, name);
+        try {
+            HttpResponse<String> loginPage = waitForLoginPage(client, base, app, start, log(jar, name));
+            long ready = (System.nanoTime() - start) / 1_000_000;
+
+            String session = signUpAndLogIn(client, base, loginPage);
+            HttpResponse<Void> students = client.send(HttpRequest.newBuilder(URI.create(base + "/students"))
+                    .header("Cookie", session).build(), HttpResponse.BodyHandlers.discarding());
+            long firstPage = (System.nanoTime() - start) / 1_000_000;
+            if (students.statusCode() != 200) {
+                throw new IllegalStateException("GET /students answered " + students.statusCode()
+                        + ", see " + log(jar, name));
+            }
+            return new long[]{ready, firstPage};
+        } finally {
+            app.destroy();
+            app.waitFor();
+        }
+    }
+
+    private static Process launch(Path jar, String classpath, List<String> jvmOptions, int port, String name)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-cp", classpath, MAIN_CLASS,
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                // Sign-up and login hash a password: keep that out of the startup time
+                "--app.password.bcrypt-strength=4",
+                "--spring.main.banner-mode=off"));
+        return new ProcessBuilder(command)
+                .directory(jar.getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log(jar, name).toFile())
+                .start();
+    }
+
+    private static HttpResponse<String> waitForLoginPage(HttpClient client, String base, Process app, long start,
+                                                         Path log) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/login")).build();
+        while (System.nanoTime() - start < TIMEOUT_SECONDS * 1_000_000_000L) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("The app stopped, see " + log);
+            }
+            try {
+                HttpResponse<String> page = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (page.statusCode() == 200) {
+                    return page;
+                }
+            } catch (IOException notListeningYet) {
+                // Tomcat isn't accepting connections yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No login page after " + TIMEOUT_SECONDS + " s, see " + log);
+    }
+
+    // Like a browser: sign up on the form, then log in with the CSRF token of the login page
+    private static String signUpAndLogIn(HttpClient client, String base, HttpResponse<String> loginPage)
+            throws Exception {
+        HttpResponse<String> signupPage = client.send(HttpRequest.newBuilder(URI.create(base + "/signup")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        String cookie = sessionCookie(signupPage, "");
+        HttpResponse<Void> registered = post(client, base + "/register", cookie,
+                "username=startup&password=password&role=ROLE_TEACHER&_csrf=" + csrf(signupPage));
+        if (registered.statusCode() >= 400) {
+            throw new IllegalStateException("Sign-up failed: " + registered.statusCode());
+        }
+
+        cookie = sessionCookie(loginPage, "");
+        HttpResponse<Void> loggedIn = post(client, base + "/login", cookie,
+                "username=startup&password=password&_csrf=" + csrf(loginPage));
+        if (loggedIn.headers().firstValue("Location").orElse("").contains("error")) {
+            throw new IllegalStateException("Login failed");
+        }
+        return sessionCookie(loggedIn, cookie);
+    }
+
+    private static HttpResponse<Void> post(HttpClient client, String url, String cookie, String form) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .header("Cookie", cookie)
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static String csrf(HttpResponse<String> page) {
+        Matcher csrf = CSRF.matcher(page.body());
+        if (!csrf.find()) {
+            throw new IllegalStateException("No CSRF token on " + page.uri());
+        }
+        return csrf.group(1);
+    }
+
+    private static String sessionCookie(HttpResponse<?> response, String current) {
+        return response.headers().firstValue("Set-Cookie")
+                .map(setCookie -> setCookie.contains(";") ? setCookie.substring(0, setCookie.indexOf(';')) : setCookie)
+                .orElse(current);
+    }
+
+    // The H2 driver of this (test) classpath; the packaged app only has the PostgreSQL driver
+    private static String h2Jar() throws Exception {
+        return Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+    private static Path log(Path jar, String name) {
+        return jar.resolveSibling("startup-" + name + ".log");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+}
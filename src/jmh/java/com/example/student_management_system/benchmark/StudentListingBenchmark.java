@@ -0,0 +1,92 @@
+package com.example.student_management_system.benchmark;
+
+import com.example.student_management_system.dto.StudentPage;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.StudentRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// GET /students (StudentController.listStudents), full request incl. security and the Thymeleaf page,
+// against the same request for the page as it used to be (every student at once).
+// The student count is this benchmark's own parameter: -Djmh.args="-p rows=100000 StudentListing"
+// The baseline with a million rows renders a page of a million rows: seconds per call and a big heap.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class StudentListingBenchmark {
+
+    static final String FIND_ALL_PATH = "/benchmark/students/all";
+
+    @State(Scope.Benchmark)
+    public static class App extends SeededApp {
+
+        @Param({"10000", "100000", "1000000"})
+        public int rows;
+
+        @Override
+        public void start() {
+            students = rows;
+            coursesPerStudent = 1; // the list doesn't show enrollments; keeps a million students within the heap
+            super.start();
+        }
+
+        // The old page: StudentController.listStudents loaded every student and rendered them all
+        @Override
+        protected void configure(SpringApplicationBuilder builder) {
+            builder.initializers((ApplicationContextInitializer<GenericApplicationContext>) context ->
+                    context.registerBean("findAllStudents", RouterFunction.class, () -> RouterFunctions.route()
+                            .GET(FIND_ALL_PATH, request -> {
+                                List<Student> all = context.getBean(StudentRepository.class).findAll();
+                                return ServerResponse.ok().render("students", Map.of(
+                                        "students", all,
+                                        "page", new StudentPage(all, null, null, all.size(), null)));
+                            })
+                            .build()));
+        }
+    }
+
+    @Benchmark
+    public MvcResult firstPage(App app) throws Exception {
+        return app.perform(get("/students").with(app.student(0)));
+    }
+
+    // Keyset pagination: the last page should cost the same as the first one
+    @Benchmark
+    public MvcResult lastPage(App app) throws Exception {
+        return app.perform(get("/students").param("after", String.valueOf(app.students - 20)).with(app.student(0)));
+    }
+
+    @Benchmark
+    public MvcResult departmentFilter(App app) throws Exception {
+        return app.perform(get("/students").param("dept", "Department 3").with(app.student(0)));
+    }
+
+    // Baseline: what the page used to do (load and render every student), through the same MockMvc stack
+    @Benchmark
+    public MvcResult findAllBaseline(App app) throws Exception {
+        return app.perform(get(FIND_ALL_PATH).with(app.student(0)));
+    }
+}
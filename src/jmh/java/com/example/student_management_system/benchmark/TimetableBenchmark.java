@@ -0,0 +1,179 @@
+package com.example.student_management_system.benchmark;
+
+import com.example.student_management_system.dto.CourseMeeting;
+import com.example.student_management_system.service.TimetableIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Clash checks per second against a 20k-section catalog, for a student with 10 courses:
+// the in-memory TimetableIndex vs the same questions in SQL (H2 in PostgreSQL mode, same columns as V5).
+//   studentClash: does the next course overlap one of the student's 10?
+//   roomClash:    is the room of a new section already booked at that time?
+// Every call picks the next of 1024 pre-generated candidates, so neither side answers the same question twice in a row.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimetableBenchmark {
+
+    private static final int CANDIDATES = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Data {
+
+        @Param("20000")
+        public int sections;
+
+        @Param("10")
+        public int studentCourses;
+
+        @Param("400")
+        public int rooms;
+
+        TimetableIndex index;
+        List<Long> enrolled;
+        long[] candidateIds;
+        CourseMeeting[] newSections;
+        int next;
+
+        Connection connection;
+        PreparedStatement sqlStudentClash;
+        PreparedStatement sqlRoomClash;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            index = new TimetableIndex();
+            connection = DriverManager.getConnection("jdbc:h2:mem:timetable;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE", "sa", "");
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute("create table courses (id bigint primary key, title varchar(255), meeting_day varchar(9), "
+                        + "start_time time, end_time time, room varchar(255))");
+                ddl.execute("create table student_courses (student_id bigint, course_id bigint, primary key (student_id, course_id))");
+            }
+
+            SplittableRandom random = new SplittableRandom(11);
+            try (PreparedStatement insert = connection.prepareStatement("insert into courses values (?, ?, ?, ?, ?, ?)")) {
+                for (int id = 1; id <= sections; id++) {
+                    CourseMeeting meeting = randomMeeting(random, id, rooms);
+                    index.put(meeting);
+                    insert.setLong(1, id);
+                    insert.setString(2, meeting.title());
+                    insert.setString(3, meeting.day().name());
+                    insert.setTime(4, Time.valueOf(meeting.start()));
+                    insert.setTime(5, Time.valueOf(meeting.end()));
+                    insert.setString(6, meeting.room());
+                    insert.addBatch();
+                    if (id % 5_000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+
+            // Student 1 takes 10 random sections
+            enrolled = new ArrayList<>();
+            try (PreparedStatement insert = connection.prepareStatement("insert into student_courses values (1, ?)")) {
+                while (enrolled.size() < studentCourses) {
+                    long id = 1 + random.nextInt(sections);
+                    if (!enrolled.contains(id)) {
+                        enrolled.add(id);
+                        insert.setLong(1, id);
+                        insert.executeUpdate();
+                    }
+                }
+            }
+
+            candidateIds = new long[CANDIDATES];
+            newSections = new CourseMeeting[CANDIDATES];
+            for (int i = 0; i < CANDIDATES; i++) {
+                candidateIds[i] = 1 + random.nextInt(sections);
+                newSections[i] = randomMeeting(random, sections + 1L + i, rooms);
+            }
+
+            // What a pairwise SQL check looks like: join the student's courses and compare each with the candidate
+            sqlStudentClash = connection.prepareStatement("select e.id from student_courses sc "
+                    + "join courses e on e.id = sc.course_id join courses c on c.id = ? "
+                    + "where sc.student_id = 1 and e.id <> c.id and e.meeting_day = c.meeting_day "
+                    + "and e.start_time < c.end_time and c.start_time < e.end_time");
+            sqlRoomClash = connection.prepareStatement("select id from courses "
+                    + "where lower(trim(room)) = ? and meeting_day = ? and start_time < ? and ? < end_time");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            connection.close();
+        }
+
+        int next() {
+            return next++ & (CANDIDATES - 1);
+        }
+    }
+
+    @Benchmark
+    public List<CourseMeeting> indexStudentClash(Data data) {
+        return data.index.conflicts(data.enrolled, data.candidateIds[data.next()]);
+    }
+
+    @Benchmark
+    public List<Long> sqlStudentClash(Data data) throws Exception {
+        data.sqlStudentClash.setLong(1, data.candidateIds[data.next()]);
+        return ids(data.sqlStudentClash);
+    }
+
+    @Benchmark
+    public List<CourseMeeting> indexRoomClash(Data data) {
+        return data.index.roomConflicts(data.newSections[data.next()]);
+    }
+
+    @Benchmark
+    public List<Long> sqlRoomClash(Data data) throws Exception {
+        CourseMeeting meeting = data.newSections[data.next()];
+        data.sqlRoomClash.setString(1, meeting.room().trim().toLowerCase());
+        data.sqlRoomClash.setString(2, meeting.day().name());
+        data.sqlRoomClash.setTime(3, Time.valueOf(meeting.end()));
+        data.sqlRoomClash.setTime(4, Time.valueOf(meeting.start()));
+        return ids(data.sqlRoomClash);
+    }
+
+    // Weekdays 08:00-20:00, 50 to 180 minutes, on the quarter hour
+    private static CourseMeeting randomMeeting(SplittableRandom random, long id, int rooms) {
+        LocalTime start = LocalTime.of(8, 0).plusMinutes(15L * random.nextInt(40));
+        LocalTime end = start.plusMinutes(50 + 10L * random.nextInt(14));
+        return new CourseMeeting(id, "Section " + id, DayOfWeek.of(1 + random.nextInt(5)), start, end,
+                "Room " + random.nextInt(rooms));
+    }
+
+    private static List<Long> ids(PreparedStatement query) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+}
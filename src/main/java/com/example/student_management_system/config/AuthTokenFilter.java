@@ -0,0 +1,63 @@
+package com.example.student_management_system.config;
+
+import com.example.student_management_system.service.AuthTokenService;
+import com.example.student_management_system.service.AuthTokenService.AuthToken;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+// Logs in requests that carry "Authorization: Bearer <token>" (see AuthTokenService), for this request only.
+// A token that is not ours or has expired is answered with 401 right away.
+// Only used in SecurityConfig.tokenFilterChain, so it is not a @Component (that would add it to every request).
+public class AuthTokenFilter extends OncePerRequestFilter {
+
+    static final String BEARER = "Bearer ";
+
+    private final AuthTokenService authTokenService;
+
+    public AuthTokenFilter(AuthTokenService authTokenService) {
+        this.authTokenService = authTokenService;
+    }
+
+    static boolean hasBearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!hasBearerToken(request)) {
+            chain.doFilter(request, response); // POST /api/token, which hands the tokens out
+            return;
+        }
+        AuthToken token = authTokenService.decode(request.getHeader(HttpHeaders.AUTHORIZATION)
+                .substring(BEARER.length()).trim());
+        if (token == null) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired token");
+            return;
+        }
+
+        // The token is the principal, so controllers get the Student/Teacher id without a lookup
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                token, null, List.of(new SimpleGrantedAuthority(token.role()))));
+        SecurityContextHolder.setContext(context);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.student_management_system.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+
+// Picks the BCrypt cost (work factor) for this machine at startup.
+//
+// Every +1 on the cost doubles the hashing time. We time a few hashes at the minimum cost and
+// go up while the estimated time stays within the target (app.password.target-hash-time).
+// A faster server therefore gets a stronger hash, a slow one is never made weaker than min-strength.
+public final class BCryptCostCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        String salt = BCrypt.gensalt(minStrength);
+        BCrypt.hashpw("calibration", salt); // warm-up (class loading, JIT)
+
+        // Fastest of a few runs, so a GC pause or a busy neighbour doesn't push the cost down
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        long estimate = best;
+        while (strength < maxStrength && estimate * 2 <= target.toNanos()) {
+            strength++;
+            estimate *= 2;
+        }
+
+        log.info("BCrypt cost {} selected: ~{} ms per hash (cost {} measured {} ms, target {} ms)",
+                strength, estimate / 1_000_000, minStrength, best / 1_000_000, target.toMillis());
+        return strength;
+    }
+}
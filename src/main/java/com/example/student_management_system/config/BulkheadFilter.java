@@ -0,0 +1,134 @@
+package com.example.student_management_system.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Caps how many requests run at the same time (app.bulkhead.max-concurrent).
+//
+// With virtual threads every incoming request gets a thread, so thousands of them can end up
+// waiting for the ~20 database connections. Here extra requests wait their turn (fair, up to
+// app.bulkhead.max-wait) and are then turned away with 503 + Retry-After instead of piling up.
+// An async request (the streamed CSV export, sign-up) keeps its permit until it completes, not just
+// until the servlet thread returns: it goes on using its database connection after that.
+// Enabled by the virtual-threads profile (app.bulkhead.enabled=true).
+@Component
+@ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 3) // inside RequestMetricsFilter, so rejected requests are measured too
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private Counter rejected;
+
+    public BulkheadFilter(@Value("${app.bulkhead.max-concurrent:40}") int maxConcurrent,
+                          @Value("${app.bulkhead.max-wait:2s}") Duration maxWait,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("app.bulkhead.active", permits, p -> maxConcurrent - p.availablePermits()).register(registry);
+            Gauge.builder("app.bulkhead.waiting", permits, Semaphore::getQueueLength).register(registry);
+            rejected = Counter.builder("app.bulkhead.rejected").register(registry);
+        });
+    }
+
+    // Health checks and static files never touch the database
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/actuator/") || path.startsWith("/css/") || path.startsWith("/js/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            if (rejected != null) {
+                rejected.increment();
+            }
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server busy, please retry");
+            return;
+        }
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permits.release();
+            }
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    // Gives the permit back once the async request is over (complete, error and timeout: only once)
+    private class ReleaseOnCompletion implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        // Async started again (a further dispatch): listeners have to be added again
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.student_management_system.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.CacheSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hibernate second-level cache for the reference data (departments, teachers, courses, enrollments) and
+// a query cache for DepartmentRepository.findByName / TeacherRepository.findByUser.
+//
+// - Entities are cached READ_WRITE: saves through Hibernate update or evict the entry when they commit.
+// - Bulk and native UPDATE/DELETE statements evict what they touch: JPQL updates clear their entity's
+//   region, native ones declare their tables with the HINT_NATIVE_SPACES query hint (otherwise
+//   Hibernate would have to clear the whole cache). The seat counters, changed on every enrollment, evict
+//   only their course instead (see CourseRepository.reserveSeat). Changes made outside the app (plain SQL in psql)
+//   are only seen once the entries are evicted, e.g. by a restart.
+// - Switch: app.entity-cache.enabled=false starts without any second-level/query cache.
+// Hit/miss counts: cache.gets{cache=departments,result=hit|miss} etc. under /actuator/metrics.
+@Configuration
+@ConditionalOnProperty(name = "app.entity-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class EntityCacheConfig {
+
+    // Region name -> maximum entries. The regions are named in the @Cache annotations of the entities.
+    static final Map<String, Long> REGIONS = new LinkedHashMap<>();
+
+    static {
+        REGIONS.put("departments", 1_000L);
+        REGIONS.put("departments.teachers", 1_000L);
+        REGIONS.put("teachers", 10_000L);
+        REGIONS.put("teachers.courses", 10_000L);
+        REGIONS.put("courses", 10_000L);
+        REGIONS.put("courses.enrollments", 10_000L);
+        REGIONS.put("enrollments", 100_000L);
+        REGIONS.put("default-query-results-region", 10_000L);
+    }
+
+    // When each table last changed; must never lose entries, or a stale query result could be used
+    static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    private static final AtomicInteger MANAGERS = new AtomicInteger();
+
+    // Its own cache manager per application context (tests start several against different databases)
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(ObjectProvider<MeterRegistry> meterRegistry) {
+        CachingProvider provider = Caching.getCachingProvider("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("entity-cache-" + MANAGERS.incrementAndGet()), getClass().getClassLoader());
+
+        REGIONS.forEach((region, maximumSize) -> cacheManager.createCache(region, configuration(OptionalLong.of(maximumSize))));
+        cacheManager.createCache(TIMESTAMPS_REGION, configuration(OptionalLong.empty()));
+
+        meterRegistry.ifAvailable(registry -> cacheManager.getCacheNames().forEach(name ->
+                JCacheMetrics.monitor(registry, cacheManager.getCache(name))));
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(OptionalLong maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maximumSize);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(CacheSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(CacheSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(CacheSettings.USE_QUERY_CACHE, true);
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            // A region without a cache above is a mistake in the mapping, but should not stop the app
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+        };
+    }
+}
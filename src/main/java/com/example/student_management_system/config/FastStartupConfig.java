@@ -0,0 +1,39 @@
+package com.example.student_management_system.config;
+
+import com.example.student_management_system.metrics.EntityLoadCounter;
+import com.example.student_management_system.service.ChangeOutboxListener;
+import com.example.student_management_system.service.EnrollmentService;
+import com.example.student_management_system.service.EnrollmentStats;
+import com.example.student_management_system.service.EnrollmentStatsListener;
+import com.example.student_management_system.service.OutboxRelay;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+
+import javax.sql.DataSource;
+
+// The fast-startup profile (application-fast-startup.properties) creates beans on first use instead of
+// at startup. These are still created at startup:
+// - the database, Flyway and Hibernate: a wrong password or schema should stop the app, not the first request
+// - security and the password encoder (the BCrypt calibration takes a moment, better not on the first login)
+// - beans that hook themselves into Hibernate or the scheduler when they are created: created later,
+//   they would miss the events that happened before (and the counters would be wrong)
+// - LoginMetrics, so app.logins is there before the first login
+// - EnrollmentService, so clicks left in the write-behind journal are written at startup, not at the first click
+//
+// Not tied to the profile: with AOT (see the fast-startup profile in pom.xml) the beans are fixed at
+// build time, and without lazy initialization the filter is never asked.
+@Configuration
+public class FastStartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class,
+                SecurityFilterChain.class, PasswordEncoder.class,
+                EntityLoadCounter.class, EnrollmentStatsListener.class, EnrollmentStats.class, LoginMetrics.class,
+                ChangeOutboxListener.class, OutboxRelay.class, EnrollmentService.class);
+    }
+}
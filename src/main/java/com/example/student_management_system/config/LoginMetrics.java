@@ -0,0 +1,31 @@
+package com.example.student_management_system.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+// Login throughput: app.logins with tag result=success|failure (the rate is logins per second)
+@Component
+public class LoginMetrics {
+
+    private final Counter successes;
+    private final Counter failures;
+
+    public LoginMetrics(MeterRegistry meterRegistry) {
+        this.successes = Counter.builder("app.logins").tag("result", "success").register(meterRegistry);
+        this.failures = Counter.builder("app.logins").tag("result", "failure").register(meterRegistry);
+    }
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        successes.increment();
+    }
+
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        failures.increment();
+    }
+}
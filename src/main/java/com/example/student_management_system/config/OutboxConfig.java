@@ -0,0 +1,42 @@
+package com.example.student_management_system.config;
+
+import com.example.student_management_system.service.BrokerOutboxSink;
+import com.example.student_management_system.service.FileOutboxSink;
+import com.example.student_management_system.service.InMemoryOutboxSink;
+import com.example.student_management_system.service.OutboxSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Picks the sink OutboxRelay publishes the change events to (app.outbox.sink):
+//   none    events are only numbered; consumers read them with GET /api/events
+//   file    one JSON line per event in app.outbox.file
+//   memory  a bounded in-process queue (app.outbox.queue-size)
+//   broker  a partitioned, Kafka-like stand-in (app.outbox.broker.*)
+// Chosen when the bean is created, not with @ConditionalOnProperty: that is fixed at build time with AOT.
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public OutboxSink outboxSink(ObjectMapper objectMapper,
+                                 @Value("${app.outbox.sink:none}") String sink,
+                                 @Value("${app.outbox.file:outbox/events.jsonl}") Path file,
+                                 @Value("${app.outbox.queue-size:10000}") int queueSize,
+                                 @Value("${app.outbox.broker.partitions:8}") int partitions,
+                                 @Value("${app.outbox.broker.latency:2ms}") Duration latency,
+                                 @Value("${app.outbox.broker.retention:100000}") int retention) throws IOException {
+        return switch (sink.trim().toLowerCase()) {
+            case "none" -> events -> { };
+            case "file" -> new FileOutboxSink(file, objectMapper);
+            case "memory" -> new InMemoryOutboxSink(queueSize);
+            case "broker" -> new BrokerOutboxSink(partitions, latency, retention);
+            default -> throw new IllegalArgumentException(
+                    "app.outbox.sink must be none, file, memory or broker, not '" + sink + "'");
+        };
+    }
+}
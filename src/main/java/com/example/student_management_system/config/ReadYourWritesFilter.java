@@ -0,0 +1,82 @@
+package com.example.student_management_system.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+// Read your own writes with read replicas (registered by ReplicaDataSourceConfig).
+//
+// A replica may be up to max-lag behind, so right after a teacher saves a course, the redirect to the
+// list could be served by a replica that does not have it yet. A request that writes (POST, PUT, PATCH,
+// DELETE, and the delete link) sets a cookie: for the next max-lag that client's reads go to the primary
+// (ReplicaRoutingDataSource.pinToPrimary). A cookie, not the session, so it works on any instance.
+@Order(Ordered.HIGHEST_PRECEDENCE + 4) // inside BulkheadFilter
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "primary-until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean writes = isWrite(request);
+        if (writes) {
+            // Before the chain: once the handler has redirected, the response is committed
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(now + window.toMillis()));
+            cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+        }
+        if (writes || pinnedUntil(request) > now) {
+            ReplicaRoutingDataSource.pinToPrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.unpin();
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        // The one write behind a GET link (students list)
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/students/delete/");
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    try {
+                        return Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.student_management_system.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Sends read-only transactions to read replicas (app.datasource.replicas.enabled=true).
+//
+// The app's DataSource becomes a LazyConnectionDataSourceProxy: it only takes a real connection
+// when the first statement runs. By then Spring knows whether the transaction is read-only
+// (@Transactional(readOnly = true), and Spring Data's own find*/count* methods, which are
+// read-only by default), and ReplicaRoutingDataSource hands out a replica connection for those.
+// Everything else (save, delete, @Modifying queries, TransactionTemplate) stays on the primary.
+//
+// Replicas lag behind the primary a little. Code that must read its own writes has to run in a
+// read-write transaction (e.g. StudentController.updateStudent, UserAccountCache). A client that has
+// just written reads from the primary for max-lag (ReadYourWritesFilter), so it sees what it saved.
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    // The primary pool, configured by spring.datasource.* like before
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.datasource.replicas.urls}") List<String> urls,
+            @Value("${app.datasource.replicas.username:}") String username,
+            @Value("${app.datasource.replicas.password:}") String password,
+            @Value("${app.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${app.datasource.replicas.max-lag:5s}") Duration maxLag,
+            @Value("${app.datasource.replicas.check-interval:2s}") Duration checkInterval,
+            @Value("${app.datasource.replicas.lag-query:" + DEFAULT_LAG_QUERY + "}") String lagQuery) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(urls.get(i).trim());
+            pool.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            pool.setPassword(username.isEmpty() ? properties.determinePassword() : password);
+            pool.setDriverClassName(properties.determineDriverClassName());
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            pool.setConnectionTimeout(2000);        // a dead replica should fail over quickly
+            pool.setInitializationFailTimeout(-1);  // start even if the replica is down right now
+            meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, pool));
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas, lagQuery, maxLag, checkInterval);
+        meterRegistry.ifAvailable(routing::bindMetrics);
+        return routing;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(@Value("${app.datasource.replicas.max-lag:5s}") Duration maxLag) {
+        return new ReadYourWritesFilter(maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaDataSource) {
+        // The lazy proxy asks for the real connection after the transaction has started, so the
+        // routing can see the read-only flag (Hibernate opens its connection before that)
+        return new LazyConnectionDataSourceProxy(replicaDataSource);
+    }
+
+    // PostgreSQL streaming replica: seconds since the last replayed transaction, or 0 when it has replayed
+    // everything it received (an idle primary must not make the replica look "behind")
+    static final String DEFAULT_LAG_QUERY = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+}
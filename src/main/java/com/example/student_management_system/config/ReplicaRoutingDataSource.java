@@ -0,0 +1,192 @@
+package com.example.student_management_system.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Picks the database for each new connection (see ReplicaDataSourceConfig).
+//
+// - Inside a read-only transaction -> a replica. Everything else -> the primary.
+// - Replicas are used round-robin, but only while they are "available": every check-interval
+//   we run the lag query on each replica. A replica that cannot be reached, or is more than
+//   max-lag behind the primary, is skipped until a later check says it has caught up.
+// - When no replica is available (or getting a connection fails), the read goes to the primary.
+//   Slower, but never wrong.
+// - A request pinned to the primary (ReadYourWritesFilter: the client has just written) reads from the primary too.
+// Metrics: app.datasource.readonly.connections{target=replica-1|...|primary},
+// app.datasource.replica.lag{replica} (seconds), app.datasource.replica.available{replica} (1/0).
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // One replica pool plus what the last lag check said about it
+    public static final class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean available;
+        private volatile double lagSeconds = -1;
+        private Counter connections;
+
+        public Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public double getLagSeconds() {
+            return lagSeconds;
+        }
+    }
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService checker;
+    private Counter primaryConnections;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, String lagQuery,
+                                    Duration maxLag, Duration checkInterval) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.checker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Replicas start as unavailable; the first check runs right away in the background
+        checker.scheduleWithFixedDelay(this::checkReplicas, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        primaryConnections = connectionsCounter(meterRegistry, "primary");
+        for (Replica replica : replicas) {
+            replica.connections = connectionsCounter(meterRegistry, replica.name);
+            Gauge.builder("app.datasource.replica.lag", replica, Replica::getLagSeconds)
+                    .tag("replica", replica.name).baseUnit("seconds").register(meterRegistry);
+            Gauge.builder("app.datasource.replica.available", replica, r -> r.available ? 1 : 0)
+                    .tag("replica", replica.name).register(meterRegistry);
+        }
+    }
+
+    private static Counter connectionsCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("app.datasource.readonly.connections").tag("target", target).register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+        if (PINNED_TO_PRIMARY.get() != null) {
+            increment(primaryConnections);
+            return primary.getConnection();
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                increment(replica.connections);
+                return connection;
+            } catch (SQLException e) {
+                markUnavailable(replica, e.getMessage());
+            }
+        }
+        increment(primaryConnections);
+        return primary.getConnection();
+    }
+
+    // Like the Hikari pools behind it: credentials are configured per pool, not per connection
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Credentials are configured per pool");
+    }
+
+    // Read-only transactions on this thread use the primary until unpinned
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    // Runs the lag query on every replica and updates which ones may serve reads
+    public synchronized void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                double lag = rs.next() ? rs.getDouble(1) : 0;
+                replica.lagSeconds = lag;
+                if (lag * 1000 > maxLag.toMillis()) {
+                    markUnavailable(replica, String.format("%.1f s behind the primary", lag));
+                } else if (!replica.available) {
+                    replica.available = true;
+                    log.info("Replica {} is serving reads ({} s behind)", replica.name, lag);
+                }
+            } catch (SQLException | RuntimeException e) {
+                markUnavailable(replica, e.getMessage());
+            }
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    private void markUnavailable(Replica replica, String reason) {
+        if (replica.available) {
+            log.warn("Replica {} taken out of rotation, reads go to the primary: {}", replica.name, reason);
+        }
+        replica.available = false;
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @Override
+    public void close() {
+        checker.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+}
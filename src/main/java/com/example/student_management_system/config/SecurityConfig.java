@@ -1,45 +1,64 @@
 package com.example.student_management_system.config;
 
 // --- THESE IMPORTS ARE CRITICAL ---
+import com.example.student_management_system.service.AuthTokenService;
 import com.example.student_management_system.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AuthenticationEventPublisher;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider; // <--- THIS FIXES YOUR ERROR
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AuthorizeHttpRequestsConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 // ----------------------------------
 
+import java.time.Duration;
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     // 1. Password Encoder (Makes passwords secure)
+    // Hashes are stored as "{bcrypt}$2a$<cost>$...". The cost is picked at startup for this machine
+    // (BCryptCostCalibrator) unless app.password.bcrypt-strength pins it. Older hashes without the
+    // "{bcrypt}" prefix, or with a lower cost, still match and are rehashed on the next successful
+    // login (see CustomUserDetailsService.updatePassword).
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.password.bcrypt-strength:0}") int strength,
+                                           @Value("${app.password.target-hash-time:250ms}") Duration targetHashTime,
+                                           @Value("${app.password.min-strength:10}") int minStrength,
+                                           @Value("${app.password.max-strength:16}") int maxStrength,
+                                           MeterRegistry meterRegistry) {
+        int cost = strength > 0 ? strength : BCryptCostCalibrator.calibrate(targetHashTime, minStrength, maxStrength);
+        Gauge.builder("app.password.bcrypt.strength", () -> cost).register(meterRegistry);
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt); // hashes saved before the "{bcrypt}" prefix
+        return new TimedPasswordEncoder(encoder, meterRegistry);
     }
 
     // 2. Security Filter Chain (Rules)
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
-                .authorizeHttpRequests((requests) -> requests
-                        // Allow everyone to see Home, Login, and Signup pages
-                        .requestMatchers("/", "/signup", "/register", "/login").permitAll()
-
-                        // RESTRICTED AREAS
-                        .requestMatchers("/students/new", "/students/delete/**").hasRole("TEACHER")
-                        .requestMatchers("/students/edit/**").hasRole("STUDENT")
-                        .requestMatchers("/students").authenticated()
-
-                        // Allow static resources (CSS/JS)
-                        .requestMatchers("/css/**", "/js/**").permitAll()
-                        .anyRequest().authenticated()
-                )
+                .authorizeHttpRequests(this::accessRules)
                 .formLogin((form) -> form
                        // .loginPage("/login")
                         .defaultSuccessUrl("/students", true)
@@ -53,9 +72,53 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // 2b. Stateless logins for API clients and app instances that share no sessions:
+    // POST /api/token (username + password) answers with a signed token (AuthTokenService), and requests
+    // with "Authorization: Bearer <token>" are handled here, with the same rules as the pages but
+    // no session, no login form and no CSRF token (nothing is sent automatically by a browser).
+    @Bean
+    @Order(1) // before securityFilterChain, which takes every other request
+    public SecurityFilterChain tokenFilterChain(HttpSecurity http, AuthTokenService authTokenService) throws Exception {
+        http
+                .securityMatcher(request -> AuthTokenFilter.hasBearerToken(request)
+                        || "/api/token".equals(request.getRequestURI().substring(request.getContextPath().length())))
+                .authorizeHttpRequests(this::accessRules)
+                .sessionManagement((session) -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf((csrf) -> csrf.disable())
+                .exceptionHandling((exceptions) -> exceptions
+                        .authenticationEntryPoint((request, response, e) -> {
+                            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+                            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+                        })
+                )
+                .addFilterBefore(new AuthTokenFilter(authTokenService), UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+
+    // Who may see what, for both ways of logging in
+    private void accessRules(AuthorizeHttpRequestsConfigurer<HttpSecurity>.AuthorizationManagerRequestMatcherRegistry requests) {
+        requests
+                // Allow everyone to see Home, Login, and Signup pages (and to ask for a token)
+                .requestMatchers("/", "/signup", "/register", "/login", "/api/token").permitAll()
+
+                // RESTRICTED AREAS
+                .requestMatchers("/students/new", "/students/delete/**", "/students/import", "/students/export").hasRole("TEACHER")
+                .requestMatchers("/students/edit/**").hasRole("STUDENT")
+                .requestMatchers("/students").authenticated()
+                .requestMatchers("/stats", "/api/stats/**").hasRole("TEACHER")
+                .requestMatchers("/api/events").hasRole("TEACHER")
+                .requestMatchers("/api/grades/**", "/api/rankings/**").hasRole("TEACHER")
+
+                // Allow static resources (CSS/JS)
+                .requestMatchers("/css/**", "/js/**").permitAll()
+                .anyRequest().authenticated();
+    }
+
     // 3. Connect Database Auth (The Bridge)
     @Bean
-    public DaoAuthenticationProvider authenticationProvider(CustomUserDetailsService userDetailsService) {
+    public DaoAuthenticationProvider authenticationProvider(CustomUserDetailsService userDetailsService,
+                                                            PasswordEncoder passwordEncoder) {
         // OLD WAY (Causes Error): new DaoAuthenticationProvider();
         // NEW WAY (Fix): Pass the service directly into the parentheses!
         DaoAuthenticationProvider auth = new DaoAuthenticationProvider(userDetailsService);
@@ -63,7 +126,18 @@ public class SecurityConfig {
         // Remove this line because we already did it above:
         // auth.setUserDetailsService(userDetailsService);
 
-        auth.setPasswordEncoder(passwordEncoder());
+        auth.setPasswordEncoder(passwordEncoder);
+        // Lets a successful login replace an outdated hash (see passwordEncoder() above)
+        auth.setUserDetailsPasswordService(userDetailsService);
         return auth;
     }
-}
\ No newline at end of file
+
+    // 4. Checks the password for POST /api/token, like the login form does (same provider, same login events)
+    @Bean
+    public AuthenticationManager authenticationManager(DaoAuthenticationProvider authenticationProvider,
+                                                       AuthenticationEventPublisher eventPublisher) {
+        ProviderManager manager = new ProviderManager(authenticationProvider);
+        manager.setAuthenticationEventPublisher(eventPublisher);
+        return manager;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.student_management_system.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+
+// Parses every page template at startup (app.templates.preload=true, on in the fast-startup profile),
+// so the first request for a page doesn't pay for reading and parsing its HTML.
+//
+// Thymeleaf has no build-time compiler: templates are parsed into a tree once and that tree is kept
+// in its template cache (spring.thymeleaf.cache, on unless turned off). processThrottled() parses the
+// template and caches it, but only renders when asked to, so no model is needed here.
+@Component
+public class TemplatePreloader {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplatePreloader.class);
+
+    // Only looked up when preloading: with lazy initialization the engine is otherwise created on the first page
+    private final ObjectProvider<ITemplateEngine> templateEngine;
+    private final ResourcePatternResolver resources;
+
+    @Value("${app.templates.preload:false}")
+    private boolean preload;
+
+    @Value("${spring.thymeleaf.prefix:classpath:/templates/}")
+    private String prefix;
+
+    @Value("${spring.thymeleaf.suffix:.html}")
+    private String suffix;
+
+    public TemplatePreloader(ObjectProvider<ITemplateEngine> templateEngine, ResourcePatternResolver resources) {
+        this.templateEngine = templateEngine;
+        this.resources = resources;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() throws IOException {
+        if (!preload) {
+            return;
+        }
+        ITemplateEngine engine = templateEngine.getObject();
+        long start = System.nanoTime();
+        int parsed = 0;
+        for (Resource template : resources.getResources(prefix + "*" + suffix)) {
+            String fileName = template.getFilename();
+            // "students.html" -> "students", the name controllers return
+            engine.processThrottled(fileName.substring(0, fileName.length() - suffix.length()), new Context());
+            parsed++;
+        }
+        log.info("Preloaded {} templates in {} ms", parsed, (System.nanoTime() - start) / 1_000_000);
+    }
+}
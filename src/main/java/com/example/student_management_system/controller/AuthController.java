@@ -1,25 +1,35 @@
 package com.example.student_management_system.controller;
 
-import com.example.student_management_system.model.Student;
-import com.example.student_management_system.model.Teacher;
+import com.example.student_management_system.dto.TokenResponse;
 import com.example.student_management_system.model.User;
-import com.example.student_management_system.repository.StudentRepository;
-import com.example.student_management_system.repository.TeacherRepository;
-import com.example.student_management_system.repository.UserRepository;
+import com.example.student_management_system.service.AuthTokenService;
+import com.example.student_management_system.service.AuthTokenService.AuthToken;
+import com.example.student_management_system.service.RegistrationService;
+import com.example.student_management_system.service.UserAccountCache;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller
 public class AuthController {
 
-    @Autowired private UserRepository userRepository;
-    @Autowired private StudentRepository studentRepository;
-    @Autowired private TeacherRepository teacherRepository;
-    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private RegistrationService registrationService;
+    @Autowired private AuthenticationManager authenticationManager;
+    @Autowired private AuthTokenService authTokenService;
+    @Autowired private UserAccountCache userAccountCache;
 
     // 1. Show the Sign-Up Form
     @GetMapping("/signup")
@@ -29,34 +39,36 @@ public class AuthController {
     }
 
     // 2. Process the Sign-Up
+    // Hashing the password is slow, so it runs on the registration pool (see RegistrationService);
+    // the request thread is given back to Tomcat and the redirect is sent once the account exists.
     @PostMapping("/register")
-    public String registerUser(User user) {
-        // A. Encode the password (Security Best Practice)
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-
-        // B. Ensure the role has the "ROLE_" prefix
-        if (!user.getRole().startsWith("ROLE_")) {
-            user.setRole("ROLE_" + user.getRole());
-        }
-
-        // C. Save the User Login Info first
-        User savedUser = userRepository.save(user);
-
-        // D. Create the Linked Profile (Student or Teacher)
-        if (user.getRole().equals("ROLE_STUDENT")) {
-            Student student = new Student();
-            student.setName(user.getUsername());
-            student.setEmail(user.getUsername() + "@example.com"); // Placeholder email
-            student.setUser(savedUser); // <--- LINKING HAPPENS HERE
-            studentRepository.save(student);
-        }
-        else if (user.getRole().equals("ROLE_TEACHER")) {
-            Teacher teacher = new Teacher();
-            teacher.setName(user.getUsername());
-            teacher.setUser(savedUser); // <--- LINKING HAPPENS HERE
-            teacherRepository.save(teacher);
-        }
-
-        return "redirect:/login"; // Success! Go to log in
+    public CompletableFuture<String> registerUser(User user) {
+        return registrationService.register(user)
+                .thenApply(saved -> "redirect:/login"); // Success! Go to log in
+    }
+
+    // 3. Token for API clients (stateless login, see SecurityConfig.tokenFilterChain):
+    //   curl -d username=jane -d password=secret http://localhost:8080/api/token
+    // The password is checked like on the login form; the token then carries the Student/Teacher id.
+    @PostMapping("/api/token")
+    @ResponseBody
+    public TokenResponse issueToken(@RequestParam String username, @RequestParam String password) {
+        authenticationManager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(username, password));
+        AuthToken token = authTokenService.issue(userAccountCache.get(username));
+        return new TokenResponse(authTokenService.encode(token), token.expiresAt());
+    }
+
+    // Wrong username or password for a token
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<String> tokenRefused() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Bad credentials");
+    }
+
+    // 4. Too many sign-ups at once: tell the browser to try again shortly
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> registrationBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "2")
+                .body("Too many sign-ups right now, please try again in a moment.");
     }
-}
\ No newline at end of file
+}
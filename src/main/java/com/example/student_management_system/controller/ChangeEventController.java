@@ -0,0 +1,29 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.dto.ChangeEventPage;
+import com.example.student_management_system.service.ChangeOutbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+// The change stream of students, courses and enrollments (Teachers Only), see ChangeOutbox.
+// A consumer keeps the last position it has processed and asks for what came after it:
+//   GET /api/events?after=0&limit=100  ->  {"events": [...], "nextOffset": 100}
+//   GET /api/events?after=100&limit=100 ...
+// The same offset always returns the same events, so reading again after a crash is safe.
+@Controller
+public class ChangeEventController {
+
+    @Autowired
+    private ChangeOutbox changeOutbox;
+
+    // 1. Events after the given position, oldest first (at most app.outbox.max-read)
+    @GetMapping("/api/events")
+    @ResponseBody
+    public ChangeEventPage getEvents(@RequestParam(value = "after", defaultValue = "0") long after,
+                                     @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return changeOutbox.read(after, limit);
+    }
+}
@@ -1,44 +1,73 @@
 package com.example.student_management_system.controller;
 
+import com.example.student_management_system.dto.CourseCard;
+import com.example.student_management_system.dto.CourseMeeting;
+import com.example.student_management_system.dto.EnrollmentResult;
+import com.example.student_management_system.dto.EnrollmentState;
 import com.example.student_management_system.model.Course;
-import com.example.student_management_system.model.Student;
 import com.example.student_management_system.model.Teacher;
-import com.example.student_management_system.model.User;
 import com.example.student_management_system.repository.CourseRepository;
-import com.example.student_management_system.repository.StudentRepository;
 import com.example.student_management_system.repository.TeacherRepository;
-import com.example.student_management_system.repository.UserRepository;
+import com.example.student_management_system.service.EnrollmentService;
+import com.example.student_management_system.service.PageCache;
+import com.example.student_management_system.service.TimetableService;
+import com.example.student_management_system.service.UserAccountCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.security.Principal;
+import java.time.DayOfWeek;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Controller
 @RequestMapping("/courses")
 public class CourseController {
 
     @Autowired private CourseRepository courseRepository;
-    @Autowired private UserRepository userRepository;
+    @Autowired private UserAccountCache userAccountCache;
     @Autowired private TeacherRepository teacherRepository;
-    @Autowired private StudentRepository studentRepository;
+    @Autowired private EnrollmentService enrollmentService;
+    @Autowired private PageCache pageCache;
+    @Autowired private TimetableService timetableService;
 
+    // 1. Course catalog
     @GetMapping
-    public String listCourses(Model model, Principal principal) {
-        model.addAttribute("courses", courseRepository.findAll());
+    public String listCourses(Model model, Principal principal,
+                              HttpServletRequest request, HttpServletResponse response) {
+        // If a student is logged in, we need their id to mark the courses they are enrolled in
+        // (null for teachers and anonymous visitors)
+        Long studentId = principal != null ? userAccountCache.findStudentId(principal) : null;
 
-        // If a user is logged in, send their Student profile to the view
-        if (principal != null) {
-            User user = userRepository.findByUsername(principal.getName());
-            // Check if they are a student before adding
-            if (user.getRole().equals("ROLE_STUDENT")) {
-                Student student = studentRepository.findByUser(user);
-                model.addAttribute("student", student);
-            }
+        // One query for all cards (teacher name, enrollment count, "enrolled" flag)
+        List<CourseCard> courses = courseRepository.findCatalog(studentId);
+        // Write-behind: the student's own clicks that are not in the database yet
+        Map<Long, Boolean> pending = enrollmentService.pendingEnrollments(studentId);
+        // The courses the student is waiting for (one query, only for students)
+        Set<Long> waitlisted = enrollmentService.waitlistedCourses(studentId);
+        if (!pending.isEmpty() || !waitlisted.isEmpty()) {
+            courses = courses.stream()
+                    .map(card -> pending.containsKey(card.id()) ? card.withEnrolled(pending.get(card.id())) : card)
+                    .map(card -> card.withWaitlisted(waitlisted.contains(card.id())))
+                    .toList();
         }
 
+        // Nothing changed since the browser's copy -> 304, nothing rendered.
+        // Not right after enrolling or saving a course: the message is shown only once.
+        if (!model.containsAttribute("enrollmentResult") && !model.containsAttribute("roomConflicts")
+                && pageCache.notModified(request, response, courses)) {
+            return null;
+        }
+        model.addAttribute("courses", courses);
+        model.addAttribute("cardHtml", pageCache.courseCards(courses)); // the cached part of each card
         return "courses";
     }
 
@@ -46,44 +75,58 @@ public class CourseController {
     @GetMapping("/new")
     public String showCreateForm(Model model) {
         model.addAttribute("course", new Course());
+        model.addAttribute("days", DayOfWeek.values());
         return "create_course";
     }
 
     // 3. Save New Course (Teachers Only)
     @PostMapping("/save")
-    public String saveCourse(@ModelAttribute Course course, Principal principal) {
-        // Find the currently logged-in Teacher
-        String username = principal.getName();
-        User user = userRepository.findByUsername(username);
-        Teacher teacher = teacherRepository.findByUser(user); // We need to add this method to Repo!
+    public String saveCourse(@ModelAttribute Course course, Principal principal,
+                             Model model, RedirectAttributes redirectAttributes) {
+        String meetingError = timetableService.validate(course);
+        if (meetingError != null) {
+            model.addAttribute("meetingError", meetingError); // back to the form, with what was typed
+            model.addAttribute("days", DayOfWeek.values());
+            return "create_course";
+        }
+        // A room booked twice is only flagged (the teacher may share it on purpose)
+        List<CourseMeeting> roomConflicts = timetableService.roomConflicts(course);
+
+        // Find the currently logged-in Teacher (the id comes from the token or the cache, no query needed)
+        Long teacherId = userAccountCache.findTeacherId(principal);
+        Teacher teacher = teacherId != null ? teacherRepository.getReferenceById(teacherId) : null;
 
         course.setTeacher(teacher); // Set the teacher as the creator
+        course.setSeatsTaken(0);    // A new course starts empty (never trust this from the form)
         courseRepository.save(course);
+        if (!roomConflicts.isEmpty()) {
+            redirectAttributes.addFlashAttribute("roomConflicts", roomConflicts);
+        }
         return "redirect:/courses";
     }
 
     // 4. Toggle Enrollment (Enroll / Unenroll)
     @PostMapping("/enroll/{id}")
-    public String toggleEnrollment(@PathVariable Long id, Principal principal) {
-        // Find the Course
-        Course course = courseRepository.findById(id).orElseThrow();
+    public String toggleEnrollment(@PathVariable Long id, Principal principal, RedirectAttributes redirectAttributes) {
+        EnrollmentResult result = enrollmentService.toggle(currentStudentId(principal), id);
+        redirectAttributes.addFlashAttribute("enrollmentResult", result); // shown once on the courses page
+        return "redirect:/courses";
+    }
 
-        // Find the logged-in Student
-        User user = userRepository.findByUsername(principal.getName());
-        Student student = studentRepository.findByUser(user);
+    // 5. Same toggle for JavaScript / API clients, answers with the new state as JSON
+    @PostMapping("/{id}/enrollment")
+    @ResponseBody
+    public EnrollmentState toggleEnrollmentJson(@PathVariable Long id, Principal principal) {
+        EnrollmentResult result = enrollmentService.toggle(currentStudentId(principal), id);
+        return new EnrollmentState(id, result);
+    }
 
-        // CHECK: Is the student already enrolled?
-        if (student.getCourses().contains(course)) {
-            // YES -> UNENROLL (Remove the course)
-            student.getCourses().remove(course);
-        } else {
-            // NO -> ENROLL (Add the course)
-            student.getCourses().add(course);
+    // The logged-in user's Student id (only students can enroll)
+    private Long currentStudentId(Principal principal) {
+        Long studentId = userAccountCache.findStudentId(principal);
+        if (studentId == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only students can enroll in courses");
         }
-
-        // Save changes to update the 'student_courses' table
-        studentRepository.save(student);
-
-        return "redirect:/courses";
+        return studentId;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.dto.GradeDistribution;
+import com.example.student_management_system.dto.RankedStudent;
+import com.example.student_management_system.dto.StudentGpa;
+import com.example.student_management_system.model.Grade;
+import com.example.student_management_system.service.GradeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Grades, GPAs and department rankings (Teachers Only), see GradeService.
+// Only saving a grade touches the database; the rest comes from the in-memory aggregates.
+//   POST /api/grades?studentId=1&courseId=2&grade=B%2B&credits=4  ->  the student's new GPA
+//   GET  /api/grades/students/1                  ->  {"studentId": 1, "gpa": 3.3, "credits": 4, "gradedCourses": 1}
+//   GET  /api/grades/courses/2                   ->  students per grade
+//   GET  /api/rankings/departments/3?top=10      ->  the 10 best students of the department
+@Controller
+public class GradeController {
+
+    @Autowired
+    private GradeService gradeService;
+
+    // 1. Save a grade (no grade = take it back; no credits = keep them)
+    @PostMapping("/api/grades")
+    @ResponseBody
+    public StudentGpa saveGrade(@RequestParam("studentId") Long studentId,
+                                @RequestParam("courseId") Long courseId,
+                                @RequestParam(value = "grade", required = false) String grade,
+                                @RequestParam(value = "credits", required = false) Integer credits) {
+        try {
+            gradeService.setGrade(studentId, courseId, Grade.parse(grade), credits);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "The student is not enrolled in this course.");
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "The grade was changed meanwhile, try again.");
+        }
+        return gradeService.gpa(studentId);
+    }
+
+    // 2. One student's GPA (gpa null = nothing graded yet)
+    @GetMapping("/api/grades/students/{id}")
+    @ResponseBody
+    public StudentGpa getStudentGpa(@PathVariable Long id) {
+        return gradeService.gpa(id);
+    }
+
+    // 3. One course: how many students got each grade
+    @GetMapping("/api/grades/courses/{id}")
+    @ResponseBody
+    public GradeDistribution getGradeDistribution(@PathVariable Long id) {
+        return gradeService.distribution(id);
+    }
+
+    // 4. The best students of a department by GPA (id 0 = students without a department)
+    @GetMapping("/api/rankings/departments/{id}")
+    @ResponseBody
+    public List<RankedStudent> getDepartmentRanking(@PathVariable Long id,
+                                                    @RequestParam(value = "top", defaultValue = "10") int top) {
+        return gradeService.topStudents(id, top);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.dto.SearchResults;
+import com.example.student_management_system.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+@Controller
+public class SearchController {
+
+    @Autowired
+    private SearchService searchService;
+
+    // Typeahead search over students and courses, e.g. /search?q=jo+smi
+    // Every word must match the start of a word in the name, email, department, title or description.
+    @GetMapping("/search")
+    @ResponseBody
+    public SearchResults search(@RequestParam("q") String query,
+                                @RequestParam(value = "limit", defaultValue = "" + SearchService.DEFAULT_LIMIT) int limit) {
+        return searchService.search(query, limit);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.dto.StatsCount;
+import com.example.student_management_system.dto.StatsSummary;
+import com.example.student_management_system.service.EnrollmentStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+
+// Enrollment numbers per course and department (Teachers Only).
+// Everything comes from the in-memory counters in EnrollmentStats, no query runs here.
+@Controller
+public class StatsController {
+
+    @Autowired
+    private EnrollmentStats enrollmentStats;
+
+    // 1. Dashboard page
+    @GetMapping("/stats")
+    public String showStats(Model model) {
+        model.addAttribute("stats", enrollmentStats.summary());
+        return "stats";
+    }
+
+    // 2. The same numbers as JSON
+    @GetMapping("/api/stats")
+    @ResponseBody
+    public StatsSummary getStats() {
+        return enrollmentStats.summary();
+    }
+
+    // 3. One course: enrolled students
+    @GetMapping("/api/stats/courses/{id}")
+    @ResponseBody
+    public StatsCount getCourseStats(@PathVariable Long id) {
+        return found(enrollmentStats.course(id));
+    }
+
+    // 4. One department: number of students (id 0 = students without a department)
+    @GetMapping("/api/stats/departments/{id}")
+    @ResponseBody
+    public StatsCount getDepartmentStats(@PathVariable Long id) {
+        return found(enrollmentStats.department(id));
+    }
+
+    private static StatsCount found(StatsCount count) {
+        if (count == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return count;
+    }
+}
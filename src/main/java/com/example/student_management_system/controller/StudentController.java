@@ -1,15 +1,37 @@
 package com.example.student_management_system.controller;
 
-import com.example.student_management_system.model.Department; // <--- NEW IMPORT
+import com.example.student_management_system.dto.ImportReport;
+import com.example.student_management_system.dto.StudentPage;
+import com.example.student_management_system.model.Department;
 import com.example.student_management_system.model.Student;
-import com.example.student_management_system.repository.DepartmentRepository; // <--- NEW IMPORT
 import com.example.student_management_system.repository.StudentRepository;
+import com.example.student_management_system.service.DepartmentRegistry;
+import com.example.student_management_system.service.EnrollmentService;
+import com.example.student_management_system.service.PageCache;
+import com.example.student_management_system.service.RosterExportService;
+import com.example.student_management_system.service.StudentImportService;
+import com.example.student_management_system.service.StudentListingService;
+import com.example.student_management_system.service.StudentService;
+import com.example.student_management_system.service.UserAccountCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 
 @Controller
 @RequestMapping("/students")
@@ -19,13 +41,45 @@ public class StudentController {
     private StudentRepository studentRepository;
 
     @Autowired
-    private DepartmentRepository departmentRepository; // <--- NEW REPOSITORY INJECTED
+    private DepartmentRegistry departmentRegistry; // name -> department, without a query per save
 
-    // 1. List all students
+    @Autowired
+    private StudentListingService studentListingService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private UserAccountCache userAccountCache;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private RosterExportService rosterExportService;
+
+    @Autowired
+    private PageCache pageCache;
+
+    // 1. List students, one page at a time (?after=<id> / ?before=<id> move the cursor)
     @GetMapping
-    public String listStudents(Model model) {
-        List<Student> students = studentRepository.findAll();
-        model.addAttribute("students", students);
+    public String listStudents(Model model,
+                               @RequestParam(value = "after", required = false) Long after,
+                               @RequestParam(value = "before", required = false) Long before,
+                               @RequestParam(value = "size", defaultValue = "" + StudentListingService.DEFAULT_PAGE_SIZE) int size,
+                               @RequestParam(value = "dept", required = false) String dept,
+                               HttpServletRequest request, HttpServletResponse response) {
+        StudentPage page = studentListingService.findPage(after, before, size, dept);
+        // Same rows (and versions) as the browser's copy -> 304, nothing rendered
+        if (pageCache.notModified(request, response, page)) {
+            return null;
+        }
+        model.addAttribute("students", page.students());
+        model.addAttribute("rowHtml", pageCache.studentCells(page.students())); // the cached cells of each row
+        model.addAttribute("page", page);
         return "students";
     }
 
@@ -42,20 +96,13 @@ public class StudentController {
     public String saveStudent(@ModelAttribute("student") Student student,
                               @RequestParam("deptName") String deptName) { // We get the text name separately
 
-        // A. Look for the department in the database
-        Department department = departmentRepository.findByName(deptName);
-
-        // B. If it doesn't exist, create a new one!
-        if (department == null) {
-            department = new Department();
-            department.setName(deptName);
-            departmentRepository.save(department);
-        }
+        // A. Find the department by name (created if it doesn't exist yet), no query when it is known
+        Department department = departmentRegistry.resolve(deptName);
 
-        // C. Attach the department to the student
+        // B. Attach the department to the student
         student.setDepartment(department);
 
-        // D. Save the student
+        // C. Save the student
         studentRepository.save(student);
 
         return "redirect:/students";
@@ -64,7 +111,8 @@ public class StudentController {
     // 4. Delete a Student
     @GetMapping("/delete/{id}")
     public String deleteStudent(@PathVariable Long id) {
-        studentRepository.deleteById(id);
+        enrollmentService.deleteStudent(id); // gives the student's seats to the waiting list
+        userAccountCache.evictStudent(id); // the linked login must not point at a deleted profile
         return "redirect:/students";
     }
 
@@ -84,25 +132,35 @@ public class StudentController {
     public String updateStudent(@PathVariable Long id,
                                 @ModelAttribute("student") Student student,
                                 @RequestParam("deptName") String deptName) {
+        studentService.update(id, student.getName(), student.getEmail(), deptName);
+        return "redirect:/students";
+    }
 
-        // Find existing student
-        Student existingStudent = studentRepository.findById(id).orElse(null);
-
-        if (existingStudent != null) {
-            existingStudent.setName(student.getName());
-            existingStudent.setEmail(student.getEmail());
-
-            // Update Department Logic (Same as before)
-            Department department = departmentRepository.findByName(deptName);
-            if (department == null) {
-                department = new Department();
-                department.setName(deptName);
-                departmentRepository.save(department);
-            }
-            existingStudent.setDepartment(department);
-
-            studentRepository.save(existingStudent);
+    // 7. Bulk import (Teachers Only)
+    // CSV with a "name,email,department" header, or a JSON array of {"name", "email", "department"}
+    @PostMapping("/import")
+    @ResponseBody
+    public ImportReport importStudents(@RequestParam("file") MultipartFile file) throws IOException {
+        String filename = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
+        String contentType = file.getContentType() != null ? file.getContentType() : "";
+        boolean json = filename.endsWith(".json") || contentType.contains("json");
+
+        try (InputStream in = file.getInputStream()) {
+            return json ? studentImportService.importJson(in) : studentImportService.importCsv(in);
+        } catch (IllegalArgumentException | JacksonException | UncheckedIOException e) {
+            // No header, malformed JSON, or the upload could not be read: the rows before it are already imported
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
-        return "redirect:/students";
     }
-}
\ No newline at end of file
+
+    // 8. Roster export (Teachers Only)
+    // Rows are written to the response while they are read, so big rosters download right away
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRoster() {
+        StreamingResponseBody body = out -> rosterExportService.exportCsv(out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"roster.csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.student_management_system.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+// One entry of the change stream (GET /api/events, and what OutboxRelay hands to the sink).
+// "position" numbers the events 1, 2, 3, ... in the order they were relayed; read on from the last one you saw.
+// aggregateType/aggregateId: what changed (STUDENT or COURSE and its id; enrollments belong to the course).
+// "payload" is the state after the change as JSON (only the id for DELETED), sent as-is, not as a string.
+public record ChangeEvent(long position,
+                          String aggregateType,
+                          long aggregateId,
+                          String eventType,
+                          @JsonRawValue String payload,
+                          Instant createdAt) {
+}
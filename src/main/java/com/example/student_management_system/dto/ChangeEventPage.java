@@ -0,0 +1,8 @@
+package com.example.student_management_system.dto;
+
+import java.util.List;
+
+// Answer of GET /api/events: the next events and the offset to ask with next time
+// (the position of the last event, or the same offset again if there was nothing new)
+public record ChangeEventPage(List<ChangeEvent> events, long nextOffset) {
+}
@@ -0,0 +1,72 @@
+package com.example.student_management_system.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+// Everything the courses page needs for one card, loaded by a single query
+// (see CourseRepository.findCatalog) instead of walking course.teacher / course.enrollments.
+public record CourseCard(Long id,
+                         Long version,
+                         String title,
+                         String description,
+                         String teacherName,
+                         Integer capacity,
+                         long enrolledCount,
+                         boolean enrolled,
+                         boolean waitlisted,
+                         DayOfWeek meetingDay,
+                         LocalTime startTime,
+                         LocalTime endTime,
+                         String room) {
+
+    // Used by the JPQL "select new": the aggregates come back as Long,
+    // and "enrolled" is the number of matching rows for the viewing student (0 or 1).
+    public CourseCard(Long id, Long version, String title, String description, String teacherName, Integer capacity,
+                      Long enrolledCount, Long viewerMatches,
+                      DayOfWeek meetingDay, LocalTime startTime, LocalTime endTime, String room) {
+        this(id, version, title, description, teacherName, capacity,
+                enrolledCount != null ? enrolledCount : 0L,
+                viewerMatches != null && viewerMatches > 0, false,
+                meetingDay, startTime, endTime, room);
+    }
+
+    // A course without a fixed meeting time
+    public CourseCard(Long id, Long version, String title, String description, String teacherName, Integer capacity,
+                      long enrolledCount, boolean enrolled) {
+        this(id, version, title, description, teacherName, capacity, enrolledCount, enrolled, false, null, null, null, null);
+    }
+
+    // The same card with the viewing student enrolled or not (a click that is not written yet, see
+    // EnrollmentService.pendingEnrollments)
+    public CourseCard withEnrolled(boolean enrolled) {
+        if (enrolled == this.enrolled) {
+            return this;
+        }
+        return new CourseCard(id, version, title, description, teacherName, capacity,
+                enrolledCount + (enrolled ? 1 : -1), enrolled, waitlisted, meetingDay, startTime, endTime, room);
+    }
+
+    // The same card with the viewing student on the course's waiting list (CourseWaitlist, not part of the catalog query)
+    public CourseCard withWaitlisted(boolean waitlisted) {
+        if (waitlisted == this.waitlisted) {
+            return this;
+        }
+        return new CourseCard(id, version, title, description, teacherName, capacity,
+                enrolledCount, enrolled, waitlisted, meetingDay, startTime, endTime, room);
+    }
+
+    public boolean isFull() {
+        return capacity != null && enrolledCount >= capacity;
+    }
+
+    // e.g. "Mon 09:00-10:30, Room 101"; null without a fixed time
+    public String meeting() {
+        if (meetingDay == null || startTime == null || endTime == null) {
+            return null;
+        }
+        String when = meetingDay.getDisplayName(TextStyle.SHORT, Locale.ENGLISH) + " " + startTime + "-" + endTime;
+        return room != null && !room.isBlank() ? when + ", " + room : when;
+    }
+}
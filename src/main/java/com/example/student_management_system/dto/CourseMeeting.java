@@ -0,0 +1,13 @@
+package com.example.student_management_system.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+// When and where one course meets each week, as held by the TimetableIndex. room may be null.
+public record CourseMeeting(Long courseId, String title, DayOfWeek day, LocalTime start, LocalTime end, String room) {
+
+    // Back to back (one ends at 10:00, the next starts at 10:00) is not an overlap
+    public boolean overlaps(CourseMeeting other) {
+        return day == other.day && start.isBefore(other.end) && other.start.isBefore(end);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.student_management_system.dto;
+
+// What happened when a student clicked Enroll / Unenroll
+public enum EnrollmentResult {
+    ENROLLED,
+    UNENROLLED,
+    // The course was full, the student is now in the queue for the next free seat
+    WAITLISTED,
+    // The student was in the queue and clicked again, so they left it
+    LEFT_WAITLIST,
+    // The course was full and the waiting list was full too
+    FULL,
+    // Too many students were trying to enroll in this course at the same moment, try again
+    BUSY,
+    // The course meets at the same time as one the student is already enrolled in (see TimetableService)
+    CONFLICT;
+
+    public boolean isEnrolled() {
+        return this == ENROLLED;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.student_management_system.dto;
+
+// JSON answer of POST /courses/{id}/enrollment: the state after the toggle
+public record EnrollmentState(Long courseId, boolean enrolled, EnrollmentResult status) {
+
+    public EnrollmentState(Long courseId, EnrollmentResult status) {
+        this(courseId, status.isEnrolled(), status);
+    }
+}
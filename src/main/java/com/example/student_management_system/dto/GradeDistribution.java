@@ -0,0 +1,8 @@
+package com.example.student_management_system.dto;
+
+import java.util.Map;
+
+// Answer of GET /api/grades/courses/{id}: how many students got each grade ("A" ... "F", every grade listed),
+// and the plain average of the grade points (null while nobody is graded)
+public record GradeDistribution(Long courseId, Map<String, Long> grades, long graded, Double average) {
+}
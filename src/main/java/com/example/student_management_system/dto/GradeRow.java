@@ -0,0 +1,8 @@
+package com.example.student_management_system.dto;
+
+import com.example.student_management_system.model.Grade;
+
+// One graded enrollment, as the in-memory aggregates need it (see GradeBook).
+// grade null = the grade was taken back. version = the row's @Version, so an older write never wins.
+public record GradeRow(Long studentId, Long departmentId, Long courseId, Grade grade, int credits, long version) {
+}
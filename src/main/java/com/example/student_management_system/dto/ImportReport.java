@@ -0,0 +1,15 @@
+package com.example.student_management_system.dto;
+
+import java.util.List;
+
+// Result of a bulk import: how many rows went in, how fast, and what went wrong (first errors only)
+public record ImportReport(long rowsRead,
+                           long imported,
+                           long failed,
+                           long elapsedMillis,
+                           double rowsPerSecond,
+                           List<RowError> errors) {
+
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.student_management_system.dto;
+
+// One line of a department ranking (GET /api/rankings/departments/{id}), best GPA first
+public record RankedStudent(int rank, Long studentId, String name, double gpa, int credits) {
+}
@@ -0,0 +1,10 @@
+package com.example.student_management_system.dto;
+
+// One row of the roster export query: a student and ONE of their courses.
+// A student with 3 courses comes back as 3 rows (courseTitle is null when not enrolled anywhere).
+public record RosterRow(Long studentId,
+                        String name,
+                        String email,
+                        String department,
+                        String courseTitle) {
+}
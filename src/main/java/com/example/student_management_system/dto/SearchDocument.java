@@ -0,0 +1,10 @@
+package com.example.student_management_system.dto;
+
+// The searchable text of one student (name, email, department) or course (title, description),
+// read in bulk when the search index is built
+public record SearchDocument(Long id, String first, String second, String third) {
+
+    public SearchDocument(Long id, String first, String second) {
+        this(id, first, second, null);
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.student_management_system.dto;
+
+// One search result: a student (name, email) or a course (title, description)
+public record SearchHit(Long id, String label, String detail) {
+}
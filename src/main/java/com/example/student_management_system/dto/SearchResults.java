@@ -0,0 +1,10 @@
+package com.example.student_management_system.dto;
+
+import java.util.List;
+
+// Answer of GET /search. "source" says where the matches came from: "index" or "sql" (fallback).
+public record SearchResults(String query,
+                            List<SearchHit> students,
+                            List<SearchHit> courses,
+                            String source) {
+}
@@ -0,0 +1,11 @@
+package com.example.student_management_system.dto;
+
+// One line of the /stats dashboard: a course (title) or department (name) and how many students it has.
+// Also the row type of the GROUP BY queries the live counters are checked against (see EnrollmentStats).
+public record StatsCount(Long id, String name, long count) {
+
+    // Used by the JPQL "select new": count() comes back as Long
+    public StatsCount(Long id, String name, Long count) {
+        this(id, name, count != null ? count : 0L);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.student_management_system.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+// Answer of GET /api/stats (and the model of the /stats page).
+// "lastChecked" is when the counters were last compared with the database (null = not yet).
+public record StatsSummary(long students,
+                           long enrollments,
+                           List<StatsCount> courses,
+                           List<StatsCount> departments,
+                           Instant lastChecked) {
+}
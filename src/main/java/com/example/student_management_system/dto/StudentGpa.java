@@ -0,0 +1,5 @@
+package com.example.student_management_system.dto;
+
+// A student's grade point average, weighted by credits (4.0 scale). gpa is null until a course is graded.
+public record StudentGpa(Long studentId, Double gpa, int credits, int gradedCourses) {
+}
@@ -0,0 +1,6 @@
+package com.example.student_management_system.dto;
+
+// One student in a bulk import file (CSV line or JSON object).
+// "line" is where it came from, so errors can point at it (not part of the JSON input).
+public record StudentImportRow(long line, String name, String email, String department) {
+}
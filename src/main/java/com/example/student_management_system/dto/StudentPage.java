@@ -0,0 +1,14 @@
+package com.example.student_management_system.dto;
+
+import com.example.student_management_system.model.Student;
+
+import java.util.List;
+
+// One page of the student list plus the cursors for the "Previous" / "Next" buttons.
+// A null cursor means there is nothing more in that direction.
+public record StudentPage(List<Student> students,
+                          Long prevCursor,
+                          Long nextCursor,
+                          int size,
+                          String deptName) {
+}
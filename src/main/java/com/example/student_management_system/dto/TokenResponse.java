@@ -0,0 +1,7 @@
+package com.example.student_management_system.dto;
+
+import java.time.Instant;
+
+// JSON answer of POST /api/token: send the token back as "Authorization: Bearer <token>" until it expires
+public record TokenResponse(String token, Instant expiresAt) {
+}
@@ -0,0 +1,31 @@
+package com.example.student_management_system.metrics;
+
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.cfg.SessionEventSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Hooks Hibernate into the per-request SQL stats (see RequestSqlStats):
+// - the statement inspector sees every SQL string before it is prepared,
+// - SqlMetricsListener times every statement/batch execution,
+// - EntityLoadCounter counts the entities loaded.
+@Configuration
+public class HibernateMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlMetricsCustomizer() {
+        StatementInspector inspector = sql -> {
+            RequestSqlStats stats = RequestSqlStats.current();
+            if (stats != null) {
+                stats.statementPrepared(sql);
+            }
+            return sql;
+        };
+        return properties -> {
+            properties.put(JdbcSettings.STATEMENT_INSPECTOR, inspector);
+            properties.put(SessionEventSettings.AUTO_SESSION_EVENTS_LISTENER, SqlMetricsListener.class.getName());
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.student_management_system.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Measures the database work of every request, per route (method + uri pattern like /courses/{id}/enrollment):
+//   http.server.requests.sql.statements  - JDBC statements per request
+//   http.server.requests.sql.time        - time spent executing them
+//   http.server.requests.entity.loads    - entities Hibernate loaded
+// The request latency itself is Spring Boot's http.server.requests timer (same tags).
+// All of them are on /actuator/metrics. Requests slower than app.metrics.slow-request-threshold
+// are logged with their most expensive statements.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2) // just inside Boot's own http.server.requests observation filter
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final Duration slowRequestThreshold;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                @Value("${app.metrics.slow-request-threshold:500ms}") Duration slowRequestThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestThreshold = slowRequestThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestSqlStats stats = RequestSqlStats.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.end();
+            record(request, response, stats, System.nanoTime() - start);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestSqlStats stats, long elapsedNanos) {
+        String uri = uri(request, response);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .baseUnit("statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("http.server.requests.sql.time")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getStatementNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("http.server.requests.entity.loads")
+                .baseUnit("entities")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getEntityLoads());
+
+        if (elapsedNanos >= slowRequestThreshold.toNanos()) {
+            log.warn("Slow request {} {} ({}) took {} ms: {} statements in {} ms, {} entities loaded. Top statements: {}",
+                    request.getMethod(), request.getRequestURI(), uri, elapsedNanos / 1_000_000,
+                    stats.getStatements(), stats.getStatementNanos() / 1_000_000, stats.getEntityLoads(),
+                    stats.breakdown(5));
+        }
+    }
+
+    // The route pattern, never the raw path (keeps the number of metrics small)
+    private static String uri(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        int status = response.getStatus();
+        if (status >= 300 && status < 400) {
+            return "REDIRECTION";
+        }
+        if (status == 404) {
+            return "NOT_FOUND";
+        }
+        return "UNKNOWN";
+    }
+}
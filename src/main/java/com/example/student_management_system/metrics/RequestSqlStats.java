@@ -0,0 +1,93 @@
+package com.example.student_management_system.metrics;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// What the database did for the current HTTP request: statements run, time spent in JDBC,
+// entities loaded, and a per-SQL breakdown for the slow-request log.
+//
+// One instance per request, kept in a ThreadLocal by RequestMetricsFilter. The Hibernate hooks
+// (SqlMetricsListener, the statement inspector, EntityLoadCounter) add to it.
+// Work on other threads (e.g. the streaming export) is not counted.
+public class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    // Different SQL strings kept per request (the counts above stay exact beyond that)
+    private static final int MAX_DISTINCT_SQL = 50;
+    private static final int MAX_SQL_LENGTH = 120;
+
+    private int statements;
+    private long statementNanos;
+    private int entityLoads;
+
+    private final Map<String, long[]> bySql = new LinkedHashMap<>(); // sql -> {count, nanos}
+    private String lastSql = "?";
+    private long executeStart;
+
+    static RequestSqlStats start() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    // null when no request is being measured on this thread
+    static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    void statementPrepared(String sql) {
+        lastSql = sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+    }
+
+    void executeStarted() {
+        executeStart = System.nanoTime();
+    }
+
+    void executeEnded() {
+        long elapsed = System.nanoTime() - executeStart;
+        statements++;
+        statementNanos += elapsed;
+
+        long[] entry = bySql.get(lastSql);
+        if (entry == null && bySql.size() < MAX_DISTINCT_SQL) {
+            entry = new long[2];
+            bySql.put(lastSql, entry);
+        }
+        if (entry != null) {
+            entry[0]++;
+            entry[1] += elapsed;
+        }
+    }
+
+    void entityLoaded() {
+        entityLoads++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getStatementNanos() {
+        return statementNanos;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    // The most expensive statements, e.g. "12x 30ms select ... | 1x 2ms update ..."
+    public String breakdown(int top) {
+        return bySql.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[1]).reversed())
+                .limit(top)
+                .map(e -> e.getValue()[0] + "x " + e.getValue()[1] / 1_000_000 + "ms " + e.getKey())
+                .collect(Collectors.joining(" | "));
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.student_management_system.metrics;
+
+import org.hibernate.SessionEventListener;
+
+// Hibernate creates one of these per session (see HibernateMetricsConfig) and tells it
+// when a JDBC statement or batch starts and ends. We add the timing to the current request.
+public class SqlMetricsListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.executeStarted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.executeEnded();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.student_management_system.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Logs where the startup time went, once the app is ready (takes traffic):
+//   Started in 9.1 s: JVM 0.4 s, environment 1.1 s, configuration classes 1.5 s, beans 4.6 s, web server 0.3 s, ...
+//   Slowest beans: entityManagerFactory 2.0 s, flywayInitializer 0.6 s, ...
+// The phases come from the steps Spring records while starting (BufferingApplicationStartup, set in main()).
+// Bean times are "self" times: creating a bean's dependencies is counted for those beans, not for it.
+// Started some other way (tests, benchmarks) there are no steps and nothing is logged.
+@Component
+public class StartupReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+
+    private static final String REFRESH = "spring.context.refresh";
+    private static final String INSTANTIATE = "spring.beans.instantiate";
+    private static final String STARTED = "spring.boot.application.started";
+
+    @Value("${app.startup.report:true}")
+    private boolean enabled;
+
+    @Value("${app.startup.slowest-beans:8}")
+    private int slowestBeans;
+
+    private final AtomicBoolean reported = new AtomicBoolean();
+
+    // Published right after all ApplicationReadyEvent listeners (search index, stats, ...) have run
+    @EventListener
+    public void report(AvailabilityChangeEvent<ReadinessState> event) {
+        if (!enabled || event.getState() != ReadinessState.ACCEPTING_TRAFFIC
+                || !(event.getSource() instanceof ConfigurableApplicationContext context)
+                || !(context.getApplicationStartup() instanceof BufferingApplicationStartup startup)
+                || !reported.compareAndSet(false, true)) {
+            return;
+        }
+        Instant now = Instant.now();
+        StartupTimeline timeline = startup.getBufferedTimeline();
+        Instant jvmStart = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime());
+
+        Map<Long, StartupTimeline.TimelineEvent> byId = new HashMap<>();
+        Map<String, Duration> topLevel = new HashMap<>();
+        for (StartupTimeline.TimelineEvent step : timeline.getEvents()) {
+            byId.put(step.getStartupStep().getId(), step);
+            if (step.getStartupStep().getParentId() == null) {
+                topLevel.merge(step.getStartupStep().getName(), step.getDuration(), Duration::plus);
+            }
+        }
+
+        // Direct children of a step, summed per step; and per refresh phase
+        Map<Long, Duration> children = new HashMap<>();
+        Map<String, Duration> refreshPhases = new HashMap<>();
+        for (StartupTimeline.TimelineEvent step : timeline.getEvents()) {
+            StartupTimeline.TimelineEvent parent = byId.get(step.getStartupStep().getParentId());
+            if (parent == null) {
+                continue;
+            }
+            children.merge(parent.getStartupStep().getId(), step.getDuration(), Duration::plus);
+            if (REFRESH.equals(parent.getStartupStep().getName())) {
+                refreshPhases.merge(step.getStartupStep().getName(), step.getDuration(), Duration::plus);
+            }
+        }
+
+        Duration refresh = topLevel.getOrDefault(REFRESH, Duration.ZERO);
+        Duration configuration = refreshPhases.getOrDefault("spring.context.beans.post-process", Duration.ZERO);
+        Duration beans = refreshPhases.getOrDefault(INSTANTIATE, Duration.ZERO)
+                .plus(refreshPhases.getOrDefault("spring.beans.smart-initialize", Duration.ZERO));
+        Duration webServer = refreshPhases.getOrDefault("spring.boot.webserver.create", Duration.ZERO);
+
+        Map<String, Duration> phases = new LinkedHashMap<>();
+        phases.put("JVM", Duration.between(jvmStart, timeline.getStartTime()));
+        phases.put("environment", sum(topLevel, "spring.boot.application.starting",
+                "spring.boot.application.environment-prepared", "spring.boot.application.context-prepared",
+                "spring.boot.application.context-loaded"));
+        phases.put("configuration classes", configuration);
+        phases.put("beans", beans);
+        phases.put("web server", webServer);
+        // Mostly starting Tomcat's connector and the other lifecycle beans
+        phases.put("rest of refresh", refresh.minus(configuration).minus(beans).minus(webServer));
+        phases.put("runners and ready listeners", readySince(timeline, now));
+
+        List<String> parts = new ArrayList<>();
+        phases.forEach((phase, time) -> parts.add(phase + " " + seconds(time)));
+        log.info("Started in {}: {}", seconds(Duration.between(jvmStart, now)), String.join(", ", parts));
+
+        List<String> slowest = timeline.getEvents().stream()
+                .filter(step -> INSTANTIATE.equals(step.getStartupStep().getName()))
+                .map(step -> Map.entry(beanName(step.getStartupStep()),
+                        step.getDuration().minus(children.getOrDefault(step.getStartupStep().getId(), Duration.ZERO))))
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .limit(slowestBeans)
+                .map(bean -> bean.getKey() + " " + seconds(bean.getValue()))
+                .toList();
+        log.info("Slowest beans: {}", String.join(", ", slowest));
+    }
+
+    // From the end of the "started" step (context refreshed) until now
+    private static Duration readySince(StartupTimeline timeline, Instant now) {
+        for (StartupTimeline.TimelineEvent step : timeline.getEvents()) {
+            if (STARTED.equals(step.getStartupStep().getName())) {
+                return Duration.between(step.getEndTime(), now);
+            }
+        }
+        return Duration.ZERO;
+    }
+
+    private static Duration sum(Map<String, Duration> steps, String... names) {
+        Duration total = Duration.ZERO;
+        for (String name : names) {
+            total = total.plus(steps.getOrDefault(name, Duration.ZERO));
+        }
+        return total;
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+
+    private static String seconds(Duration time) {
+        return String.format("%.2f s", time.toMillis() / 1000.0);
+    }
+}
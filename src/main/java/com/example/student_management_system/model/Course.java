@@ -1,30 +1,78 @@
 package com.example.student_management_system.model;
 
+import com.example.student_management_system.service.SearchIndexListener;
+import com.example.student_management_system.service.TimetableListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Data
-@Table(name = "courses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses") // see EntityCacheConfig
+@EntityListeners({SearchIndexListener.class, TimetableListener.class}) // keep the search index and timetable up to date
+@Table(name = "courses", // indexes: see db/migration
+        indexes = @Index(name = "idx_courses_teacher_id", columnList = "teacher_id"))
 public class Course {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Bumped by Hibernate on every update; stamps the cached course card (see PageCache)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     private String title;
     private String description;
 
+    // Maximum number of students (null = no limit)
+    private Integer capacity;
+
+    // Seats currently taken. Only ever changed by a conditional UPDATE
+    // (see CourseRepository.reserveSeat), never by editing the entity.
+    @ColumnDefault("0")
+    @Column(name = "seats_taken", nullable = false)
+    private Integer seatsTaken = 0;
+
+    // When and where the course meets, once a week (all null = no fixed time). Checked for
+    // clashes with a student's other courses and with other courses in the same room (TimetableService).
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "meeting_day", length = 9)
+    private DayOfWeek meetingDay;
+
+    @DateTimeFormat(pattern = "HH:mm") // what <input type="time"> sends
+    @Column(name = "start_time")
+    private LocalTime startTime;
+
+    @DateTimeFormat(pattern = "HH:mm")
+    @Column(name = "end_time")
+    private LocalTime endTime;
+
+    private String room;
+
     // A Course is taught by ONE Teacher
     @ManyToOne
     @JoinColumn(name = "teacher_id")
     @ToString.Exclude
     private Teacher teacher;
 
-    // A Course has MANY Students
-    @ManyToMany(mappedBy = "courses")
+    // A Course has MANY Students (through Enrollment)
+    // Enrollments are written with native SQL (StudentRepository), which evicts this region
+    @OneToMany(mappedBy = "course")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses.enrollments")
     @ToString.Exclude
-    private List<Student> students = new ArrayList<>();
+    private List<Enrollment> enrollments = new ArrayList<>();
 }
\ No newline at end of file
@@ -2,12 +2,18 @@ package com.example.student_management_system.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.ToString;
 import java.util.List;
 
 @Entity
 @Data
-@Table(name = "departments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departments") // see EntityCacheConfig
+// Names are unique, so two people adding the same new department at once can't create it twice
+@Table(name = "departments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_departments_name", columnNames = "name"))
 public class Department {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,6 +29,7 @@ public class Department {
 
     // One Department has many Teachers
     @OneToMany(mappedBy = "department")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departments.teachers")
     @ToString.Exclude
     private List<Teacher> teachers;
 }
\ No newline at end of file
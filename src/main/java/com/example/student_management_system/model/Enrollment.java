@@ -0,0 +1,59 @@
+package com.example.student_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+// A student taking a course: one row of student_courses, with the grade and credits.
+// Rows are still inserted and deleted with native SQL (StudentRepository, EnrollmentService);
+// the entity is loaded to read and write the grade (GradeService).
+@Entity
+@Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "enrollments") // see EntityCacheConfig
+// The unique constraint makes enrolling twice impossible, even when two requests race
+@Table(name = "student_courses", // indexes: see db/migration
+        uniqueConstraints = @UniqueConstraint(name = "uk_student_courses", columnNames = {"student_id", "course_id"}),
+        indexes = @Index(name = "idx_student_courses_course_id", columnList = "course_id, student_id"))
+public class Enrollment {
+
+    @EmbeddedId
+    private EnrollmentId id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("studentId")
+    @JoinColumn(name = "student_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Student student;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("courseId")
+    @JoinColumn(name = "course_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Course course;
+
+    // Bumped on every grade change (rows inserted with SQL start at 0)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // null = not graded yet
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 7)
+    private Grade grade;
+
+    // How much the grade weighs in the GPA (1-20)
+    @ColumnDefault("3")
+    @Column(nullable = false)
+    private Integer credits = 3;
+}
@@ -0,0 +1,23 @@
+package com.example.student_management_system.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Key of an Enrollment: the (student_id, course_id) pair the unique constraint of student_courses is on
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentId implements Serializable {
+
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "course_id")
+    private Long courseId;
+}
@@ -0,0 +1,49 @@
+package com.example.student_management_system.model;
+
+// Letter grades and what they count for in a GPA (4.0 scale).
+// Points are kept in tenths (A- = 37), so GPA sums stay exact integers however many grades are added and removed.
+public enum Grade {
+    A("A", 40),
+    A_MINUS("A-", 37),
+    B_PLUS("B+", 33),
+    B("B", 30),
+    B_MINUS("B-", 27),
+    C_PLUS("C+", 23),
+    C("C", 20),
+    C_MINUS("C-", 17),
+    D_PLUS("D+", 13),
+    D("D", 10),
+    F("F", 0);
+
+    private final String label;
+    private final int tenths;
+
+    Grade(String label, int tenths) {
+        this.label = label;
+        this.tenths = tenths;
+    }
+
+    // "B+", as teachers type it
+    public String label() {
+        return label;
+    }
+
+    // Grade points x 10
+    public int tenths() {
+        return tenths;
+    }
+
+    // "B+", "b+" or "B_PLUS"; blank = no grade (null)
+    public static Grade parse(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String value = text.trim().toUpperCase();
+        for (Grade grade : values()) {
+            if (grade.label.equals(value) || grade.name().equals(value)) {
+                return grade;
+            }
+        }
+        throw new IllegalArgumentException("Unknown grade: " + text);
+    }
+}
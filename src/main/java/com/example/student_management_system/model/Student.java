@@ -1,5 +1,6 @@
 package com.example.student_management_system.model;
 
+import com.example.student_management_system.service.SearchIndexListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.ToString;
@@ -7,12 +8,22 @@ import java.util.List;
 
 @Entity
 @Data
-@Table(name = "students")
+@EntityListeners(SearchIndexListener.class) // keeps the search index up to date
+@Table(name = "students", // indexes: see db/migration
+        indexes = @Index(name = "idx_students_department_id", columnList = "department_id"))
 public class Student {
+    // Ids come from a sequence (50 at a time) instead of IDENTITY,
+    // so Hibernate can send many INSERTs in one JDBC batch (bulk import).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
 
+    // Bumped by Hibernate on every update (also a department change); stamps the cached table row (see PageCache)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     private String name;
     private String email;
 
@@ -28,13 +39,9 @@ public class Student {
     @ToString.Exclude
     private Department department;
 
-    // LINK TO COURSES
-    @ManyToMany
-    @JoinTable(
-            name = "student_courses",
-            joinColumns = @JoinColumn(name = "student_id"),
-            inverseJoinColumns = @JoinColumn(name = "course_id")
-    )
+    // LINK TO COURSES (through Enrollment, which carries the grade)
+    // Deleting a student deletes their enrollments with them
+    @OneToMany(mappedBy = "student", cascade = CascadeType.REMOVE)
     @ToString.Exclude
-    private List<Course> courses;
+    private List<Enrollment> enrollments;
 }
\ No newline at end of file
@@ -2,12 +2,17 @@ package com.example.student_management_system.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.ToString; // Import this to prevent potential loops later
 import java.util.List;
 
 @Entity
 @Data
-@Table(name = "teachers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "teachers") // see EntityCacheConfig
+@Table(name = "teachers", // indexes: see db/migration
+        indexes = @Index(name = "idx_teachers_department_id", columnList = "department_id"))
 public class Teacher {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,6 +36,7 @@ public class Teacher {
     private Department department;
 
     @OneToMany(mappedBy = "teacher")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "teachers.courses")
     @ToString.Exclude // Good practice to exclude relations
     private List<Course> courses;
 }
\ No newline at end of file
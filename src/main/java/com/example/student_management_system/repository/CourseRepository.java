@@ -1,8 +1,100 @@
 package com.example.student_management_system.repository;
 
+import com.example.student_management_system.dto.CourseCard;
+import com.example.student_management_system.dto.CourseMeeting;
+import com.example.student_management_system.dto.SearchDocument;
+import com.example.student_management_system.dto.SearchHit;
+import com.example.student_management_system.dto.StatsCount;
 import com.example.student_management_system.model.Course;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface CourseRepository extends JpaRepository<Course, Long> {
-    // We can add custom queries later if needed
-}
\ No newline at end of file
+
+    String SEATS_SPACE = "courses.seats_taken";
+
+    // The whole course catalog in ONE query: teacher name, number of enrolled students,
+    // and whether the given student (may be null) is one of them.
+    // No Course entities are loaded, so the page can't trigger lazy loads per card.
+    // Read-only, so it may be served by a read replica (see ReplicaDataSourceConfig).
+    @Transactional(readOnly = true)
+    @Query("select new com.example.student_management_system.dto.CourseCard(" +
+            "c.id, c.version, c.title, c.description, t.name, c.capacity, count(e.id.studentId), " +
+            "sum(case when e.id.studentId = :studentId then 1 else 0 end), c.meetingDay, c.startTime, c.endTime, c.room) " +
+            "from Course c left join c.teacher t left join c.enrollments e " +
+            "group by c.id, c.version, c.title, c.description, t.name, c.capacity, " +
+            "c.meetingDay, c.startTime, c.endTime, c.room " +
+            "order by c.id")
+    List<CourseCard> findCatalog(@Param("studentId") Long studentId);
+
+    // Takes one seat if there is one left. The check and the increment are a single UPDATE,
+    // so the database row lock decides who gets the last seat: it can never be oversold.
+    // Returns 1 if a seat was taken, 0 if the course is full (or does not exist).
+    // Seat updates are native and declare SEATS_SPACE, a query space no entity is mapped to, so Hibernate
+    // evicts nothing (a JPQL update or "courses" would clear every cached course on each click).
+    // The caller evicts the one course it changed (see EnrollmentService.evictCourse).
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SEATS_SPACE))
+    @Query(value = "update courses set seats_taken = seats_taken + 1 " +
+            "where id = :id and (capacity is null or seats_taken < capacity)", nativeQuery = true)
+    int reserveSeat(@Param("id") Long id);
+
+    // Plain read (no lock): true = a seat looks free, false = full, null = no such course.
+    // Only a hint; reserveSeat is what actually decides.
+    @Query("select case when (c.capacity is null or c.seatsTaken < c.capacity) then true else false end " +
+            "from Course c where c.id = :id")
+    Boolean hasFreeSeat(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SEATS_SPACE))
+    @Query(value = "update courses set seats_taken = seats_taken - 1 where id = :id and seats_taken > 0", nativeQuery = true)
+    int releaseSeat(@Param("id") Long id);
+
+    // Recounts seats_taken from the enrollment rows (run at startup, in case the counter drifted)
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "courses"))
+    @Query(value = "update courses set seats_taken = " +
+            "(select count(*) from student_courses sc where sc.course_id = courses.id)", nativeQuery = true)
+    int recountSeats();
+
+    // --- Search (see SearchService) ---
+
+    @Query("select new com.example.student_management_system.dto.SearchDocument(c.id, c.title, c.description) from Course c")
+    Stream<SearchDocument> streamSearchDocuments();
+
+    @Query("select new com.example.student_management_system.dto.SearchHit(c.id, c.title, c.description) " +
+            "from Course c where c.id in :ids")
+    List<SearchHit> findSearchHits(@Param("ids") List<Long> ids);
+
+    @Query("select new com.example.student_management_system.dto.SearchHit(c.id, c.title, c.description) " +
+            "from Course c " +
+            "where lower(c.title) like :pattern escape '\\' or lower(c.description) like :pattern escape '\\' " +
+            "order by c.id")
+    List<SearchHit> searchByText(@Param("pattern") String pattern, Pageable pageable);
+
+    // --- Timetable (see TimetableService) ---
+
+    // Every course with a fixed weekly time, to build the in-memory timetable at startup
+    @Query("select new com.example.student_management_system.dto.CourseMeeting(c.id, c.title, c.meetingDay, " +
+            "c.startTime, c.endTime, c.room) from Course c " +
+            "where c.meetingDay is not null and c.startTime is not null and c.endTime is not null")
+    Stream<CourseMeeting> streamMeetings();
+
+    // Enrolled students per course (courses without students too), see EnrollmentStats
+    @Query("select new com.example.student_management_system.dto.StatsCount(c.id, c.title, count(e.id.studentId)) " +
+            "from Course c left join c.enrollments e group by c.id, c.title")
+    List<StatsCount> countEnrollments();
+}
@@ -1,9 +1,14 @@
 package com.example.student_management_system.repository;
 
 import com.example.student_management_system.model.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
     // This custom method allows us to find a department just by typing its name (e.g. "CSE")
+    // The result is kept in the query cache until the departments table changes (see EntityCacheConfig)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Department findByName(String name);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.example.student_management_system.repository;
+
+import com.example.student_management_system.dto.GradeRow;
+import com.example.student_management_system.model.Enrollment;
+import com.example.student_management_system.model.EnrollmentId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.stream.Stream;
+
+// Enrollments as entities, for their grades. Enrolling and unenrolling stay native (see StudentRepository).
+public interface EnrollmentRepository extends JpaRepository<Enrollment, EnrollmentId> {
+
+    // Every graded enrollment with the student's department, to build the grade aggregates at startup (see GradeService)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.student_management_system.dto.GradeRow(e.id.studentId, d.id, e.id.courseId, " +
+            "e.grade, e.credits, e.version) " +
+            "from Enrollment e join e.student s left join s.department d where e.grade is not null")
+    Stream<GradeRow> streamGrades();
+}
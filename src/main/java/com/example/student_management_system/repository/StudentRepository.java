@@ -1,12 +1,108 @@
 package com.example.student_management_system.repository;
 
+import com.example.student_management_system.dto.RosterRow;
+import com.example.student_management_system.dto.SearchDocument;
+import com.example.student_management_system.dto.SearchHit;
+import com.example.student_management_system.dto.StatsCount;
 import com.example.student_management_system.model.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
     // This gives you ready-made methods:
     // .save(), .findAll(), .deleteById(), etc.
     Student findByUser(com.example.student_management_system.model.User user);
-}
\ No newline at end of file
+
+    // Keyset (seek) pagination: "give me the next rows after this id".
+    // Unlike OFFSET, the database jumps straight to the id via the primary key,
+    // so page 5000 costs the same as page 1. Only pass Pageable.ofSize(n) here (no sorting/offset).
+    @Query("select s from Student s left join fetch s.department d left join fetch s.user " +
+            "where s.id > :afterId and (:deptName is null or d.name = :deptName) order by s.id asc")
+    List<Student> findPageAfter(@Param("afterId") Long afterId,
+                                @Param("deptName") String deptName,
+                                Pageable pageable);
+
+    // Same as above, but walking backwards (used by the "Previous" button).
+    // The rows come back newest-first, the caller flips them.
+    @Query("select s from Student s left join fetch s.department d left join fetch s.user " +
+            "where s.id < :beforeId and (:deptName is null or d.name = :deptName) order by s.id desc")
+    List<Student> findPageBefore(@Param("beforeId") Long beforeId,
+                                 @Param("deptName") String deptName,
+                                 Pageable pageable);
+
+    // Roster export: every student with department and course titles, one row per (student, course).
+    // Streamed through a cursor 1000 rows at a time; must be consumed inside a transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.student_management_system.dto.RosterRow(s.id, s.name, s.email, d.name, c.title) " +
+            "from Student s left join s.department d left join s.enrollments e left join e.course c order by s.id, c.title")
+    Stream<RosterRow> streamRoster();
+
+    // --- Search (see SearchService) ---
+
+    // Everything the search index needs, streamed so a million students never sit in memory at once
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.student_management_system.dto.SearchDocument(s.id, s.name, s.email, d.name) " +
+            "from Student s left join s.department d")
+    Stream<SearchDocument> streamSearchDocuments();
+
+    @Query("select new com.example.student_management_system.dto.SearchHit(s.id, s.name, s.email) " +
+            "from Student s where s.id in :ids")
+    List<SearchHit> findSearchHits(@Param("ids") List<Long> ids);
+
+    // Fallback while the index is not available: a substring scan over the whole table (pattern like "%smi%")
+    @Query("select new com.example.student_management_system.dto.SearchHit(s.id, s.name, s.email) " +
+            "from Student s left join s.department d " +
+            "where lower(s.name) like :pattern escape '\\' or lower(s.email) like :pattern escape '\\' " +
+            "or lower(d.name) like :pattern escape '\\' " +
+            "order by s.id")
+    List<SearchHit> searchByText(@Param("pattern") String pattern, Pageable pageable);
+
+    // --- Enrollment rows (student_courses), written directly ---
+    // These touch exactly one row and never load the Student or its course list.
+    // HINT_NATIVE_SPACES names the table, so Hibernate only evicts the cached enrollments and
+    // course->enrollments lists instead of the whole second-level cache (see EntityCacheConfig).
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_courses"))
+    @Query(value = "insert into student_courses (student_id, course_id) values (:studentId, :courseId)", nativeQuery = true)
+    int insertEnrollment(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_courses"))
+    @Query(value = "delete from student_courses where student_id = :studentId and course_id = :courseId", nativeQuery = true)
+    int deleteEnrollment(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_courses"))
+    @Query(value = "select count(*) from student_courses where student_id = :studentId and course_id = :courseId", nativeQuery = true)
+    long countEnrollment(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    // The courses a student is enrolled in, by id only (the clash check in TimetableService needs nothing else)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_courses"))
+    @Query(value = "select course_id from student_courses where student_id = :studentId", nativeQuery = true)
+    List<Long> findCourseIds(@Param("studentId") Long studentId);
+
+    // Students per department, see EnrollmentStats. Students without a department come back with a null id.
+    @Query("select new com.example.student_management_system.dto.StatsCount(d.id, d.name, count(s.id)) " +
+            "from Student s left join s.department d group by d.id, d.name")
+    List<StatsCount> countByDepartment();
+}
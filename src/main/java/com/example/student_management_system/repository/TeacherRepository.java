@@ -1,9 +1,14 @@
 package com.example.student_management_system.repository;
 
 import com.example.student_management_system.model.Teacher;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface TeacherRepository extends JpaRepository<Teacher, Long> {
     // This gives us standard database methods like save(), findAll(), etc.
+    // Cached in the query cache (see EntityCacheConfig): login and course creation look this up all the time
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Teacher findByUser(com.example.student_management_system.model.User user);
 }
\ No newline at end of file
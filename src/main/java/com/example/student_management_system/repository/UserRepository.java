@@ -2,7 +2,17 @@ package com.example.student_management_system.repository;
 
 import com.example.student_management_system.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByUsername(String username);
-}
\ No newline at end of file
+
+    // Used when a login upgrades an outdated password hash
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+}
@@ -0,0 +1,128 @@
+package com.example.student_management_system.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.Principal;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+// Signed tokens for stateless logins (Authorization: Bearer <token>, see SecurityConfig.tokenFilterChain).
+//
+// A token says who the user is (username, role, Student/Teacher id) and until when, signed with HMAC-SHA256:
+//   base64url("<expires epoch s>:<role>:<student id>:<teacher id>:<username>") + "." + base64url(signature)
+// Any app instance with the same key (app.auth-token.secret) can check it without a session, a session
+// store or a database lookup. Without a configured key every instance makes up its own at startup, and
+// tokens only work on the instance that issued them (and only until it restarts).
+//
+// A token can't be taken back: it stays valid until it expires (app.auth-token.ttl), even if the
+// profile is deleted in between. Keep the ttl short.
+@Service
+public class AuthTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // What a valid token carries. Used as the principal of token requests, so getName() is the username.
+    public record AuthToken(String username,
+                            String role,
+                            Long studentId,
+                            Long teacherId,
+                            Instant expiresAt) implements Principal {
+
+        @Override
+        public String getName() {
+            return username;
+        }
+    }
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+
+    public AuthTokenService(@Value("${app.auth-token.secret:}") String secret,
+                            @Value("${app.auth-token.ttl:15m}") Duration ttl) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("app.auth-token.secret is not set: tokens only work on this instance until it restarts");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret.trim());
+            if (keyBytes.length < 32) {
+                throw new IllegalArgumentException("app.auth-token.secret must be at least 32 bytes (Base64)");
+            }
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttl = ttl;
+    }
+
+    public AuthToken issue(UserAccountCache.CachedUser user) {
+        // Whole seconds, like the token itself
+        Instant expiresAt = Instant.now().plus(ttl).truncatedTo(ChronoUnit.SECONDS);
+        return new AuthToken(user.username(), user.role(), user.studentId(), user.teacherId(), expiresAt);
+    }
+
+    public String encode(AuthToken token) {
+        String claims = token.expiresAt().getEpochSecond() + ":" + token.role() + ":"
+                + orEmpty(token.studentId()) + ":" + orEmpty(token.teacherId()) + ":" + token.username();
+        String payload = ENCODER.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    // The token's content, or null if it is malformed, not signed with our key, or expired
+    public AuthToken decode(String token) {
+        int dot = token.lastIndexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String payload = token.substring(0, dot);
+        try {
+            // Constant-time comparison, so the signature can't be guessed byte by byte
+            if (!MessageDigest.isEqual(sign(payload), DECODER.decode(token.substring(dot + 1)))) {
+                return null;
+            }
+            String[] claims = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split(":", 5);
+            if (claims.length != 5) {
+                return null;
+            }
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(claims[0]));
+            if (!Instant.now().isBefore(expiresAt)) {
+                return null;
+            }
+            return new AuthToken(claims[4], claims[1], idOrNull(claims[2]), idOrNull(claims[3]), expiresAt);
+        } catch (IllegalArgumentException e) {
+            return null; // not Base64, or not a number where one belongs (NumberFormatException)
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            // A Mac is not thread-safe, and a new one is cheap next to a request
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e); // every JVM has HmacSHA256
+        }
+    }
+
+    private static String orEmpty(Long id) {
+        return id != null ? id.toString() : "";
+    }
+
+    private static Long idOrNull(String id) {
+        return id.isEmpty() ? null : Long.valueOf(id);
+    }
+}
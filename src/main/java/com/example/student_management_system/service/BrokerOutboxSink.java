@@ -0,0 +1,97 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.ChangeEvent;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// app.outbox.sink=broker: stands in for a message broker (Kafka-like) until there is a real one.
+// - Events are spread over partitions by aggregate (type + id), so all events of one student or
+//   course land in the same partition, in order.
+// - Every partition is a log with its own offsets (0, 1, 2, ...), read with read(partition, offset, max).
+// - Sending a batch costs app.outbox.broker.latency (one network round trip), whatever its size.
+// - Each partition keeps the last app.outbox.broker.retention events, older ones are dropped.
+public class BrokerOutboxSink implements OutboxSink {
+
+    private final Partition[] partitions;
+    private final Duration latency;
+    private final int retention;
+
+    public BrokerOutboxSink(int partitions, Duration latency, int retention) {
+        this.partitions = new Partition[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.partitions[i] = new Partition();
+        }
+        this.latency = latency;
+        this.retention = retention;
+    }
+
+    @Override
+    public void publish(List<ChangeEvent> events) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while publishing", e);
+            }
+        }
+        for (ChangeEvent event : events) {
+            partitions[partition(event)].append(event);
+        }
+    }
+
+    public int partitions() {
+        return partitions.length;
+    }
+
+    public int partition(ChangeEvent event) {
+        return Math.floorMod((event.aggregateType() + ":" + event.aggregateId()).hashCode(), partitions.length);
+    }
+
+    // Events of the partition from the given offset on; an offset that was already dropped starts at the oldest left
+    public List<ChangeEvent> read(int partition, long offset, int max) {
+        return partitions[partition].read(offset, max);
+    }
+
+    // The offset the next event of the partition will get
+    public long endOffset(int partition) {
+        return partitions[partition].endOffset();
+    }
+
+    private class Partition {
+
+        private final Deque<ChangeEvent> log = new ArrayDeque<>();
+        private long firstOffset;
+
+        synchronized void append(ChangeEvent event) {
+            log.addLast(event);
+            if (log.size() > retention) {
+                log.removeFirst();
+                firstOffset++;
+            }
+        }
+
+        synchronized List<ChangeEvent> read(long offset, int max) {
+            List<ChangeEvent> events = new ArrayList<>();
+            long skip = Math.max(0, offset - firstOffset);
+            for (ChangeEvent event : log) {
+                if (skip > 0) {
+                    skip--;
+                } else if (events.size() < max) {
+                    events.add(event);
+                } else {
+                    break;
+                }
+            }
+            return events;
+        }
+
+        synchronized long endOffset() {
+            return firstOffset + log.size();
+        }
+    }
+}
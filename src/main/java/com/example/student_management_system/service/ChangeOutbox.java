@@ -0,0 +1,202 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.ChangeEvent;
+import com.example.student_management_system.dto.ChangeEventPage;
+import com.example.student_management_system.model.Grade;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.engine.spi.TransactionCompletionCallbacks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.ObjectMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Transactional outbox: every change to a student, a course or an enrollment is written to outbox_events
+// in the same transaction as the change itself. Committed -> the event is there; rolled back -> it is not.
+// No event is lost when the app dies right after a commit, and none is sent for work that was undone.
+//
+// - ChangeOutboxListener (student/course saves and deletes), EnrollmentService (enroll/unenroll) and
+//   GradeService (grades) call record().
+// - The events of a transaction are collected and written as ONE JDBC batch just before it commits
+//   (after Hibernate's last flush, on the same connection), so a bulk import chunk costs one extra round trip.
+// - OutboxRelay numbers the written events (position 1, 2, 3, ...) and hands them to the sink;
+//   read() / GET /api/events return them by position, from any offset.
+//
+// app.outbox.enabled=false turns recording off (nothing is written, the relay has nothing to do).
+@Service
+public class ChangeOutbox {
+
+    public static final String STUDENT = "STUDENT";
+    public static final String COURSE = "COURSE";
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+    public static final String ENROLLED = "ENROLLED";
+    public static final String UNENROLLED = "UNENROLLED";
+    public static final String GRADED = "GRADED";
+
+    private static final String INSERT = "insert into outbox_events "
+            + "(aggregate_type, aggregate_id, event_type, payload, created_at) values (?, ?, ?, ?, ?)";
+
+    // Relayed events only: an event without a position may still get one before an older event commits
+    private static final String READ = "select position, aggregate_type, aggregate_id, event_type, payload, created_at "
+            + "from outbox_events where position > ? order by position limit ?";
+
+    static final RowMapper<ChangeEvent> EVENT = (rs, rowNum) -> new ChangeEvent(
+            rs.getLong("position"), rs.getString("aggregate_type"), rs.getLong("aggregate_id"),
+            rs.getString("event_type"), rs.getString("payload"), rs.getTimestamp("created_at").toInstant());
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.max-read:1000}")
+    private int maxRead;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // --- Recording ---
+
+    // Enrollments are written with native SQL, so EnrollmentService reports them (inside its transaction)
+    void enrolled(Long studentId, Long courseId) {
+        enrollment(ENROLLED, studentId, courseId);
+    }
+
+    void unenrolled(Long studentId, Long courseId) {
+        enrollment(UNENROLLED, studentId, courseId);
+    }
+
+    // A grade saved by GradeService (grade null = taken back)
+    void graded(Long studentId, Long courseId, Grade grade, int credits) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("grade", grade != null ? grade.label() : null);
+        payload.put("credits", credits);
+        enrollment(GRADED, studentId, courseId, payload);
+    }
+
+    private void enrollment(String eventType, Long studentId, Long courseId) {
+        enrollment(eventType, studentId, courseId, Map.of());
+    }
+
+    private void enrollment(String eventType, Long studentId, Long courseId, Map<String, Object> details) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("studentId", studentId);
+        payload.put("courseId", courseId);
+        payload.putAll(details);
+        record(entityManager.unwrap(SharedSessionContractImplementor.class), COURSE, courseId, eventType, payload);
+    }
+
+    // Called while the session flushes; the row is written when the session's transaction commits
+    void record(SharedSessionContractImplementor session, String aggregateType, Long aggregateId,
+                String eventType, Map<String, Object> payload) {
+        if (!enabled) {
+            return;
+        }
+        OutboxRow row = new OutboxRow(aggregateType, aggregateId, eventType,
+                objectMapper.writeValueAsString(payload), Instant.now());
+        pending(session).rows.add(row);
+    }
+
+    private PendingEvents pending(SharedSessionContractImplementor session) {
+        PendingEvents pending = TransactionSynchronizationManager.isSynchronizationActive()
+                ? (PendingEvents) TransactionSynchronizationManager.getResource(this) : null;
+        if (pending == null) {
+            pending = new PendingEvents();
+            session.getTransactionCompletionCallbacks().registerCallback(pending);
+            // Outside a Spring transaction every event gets its own callback (still written before the commit)
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.bindResource(this, pending);
+                TransactionSynchronizationManager.registerSynchronization(pending);
+            }
+        }
+        return pending;
+    }
+
+    // --- Reading ---
+
+    // Relayed events after the given position, oldest first. Events older than app.outbox.retention are gone:
+    // an offset from before that simply continues with the oldest event that is left.
+    public ChangeEventPage read(long after, int limit) {
+        int size = Math.max(1, Math.min(limit, maxRead));
+        List<ChangeEvent> events = jdbcTemplate.query(READ, EVENT, after, size);
+        long next = events.isEmpty() ? after : events.get(events.size() - 1).position();
+        return new ChangeEventPage(events, next);
+    }
+
+    private record OutboxRow(String aggregateType, Long aggregateId, String eventType, String payload,
+                             Instant createdAt) {
+    }
+
+    // The events of one transaction.
+    // Spring's beforeCommit() runs before Hibernate flushes the last changes (and so before the last events
+    // are known), Hibernate's before-completion callbacks run after that flush: that is where they are written.
+    private class PendingEvents implements TransactionSynchronization,
+            TransactionCompletionCallbacks.BeforeCompletionCallback {
+
+        private final List<OutboxRow> rows = new ArrayList<>();
+
+        @Override
+        public void doBeforeTransactionCompletion(SharedSessionContractImplementor session) {
+            if (rows.isEmpty()) {
+                return;
+            }
+            session.doWork(connection -> {
+                try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                    for (OutboxRow row : rows) {
+                        insert.setString(1, row.aggregateType());
+                        insert.setLong(2, row.aggregateId());
+                        insert.setString(3, row.eventType());
+                        insert.setString(4, row.payload());
+                        insert.setTimestamp(5, Timestamp.from(row.createdAt()));
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            });
+            rows.clear();
+        }
+
+        // A REQUIRES_NEW transaction inside ours collects its own events
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(ChangeOutbox.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(ChangeOutbox.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeOutbox.this);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.model.Student;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Puts every student and course that is inserted (sign-up, form, bulk import), updated or deleted into
+// the outbox (see ChangeOutbox). Runs while Hibernate executes the statement, in the same transaction.
+@Component
+public class ChangeOutboxListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ChangeOutbox changeOutbox;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Student student) {
+            changeOutbox.record(event.getSession(), ChangeOutbox.STUDENT, student.getId(), ChangeOutbox.CREATED,
+                    payload(student));
+        } else if (event.getEntity() instanceof Course course) {
+            changeOutbox.record(event.getSession(), ChangeOutbox.COURSE, course.getId(), ChangeOutbox.CREATED,
+                    payload(course));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Student student) {
+            changeOutbox.record(event.getSession(), ChangeOutbox.STUDENT, student.getId(), ChangeOutbox.UPDATED,
+                    payload(student));
+        } else if (event.getEntity() instanceof Course course) {
+            changeOutbox.record(event.getSession(), ChangeOutbox.COURSE, course.getId(), ChangeOutbox.UPDATED,
+                    payload(course));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Student || event.getEntity() instanceof Course) {
+            String type = event.getEntity() instanceof Student ? ChangeOutbox.STUDENT : ChangeOutbox.COURSE;
+            Long id = (Long) event.getId();
+            changeOutbox.record(event.getSession(), type, id, ChangeOutbox.DELETED, Map.of("id", id));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // Own columns and the ids of linked rows (a lazy reference answers getId() without being loaded)
+    private static Map<String, Object> payload(Student student) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", student.getId());
+        payload.put("version", student.getVersion());
+        payload.put("name", student.getName());
+        payload.put("email", student.getEmail());
+        payload.put("departmentId", student.getDepartment() != null ? student.getDepartment().getId() : null);
+        payload.put("userId", student.getUser() != null ? student.getUser().getId() : null);
+        return payload;
+    }
+
+    private static Map<String, Object> payload(Course course) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", course.getId());
+        payload.put("version", course.getVersion());
+        payload.put("title", course.getTitle());
+        payload.put("description", course.getDescription());
+        payload.put("capacity", course.getCapacity());
+        payload.put("teacherId", course.getTeacher() != null ? course.getTeacher().getId() : null);
+        return payload;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.student_management_system.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// First-come-first-served waiting list per course, for when all seats are taken.
+// Kept in the course_waitlist table (see V9), so it is shared by all instances and survives a restart.
+// Bounded to app.enrollment.waitlist-size per course; joins racing for the last places may overshoot it by a few.
+// Joins the caller's transaction, if there is one.
+@Component
+public class CourseWaitlist {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxPerCourse;
+
+    public CourseWaitlist(JdbcTemplate jdbcTemplate, @Value("${app.enrollment.waitlist-size:200}") int maxPerCourse) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPerCourse = maxPerCourse;
+    }
+
+    // Adds the student at the back. Returns false if the list is already full.
+    public boolean offer(Long courseId, Long studentId) {
+        try {
+            if (jdbcTemplate.update("insert into course_waitlist (course_id, student_id) select ?, ? "
+                    + "where not exists (select 1 from course_waitlist where course_id = ? and student_id = ?)",
+                    courseId, studentId, courseId, studentId) == 0) {
+                return true; // already waiting
+            }
+        } catch (DuplicateKeyException e) {
+            return true; // joined twice at the same moment
+        }
+        // Counting after the insert: of two students taking the last place at once, the later one leaves again
+        Long place = jdbcTemplate.queryForObject("select count(*) from course_waitlist w where w.course_id = ? "
+                + "and w.position <= (select position from course_waitlist where course_id = ? and student_id = ?)",
+                Long.class, courseId, courseId, studentId);
+        if (place != null && place > maxPerCourse) {
+            remove(courseId, studentId);
+            return false;
+        }
+        return true;
+    }
+
+    // The next student in line, without taking them off the list (null if nobody is waiting)
+    public Long peek(Long courseId) {
+        List<Long> first = jdbcTemplate.queryForList(
+                "select student_id from course_waitlist where course_id = ? order by position limit 1", Long.class, courseId);
+        return first.isEmpty() ? null : first.get(0);
+    }
+
+    public boolean remove(Long courseId, Long studentId) {
+        return jdbcTemplate.update("delete from course_waitlist where course_id = ? and student_id = ?", courseId, studentId) > 0;
+    }
+
+    // Takes the student out of every course's list (the student is being deleted)
+    public void removeStudent(Long studentId) {
+        jdbcTemplate.update("delete from course_waitlist where student_id = ?", studentId);
+    }
+
+    public boolean contains(Long courseId, Long studentId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from course_waitlist where course_id = ? and student_id = ?)",
+                Boolean.class, courseId, studentId));
+    }
+
+    // The courses the student is waiting for
+    public List<Long> courseIds(Long studentId) {
+        return jdbcTemplate.queryForList("select course_id from course_waitlist where student_id = ?", Long.class, studentId);
+    }
+
+    public boolean isEmpty(Long courseId) {
+        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from course_waitlist where course_id = ?)", Boolean.class, courseId));
+    }
+}
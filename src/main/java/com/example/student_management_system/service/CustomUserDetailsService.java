@@ -1,31 +1,46 @@
 package com.example.student_management_system.service;
 
-import com.example.student_management_system.model.User;
 import com.example.student_management_system.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    @Autowired
+    private UserAccountCache userAccountCache;
 
     @Autowired
     private UserRepository userRepository;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username);
+        // Served from the cache, so a login storm doesn't hammer the users table
+        UserAccountCache.CachedUser user = userAccountCache.get(username);
         if (user == null) {
             throw new UsernameNotFoundException("User not found");
         }
 
-        // We convert our database User into a Spring Security User
+        // We convert our cached User into a Spring Security User
         return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .roles(user.getRole().replace("ROLE_", "")) // Remove 'ROLE_' prefix if stored
+                .withUsername(user.username())
+                .password(user.password())
+                .roles(user.role().replace("ROLE_", "")) // Remove 'ROLE_' prefix if stored
+                .build();
+    }
+
+    // Called by Spring Security after a successful login when the stored hash is outdated
+    // (older format or lower BCrypt cost than configured). newPassword is already hashed.
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        userAccountCache.evict(user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
                 .build();
     }
-}
\ No newline at end of file
+}
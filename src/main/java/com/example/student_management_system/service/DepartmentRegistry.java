@@ -0,0 +1,127 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.Department;
+import com.example.student_management_system.repository.DepartmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory "department name -> id" map, so saving a student does not cost a department lookup.
+//
+// - Filled once at startup, then every new name is added the first time it is used.
+// - Creating a department is safe under races (threads or several app nodes): the
+//   departments.name column is unique, so only one INSERT can win. The losers hit the
+//   constraint, read the winner's row and use that id.
+// - Departments are never renamed or deleted by the app, so a cached id stays valid.
+//   Code that deletes departments must call evict()/evictAll() (other nodes pick the
+//   change up on restart or reload()).
+@Service
+public class DepartmentRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(DepartmentRegistry.class);
+
+    private final DepartmentRepository departmentRepository;
+    private final TransactionTemplate newTransaction;
+    private final Map<String, Long> ids = new ConcurrentHashMap<>();
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+
+    public DepartmentRegistry(DepartmentRepository departmentRepository, PlatformTransactionManager transactionManager) {
+        this.departmentRepository = departmentRepository;
+        // The INSERT runs on its own, so a lost race never marks the caller's transaction rollback-only
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        Map<String, Long> fresh = new ConcurrentHashMap<>();
+        for (Department department : departmentRepository.findAll()) {
+            fresh.put(department.getName(), department.getId());
+        }
+        ids.keySet().retainAll(fresh.keySet());
+        ids.putAll(fresh);
+        names.clear();
+        fresh.forEach((name, id) -> names.put(id, name));
+        log.info("Loaded {} departments", fresh.size());
+    }
+
+    // Id of the department with this name, created if it does not exist yet.
+    // Returns null for an empty name (= no department).
+    public Long resolveId(String name) {
+        String key = normalize(name);
+        if (key == null) {
+            return null;
+        }
+        Long id = ids.get(key);
+        if (id == null) {
+            id = findOrCreate(key);
+            ids.putIfAbsent(key, id);
+            names.putIfAbsent(id, key);
+        }
+        return id;
+    }
+
+    // Same, as an entity reference that can be set on a Student without loading the department
+    public Department resolve(String name) {
+        Long id = resolveId(name);
+        return id != null ? departmentRepository.getReferenceById(id) : null;
+    }
+
+    // Name of a known department, or null (no query, e.g. for a lazy Department reference)
+    public String findName(Long id) {
+        return id != null ? names.get(id) : null;
+    }
+
+    public void evict(String name) {
+        String key = normalize(name);
+        if (key != null) {
+            Long id = ids.remove(key);
+            if (id != null) {
+                names.remove(id);
+            }
+        }
+    }
+
+    public void evictAll() {
+        ids.clear();
+        names.clear();
+    }
+
+    private Long findOrCreate(String name) {
+        try {
+            return newTransaction.execute(status -> {
+                Department existing = departmentRepository.findByName(name);
+                if (existing != null) {
+                    return existing.getId();
+                }
+                Department department = new Department();
+                department.setName(name);
+                return departmentRepository.saveAndFlush(department).getId();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Somebody else inserted the same name between our SELECT and INSERT.
+            // Read it in a read-write transaction, so it comes from the primary (a replica may not have it yet)
+            Department winner = newTransaction.execute(status -> departmentRepository.findByName(name));
+            if (winner == null) {
+                throw e;
+            }
+            return winner.getId();
+        }
+    }
+
+    private static String normalize(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return name.trim();
+    }
+}
@@ -0,0 +1,419 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.EnrollmentResult;
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.repository.CourseRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Enroll / unenroll without loading the student's course list, and without ever overselling a course.
+//
+// - Enrolling is one short transaction: a conditional UPDATE that takes a seat (only if one is left)
+//   plus a single-row INSERT into student_courses. If either fails, both are rolled back.
+// - Unenrolling is one short transaction: a single-row DELETE plus giving the seat back.
+// - Both also write a change event (ChangeOutbox) in that transaction.
+// - When a course is full, the student goes to a bounded FIFO waiting list (CourseWaitlist, a table shared by
+//   all instances) and gets the next free seat.
+// - A course that meets at the same time as one of the student's courses is refused (TimetableService).
+// - At most app.enrollment.max-concurrent-per-course requests per course talk to the database at once.
+//   The others wait in a fair (FIFO) queue, so one hot course can't eat the whole connection pool.
+// - With app.enrollment.write-behind.enabled=true clicks are answered from memory and written in batches
+//   a few milliseconds later, see EnrollmentWriteBehind.
+@Service
+public class EnrollmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentService.class);
+
+    private static final int MAX_ATTEMPTS = 10;
+    private static final int ADMISSION_STRIPES = 64;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseWaitlist waitlist;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EnrollmentStats enrollmentStats;
+
+    @Autowired
+    private ChangeOutbox changeOutbox;
+
+    @Autowired
+    private TimetableService timetableService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.enrollment.max-concurrent-per-course:4}")
+    private int maxConcurrentPerCourse;
+
+    @Value("${app.enrollment.admission-timeout:2s}")
+    private Duration admissionTimeout;
+
+    @Value("${app.enrollment.recount-seats-on-startup:false}")
+    private boolean recountSeatsOnStartup;
+
+    @Value("${app.enrollment.write-behind.enabled:false}")
+    private boolean writeBehindEnabled;
+
+    @Value("${app.enrollment.write-behind.partitions:4}")
+    private int writeBehindPartitions;
+
+    @Value("${app.enrollment.write-behind.flush-interval:5ms}")
+    private Duration writeBehindFlushInterval;
+
+    @Value("${app.enrollment.write-behind.max-pending:10000}")
+    private int writeBehindMaxPending;
+
+    @Value("${app.enrollment.write-behind.journal-dir:enrollment-journal}")
+    private Path writeBehindJournal;
+
+    @Value("${app.enrollment.write-behind.fsync:false}")
+    private boolean writeBehindFsync;
+
+    private Semaphore[] admission;
+
+    // null = every click is written right away
+    private EnrollmentWriteBehind writeBehind;
+
+    @PostConstruct
+    void init() {
+        admission = new Semaphore[ADMISSION_STRIPES];
+        for (int i = 0; i < ADMISSION_STRIPES; i++) {
+            admission[i] = new Semaphore(maxConcurrentPerCourse, true);
+        }
+        if (writeBehindEnabled) {
+            writeBehind = new EnrollmentWriteBehind(this, jdbcTemplate, transactionTemplate, enrollmentStats,
+                    changeOutbox, gradeService, entityManagerFactory, writeBehindPartitions, writeBehindFlushInterval,
+                    writeBehindMaxPending, admissionTimeout, writeBehindJournal, writeBehindFsync);
+            if (meterRegistry != null) {
+                writeBehind.bindMetrics(meterRegistry);
+            }
+            writeBehind.start();
+        }
+    }
+
+    // Writes the clicks still in memory before the app stops
+    @PreDestroy
+    void close() {
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
+    }
+
+    // Rebuilds courses.seats_taken from student_courses, e.g. after enrollments were edited by hand.
+    // Off by default: only run it while no other instance is taking enrollments.
+    @EventListener(ApplicationReadyEvent.class)
+    public void recountSeatsOnStartup() {
+        if (recountSeatsOnStartup) {
+            int courses = courseRepository.recountSeats();
+            log.info("Recounted taken seats for {} courses", courses);
+        }
+    }
+
+    // Flips the enrollment of a student in a course.
+    //
+    // How it stays correct under concurrency:
+    // 1. Try to DELETE the row. If a row was deleted, the student was enrolled -> now unenrolled.
+    // 2. Otherwise take a seat and INSERT the row. The unique constraint on (student_id, course_id)
+    //    means only one concurrent insert can win. The loser saw "not enrolled" too late, its
+    //    transaction (including the seat) is rolled back and it simply tries again.
+    // Every toggle therefore takes effect exactly once, in some order.
+    public EnrollmentResult toggle(Long studentId, Long courseId) {
+        // A student who is waiting and clicks again just leaves the queue
+        if (waitlist.remove(courseId, studentId)) {
+            return EnrollmentResult.LEFT_WAITLIST;
+        }
+        if (writeBehind != null) {
+            EnrollmentResult result = writeBehind.toggle(studentId, courseId);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        Semaphore permit = admission[Math.floorMod(courseId.hashCode(), ADMISSION_STRIPES)];
+        if (!acquire(permit)) {
+            return EnrollmentResult.BUSY;
+        }
+        try {
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                if (unenroll(studentId, courseId)) {
+                    promoteFromWaitlist(courseId);
+                    return EnrollmentResult.UNENROLLED;
+                }
+                if (hasConflict(studentId, courseId)) {
+                    return EnrollmentResult.CONFLICT;
+                }
+                try {
+                    // Nobody may jump the queue: if students are already waiting, get in line
+                    if (waitlist.isEmpty(courseId) && enroll(studentId, courseId)) {
+                        return EnrollmentResult.ENROLLED;
+                    }
+                    return joinWaitlist(studentId, courseId);
+                } catch (DataIntegrityViolationException e) {
+                    // Duplicate row -> somebody enrolled in between, go round again.
+                    // Anything else (e.g. the student does not exist) is a real error.
+                    if (!isDuplicateRow(e)) {
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            permit.release();
+        }
+        throw new IllegalStateException("Could not toggle enrollment of student " + studentId
+                + " in course " + courseId + " after " + MAX_ATTEMPTS + " attempts");
+    }
+
+    // Includes the student's clicks that are not written yet (write-behind)
+    public boolean isEnrolled(Long studentId, Long courseId) {
+        Boolean pending = writeBehind != null ? writeBehind.pendingState(studentId, courseId) : null;
+        return pending != null ? pending : studentRepository.countEnrollment(studentId, courseId) > 0;
+    }
+
+    // The student's clicks that are not written yet: course id -> enrolled (empty without write-behind)
+    public Map<Long, Boolean> pendingEnrollments(Long studentId) {
+        return writeBehind != null && studentId != null ? writeBehind.pendingStates(studentId) : Map.of();
+    }
+
+    // Waits until every click answered so far is in the database (benchmarks, tests)
+    public void flushPendingEnrollments() {
+        if (writeBehind != null) {
+            writeBehind.flush();
+        }
+    }
+
+    // Deletes a student (their enrollment rows go with them, see Student.enrollments), gives their seats back
+    // and lets the next waiting students have them
+    public void deleteStudent(Long studentId) {
+        waitlist.removeStudent(studentId);
+        flushPendingEnrollments(); // the student's clicks still in memory are rows too
+        List<Long> courseIds = transactionTemplate.execute(status -> {
+            // Unenrolled one by one in this transaction: seat, counters, outbox and grade, like a click
+            List<Long> freed = new ArrayList<>();
+            for (Long courseId : studentRepository.findCourseIds(studentId)) {
+                if (unenroll(studentId, courseId)) {
+                    freed.add(courseId);
+                }
+            }
+            studentRepository.deleteById(studentId);
+            return freed;
+        });
+        // Committed: the seats are free now
+        for (Long courseId : courseIds) {
+            promoteFromWaitlist(courseId);
+        }
+    }
+
+    public boolean isWaitlisted(Long studentId, Long courseId) {
+        return waitlist.contains(courseId, studentId);
+    }
+
+    // The courses the student is on the waiting list for (empty for nobody)
+    public Set<Long> waitlistedCourses(Long studentId) {
+        return studentId != null ? new HashSet<>(waitlist.courseIds(studentId)) : Set.of();
+    }
+
+    private EnrollmentResult joinWaitlist(Long studentId, Long courseId) {
+        // Read-write transaction = read from the primary, a replica could be behind on the seat count
+        Boolean freeSeat = transactionTemplate.execute(status -> courseRepository.hasFreeSeat(courseId));
+        if (freeSeat == null) {
+            throw new NoSuchElementException("Course " + courseId + " does not exist");
+        }
+        if (!waitlist.offer(courseId, studentId)) {
+            return EnrollmentResult.FULL;
+        }
+        // A seat may have been freed between our failed attempt and joining the queue.
+        // Checking with a plain read first keeps full courses from piling up on the row lock.
+        if (freeSeat) {
+            promoteFromWaitlist(courseId);
+        }
+        return waitlist.contains(courseId, studentId) ? EnrollmentResult.WAITLISTED : EnrollmentResult.ENROLLED;
+    }
+
+    // --- Used by EnrollmentWriteBehind ---
+
+    // Read-write transaction = read from the primary, a replica could be behind on a batch just written
+    boolean isEnrolledInDatabase(Long studentId, Long courseId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(
+                status -> studentRepository.countEnrollment(studentId, courseId) > 0));
+    }
+
+    // true if nobody is waiting and the live counters (EnrollmentStats) leave room for this many more students
+    boolean hasRoomFor(Long courseId, int students) {
+        if (!waitlist.isEmpty(courseId)) {
+            return false;
+        }
+        // Second-level cache: usually no query
+        Course course = courseRepository.findById(courseId).orElse(null);
+        if (course == null) {
+            return false; // the synchronous way reports it
+        }
+        return course.getCapacity() == null || enrollmentStats.enrolledIn(courseId) + students <= course.getCapacity();
+    }
+
+    // true if the course meets at the same time as one the student is in (clicks not written yet included).
+    // The clash itself is found in memory; the only query is the student's course ids, and only for
+    // courses with a meeting time.
+    boolean hasConflict(Long studentId, Long courseId) {
+        if (!timetableService.hasMeetingTime(courseId)) {
+            return false;
+        }
+        // Read-write transaction = the primary, a replica may not have the student's latest enrollment yet
+        Set<Long> courseIds = new HashSet<>(transactionTemplate.execute(
+                status -> studentRepository.findCourseIds(studentId)));
+        pendingEnrollments(studentId).forEach((id, enrolled) -> {
+            if (enrolled) {
+                courseIds.add(id);
+            } else {
+                courseIds.remove(id);
+            }
+        });
+        return !timetableService.conflicts(courseIds, courseId).isEmpty();
+    }
+
+    CourseWaitlist waitlist() {
+        return waitlist;
+    }
+
+    // Gives free seats to the students at the front of the waiting list, in order.
+    // Taking the student off the list and enrolling them is one transaction: another instance promoting
+    // at the same time, or the student leaving the list meanwhile, can't get them enrolled twice or after they left.
+    void promoteFromWaitlist(Long courseId) {
+        Long next;
+        while ((next = waitlist.peek(courseId)) != null) {
+            Long studentId = next;
+            try {
+                Boolean enrolled = transactionTemplate.execute(status -> {
+                    if (!waitlist.remove(courseId, studentId)) {
+                        return null; // no longer waiting: try the next one
+                    }
+                    if (!enroll(studentId, courseId)) {
+                        status.setRollbackOnly(); // still full: they keep their place at the front
+                        return false;
+                    }
+                    return true;
+                });
+                if (Boolean.FALSE.equals(enrolled)) {
+                    return;
+                }
+            } catch (DataIntegrityViolationException e) {
+                // Already enrolled -> they just leave the queue
+                if (!isDuplicateRow(e)) {
+                    throw e;
+                }
+                waitlist.remove(courseId, studentId);
+            }
+        }
+    }
+
+    // Takes a seat and inserts the enrollment row, all or nothing. false = no seat left.
+    boolean enroll(Long studentId, Long courseId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (courseRepository.reserveSeat(courseId) == 0) {
+                return false;
+            }
+            evictCourse(courseId);
+            studentRepository.insertEnrollment(studentId, courseId);
+            enrollmentStats.enrolled(courseId); // counted once the transaction commits
+            changeOutbox.enrolled(studentId, courseId); // written with this transaction
+            return true;
+        }));
+    }
+
+    // Deletes the enrollment row and gives the seat back. false = was not enrolled.
+    boolean unenroll(Long studentId, Long courseId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (studentRepository.deleteEnrollment(studentId, courseId) == 0) {
+                return false;
+            }
+            courseRepository.releaseSeat(courseId);
+            evictCourse(courseId);
+            enrollmentStats.unenrolled(courseId);
+            changeOutbox.unenrolled(studentId, courseId);
+            gradeService.unenrolled(studentId, courseId); // the grade goes with the row
+            return true;
+        }));
+    }
+
+    // The seat counters are changed behind the second-level cache (see CourseRepository.reserveSeat).
+    // Dropped now, and again once the transaction is over: a request reading the course in between
+    // would otherwise cache the count from before.
+    private void evictCourse(Long courseId) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        Runnable evict = () -> {
+            cache.evictEntityData(Course.class, courseId);
+            cache.evictCollectionData(Course.class.getName() + ".enrollments", courseId);
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    private boolean acquire(Semaphore permit) {
+        try {
+            return permit.tryAcquire(admissionTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    static boolean isDuplicateRow(DataIntegrityViolationException e) {
+        return e instanceof DuplicateKeyException
+                || (e.getCause() instanceof ConstraintViolationException violation
+                && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE);
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.StatsCount;
+import com.example.student_management_system.dto.StatsSummary;
+import com.example.student_management_system.repository.CourseRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Live numbers for the /stats dashboard: enrolled students per course and students per department.
+//
+// - One LongAdder per course/department, so reading a count is a map lookup (no COUNT query, no
+//   loading of Course.enrollments) and many concurrent enrollments don't fight over one counter.
+// - Updated as things happen: EnrollmentService reports every enroll/unenroll, EnrollmentStatsListener
+//   every student that is saved, moved to another department or deleted. Changes made in a transaction
+//   are applied once it commits, so rolled back work is never counted.
+// - Checked against the database (GROUP BY counts) at startup and every app.stats.reconcile-interval.
+//   A counter that is off by the same amount twice in a row is corrected and counted in app.stats.corrections.
+//   A difference seen only once is usually a change that committed between the query and the counter update.
+@Service
+public class EnrollmentStats {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentStats.class);
+
+    // Key for students without a department (database ids start at 1)
+    public static final long NO_DEPARTMENT = 0L;
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final DepartmentRegistry departmentRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counters courses = new Counters("course");
+    private final Counters departments = new Counters("department");
+    private volatile Instant lastChecked;
+    private Counter corrections;
+
+    public EnrollmentStats(StudentRepository studentRepository,
+                           CourseRepository courseRepository,
+                           DepartmentRegistry departmentRegistry,
+                           TransactionTemplate transactionTemplate) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.departmentRegistry = departmentRegistry;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Autowired(required = false)
+    void bindMetrics(MeterRegistry meterRegistry) {
+        corrections = Counter.builder("app.stats.corrections").register(meterRegistry);
+    }
+
+    // Startup: take the counts from the database
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        check(true);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval:5m}",
+            initialDelayString = "${app.stats.reconcile-interval:5m}")
+    public void reconcile() {
+        check(false);
+    }
+
+    // --- Reading (no database access) ---
+
+    public long enrolledIn(Long courseId) {
+        return courses.get(courseId);
+    }
+
+    public long studentsIn(Long departmentId) {
+        return departments.get(departmentId != null ? departmentId : NO_DEPARTMENT);
+    }
+
+    // null = course not known (yet)
+    public StatsCount course(Long courseId) {
+        return courses.contains(courseId) ? new StatsCount(courseId, courses.name(courseId), courses.get(courseId)) : null;
+    }
+
+    // null = department not known (yet); id 0 = students without a department
+    public StatsCount department(Long departmentId) {
+        return departments.contains(departmentId)
+                ? new StatsCount(departmentId, departmentName(departmentId), departments.get(departmentId))
+                : null;
+    }
+
+    // Everything, biggest first
+    public StatsSummary summary() {
+        List<StatsCount> courseCounts = new ArrayList<>();
+        for (Long id : courses.keys()) {
+            courseCounts.add(new StatsCount(id, courses.name(id), courses.get(id)));
+        }
+        List<StatsCount> departmentCounts = new ArrayList<>();
+        for (Long id : departments.keys()) {
+            departmentCounts.add(new StatsCount(id, departmentName(id), departments.get(id)));
+        }
+        Comparator<StatsCount> biggestFirst = Comparator.comparingLong(StatsCount::count).reversed()
+                .thenComparing(StatsCount::id);
+        courseCounts.sort(biggestFirst);
+        departmentCounts.sort(biggestFirst);
+        return new StatsSummary(departments.total(), courses.total(), courseCounts, departmentCounts, lastChecked);
+    }
+
+    // --- Changes (called by EnrollmentService and EnrollmentStatsListener) ---
+
+    void enrolled(Long courseId) {
+        change(courses, courseId, 1);
+    }
+
+    void unenrolled(Long courseId) {
+        change(courses, courseId, -1);
+    }
+
+    void studentAdded(Long departmentId) {
+        change(departments, departmentKey(departmentId), 1);
+    }
+
+    void studentMoved(Long fromDepartmentId, Long toDepartmentId) {
+        long from = departmentKey(fromDepartmentId);
+        long to = departmentKey(toDepartmentId);
+        if (from != to) {
+            change(departments, from, -1);
+            change(departments, to, 1);
+        }
+    }
+
+    // The student's enrollment rows are deleted with them
+    void studentRemoved(Long departmentId, List<Long> courseIds) {
+        change(departments, departmentKey(departmentId), -1);
+        for (Long courseId : courseIds) {
+            change(courses, courseId, -1);
+        }
+    }
+
+    void courseSaved(Long courseId, String title) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending().titles.put(courseId, title);
+        } else {
+            courses.name(courseId, title);
+        }
+    }
+
+    // --- Check against the database ---
+
+    private synchronized void check(boolean trustDatabase) {
+        long start = System.nanoTime();
+        Map<Long, Long> coursesBefore = courses.snapshot();
+        Map<Long, Long> departmentsBefore = departments.snapshot();
+
+        // Read-write transactions = the primary database; a replica may be behind
+        List<StatsCount> courseRows = transactionTemplate.execute(status -> courseRepository.countEnrollments());
+        List<StatsCount> departmentRows = transactionTemplate.execute(status -> studentRepository.countByDepartment());
+
+        int corrected = courses.reconcile(courseRows, coursesBefore, courses.snapshot(), trustDatabase)
+                + departments.reconcile(departmentRows, departmentsBefore, departments.snapshot(), trustDatabase);
+        lastChecked = Instant.now();
+
+        if (trustDatabase) {
+            log.info("Loaded enrollment stats: {} courses, {} departments in {} ms",
+                    courseRows.size(), departmentRows.size(), (System.nanoTime() - start) / 1_000_000);
+        } else if (corrected > 0 && corrections != null) {
+            corrections.increment(corrected);
+        }
+    }
+
+    private String departmentName(Long id) {
+        String name = departments.name(id);
+        return name != null ? name : departmentRegistry.findName(id);
+    }
+
+    private static long departmentKey(Long departmentId) {
+        return departmentId != null ? departmentId : NO_DEPARTMENT;
+    }
+
+    // Outside a transaction the change counts right away, inside one it waits for the commit
+    private void change(Counters counters, Long key, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending().add(counters, key, delta);
+        } else {
+            counters.add(key, delta);
+        }
+    }
+
+    private PendingChanges pending() {
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    // The changes of one transaction, summed up, so a bulk import touches each counter once per commit
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final Map<Long, Long> courseDeltas = new HashMap<>();
+        private final Map<Long, Long> departmentDeltas = new HashMap<>();
+        private final Map<Long, String> titles = new HashMap<>();
+
+        void add(Counters counters, Long key, long delta) {
+            (counters == courses ? courseDeltas : departmentDeltas).merge(key, delta, Long::sum);
+        }
+
+        // A REQUIRES_NEW transaction inside ours collects its own changes
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(EnrollmentStats.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(EnrollmentStats.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EnrollmentStats.this);
+            if (status == STATUS_COMMITTED) {
+                apply();
+            }
+        }
+
+        private void apply() {
+            titles.forEach(courses::name);
+            courseDeltas.forEach(courses::add);
+            departmentDeltas.forEach(departments::add);
+        }
+    }
+
+    // The counters of one kind (courses or departments)
+    private static class Counters {
+
+        private final String kind;
+        private final Map<Long, LongAdder> counts = new ConcurrentHashMap<>();
+        private final Map<Long, String> names = new ConcurrentHashMap<>();
+        // Differences seen by the last check, by key (only used inside the synchronized check())
+        private final Map<Long, Long> suspects = new HashMap<>();
+
+        Counters(String kind) {
+            this.kind = kind;
+        }
+
+        void add(Long key, long delta) {
+            counts.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+
+        long get(Long key) {
+            LongAdder count = key != null ? counts.get(key) : null;
+            return count != null ? count.sum() : 0;
+        }
+
+        boolean contains(Long key) {
+            return key != null && counts.containsKey(key);
+        }
+
+        Set<Long> keys() {
+            return counts.keySet();
+        }
+
+        String name(Long key) {
+            return names.get(key);
+        }
+
+        void name(Long key, String name) {
+            if (name != null) {
+                names.put(key, name);
+            }
+            counts.computeIfAbsent(key, k -> new LongAdder());
+        }
+
+        long total() {
+            long total = 0;
+            for (LongAdder count : counts.values()) {
+                total += count.sum();
+            }
+            return total;
+        }
+
+        Map<Long, Long> snapshot() {
+            Map<Long, Long> snapshot = new HashMap<>();
+            counts.forEach((key, count) -> snapshot.put(key, count.sum()));
+            return snapshot;
+        }
+
+        // before/after = the counters just before and after the query ran. Returns the number of counters corrected.
+        int reconcile(List<StatsCount> rows, Map<Long, Long> before, Map<Long, Long> after, boolean trustDatabase) {
+            Map<Long, Long> actual = new HashMap<>();
+            for (StatsCount row : rows) {
+                long key = row.id() != null ? row.id() : NO_DEPARTMENT;
+                actual.put(key, row.count());
+                name(key, row.name());
+            }
+
+            Set<Long> keys = new HashSet<>(actual.keySet());
+            keys.addAll(after.keySet());
+            int corrected = 0;
+            for (Long key : keys) {
+                long counted = after.getOrDefault(key, 0L);
+                long difference = actual.getOrDefault(key, 0L) - counted;
+                // Changed while the query ran: we can't tell which side is newer, look again next time
+                if (counted != before.getOrDefault(key, 0L) || difference == 0) {
+                    suspects.remove(key);
+                    continue;
+                }
+                if (trustDatabase || Long.valueOf(difference).equals(suspects.get(key))) {
+                    // add(), not set: changes that commit meanwhile still count
+                    add(key, difference);
+                    suspects.remove(key);
+                    corrected++;
+                    if (!trustDatabase) {
+                        log.warn("Enrollment stats: {} {} was counted as {} but has {} students, corrected",
+                                kind, key, counted, actual.getOrDefault(key, 0L));
+                    }
+                } else {
+                    suspects.put(key, difference);
+                }
+            }
+            return corrected;
+        }
+    }
+}
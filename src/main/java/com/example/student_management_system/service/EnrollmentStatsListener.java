@@ -0,0 +1,111 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.model.Department;
+import com.example.student_management_system.model.Student;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.DeleteContext;
+import org.hibernate.event.spi.DeleteEvent;
+import org.hibernate.event.spi.DeleteEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+// Tells EnrollmentStats about every student that is inserted (sign-up, form, bulk import), moved to
+// another department or deleted, and about new/renamed courses. GradeService hears about moved and
+// deleted students too (department rankings, GPAs).
+//
+// Hibernate events instead of a JPA @EntityListeners class: an update event carries the old values,
+// so a department change is known without keeping a copy of every student's department.
+// Enrollments themselves are written with native SQL and reported by EnrollmentService.
+@Component
+public class EnrollmentStatsListener implements PostInsertEventListener, PostUpdateEventListener, DeleteEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EnrollmentStats enrollmentStats;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        // Before Hibernate's own delete listener, while the student's enrollments can still be loaded
+        registry.prependListeners(EventType.DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Student student) {
+            enrollmentStats.studentAdded(departmentId(student.getDepartment()));
+        } else if (event.getEntity() instanceof Course course) {
+            enrollmentStats.courseSaved(course.getId(), course.getTitle());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Student student && event.getOldState() != null) {
+            Object oldDepartment = event.getOldState()[propertyIndex(event.getPersister(), "department")];
+            enrollmentStats.studentMoved(departmentId(oldDepartment), departmentId(student.getDepartment()));
+            if (!Objects.equals(departmentId(oldDepartment), departmentId(student.getDepartment()))) {
+                gradeService.studentMoved(student.getId(), departmentId(student.getDepartment()));
+            }
+        } else if (event.getEntity() instanceof Course course) {
+            enrollmentStats.courseSaved(course.getId(), course.getTitle());
+        }
+    }
+
+    @Override
+    public void onDelete(DeleteEvent event) {
+        // Only managed students (removing a detached one fails right after this anyway)
+        if (event.getObject() instanceof Student student && event.getSession().contains(student)) {
+            List<Long> courseIds = List.of();
+            if (student.getEnrollments() != null) {
+                Hibernate.initialize(student.getEnrollments());
+                courseIds = student.getEnrollments().stream().map(e -> e.getId().getCourseId()).toList();
+            }
+            enrollmentStats.studentRemoved(departmentId(student.getDepartment()), courseIds);
+            gradeService.studentRemoved(student.getId());
+        }
+    }
+
+    @Override
+    public void onDelete(DeleteEvent event, DeleteContext transientEntities) {
+        onDelete(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static Long departmentId(Object department) {
+        // A lazy reference answers getId() without being loaded
+        return department instanceof Department d ? d.getId() : null;
+    }
+
+    private static int propertyIndex(EntityPersister persister, String property) {
+        return Arrays.asList(persister.getPropertyNames()).indexOf(property);
+    }
+}
@@ -0,0 +1,740 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.EnrollmentResult;
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.model.Enrollment;
+import com.example.student_management_system.model.EnrollmentId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind mode of EnrollmentService (app.enrollment.write-behind.enabled=true), for registration surges.
+//
+// - A click is answered from memory: the new state goes into the pending changes of the student's partition
+//   (students are spread over app.enrollment.write-behind.partitions by id) and is appended to that
+//   partition's journal. No transaction and no write on the request thread, only the read of the current state.
+// - Clicking again before the change is written cancels it: only the final state of a (student, course) is written.
+// - One writer thread per partition writes its pending changes every flush-interval, in one transaction:
+//   the unenrollments as one DELETE batch, the seats with one UPDATE per course (in course id order, so
+//   two writers can't deadlock), the enrollments as one INSERT batch (multi-row on Postgres with
+//   reWriteBatchedInserts). If that fails (e.g. the same row was written another way meanwhile), it is
+//   rolled back and the changes are written one by one, exactly like a synchronous click.
+// - Until a change is written, isEnrolled() and the course catalog show it to the student who made it.
+// - Journal: a new file per batch, deleted once the batch has committed. After a crash, the files that are
+//   left are queued again at the next startup (last state per student and course wins) and written as usual.
+//   Appends reach the OS before the click is answered, so they survive the app crashing; with
+//   app.enrollment.write-behind.fsync=true also a power loss (one disk flush per click).
+//   The directory belongs to one instance: start() locks it (journal.lock) and refuses if another instance holds
+//   it, since that one would replay and delete this one's files.
+//
+// Seats: a click is only answered from memory while the course has room by the live counters (EnrollmentStats)
+// plus the enrollments still pending here. Otherwise (and while students are waiting) the pending changes are
+// written first and the click goes the synchronous way, with the waiting list. A change that still finds the
+// course full when written (another instance took the seat) puts the student on the waiting list.
+class EnrollmentWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentWriteBehind.class);
+    private static final String SEGMENT_PREFIX = "enrollments-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String LOCK_FILE = "journal.lock";
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+    private static final int MAX_ATTEMPTS = 10;
+
+    // base = the state in the database when the change was made (null = not known, from the journal)
+    private record Change(Boolean base, boolean enrolled) {
+    }
+
+    private record Key(long studentId, long courseId) {
+    }
+
+    // What Partition.toggle decided; RETRY and SYNCHRONOUS are compared by identity
+    private record Attempt(EnrollmentResult result) {
+    }
+
+    // The state read from the database may be out of date: read it again
+    private static final Attempt RETRY = new Attempt(null);
+    // This click has to be written right away (the course may run out of seats)
+    private static final Attempt SYNCHRONOUS = new Attempt(null);
+
+    private final EnrollmentService service;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EnrollmentStats enrollmentStats;
+    private final ChangeOutbox changeOutbox;
+    private final GradeService gradeService;
+    private final SessionFactory sessionFactory;
+    private final Duration flushInterval;
+    private final int maxPending;
+    private final Duration maxWait;
+    private final Path journalDirectory;
+    private final boolean fsync;
+
+    private final Partition[] partitions;
+    private final AtomicLong segments = new AtomicLong();
+    private FileChannel lockFile;
+    // Enrollments not written yet, per course (they will need a seat)
+    private final Map<Long, AtomicInteger> pendingSeats = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    private Counter written;
+    private Counter coalesced;
+    private Counter refused;
+
+    EnrollmentWriteBehind(EnrollmentService service, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          EnrollmentStats enrollmentStats, ChangeOutbox changeOutbox, GradeService gradeService,
+                          EntityManagerFactory entityManagerFactory, int partitions, Duration flushInterval,
+                          int maxPending, Duration maxWait, Path journalDirectory, boolean fsync) {
+        this.service = service;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enrollmentStats = enrollmentStats;
+        this.changeOutbox = changeOutbox;
+        this.gradeService = gradeService;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.flushInterval = flushInterval;
+        this.maxPending = maxPending;
+        this.maxWait = maxWait;
+        this.journalDirectory = journalDirectory;
+        this.fsync = fsync;
+        this.partitions = new Partition[partitions];
+    }
+
+    void bindMetrics(MeterRegistry meterRegistry) {
+        written = Counter.builder("app.enrollment.write-behind.written").register(meterRegistry);
+        coalesced = Counter.builder("app.enrollment.write-behind.coalesced").register(meterRegistry);
+        refused = Counter.builder("app.enrollment.write-behind.refused").register(meterRegistry);
+    }
+
+    // Queues what the journal still holds (a crash), then starts the writers
+    void start() {
+        try {
+            Files.createDirectories(journalDirectory);
+            lockJournal();
+            List<Path> leftOver = journalSegments();
+            for (int i = 0; i < partitions.length; i++) {
+                partitions[i] = new Partition(i);
+            }
+            int recovered = 0;
+            for (Path segment : leftOver) {
+                for (String line : Files.readAllLines(segment, StandardCharsets.US_ASCII)) {
+                    String[] fields = line.trim().split(" ");
+                    if (fields.length == 3) { // a line cut short by the crash is skipped
+                        partition(Long.parseLong(fields[0])).recover(Long.parseLong(fields[0]),
+                                Long.parseLong(fields[1]), "1".equals(fields[2]));
+                        recovered++;
+                    }
+                }
+            }
+            // Everything is in the new segments now
+            for (Path segment : leftOver) {
+                Files.delete(segment);
+            }
+            if (recovered > 0) {
+                log.info("Queued {} enrollment changes left in the journal ({} files)", recovered, leftOver.size());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the enrollment journal in " + journalDirectory, e);
+        }
+        for (Partition partition : partitions) {
+            Thread writer = new Thread(partition, "enrollment-writer-" + partition.index);
+            writer.setDaemon(true);
+            partition.writer = writer;
+            writer.start();
+        }
+    }
+
+    // Writes everything still pending, then stops the writers
+    void close() {
+        running = false;
+        for (Partition partition : partitions) {
+            partition.lock.lock();
+            try {
+                partition.changed.signalAll();
+            } finally {
+                partition.lock.unlock();
+            }
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.writer.join(TimeUnit.SECONDS.toMillis(30));
+                partition.journal.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                log.warn("Could not close the enrollment journal: {}", e.toString());
+            }
+        }
+        try {
+            lockFile.close(); // releases the lock
+        } catch (IOException e) {
+            log.warn("Could not unlock the enrollment journal: {}", e.toString());
+        }
+    }
+
+    // --- Clicks ---
+
+    // The new state, or null if this click has to be written right away (the course may run out of seats)
+    EnrollmentResult toggle(Long studentId, Long courseId) {
+        Partition partition = partition(studentId);
+        Key key = new Key(studentId, courseId);
+        for (int tries = 0; tries < MAX_ATTEMPTS; tries++) {
+            // The database is read without the lock; if a batch was written meanwhile, read again
+            long batches = partition.batches();
+            Boolean pending = partition.state(key);
+            Boolean stored = pending == null ? service.isEnrolledInDatabase(studentId, courseId) : null;
+            // Undoing a pending unenroll enrolls again too: another course may have taken its time since
+            boolean enrolling = pending != null ? !pending : !stored;
+            if (enrolling && service.hasConflict(studentId, courseId)) {
+                return EnrollmentResult.CONFLICT;
+            }
+            // A new enrollment needs a seat: if they may run out, the synchronous way decides
+            boolean room = !Boolean.FALSE.equals(stored) || service.hasRoomFor(courseId, pendingSeats(courseId) + 1);
+            Attempt attempt = partition.toggle(key, stored, room, batches);
+            if (attempt == SYNCHRONOUS) {
+                // The pending enrollments are written first, so the synchronous way sees every seat taken
+                flush();
+                return null;
+            }
+            if (attempt != RETRY) {
+                return attempt.result();
+            }
+        }
+        return EnrollmentResult.BUSY;
+    }
+
+    // The state a not yet written change will give, null = no such change
+    Boolean pendingState(Long studentId, Long courseId) {
+        return partition(studentId).state(new Key(studentId, courseId));
+    }
+
+    // All of a student's changes not written yet: course id -> enrolled
+    Map<Long, Boolean> pendingStates(Long studentId) {
+        return partition(studentId).states(studentId);
+    }
+
+    // Waits until everything pending now is written (tests, benchmarks)
+    void flush() {
+        for (Partition partition : partitions) {
+            partition.awaitWritten();
+        }
+    }
+
+    private Partition partition(long studentId) {
+        return partitions[Math.floorMod(Long.hashCode(studentId), partitions.length)];
+    }
+
+    private int pendingSeats(Long courseId) {
+        AtomicInteger seats = pendingSeats.get(courseId);
+        return seats != null ? seats.get() : 0;
+    }
+
+    private void seats(Long courseId, int delta) {
+        pendingSeats.computeIfAbsent(courseId, id -> new AtomicInteger()).addAndGet(delta);
+    }
+
+    // The pending changes, journal and writer of one group of students
+    private class Partition implements Runnable {
+
+        private final int index;
+        private final ReentrantLock lock = new ReentrantLock();
+        // Signalled when a change is queued and when a batch has been written
+        private final Condition changed = lock.newCondition();
+        // student id -> course id -> change
+        private Map<Long, Map<Long, Change>> pending = new HashMap<>();
+        private int pendingCount;
+        // The batch being written right now
+        private Map<Long, Map<Long, Change>> writing = Map.of();
+        private long batches;
+        private Path segment;
+        private FileChannel journal;
+        private Thread writer;
+
+        Partition(int index) throws IOException {
+            this.index = index;
+            openSegment();
+        }
+
+        long batches() {
+            lock.lock();
+            try {
+                return batches;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Boolean state(Key key) {
+            lock.lock();
+            try {
+                Change change = find(pending, key);
+                if (change == null) {
+                    change = find(writing, key);
+                }
+                return change != null ? change.enrolled() : null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Map<Long, Boolean> states(Long studentId) {
+            lock.lock();
+            try {
+                Map<Long, Boolean> states = new HashMap<>();
+                writing.getOrDefault(studentId, Map.of()).forEach((course, change) -> states.put(course, change.enrolled()));
+                pending.getOrDefault(studentId, Map.of()).forEach((course, change) -> states.put(course, change.enrolled()));
+                return states;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // stored = the state read from the database (null: there was a change in memory),
+        // room = the course had room for one more when stored was read
+        Attempt toggle(Key key, Boolean stored, boolean room, long batchesBefore) throws UncheckedIOException {
+            lock.lock();
+            try {
+                // Wait while a batch with this student and course is being written (until it commits),
+                // and while the writer is behind (backpressure; a change already queued is just flipped)
+                long deadline = System.nanoTime() + maxWait.toNanos();
+                while (find(writing, key) != null || (find(pending, key) == null && pendingCount >= maxPending)) {
+                    if (!await(deadline)) {
+                        return new Attempt(EnrollmentResult.BUSY);
+                    }
+                }
+                Change change = find(pending, key);
+                if (change == null && (stored == null || batches != batchesBefore)) {
+                    return RETRY;
+                }
+                boolean current = change != null ? change.enrolled() : stored;
+                Boolean base = change != null ? change.base() : stored;
+                boolean target = !current;
+                if (change == null && target && !room) {
+                    return SYNCHRONOUS;
+                }
+
+                journal(key, target);
+                Map<Long, Change> changes = pending.computeIfAbsent(key.studentId(), id -> new HashMap<>());
+                if (base != null && target == base) {
+                    // Back to what is stored: nothing to write
+                    changes.remove(key.courseId());
+                    if (changes.isEmpty()) {
+                        pending.remove(key.studentId());
+                    }
+                    pendingCount--;
+                    if (!target) {
+                        seats(key.courseId(), -1);
+                    }
+                    if (coalesced != null) {
+                        coalesced.increment();
+                    }
+                } else {
+                    changes.put(key.courseId(), new Change(base, target));
+                    if (change == null) {
+                        pendingCount++;
+                        changed.signalAll();
+                    }
+                    // pendingSeats counts pending enrollments; only a change from the journal
+                    // (base not known) can be flipped from enrolled to unenrolled here
+                    if (target) {
+                        seats(key.courseId(), 1);
+                    } else if (change != null) {
+                        seats(key.courseId(), -1);
+                    }
+                }
+                return new Attempt(target ? EnrollmentResult.ENROLLED : EnrollmentResult.UNENROLLED);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // A change found in the journal at startup
+        void recover(long studentId, long courseId, boolean enrolled) throws IOException {
+            Key key = new Key(studentId, courseId);
+            Change before = find(pending, key);
+            if (before == null) {
+                pendingCount++;
+            } else if (before.enrolled()) {
+                seats(courseId, -1);
+            }
+            pending.computeIfAbsent(studentId, id -> new HashMap<>()).put(courseId, new Change(null, enrolled));
+            if (enrolled) {
+                seats(courseId, 1);
+            }
+            append(key, enrolled);
+        }
+
+        void awaitWritten() {
+            lock.lock();
+            try {
+                long target = batches + (pendingCount > 0 ? 1 : 0) + (writing.isEmpty() ? 0 : 1);
+                changed.signalAll();
+                while (batches < target && writer.isAlive()) {
+                    changed.await(100, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // The writer thread
+        @Override
+        public void run() {
+            while (true) {
+                Map<Long, Map<Long, Change>> batch;
+                Path writtenSegment;
+                lock.lock();
+                try {
+                    while (pending.isEmpty() && running) {
+                        changed.awaitUninterruptibly();
+                    }
+                    if (pending.isEmpty()) {
+                        return; // closed, and everything is written
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (running) {
+                    sleep(flushInterval); // let more clicks pile up
+                }
+
+                lock.lock();
+                try {
+                    batch = pending;
+                    writing = batch;
+                    pending = new HashMap<>();
+                    pendingCount = 0;
+                    writtenSegment = segment;
+                    try {
+                        openSegment();
+                    } catch (IOException e) {
+                        log.error("Could not start a new enrollment journal file, writing the batch anyway", e);
+                        writtenSegment = null; // still the journal file: keep it
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                List<Map.Entry<Key, Change>> retry = write(batch);
+
+                lock.lock();
+                try {
+                    writing = Map.of();
+                    // Not written (database unreachable): queued again, unless clicked again meanwhile
+                    for (Map.Entry<Key, Change> entry : retry) {
+                        Key key = entry.getKey();
+                        if (find(pending, key) == null) {
+                            pending.computeIfAbsent(key.studentId(), id -> new HashMap<>())
+                                    .put(key.courseId(), entry.getValue());
+                            pendingCount++;
+                            journal(key, entry.getValue().enrolled());
+                        } else if (entry.getValue().enrolled()) {
+                            seats(key.courseId(), -1);
+                        }
+                    }
+                    batches++;
+                    changed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                delete(writtenSegment);
+                if (!retry.isEmpty()) {
+                    log.warn("Could not write {} enrollment changes, trying again in {}", retry.size(), RETRY_DELAY);
+                    sleep(RETRY_DELAY);
+                }
+            }
+        }
+
+        private boolean await(long deadline) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return false;
+            }
+            try {
+                changed.awaitNanos(left);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void journal(Key key, boolean enrolled) {
+            try {
+                append(key, enrolled);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write the enrollment journal", e);
+            }
+        }
+
+        private void append(Key key, boolean enrolled) throws IOException {
+            byte[] line = (key.studentId() + " " + key.courseId() + " " + (enrolled ? 1 : 0) + "\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            if (fsync) {
+                journal.force(false);
+            }
+        }
+
+        private void openSegment() throws IOException {
+            if (journal != null) {
+                journal.close();
+            }
+            segment = journalDirectory.resolve(SEGMENT_PREFIX + String.format("%019d", segments.incrementAndGet())
+                    + SEGMENT_SUFFIX);
+            journal = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+    }
+
+    // --- Writing ---
+
+    // Writes one batch; returns the changes that could not be written now (to try again later)
+    private List<Map.Entry<Key, Change>> write(Map<Long, Map<Long, Change>> batch) {
+        List<Key> enroll = new ArrayList<>();
+        List<Key> unenroll = new ArrayList<>();
+        Map<Key, Change> changes = new LinkedHashMap<>();
+        batch.forEach((studentId, courses) -> courses.forEach((courseId, change) -> {
+            Key key = new Key(studentId, courseId);
+            changes.put(key, change);
+            (change.enrolled() ? enroll : unenroll).add(key);
+        }));
+
+        List<Key> oneByOne;
+        try {
+            oneByOne = writeBatch(enroll, unenroll);
+        } catch (DataAccessException | TransactionException e) {
+            // Rolled back: the same rows were written another way, or the database is not reachable
+            log.debug("Enrollment batch failed, writing the changes one by one: {}", e.toString());
+            oneByOne = new ArrayList<>(changes.keySet());
+        }
+
+        List<Map.Entry<Key, Change>> retry = new ArrayList<>();
+        for (int i = 0; i < oneByOne.size(); i++) {
+            Key key = oneByOne.get(i);
+            try {
+                writeOne(key, changes.get(key).enrolled());
+            } catch (DataIntegrityViolationException e) {
+                // e.g. the student or course was deleted meanwhile: like a synchronous click, it fails
+                log.warn("Dropped enrollment change {} -> {}: {}", key, changes.get(key).enrolled(), e.toString());
+                countRefused();
+            } catch (RuntimeException e) {
+                // Database not reachable: keep this one and the rest for later
+                for (Key left : oneByOne.subList(i, oneByOne.size())) {
+                    retry.add(Map.entry(left, changes.get(left)));
+                }
+                break;
+            }
+        }
+        for (Key key : enroll) {
+            if (retry.stream().noneMatch(entry -> entry.getKey().equals(key))) {
+                seats(key.courseId(), -1);
+            }
+        }
+        if (written != null) {
+            written.increment(changes.size() - retry.size());
+        }
+        return retry;
+    }
+
+    // One transaction for all changes. Returns the enrollments that found their course full (written one by one).
+    private List<Key> writeBatch(List<Key> enroll, List<Key> unenroll) {
+        TreeMap<Long, List<Key>> enrollByCourse = new TreeMap<>();
+        for (Key key : enroll) {
+            enrollByCourse.computeIfAbsent(key.courseId(), id -> new ArrayList<>()).add(key);
+        }
+        Map<Long, Integer> released = new TreeMap<>();
+        List<Key> full = new ArrayList<>();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!unenroll.isEmpty()) {
+                int[] deleted = jdbcTemplate.batchUpdate(
+                        "delete from student_courses where student_id = ? and course_id = ?",
+                        unenroll.stream().map(key -> new Object[]{key.studentId(), key.courseId()}).toList());
+                for (int i = 0; i < deleted.length; i++) {
+                    if (deleted[i] > 0) {
+                        Key key = unenroll.get(i);
+                        released.merge(key.courseId(), 1, Integer::sum);
+                        enrollmentStats.unenrolled(key.courseId());
+                        changeOutbox.unenrolled(key.studentId(), key.courseId());
+                        gradeService.unenrolled(key.studentId(), key.courseId());
+                    }
+                }
+            }
+
+            // Seats: one UPDATE per course, in course id order
+            TreeMap<Long, Integer> courses = new TreeMap<>(released);
+            enrollByCourse.forEach((courseId, keys) -> courses.putIfAbsent(courseId, 0));
+            List<Object[]> inserts = new ArrayList<>();
+            courses.forEach((courseId, freed) -> {
+                List<Key> keys = enrollByCourse.getOrDefault(courseId, List.of());
+                int taken = keys.size() - freed;
+                boolean reserved = keys.isEmpty() || jdbcTemplate.update("update courses set seats_taken = seats_taken + ? "
+                        + "where id = ? and (capacity is null or seats_taken + ? <= capacity)", taken, courseId, taken) > 0;
+                if (!reserved) {
+                    // Not room for all of them: the seats freed here are given back, the rest one by one
+                    full.addAll(keys);
+                    if (freed > 0) {
+                        jdbcTemplate.update("update courses set seats_taken = seats_taken - ? where id = ?", freed, courseId);
+                    }
+                } else if (keys.isEmpty()) {
+                    jdbcTemplate.update("update courses set seats_taken = seats_taken - ? where id = ? and seats_taken >= ?",
+                            freed, courseId, freed);
+                } else {
+                    for (Key key : keys) {
+                        inserts.add(new Object[]{key.studentId(), key.courseId()});
+                    }
+                }
+            });
+
+            if (!inserts.isEmpty()) {
+                // A duplicate row fails the whole batch (rolled back, then written one by one)
+                jdbcTemplate.batchUpdate("insert into student_courses (student_id, course_id) values (?, ?)", inserts);
+                for (Object[] row : inserts) {
+                    enrollmentStats.enrolled((Long) row[1]);
+                    changeOutbox.enrolled((Long) row[0], (Long) row[1]);
+                }
+            }
+        });
+
+        // Written with plain JDBC, so the second-level cache doesn't know: drop the touched courses and rows
+        for (Long courseId : enrollByCourse.keySet()) {
+            evict(courseId);
+        }
+        for (Key key : enroll) {
+            sessionFactory.getCache().evictEntityData(Enrollment.class, new EnrollmentId(key.studentId(), key.courseId()));
+        }
+        for (Key key : unenroll) {
+            sessionFactory.getCache().evictEntityData(Enrollment.class, new EnrollmentId(key.studentId(), key.courseId()));
+        }
+        for (Long courseId : released.keySet()) {
+            evict(courseId);
+            service.promoteFromWaitlist(courseId);
+        }
+        return full;
+    }
+
+    private void writeOne(Key key, boolean enrolled) {
+        if (enrolled) {
+            try {
+                if (!service.enroll(key.studentId(), key.courseId())
+                        && !service.waitlist().offer(key.courseId(), key.studentId())) {
+                    log.warn("Course {} is full and so is its waiting list, dropped enrollment of student {}",
+                            key.courseId(), key.studentId());
+                    countRefused();
+                }
+            } catch (DataIntegrityViolationException e) {
+                if (!EnrollmentService.isDuplicateRow(e)) {
+                    throw e;
+                }
+                // Already enrolled: nothing to do
+            }
+        } else if (service.unenroll(key.studentId(), key.courseId())) {
+            service.promoteFromWaitlist(key.courseId());
+        }
+    }
+
+    private void evict(Long courseId) {
+        sessionFactory.getCache().evictEntityData(Course.class, courseId);
+        sessionFactory.getCache().evictCollectionData(Course.class.getName() + ".enrollments", courseId);
+    }
+
+    private void countRefused() {
+        if (refused != null) {
+            refused.increment();
+        }
+    }
+
+    // Held until close(); the OS drops it if the process dies, so a crash doesn't leave the directory locked
+    private void lockJournal() throws IOException {
+        FileChannel channel = FileChannel.open(journalDirectory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null; // another EnrollmentWriteBehind in this JVM
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("The enrollment journal in " + journalDirectory.toAbsolutePath()
+                    + " is in use by another instance; give each instance its own app.enrollment.write-behind.journal-dir");
+        }
+        lockFile = channel;
+    }
+
+    private List<Path> journalSegments() throws IOException {
+        List<Path> segmentFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(journalDirectory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            files.forEach(segmentFiles::add);
+        }
+        segmentFiles.sort(null); // zero-padded numbers: by name = oldest first
+        if (!segmentFiles.isEmpty()) {
+            String last = segmentFiles.get(segmentFiles.size() - 1).getFileName().toString();
+            segments.set(Long.parseLong(last.substring(SEGMENT_PREFIX.length(), last.length() - SEGMENT_SUFFIX.length())));
+        }
+        return segmentFiles;
+    }
+
+    private static Change find(Map<Long, Map<Long, Change>> changes, Key key) {
+        Map<Long, Change> courses = changes.get(key.studentId());
+        return courses != null ? courses.get(key.courseId()) : null;
+    }
+
+    private static void delete(Path segment) {
+        if (segment == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(segment);
+        } catch (IOException e) {
+            log.warn("Could not delete enrollment journal file {}: {}", segment, e.toString());
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.ChangeEvent;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// app.outbox.sink=file: appends every event as one JSON line to app.outbox.file.
+// A batch is one write plus one fsync, so it is on disk before the relay marks it as relayed.
+// After a crash between the two, the batch is appended again (same positions).
+public class FileOutboxSink implements OutboxSink, Closeable {
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+
+    public FileOutboxSink(Path file, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void publish(List<ChangeEvent> events) {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 256);
+        for (ChangeEvent event : events) {
+            lines.writeBytes(objectMapper.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.GradeDistribution;
+import com.example.student_management_system.dto.GradeRow;
+import com.example.student_management_system.dto.StudentGpa;
+import com.example.student_management_system.model.Grade;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory grade aggregates, changed one grade at a time instead of recomputed:
+// - per student: credits and credit-weighted grade points of the graded courses, so a GPA is one division
+// - per course: how many students got each grade
+// - per department: the graded students in GPA order (a sorted set), so "top 10" reads 10 entries
+//   instead of sorting every student; a new grade moves one entry
+// Points are whole tenths (see Grade), so the sums are exact: however many grades come and go,
+// the numbers are the ones a full recomputation gives.
+// Every grade carries the version of its row: an older one than the one here is ignored, so grades
+// applied out of order (two commits close together, or the startup load racing a new grade) end up the same.
+// Reads share a read lock; writing a grade takes the write lock.
+public class GradeBook {
+
+    // Best GPA first (compared as fractions, no rounding); same GPA: more credits first, then the lower id
+    private static final Comparator<Standing> BEST_FIRST = (a, b) -> {
+        int byGpa = Long.compare(b.points() * a.credits(), a.points() * b.credits());
+        if (byGpa != 0) {
+            return byGpa;
+        }
+        int byCredits = Long.compare(b.credits(), a.credits());
+        return byCredits != 0 ? byCredits : Long.compare(a.studentId(), b.studentId());
+    };
+
+    private static final Grade[] GRADES = Grade.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, StudentGrades> students = new HashMap<>();
+    private final Map<Long, long[]> courses = new HashMap<>(); // course id -> count per Grade ordinal
+    private final Map<Long, NavigableSet<Standing>> departments = new HashMap<>();
+
+    // Sets, replaces or (grade null) takes back the grade of one enrollment
+    public void grade(GradeRow row) {
+        lock.writeLock().lock();
+        try {
+            StudentGrades student = students.get(row.studentId());
+            if (student == null) {
+                student = new StudentGrades(departmentKey(row.departmentId()));
+                students.put(row.studentId(), student);
+            }
+            Entry old = student.courses.get(row.courseId());
+            if (old != null && old.version() > row.version()) {
+                return;
+            }
+            unrank(student);
+            if (old != null) {
+                subtract(student, row.courseId(), old);
+            }
+            // A taken back grade stays as an entry without a grade: it still holds the version
+            Entry entry = new Entry(row.grade(), row.credits(), row.version());
+            student.courses.put(row.courseId(), entry);
+            add(student, row.courseId(), entry);
+            rank(row.studentId(), student);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The enrollment is gone (unenrolled), and its grade with it
+    public void remove(long studentId, long courseId) {
+        lock.writeLock().lock();
+        try {
+            StudentGrades student = students.get(studentId);
+            Entry old = student != null ? student.courses.remove(courseId) : null;
+            if (old == null) {
+                return;
+            }
+            unrank(student);
+            subtract(student, courseId, old);
+            if (student.courses.isEmpty()) {
+                students.remove(studentId);
+            } else {
+                rank(studentId, student);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeStudent(long studentId) {
+        lock.writeLock().lock();
+        try {
+            StudentGrades student = students.remove(studentId);
+            if (student != null) {
+                unrank(student);
+                student.courses.forEach((courseId, entry) -> subtract(student, courseId, entry));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void moveStudent(long studentId, Long departmentId) {
+        lock.writeLock().lock();
+        try {
+            StudentGrades student = students.get(studentId);
+            if (student != null) {
+                unrank(student);
+                student.department = departmentKey(departmentId);
+                rank(studentId, student);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Reading ---
+
+    public StudentGpa gpa(long studentId) {
+        lock.readLock().lock();
+        try {
+            StudentGrades student = students.get(studentId);
+            if (student == null) {
+                return new StudentGpa(studentId, null, 0, 0);
+            }
+            return new StudentGpa(studentId, gpa(student.points, student.credits), (int) student.credits, student.graded);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public GradeDistribution distribution(long courseId) {
+        lock.readLock().lock();
+        try {
+            long[] counts = courses.get(courseId);
+            Map<String, Long> grades = new LinkedHashMap<>();
+            long graded = 0;
+            long points = 0;
+            for (Grade grade : GRADES) {
+                long count = counts != null ? counts[grade.ordinal()] : 0;
+                grades.put(grade.label(), count);
+                graded += count;
+                points += count * grade.tenths();
+            }
+            return new GradeDistribution(courseId, grades, graded, gpa(points, graded));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The n best students of a department, best first (departmentId null = students without a department)
+    public List<StudentGpa> top(Long departmentId, int n) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Standing> ranking = departments.get(departmentKey(departmentId));
+            List<StudentGpa> top = new ArrayList<>();
+            if (ranking != null) {
+                for (Standing standing : ranking) {
+                    if (top.size() >= n) {
+                        break;
+                    }
+                    StudentGrades student = students.get(standing.studentId());
+                    top.add(new StudentGpa(standing.studentId(), gpa(standing.points(), standing.credits()),
+                            (int) standing.credits(), student.graded));
+                }
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // How many students of the department have a GPA
+    public int ranked(Long departmentId) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Standing> ranking = departments.get(departmentKey(departmentId));
+            return ranking != null ? ranking.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Changes (write lock held) ---
+
+    private void add(StudentGrades student, long courseId, Entry entry) {
+        if (entry.grade() != null) {
+            student.points += (long) entry.grade().tenths() * entry.credits();
+            student.credits += entry.credits();
+            student.graded++;
+            courses.computeIfAbsent(courseId, id -> new long[GRADES.length])[entry.grade().ordinal()]++;
+        }
+    }
+
+    private void subtract(StudentGrades student, long courseId, Entry entry) {
+        if (entry.grade() != null) {
+            student.points -= (long) entry.grade().tenths() * entry.credits();
+            student.credits -= entry.credits();
+            student.graded--;
+            long[] counts = courses.get(courseId);
+            counts[entry.grade().ordinal()]--;
+            if (isEmpty(counts)) {
+                courses.remove(courseId);
+            }
+        }
+    }
+
+    private void rank(long studentId, StudentGrades student) {
+        if (student.credits > 0) {
+            student.standing = new Standing(studentId, student.points, student.credits);
+            departments.computeIfAbsent(student.department, id -> new TreeSet<>(BEST_FIRST)).add(student.standing);
+        }
+    }
+
+    private void unrank(StudentGrades student) {
+        if (student.standing != null) {
+            NavigableSet<Standing> ranking = departments.get(student.department);
+            ranking.remove(student.standing);
+            if (ranking.isEmpty()) {
+                departments.remove(student.department);
+            }
+            student.standing = null;
+        }
+    }
+
+    private static boolean isEmpty(long[] counts) {
+        for (long count : counts) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Points are tenths: 37 points over 1 credit = 3.7
+    private static Double gpa(long points, long credits) {
+        return credits > 0 ? points / (credits * 10.0) : null;
+    }
+
+    private static long departmentKey(Long departmentId) {
+        return departmentId != null ? departmentId : EnrollmentStats.NO_DEPARTMENT;
+    }
+
+    // One enrollment's grade (null = taken back) and the version of its row
+    private record Entry(Grade grade, int credits, long version) {
+    }
+
+    // A student's place in the department ranking; replaced (never changed) when a grade changes
+    private record Standing(long studentId, long points, long credits) {
+    }
+
+    private static final class StudentGrades {
+
+        private final Map<Long, Entry> courses = new HashMap<>();
+        private long department;
+        private long points;  // sum of tenths x credits
+        private long credits; // of the graded courses
+        private int graded;
+        private Standing standing; // null = not ranked (nothing graded)
+
+        StudentGrades(long department) {
+            this.department = department;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.GradeDistribution;
+import com.example.student_management_system.dto.GradeRow;
+import com.example.student_management_system.dto.RankedStudent;
+import com.example.student_management_system.dto.SearchHit;
+import com.example.student_management_system.dto.StudentGpa;
+import com.example.student_management_system.model.Department;
+import com.example.student_management_system.model.Enrollment;
+import com.example.student_management_system.model.EnrollmentId;
+import com.example.student_management_system.model.Grade;
+import com.example.student_management_system.repository.EnrollmentRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Grades of enrollments, and what follows from them: GPAs, grade distributions, department rankings.
+//
+// - A grade is saved on its Enrollment row (@Version: of two teachers saving at once, one gets a conflict).
+// - The aggregates are in memory (GradeBook) and are changed by that one grade once the transaction
+//   commits, never recomputed. Unenrolling (EnrollmentService) and deleting or moving a student
+//   (EnrollmentStatsListener) are reported here too.
+// - Built from the graded rows at startup, or on the first read if that comes first.
+@Service
+public class GradeService {
+
+    private static final Logger log = LoggerFactory.getLogger(GradeService.class);
+
+    // Longest ranking one request may ask for
+    static final int MAX_TOP = 1000;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ChangeOutbox changeOutbox;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final GradeBook gradeBook = new GradeBook();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAggregates() {
+        book();
+    }
+
+    // --- Writing ---
+
+    // grade null = take the grade back, credits null = keep them.
+    // NoSuchElementException if the student is not enrolled in the course.
+    @Transactional
+    public void setGrade(Long studentId, Long courseId, Grade grade, Integer credits) {
+        if (credits != null && (credits < 1 || credits > 20)) {
+            throw new IllegalArgumentException("Credits must be between 1 and 20.");
+        }
+        Enrollment enrollment = enrollmentRepository.findById(new EnrollmentId(studentId, courseId)).orElseThrow();
+        enrollment.setGrade(grade);
+        if (credits != null) {
+            enrollment.setCredits(credits);
+        }
+        enrollmentRepository.flush(); // now the row has its new version
+        changeOutbox.graded(studentId, courseId, grade, enrollment.getCredits());
+
+        Department department = enrollment.getStudent().getDepartment();
+        GradeRow row = new GradeRow(studentId, department != null ? department.getId() : null, courseId,
+                grade, enrollment.getCredits(), enrollment.getVersion());
+        afterCommit(() -> gradeBook.grade(row));
+    }
+
+    // --- Reading (no database access once built) ---
+
+    public StudentGpa gpa(Long studentId) {
+        return book().gpa(studentId);
+    }
+
+    public GradeDistribution distribution(Long courseId) {
+        return book().distribution(courseId);
+    }
+
+    // The n best students of a department by GPA (id 0 or null = students without a department).
+    // Only the names are read from the database, by primary key.
+    public List<RankedStudent> topStudents(Long departmentId, int n) {
+        Long department = departmentId != null && departmentId != EnrollmentStats.NO_DEPARTMENT ? departmentId : null;
+        List<StudentGpa> top = book().top(department, Math.max(0, Math.min(n, MAX_TOP)));
+        if (top.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (SearchHit hit : studentRepository.findSearchHits(top.stream().map(StudentGpa::studentId).toList())) {
+            names.put(hit.id(), hit.label());
+        }
+        List<RankedStudent> ranking = new ArrayList<>();
+        for (StudentGpa student : top) {
+            ranking.add(new RankedStudent(ranking.size() + 1, student.studentId(), names.get(student.studentId()),
+                    student.gpa(), student.credits()));
+        }
+        return ranking;
+    }
+
+    // --- Called by EnrollmentService, EnrollmentWriteBehind and EnrollmentStatsListener ---
+
+    void unenrolled(Long studentId, Long courseId) {
+        afterCommit(() -> gradeBook.remove(studentId, courseId));
+    }
+
+    void studentRemoved(Long studentId) {
+        afterCommit(() -> gradeBook.removeStudent(studentId));
+    }
+
+    void studentMoved(Long studentId, Long departmentId) {
+        afterCommit(() -> gradeBook.moveStudent(studentId, departmentId));
+    }
+
+    // --- Building ---
+
+    // A new GradeBook from what the database has now (the startup load; tests compare it with the live one)
+    GradeBook recompute() {
+        GradeBook fresh = new GradeBook();
+        fill(fresh);
+        return fresh;
+    }
+
+    GradeBook gradeBook() {
+        return book();
+    }
+
+    private GradeBook book() {
+        if (!ready) {
+            load();
+        }
+        return gradeBook;
+    }
+
+    private synchronized void load() {
+        if (ready) {
+            return;
+        }
+        long start = System.nanoTime();
+        // Grades committed while we read are applied after their commit too; the versions sort out the order
+        int rows = fill(gradeBook);
+        ready = true;
+        log.info("Grade aggregates built: {} graded enrollments in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Read-write transaction = the primary, a replica may not have the latest grades yet
+    private int fill(GradeBook book) {
+        Integer rows = transactionTemplate.execute(status -> {
+            int count = 0;
+            try (Stream<GradeRow> grades = enrollmentRepository.streamGrades()) {
+                for (GradeRow row : (Iterable<GradeRow>) grades::iterator) {
+                    book.grade(row);
+                    count++;
+                }
+            }
+            return count;
+        });
+        return rows != null ? rows : 0;
+    }
+
+    // Rolled back grades must never show up in a GPA
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.ChangeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// app.outbox.sink=memory: a bounded queue for consumers inside this app (and for tests).
+// A batch goes in whole or not at all: when it doesn't fit, publish() fails and the relay tries again
+// later, so a slow consumer holds the events back in the outbox table instead of filling the heap.
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final BlockingQueue<ChangeEvent> queue;
+
+    public InMemoryOutboxSink(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public synchronized void publish(List<ChangeEvent> events) {
+        if (queue.remainingCapacity() < events.size()) {
+            throw new IllegalStateException("Outbox queue is full (" + queue.size() + " events waiting)");
+        }
+        queue.addAll(events);
+    }
+
+    // Takes up to max events off the queue, oldest first
+    public List<ChangeEvent> poll(int max) {
+        List<ChangeEvent> events = new ArrayList<>();
+        queue.drainTo(events, max);
+        return events;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.ChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Moves the change events from the outbox table (see ChangeOutbox) to the sink, in batches.
+//
+// Each batch is one transaction:
+// 1. Lock the outbox_relay row. Only one instance relays at a time; the others wait or find nothing left.
+// 2. Take up to app.outbox.batch-size events that have no position yet, oldest first.
+// 3. Number them on from the last position (no gaps, no duplicates) and hand them to the sink.
+// 4. Commit. If the sink fails, everything is rolled back and the batch is sent again next time.
+// Positions are given out here and not when the event is written: transactions commit in any order,
+// and a reader that has seen position 10 must never get an event numbered 9 later on.
+//
+// Relayed events are deleted after app.outbox.retention. Metrics: app.outbox.relayed, app.outbox.relay.failures.
+@Service
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String PENDING = "select id, aggregate_type, aggregate_id, event_type, payload, created_at "
+            + "from outbox_events where position is null order by id limit ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OutboxSink outboxSink;
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.retention:7d}")
+    private Duration retention;
+
+    private Counter relayed;
+    private Counter failures;
+
+    @Autowired(required = false)
+    void bindMetrics(MeterRegistry meterRegistry) {
+        relayed = Counter.builder("app.outbox.relayed").register(meterRegistry);
+        failures = Counter.builder("app.outbox.relay.failures").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval:1s}")
+    public void relayPending() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            if (failures != null) {
+                failures.increment();
+            }
+            log.warn("Relaying change events failed, trying again later: {}", e.toString());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval:10m}")
+    public void deleteRelayed() {
+        int deleted = jdbcTemplate.update("delete from outbox_events where published_at < ?",
+                Timestamp.from(Instant.now().minus(retention)));
+        if (deleted > 0) {
+            log.info("Deleted {} relayed change events older than {}", deleted, retention);
+        }
+    }
+
+    // Relays batches until none are left; returns the number of events relayed
+    public int relay() {
+        int total = 0;
+        int count;
+        do {
+            count = transactionTemplate.execute(status -> relayBatch());
+            total += count;
+        } while (count == batchSize);
+        return total;
+    }
+
+    private int relayBatch() {
+        long last = jdbcTemplate.queryForObject(
+                "select last_position from outbox_relay where id = 1 for update", Long.class);
+        List<Long> ids = new ArrayList<>();
+        List<ChangeEvent> events = new ArrayList<>();
+        jdbcTemplate.query(PENDING, rs -> {
+            ids.add(rs.getLong("id"));
+            events.add(new ChangeEvent(last + events.size() + 1, rs.getString("aggregate_type"),
+                    rs.getLong("aggregate_id"), rs.getString("event_type"), rs.getString("payload"),
+                    rs.getTimestamp("created_at").toInstant()));
+        }, batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // Ids are mostly consecutive (gaps only where a transaction rolled back or hasn't committed yet):
+        // one UPDATE per run of consecutive ids instead of one per event
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> runs = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= ids.size(); i++) {
+            if (i == ids.size() || ids.get(i) != ids.get(i - 1) + 1) {
+                long shift = events.get(start).position() - ids.get(start);
+                runs.add(new Object[]{shift, now, ids.get(start), ids.get(i - 1)});
+                start = i;
+            }
+        }
+        jdbcTemplate.batchUpdate("update outbox_events set position = id + ?, published_at = ? "
+                + "where id between ? and ?", runs);
+        jdbcTemplate.update("update outbox_relay set last_position = ? where id = 1", last + events.size());
+
+        outboxSink.publish(events); // last: if it fails, the numbering above is rolled back too
+        if (relayed != null) {
+            relayed.increment(events.size());
+        }
+        return events.size();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.ChangeEvent;
+
+import java.util.List;
+
+// Where OutboxRelay sends the change events, chosen with app.outbox.sink (see OutboxConfig).
+//
+// publish() gets one batch, in position order, while the relay still holds its transaction open.
+// If it throws, the batch is not marked as relayed and is sent again on the next run: events arrive
+// at least once, and consumers drop the ones whose position they have already seen.
+public interface OutboxSink {
+
+    void publish(List<ChangeEvent> events);
+}
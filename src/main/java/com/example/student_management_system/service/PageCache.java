@@ -0,0 +1,154 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.CourseCard;
+import com.example.student_management_system.dto.StudentPage;
+import com.example.student_management_system.model.Student;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Server-side caching for the two busiest pages, the course catalog (/courses) and the student list (/students).
+//
+// Fragments: the part of a course card / student row that looks the same for everybody (title, teacher,
+// description, seats / id, name, email, department) is rendered once and reused for every viewer until
+// the row changes. Only the per-viewer parts (enroll button, edit/delete buttons, navbar) are rendered
+// per request, by the page templates.
+// - Key: the row's @Version, which Hibernate bumps on every update. A course card also shows how many
+//   students are enrolled, which is not part of the course row, so that count is in its key too.
+//   Teacher and department names never change once created and are not part of the keys.
+// - Old versions are never looked up again and simply age out (app.page-cache.max-size entries in total).
+//
+// ETags: computed from the page's data before anything is rendered (the rows and their versions, the
+// paging cursors, who is looking). If the browser's copy is still current (If-None-Match), the answer is
+// 304: nothing rendered, no body sent. Weak ETags, because the CSRF token in the page's forms is masked
+// differently in every response (any of them is valid for the session).
+//
+// app.page-cache.enabled=false renders both pages in full on every request, without ETags.
+@Service
+public class PageCache {
+
+    static final String COURSE_CARD = "course_card";
+    static final String STUDENT_CELLS = "student_cells";
+    // The th:fragment rendered from those templates
+    private static final Set<String> FRAGMENT = Set.of("content");
+
+    // Which fragment, of which row, at which version
+    private record FragmentKey(String template, Long id, Long version, long enrolledCount) {
+    }
+
+    private final ITemplateEngine templateEngine;
+    private final boolean enabled;
+    private final Cache<FragmentKey, String> fragments;
+    // Part of every ETag, so pages kept from before a restart (maybe with other templates) don't match
+    private final String instance = UUID.randomUUID().toString();
+
+    public PageCache(ITemplateEngine templateEngine,
+                     @Value("${app.page-cache.enabled:true}") boolean enabled,
+                     @Value("${app.page-cache.max-size:20000}") long maxSize) {
+        this.templateEngine = templateEngine;
+        this.enabled = enabled;
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    // Publishes hit/miss/eviction counts as "cache.*" metrics with tag cache=page-fragments
+    @Autowired(required = false)
+    void bindMetrics(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, fragments, "page-fragments");
+    }
+
+    // Course id -> card markup. null when the cache is off (courses.html then renders the cards itself).
+    public Map<Long, String> courseCards(List<CourseCard> cards) {
+        if (!enabled) {
+            return null;
+        }
+        Map<Long, String> html = new HashMap<>();
+        for (CourseCard card : cards) {
+            FragmentKey key = new FragmentKey(COURSE_CARD, card.id(), card.version(), card.enrolledCount());
+            html.put(card.id(), fragments.get(key, k -> render(COURSE_CARD, "course", card)));
+        }
+        return html;
+    }
+
+    // Student id -> markup of the table cells before "Actions". null when the cache is off.
+    public Map<Long, String> studentCells(List<Student> students) {
+        if (!enabled) {
+            return null;
+        }
+        Map<Long, String> html = new HashMap<>();
+        for (Student student : students) {
+            FragmentKey key = new FragmentKey(STUDENT_CELLS, student.getId(), student.getVersion(), 0);
+            html.put(student.getId(), fragments.get(key, k -> render(STUDENT_CELLS, "student", student)));
+        }
+        return html;
+    }
+
+    // true = the browser's copy of the course catalog is current and a 304 has been set up
+    public boolean notModified(HttpServletRequest request, HttpServletResponse response, List<CourseCard> cards) {
+        // The records' toString() has every value a card shows (and the viewer's "enrolled" flags)
+        return notModified(request, response, cards.toString());
+    }
+
+    // Same for a page of the student list
+    public boolean notModified(HttpServletRequest request, HttpServletResponse response, StudentPage page) {
+        StringBuilder content = new StringBuilder()
+                .append(page.prevCursor()).append('|').append(page.nextCursor()).append('|')
+                .append(page.size()).append('|').append(page.deptName());
+        for (Student student : page.students()) {
+            content.append('|').append(student.getId()).append(':').append(student.getVersion());
+        }
+        return notModified(request, response, content.toString());
+    }
+
+    private boolean notModified(HttpServletRequest request, HttpServletResponse response, String content) {
+        if (!enabled) {
+            return false;
+        }
+        // Browsers may keep the page but have to ask every time.
+        // (Without a Cache-Control of our own, Spring Security sends "no-store" and nothing is kept.)
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        return new ServletWebRequest(request, response).checkNotModified(etag(request, content));
+    }
+
+    // The viewer is part of it: name and role are on the page, and the session's CSRF token in the forms
+    String etag(HttpServletRequest request, String content) {
+        HttpSession session = request.getSession(false);
+        String page = instance + '|' + request.getRemoteUser() + '|' + (session != null ? session.getId() : "")
+                + '|' + content;
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(page.getBytes(StandardCharsets.UTF_8));
+            return "W/\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JVM has SHA-256
+        }
+    }
+
+    private String render(String template, String variable, Object value) {
+        Context context = new Context();
+        context.setVariable(variable, value);
+        return templateEngine.process(template, FRAGMENT, context);
+    }
+}
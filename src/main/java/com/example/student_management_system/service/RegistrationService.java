@@ -0,0 +1,135 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.model.Teacher;
+import com.example.student_management_system.model.User;
+import com.example.student_management_system.repository.StudentRepository;
+import com.example.student_management_system.repository.TeacherRepository;
+import com.example.student_management_system.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sign-up: hash the password and create the User + Student/Teacher rows.
+//
+// BCrypt is slow on purpose (tens of ms of pure CPU per password), so it does not run on the
+// Tomcat thread. Registrations go to a small fixed pool (one thread per core by default, more
+// would only fight over the CPU) with a bounded queue. When the queue is full, register()
+// throws RejectedExecutionException right away and the controller answers 503 + Retry-After,
+// instead of letting a sign-up rush tie up every request thread.
+@Service
+public class RegistrationService {
+
+    private final UserRepository userRepository;
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UserAccountCache userAccountCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private Counter rejected;
+
+    public RegistrationService(UserRepository userRepository,
+                               StudentRepository studentRepository,
+                               TeacherRepository teacherRepository,
+                               PasswordEncoder passwordEncoder,
+                               UserAccountCache userAccountCache,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${app.registration.threads:0}") int threads,
+                               @Value("${app.registration.queue-size:50}") int queueSize) {
+        this.userRepository = userRepository;
+        this.studentRepository = studentRepository;
+        this.teacherRepository = teacherRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userAccountCache = userAccountCache;
+        this.transactionTemplate = transactionTemplate;
+
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                task -> {
+                    Thread thread = new Thread(task, "registration-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> {
+                    if (rejected != null) {
+                        rejected.increment();
+                    }
+                    throw new RejectedExecutionException("Too many registrations in progress");
+                });
+    }
+
+    // Publishes executor.active / executor.queued / ... with tag name=registration, plus app.registration.rejected
+    @Autowired(required = false)
+    void bindMetrics(MeterRegistry meterRegistry) {
+        new ExecutorServiceMetrics(executor, "registration", Tags.empty()).bindTo(meterRegistry);
+        rejected = Counter.builder("app.registration.rejected").register(meterRegistry);
+    }
+
+    // Completes with the saved User once the password is hashed and both rows are committed.
+    // Throws RejectedExecutionException (without doing anything) when the queue is full.
+    public CompletableFuture<User> register(User user) {
+        String rawPassword = user.getPassword();
+        return CompletableFuture.supplyAsync(() -> createAccount(user, passwordEncoder.encode(rawPassword)), executor);
+    }
+
+    // The synchronous version: same work, on the caller's thread
+    public User registerNow(User user) {
+        return createAccount(user, passwordEncoder.encode(user.getPassword()));
+    }
+
+    // User and profile are inserted in one transaction, so there is never a login without its Student/Teacher row.
+    // Runs after the hashing, so the database connection is only held for the inserts.
+    private User createAccount(User user, String passwordHash) {
+        user.setPassword(passwordHash);
+
+        // Ensure the role has the "ROLE_" prefix
+        if (!user.getRole().startsWith("ROLE_")) {
+            user.setRole("ROLE_" + user.getRole());
+        }
+
+        User savedUser = transactionTemplate.execute(status -> {
+            User saved = userRepository.save(user);
+
+            if (saved.getRole().equals("ROLE_STUDENT")) {
+                Student student = new Student();
+                student.setName(saved.getUsername());
+                student.setEmail(saved.getUsername() + "@example.com"); // Placeholder email
+                student.setUser(saved);
+                studentRepository.save(student);
+            } else if (saved.getRole().equals("ROLE_TEACHER")) {
+                Teacher teacher = new Teacher();
+                teacher.setName(saved.getUsername());
+                teacher.setUser(saved);
+                teacherRepository.save(teacher);
+            }
+            return saved;
+        });
+
+        // Drop anything cached for this username (e.g. a stale entry from a deleted account)
+        userAccountCache.evict(user.getUsername());
+        return savedUser;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.RosterRow;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+
+// Turns the roster rows (sorted by student id) into CSV, one line per student:
+//   student_id,name,email,department,courses
+// Courses are joined with "; ". Only the current student is held in memory,
+// so the row count does not matter.
+class RosterCsvWriter {
+
+    static final String HEADER = "student_id,name,email,department,courses";
+
+    private RosterCsvWriter() {
+    }
+
+    // Returns the number of students written
+    static long write(Iterator<RosterRow> rows, Writer out) throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+
+        long students = 0;
+        RosterRow current = null;
+        StringBuilder courses = new StringBuilder();
+
+        while (rows.hasNext()) {
+            RosterRow row = rows.next();
+            if (current != null && !current.studentId().equals(row.studentId())) {
+                writeLine(out, current, courses);
+                students++;
+                courses.setLength(0);
+            }
+            current = row;
+            if (row.courseTitle() != null) {
+                if (!courses.isEmpty()) {
+                    courses.append("; ");
+                }
+                courses.append(row.courseTitle());
+            }
+        }
+        if (current != null) {
+            writeLine(out, current, courses);
+            students++;
+        }
+        return students;
+    }
+
+    private static void writeLine(Writer out, RosterRow row, CharSequence courses) throws IOException {
+        out.write(String.valueOf(row.studentId()));
+        out.write(',');
+        out.write(escape(row.name()));
+        out.write(',');
+        out.write(escape(row.email()));
+        out.write(',');
+        out.write(escape(row.department()));
+        out.write(',');
+        out.write(escape(courses.toString()));
+        out.write('\n');
+    }
+
+    // Quotes a field when it contains a comma, quote or line break ("" inside quotes).
+    // A field starting with = + - @, a tab or a CR (a formula to a spreadsheet) gets a leading ',
+    // so a spreadsheet opening the export shows the text instead of running it (CSV injection).
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.RosterRow;
+import com.example.student_management_system.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+// Full roster export (students + department + course titles) as CSV.
+//
+// The rows are read through a forward-only cursor (StudentRepository.streamRoster, fetch size 1000)
+// and written to the output as they arrive, so neither the table nor the file is ever held in memory.
+// The query returns plain values (no entities), so nothing piles up in the persistence context either.
+@Service
+public class RosterExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RosterExportService.class);
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    // The transaction keeps the cursor open while we write (Postgres only streams inside a transaction)
+    @Transactional(readOnly = true)
+    public long exportCsv(OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write('\uFEFF'); // BOM, so Excel opens the file as UTF-8
+
+        long students;
+        try (Stream<RosterRow> rows = studentRepository.streamRoster()) {
+            students = RosterCsvWriter.write(rows.iterator(), writer);
+        }
+        writer.flush();
+
+        log.info("Exported {} students in {} ms", students, (System.nanoTime() - start) / 1_000_000);
+        return students;
+    }
+}
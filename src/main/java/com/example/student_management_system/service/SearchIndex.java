@@ -0,0 +1,215 @@
+package com.example.student_management_system.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index for typeahead search: every word of a document points to the ids containing it.
+//
+// - Words are kept sorted, so "smi" finds smith, smithers, ... with one range lookup.
+// - A query with several words ("jo smi") returns documents matching ALL of them (each as a prefix).
+// - Ids per word are a sorted long[] (no boxing), so a million documents fit in a few hundred MB.
+// - Reads share a read lock and run in parallel; writes (save/delete of one document) take the write lock.
+public class SearchIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, LongList> postings = new TreeMap<>();
+    private final Map<Long, String[]> documents = new HashMap<>(); // id -> its words (needed to update/remove)
+
+    // Adds or replaces a document. Fields may be null.
+    public void put(long id, String... fields) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String field : fields) {
+            words.addAll(tokenize(field));
+        }
+
+        lock.writeLock().lock();
+        try {
+            String[] old = documents.get(id);
+            if (old != null) {
+                for (String word : old) {
+                    if (!words.contains(word)) {
+                        removePosting(word, id);
+                    }
+                }
+            }
+            Set<String> oldWords = old != null ? Set.of(old) : Set.of();
+            String[] stored = new String[words.size()];
+            int i = 0;
+            for (String word : words) {
+                // Reuse the String already used as key, so each distinct word is stored once
+                Map.Entry<String, LongList> entry = postings.ceilingEntry(word);
+                if (entry == null || !entry.getKey().equals(word)) {
+                    postings.put(word, new LongList());
+                    entry = postings.ceilingEntry(word);
+                }
+                if (!oldWords.contains(word)) {
+                    entry.getValue().add(id);
+                }
+                stored[i++] = entry.getKey();
+            }
+            documents.put(id, stored);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String[] old = documents.remove(id);
+            if (old != null) {
+                for (String word : old) {
+                    removePosting(word, id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of up to "limit" documents matching every word of the query (as a prefix).
+    // Documents with an exact word match come first.
+    public List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Walk the longest term (usually the most selective), check the others per document
+        String driver = terms.stream().max((a, b) -> Integer.compare(a.length(), b.length())).get();
+        List<String> others = new ArrayList<>(terms);
+        others.remove(driver);
+
+        Set<Long> found = new LinkedHashSet<>();
+        lock.readLock().lock();
+        try {
+            for (LongList ids : postings.subMap(driver, true, driver + Character.MAX_VALUE, false).values()) {
+                for (int i = 0; i < ids.size; i++) {
+                    long id = ids.values[i];
+                    if (!found.contains(id) && matchesAll(documents.get(id), others)) {
+                        found.add(id);
+                        if (found.size() == limit) {
+                            return new ArrayList<>(found);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(found);
+    }
+
+    // Lower-cased words made of letters and digits: "Anna.Smith@Example.com" -> [anna, smith, example, com]
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static boolean matchesAll(String[] words, List<String> terms) {
+        if (words == null) {
+            return false;
+        }
+        for (String term : terms) {
+            boolean match = false;
+            for (String word : words) {
+                if (word.startsWith(term)) {
+                    match = true;
+                    break;
+                }
+            }
+            if (!match) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void removePosting(String word, long id) {
+        LongList ids = postings.get(word);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.size == 0) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    // Sorted set of ids in a plain long[]. Ids mostly arrive in increasing order, so adding is usually an append.
+    private static final class LongList {
+        private long[] values = new long[2];
+        private int size;
+
+        void add(long id) {
+            if (size == 0 || id > values[size - 1]) {
+                grow();
+                values[size++] = id;
+                return;
+            }
+            int index = Arrays.binarySearch(values, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            grow();
+            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+            values[insertAt] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int index = Arrays.binarySearch(values, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+        }
+
+        private void grow() {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+        }
+    }
+}
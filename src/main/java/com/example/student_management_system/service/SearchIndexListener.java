@@ -0,0 +1,45 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.model.Student;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+// JPA entity listener on Student and Course: keeps the search index in sync with every save/delete.
+// Hibernate creates it through Spring, so it can be autowired. The service is looked up lazily
+// because listeners are created while the EntityManagerFactory (which SearchService needs) is starting.
+public class SearchIndexListener {
+
+    @Autowired
+    private ObjectProvider<SearchService> searchService;
+
+    @PostPersist
+    @PostUpdate
+    void saved(Object entity) {
+        SearchService service = searchService.getIfAvailable();
+        if (service == null) {
+            return;
+        }
+        if (entity instanceof Student student) {
+            service.studentSaved(student);
+        } else if (entity instanceof Course course) {
+            service.courseSaved(course);
+        }
+    }
+
+    @PostRemove
+    void removed(Object entity) {
+        SearchService service = searchService.getIfAvailable();
+        if (service == null) {
+            return;
+        }
+        if (entity instanceof Student student) {
+            service.studentRemoved(student);
+        } else if (entity instanceof Course course) {
+            service.courseRemoved(course);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.SearchDocument;
+import com.example.student_management_system.dto.SearchHit;
+import com.example.student_management_system.dto.SearchResults;
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.model.Department;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.CourseRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Typeahead search over students (name, email, department) and courses (title, description).
+//
+// Both are held in an in-memory SearchIndex, built once at startup and then kept up to date
+// by SearchIndexListener (JPA save/delete events, applied after the transaction commits).
+// Until the index is built (or with app.search.index-enabled=false) we fall back to an SQL
+// substring scan, which gives the same kind of results, just much slower on a big table.
+@Service
+public class SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private DepartmentRegistry departmentRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.search.index-enabled:true}")
+    private boolean indexEnabled;
+
+    private final SearchIndex students = new SearchIndex();
+    private final SearchIndex courses = new SearchIndex();
+    private volatile boolean ready;
+    // Students and courses saved or deleted while the index is built (guarded by changedDuringLoad)
+    private final Set<Long> studentsChangedDuringLoad = new HashSet<>();
+    private final Set<Long> coursesChangedDuringLoad = new HashSet<>();
+    private final Object changedDuringLoad = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void buildIndex() {
+        if (!indexEnabled || ready) {
+            return;
+        }
+        long start = System.nanoTime();
+        // A row changed while we read is already in the index, newer than the row here (or removed): that row is skipped
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<SearchDocument> rows = studentRepository.streamSearchDocuments()) {
+                rows.forEach(d -> {
+                    synchronized (changedDuringLoad) {
+                        if (!studentsChangedDuringLoad.contains(d.id())) {
+                            students.put(d.id(), d.first(), d.second(), d.third());
+                        }
+                    }
+                });
+            }
+            try (Stream<SearchDocument> rows = courseRepository.streamSearchDocuments()) {
+                rows.forEach(d -> {
+                    synchronized (changedDuringLoad) {
+                        if (!coursesChangedDuringLoad.contains(d.id())) {
+                            courses.put(d.id(), d.first(), d.second());
+                        }
+                    }
+                });
+            }
+        });
+        synchronized (changedDuringLoad) {
+            ready = true;
+            studentsChangedDuringLoad.clear();
+            coursesChangedDuringLoad.clear();
+        }
+        log.info("Search index built: {} students, {} courses in {} ms",
+                students.size(), courses.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public SearchResults search(String query, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (query == null || query.isBlank()) {
+            return new SearchResults(query, List.of(), List.of(), ready ? "index" : "sql");
+        }
+
+        if (ready) {
+            List<Long> studentIds = students.search(query, size);
+            List<Long> courseIds = courses.search(query, size);
+            return new SearchResults(query,
+                    inOrder(studentIds, studentIds.isEmpty() ? List.of() : studentRepository.findSearchHits(studentIds)),
+                    inOrder(courseIds, courseIds.isEmpty() ? List.of() : courseRepository.findSearchHits(courseIds)),
+                    "index");
+        }
+
+        String pattern = "%" + escapeLike(query.trim().toLowerCase(Locale.ROOT)) + "%";
+        return new SearchResults(query,
+                studentRepository.searchByText(pattern, Pageable.ofSize(size)),
+                courseRepository.searchByText(pattern, Pageable.ofSize(size)),
+                "sql");
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // --- Called by SearchIndexListener ---
+
+    void studentSaved(Student student) {
+        if (student.getId() == null) {
+            return;
+        }
+        // Read the values now (the entity may be detached or changed by the time the transaction commits)
+        long id = student.getId();
+        String name = student.getName();
+        String email = student.getEmail();
+        String department = departmentName(student.getDepartment());
+        afterCommit(() -> change(studentsChangedDuringLoad, id, () -> students.put(id, name, email, department)));
+    }
+
+    void studentRemoved(Student student) {
+        if (student.getId() != null) {
+            long id = student.getId();
+            afterCommit(() -> change(studentsChangedDuringLoad, id, () -> students.remove(id)));
+        }
+    }
+
+    void courseSaved(Course course) {
+        if (course.getId() == null) {
+            return;
+        }
+        long id = course.getId();
+        String title = course.getTitle();
+        String description = course.getDescription();
+        afterCommit(() -> change(coursesChangedDuringLoad, id, () -> courses.put(id, title, description)));
+    }
+
+    void courseRemoved(Course course) {
+        if (course.getId() != null) {
+            long id = course.getId();
+            afterCommit(() -> change(coursesChangedDuringLoad, id, () -> courses.remove(id)));
+        }
+    }
+
+    // While the index is built, remember the id: the load must not overwrite this change with the row it read earlier
+    private void change(Set<Long> changedIds, long id, Runnable change) {
+        if (!indexEnabled) {
+            return; // never built, never searched
+        }
+        synchronized (changedDuringLoad) {
+            change.run();
+            if (!ready) {
+                changedIds.add(id);
+            }
+        }
+    }
+
+    // The registry knows the name of every department, so a lazy reference is not loaded just for this
+    private String departmentName(Department department) {
+        if (department == null) {
+            return null;
+        }
+        String name = departmentRegistry.findName(department.getId());
+        return name != null ? name : department.getName();
+    }
+
+    // Rolled back changes must never show up in search results
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    // The hits come back from the database in any order; keep the index's order
+    private static List<SearchHit> inOrder(List<Long> ids, List<SearchHit> hits) {
+        List<SearchHit> sorted = new ArrayList<>(hits);
+        sorted.sort(Comparator.comparingInt(hit -> ids.indexOf(hit.id())));
+        return sorted;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.StudentImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+// Reads "name,email,department" CSV one line at a time, so the file never has to fit in memory.
+// The first line must be a header; columns can be in any order, "department" is optional.
+// Fields may be quoted ("Doe, John") with "" for a quote inside. A quoted field can't span lines.
+class StudentCsvReader implements Iterator<StudentImportRow> {
+
+    private final BufferedReader reader;
+    private final int nameColumn;
+    private final int emailColumn;
+    private final int departmentColumn;
+
+    private long lineNumber = 1;
+    private String nextLine;
+
+    StudentCsvReader(BufferedReader reader) {
+        this.reader = reader;
+        String header = readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("The CSV file is empty");
+        }
+        List<String> columns = parseLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        List<String> lower = columns.stream().map(c -> c.trim().toLowerCase(Locale.ROOT)).toList();
+        nameColumn = lower.indexOf("name");
+        emailColumn = lower.indexOf("email");
+        departmentColumn = lower.indexOf("department");
+        if (nameColumn < 0 || emailColumn < 0) {
+            throw new IllegalArgumentException("The CSV header must contain 'name' and 'email' columns, got: " + header);
+        }
+        advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextLine != null;
+    }
+
+    @Override
+    public StudentImportRow next() {
+        if (nextLine == null) {
+            throw new NoSuchElementException();
+        }
+        List<String> fields = parseLine(nextLine);
+        StudentImportRow row = new StudentImportRow(lineNumber,
+                field(fields, nameColumn), field(fields, emailColumn), field(fields, departmentColumn));
+        advance();
+        return row;
+    }
+
+    // Skips blank lines
+    private void advance() {
+        do {
+            nextLine = readLine();
+            lineNumber++;
+        } while (nextLine != null && nextLine.isBlank());
+    }
+
+    private String readLine() {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.ImportReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Command-line import, for files too big to upload:
+//   java -jar app.jar --app.import.file=intake.csv --spring.main.web-application-type=none
+// (.json files are read as JSON, anything else as CSV)
+@Component
+@ConditionalOnProperty("app.import.file")
+public class StudentImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentImportRunner.class);
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Value("${app.import.file}")
+    private Path file;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("Importing students from {}", file);
+        try (InputStream in = Files.newInputStream(file)) {
+            ImportReport report = file.toString().toLowerCase().endsWith(".json")
+                    ? studentImportService.importJson(in)
+                    : studentImportService.importCsv(in);
+
+            log.info("Import finished: {} rows read, {} imported, {} failed, {} rows/s",
+                    report.rowsRead(), report.imported(), report.failed(), Math.round(report.rowsPerSecond()));
+            report.errors().forEach(error -> log.warn("Line {}: {}", error.line(), error.message()));
+        }
+    }
+}
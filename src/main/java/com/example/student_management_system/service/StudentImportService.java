@@ -0,0 +1,184 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.ImportReport;
+import com.example.student_management_system.dto.StudentImportRow;
+import com.example.student_management_system.model.Department;
+import com.example.student_management_system.model.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Bulk student import (CSV or JSON) for whole intakes.
+//
+// - The file is read row by row (never fully in memory).
+// - Departments are resolved through the DepartmentRegistry (name -> id in memory), so a row costs no lookup query.
+// - Rows are written in chunks of app.import.batch-size: one transaction, one JDBC batch per chunk
+//   (Student ids come from a sequence, so Hibernate can batch the INSERTs), then the
+//   persistence context is cleared so memory stays flat.
+// - Bad rows are skipped and reported. A chunk that fails in the database is written again row by row,
+//   so only the rows the database rejects are lost, and the report names them.
+@Service
+public class StudentImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentImportService.class);
+
+    // Only the first errors are returned, the counts are always complete
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    // Shape of one element of a JSON import: [{"name": "...", "email": "...", "department": "..."}, ...]
+    record JsonStudent(String name, String email, String department) {
+    }
+
+    @Autowired
+    private DepartmentRegistry departmentRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    public ImportReport importCsv(InputStream in) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return importRows(new StudentCsvReader(reader));
+    }
+
+    // Accepts a JSON array of students, or one JSON object per line
+    public ImportReport importJson(InputStream in) {
+        MappingIterator<JsonStudent> values = objectMapper.readerFor(JsonStudent.class).readValues(in);
+        Iterator<StudentImportRow> rows = new Iterator<>() {
+            private long index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return values.hasNextValue();
+            }
+
+            @Override
+            public StudentImportRow next() {
+                JsonStudent s = values.nextValue();
+                index++;
+                return new StudentImportRow(index, s.name(), s.email(), s.department());
+            }
+        };
+        return importRows(rows);
+    }
+
+    public ImportReport importRows(Iterator<StudentImportRow> rows) {
+        long start = System.nanoTime();
+        List<ImportReport.RowError> errors = new ArrayList<>();
+        long read = 0;
+        long imported = 0;
+        long failed = 0;
+
+        List<StudentImportRow> chunk = new ArrayList<>(batchSize);
+        while (rows.hasNext()) {
+            StudentImportRow row = rows.next();
+            read++;
+
+            String problem = validate(row);
+            if (problem != null) {
+                failed++;
+                addError(errors, row.line(), problem);
+                continue;
+            }
+
+            chunk.add(row);
+            if (chunk.size() == batchSize) {
+                long written = writeChunk(chunk, errors);
+                imported += written;
+                failed += chunk.size() - written;
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            long written = writeChunk(chunk, errors);
+            imported += written;
+            failed += chunk.size() - written;
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = elapsedNanos > 0 ? imported / (elapsedNanos / 1e9) : 0;
+        log.info("Imported {} students ({} failed) in {} ms, {} rows/s",
+                imported, failed, elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+        return new ImportReport(read, imported, failed, elapsedNanos / 1_000_000, rowsPerSecond, errors);
+    }
+
+    // Writes one chunk in its own transaction. Returns how many rows were saved.
+    private long writeChunk(List<StudentImportRow> chunk, List<ImportReport.RowError> errors) {
+        // New departments are created up front, outside the chunk transaction
+        List<Long> departmentIds = new ArrayList<>(chunk.size());
+        for (StudentImportRow row : chunk) {
+            departmentIds.add(departmentRegistry.resolveId(row.department()));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < chunk.size(); i++) {
+                    StudentImportRow row = chunk.get(i);
+                    Student student = new Student();
+                    student.setName(row.name());
+                    student.setEmail(row.email());
+                    if (departmentIds.get(i) != null) {
+                        student.setDepartment(entityManager.getReference(Department.class, departmentIds.get(i)));
+                    }
+                    entityManager.persist(student);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            return chunk.size();
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                addError(errors, chunk.get(0).line(), "not saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return 0;
+            }
+            // Find the bad rows: each row in its own transaction (slow, but only for this chunk)
+            log.warn("Import chunk at lines {}-{} failed, saving its rows one by one",
+                    chunk.get(0).line(), chunk.get(chunk.size() - 1).line(), e);
+            long written = 0;
+            for (StudentImportRow row : chunk) {
+                written += writeChunk(List.of(row), errors);
+            }
+            return written;
+        }
+    }
+
+    private static String validate(StudentImportRow row) {
+        if (row.name() == null || row.name().isBlank()) {
+            return "name is missing";
+        }
+        if (row.email() == null || !row.email().contains("@")) {
+            return "email is missing or invalid: " + row.email();
+        }
+        return null;
+    }
+
+    private static void addError(List<ImportReport.RowError> errors, long line, String message) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ImportReport.RowError(line, message));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.StudentPage;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Service
+public class StudentListingService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    // Loads one page of students using the id as a cursor.
+    // - after:  show the rows right after this id (Next button)
+    // - before: show the rows right before this id (Previous button)
+    // - neither: first page
+    // Read-only, so it may be served by a read replica (see ReplicaDataSourceConfig).
+    @Transactional(readOnly = true)
+    public StudentPage findPage(Long after, Long before, int size, String deptName) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String dept = (deptName == null || deptName.isBlank()) ? null : deptName.trim();
+
+        // We always ask for one extra row. If it comes back, we know there is another page.
+        Pageable limit = Pageable.ofSize(pageSize + 1);
+
+        if (before != null) {
+            List<Student> rows = new ArrayList<>(studentRepository.findPageBefore(before, dept, limit));
+            boolean hasPrevious = rows.size() > pageSize;
+            if (hasPrevious) {
+                rows.remove(rows.size() - 1);
+            }
+            Collections.reverse(rows);
+
+            Long prevCursor = hasPrevious ? rows.get(0).getId() : null;
+            // We came here from a later page, so there is always a "Next"
+            Long nextCursor = rows.isEmpty() ? null : rows.get(rows.size() - 1).getId();
+            return new StudentPage(rows, prevCursor, nextCursor, pageSize, dept);
+        }
+
+        long afterId = after != null ? after : 0L;
+        List<Student> rows = new ArrayList<>(studentRepository.findPageAfter(afterId, dept, limit));
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows.remove(rows.size() - 1);
+        }
+
+        Long prevCursor = (after != null && !rows.isEmpty()) ? rows.get(0).getId() : null;
+        Long nextCursor = hasNext ? rows.get(rows.size() - 1).getId() : null;
+        return new StudentPage(rows, prevCursor, nextCursor, pageSize, dept);
+    }
+}
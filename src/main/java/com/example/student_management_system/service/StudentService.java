@@ -0,0 +1,39 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class StudentService {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DepartmentRegistry departmentRegistry; // name -> department, without a query per save
+
+    @Autowired
+    private UserAccountCache userAccountCache;
+
+    // Edits a student's name, email and department. Returns false when the student does not exist (any more).
+    // One read-write transaction, so the student is read from the primary database, not a replica that may be behind
+    @Transactional
+    public boolean update(Long id, String name, String email, String deptName) {
+        Student student = studentRepository.findById(id).orElse(null);
+        if (student == null) {
+            return false;
+        }
+        student.setName(name);
+        student.setEmail(email);
+        student.setDepartment(departmentRegistry.resolve(deptName));
+        studentRepository.save(student);
+
+        if (student.getUser() != null) {
+            userAccountCache.evict(student.getUser().getUsername());
+        }
+        return true;
+    }
+}
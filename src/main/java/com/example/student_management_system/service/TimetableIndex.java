@@ -0,0 +1,198 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.CourseMeeting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory timetable: when every course meets, and which rooms are taken when.
+//
+// - A student's clash check looks up the meeting of each of their courses by id (a map lookup each)
+//   and compares the intervals: 10 courses = 10 comparisons, whatever the size of the catalog.
+// - Every room has a bitset of the week in 5-minute slots (7 x 288 bits = 32 longs), the union of its bookings.
+//   A new booking that doesn't touch any set bit is free without looking at a single course; only when
+//   bits overlap are the room's courses compared exactly (times need not be multiples of 5 minutes).
+// - Reads share a read lock and run in parallel; saving or deleting a course takes the write lock.
+public class TimetableIndex {
+
+    static final int SLOT_MINUTES = 5;
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int WORDS = (7 * SLOTS_PER_DAY + 63) / 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, CourseMeeting> courses = new HashMap<>();
+    private final Map<String, Room> rooms = new HashMap<>();
+
+    // Adds or replaces the meeting of a course
+    public void put(CourseMeeting meeting) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(meeting.courseId());
+            courses.put(meeting.courseId(), meeting);
+            String key = roomKey(meeting.room());
+            if (key != null) {
+                rooms.computeIfAbsent(key, k -> new Room()).add(meeting);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The course was deleted, or no longer has a fixed time
+    public void remove(long courseId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public CourseMeeting get(long courseId) {
+        lock.readLock().lock();
+        try {
+            return courses.get(courseId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return courses.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The courses among `enrolled` that meet at the same time as `courseId` (none if it has no fixed time)
+    public List<CourseMeeting> conflicts(Collection<Long> enrolled, long courseId) {
+        lock.readLock().lock();
+        try {
+            CourseMeeting candidate = courses.get(courseId);
+            if (candidate == null) {
+                return List.of();
+            }
+            List<CourseMeeting> clashes = new ArrayList<>();
+            for (Long id : enrolled) {
+                CourseMeeting other = id != courseId ? courses.get(id) : null;
+                if (other != null && other.overlaps(candidate)) {
+                    clashes.add(other);
+                }
+            }
+            return clashes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Other courses booked in the same room at an overlapping time
+    public List<CourseMeeting> roomConflicts(CourseMeeting meeting) {
+        String key = roomKey(meeting.room());
+        if (key == null) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Room room = rooms.get(key);
+            if (room == null || !room.mayOverlap(meeting)) {
+                return List.of();
+            }
+            List<CourseMeeting> clashes = new ArrayList<>();
+            for (CourseMeeting other : room.meetings) {
+                if (!other.courseId().equals(meeting.courseId()) && other.overlaps(meeting)) {
+                    clashes.add(other);
+                }
+            }
+            return clashes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(long courseId) {
+        CourseMeeting old = courses.remove(courseId);
+        String key = old != null ? roomKey(old.room()) : null;
+        if (key != null) {
+            Room room = rooms.get(key);
+            room.remove(old);
+            if (room.meetings.isEmpty()) {
+                rooms.remove(key);
+            }
+        }
+    }
+
+    // "Room 101", "room 101 " and "ROOM 101" are the same room
+    static String roomKey(String room) {
+        if (room == null || room.isBlank()) {
+            return null;
+        }
+        return room.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // The 5-minute slots a meeting touches, as [first, last) bit positions in the week
+    static int firstSlot(CourseMeeting meeting) {
+        return meeting.day().ordinal() * SLOTS_PER_DAY + (meeting.start().getHour() * 60 + meeting.start().getMinute()) / SLOT_MINUTES;
+    }
+
+    static int endSlot(CourseMeeting meeting) {
+        int minutes = meeting.end().getHour() * 60 + meeting.end().getMinute();
+        return meeting.day().ordinal() * SLOTS_PER_DAY + (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    // The bookings of one room
+    private static final class Room {
+
+        private final List<CourseMeeting> meetings = new ArrayList<>();
+        private final long[] taken = new long[WORDS];
+
+        void add(CourseMeeting meeting) {
+            meetings.add(meeting);
+            mark(meeting);
+        }
+
+        void remove(CourseMeeting meeting) {
+            meetings.remove(meeting);
+            // Slots may be shared with another booking: rebuild from the ones left
+            Arrays.fill(taken, 0);
+            for (CourseMeeting other : meetings) {
+                mark(other);
+            }
+        }
+
+        boolean mayOverlap(CourseMeeting meeting) {
+            int from = firstSlot(meeting);
+            int to = endSlot(meeting);
+            for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+                if ((taken[word] & mask(word, from, to)) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void mark(CourseMeeting meeting) {
+            int from = firstSlot(meeting);
+            int to = endSlot(meeting);
+            for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+                taken[word] |= mask(word, from, to);
+            }
+        }
+
+        // The bits of [from, to) that fall into this word
+        private static long mask(int word, int from, int to) {
+            int low = Math.max(from - word * 64, 0);
+            int high = Math.min(to - word * 64, 64);
+            long upTo = high == 64 ? -1L : (1L << high) - 1;
+            return upTo & (-1L << low);
+        }
+    }
+}
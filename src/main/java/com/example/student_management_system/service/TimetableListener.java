@@ -0,0 +1,33 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.Course;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+// JPA entity listener on Course: keeps the timetable (TimetableService) in sync with every save/delete.
+// Same setup as SearchIndexListener: created by Hibernate through Spring, the service looked up lazily.
+public class TimetableListener {
+
+    @Autowired
+    private ObjectProvider<TimetableService> timetableService;
+
+    @PostPersist
+    @PostUpdate
+    void saved(Course course) {
+        TimetableService service = timetableService.getIfAvailable();
+        if (service != null) {
+            service.courseSaved(course);
+        }
+    }
+
+    @PostRemove
+    void removed(Course course) {
+        TimetableService service = timetableService.getIfAvailable();
+        if (service != null) {
+            service.courseRemoved(course);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.CourseMeeting;
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.repository.CourseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Weekly meeting times of the courses, and the clashes between them:
+// - enrolling in a course that meets at the same time as one of the student's courses is refused (EnrollmentService)
+// - a teacher saving a course in a room that is already booked at that time gets a warning (the course is saved)
+//
+// Both are answered from the in-memory TimetableIndex, built once at startup (or on the first check, if that
+// comes first) and then kept up to date by TimetableListener (JPA save/delete events, applied after the commit).
+@Service
+public class TimetableService {
+
+    private static final Logger log = LoggerFactory.getLogger(TimetableService.class);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final TimetableIndex index = new TimetableIndex();
+    private volatile boolean ready;
+    // Courses saved or deleted while the index is being loaded: the loaded row may be older than the change
+    private final Set<Long> changedDuringLoad = new HashSet<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        index();
+    }
+
+    // --- Checks ---
+
+    // The student's courses (ids) that meet at the same time as courseId
+    public List<CourseMeeting> conflicts(Collection<Long> enrolledCourseIds, Long courseId) {
+        return index().conflicts(enrolledCourseIds, courseId);
+    }
+
+    // Most courses have no fixed time: then there is nothing to check (and no need to load the student's courses)
+    public boolean hasMeetingTime(Long courseId) {
+        return index().get(courseId) != null;
+    }
+
+    // Other courses in the same room at an overlapping time (empty if the course has no fixed time or room)
+    public List<CourseMeeting> roomConflicts(Course course) {
+        CourseMeeting meeting = meeting(course);
+        return meeting != null ? index().roomConflicts(meeting) : List.of();
+    }
+
+    // null if the meeting time of the form is fine, otherwise what is wrong with it
+    public String validate(Course course) {
+        boolean anySet = course.getMeetingDay() != null || course.getStartTime() != null || course.getEndTime() != null;
+        boolean allSet = course.getMeetingDay() != null && course.getStartTime() != null && course.getEndTime() != null;
+        if (anySet && !allSet) {
+            return "Give the day, the start and the end time, or none of them.";
+        }
+        if (allSet && !course.getStartTime().isBefore(course.getEndTime())) {
+            return "The course has to end after it starts.";
+        }
+        if (!allSet && course.getRoom() != null && !course.getRoom().isBlank()) {
+            return "A room can only be booked together with a day and time.";
+        }
+        return null;
+    }
+
+    // --- Called by TimetableListener ---
+
+    void courseSaved(Course course) {
+        if (course.getId() == null) {
+            return;
+        }
+        // Read the values now (the entity may be detached or changed by the time the transaction commits)
+        long id = course.getId();
+        CourseMeeting meeting = meeting(course);
+        afterCommit(() -> change(id, () -> {
+            if (meeting != null) {
+                index.put(meeting);
+            } else {
+                index.remove(id);
+            }
+        }));
+    }
+
+    void courseRemoved(Course course) {
+        if (course.getId() != null) {
+            long id = course.getId();
+            afterCommit(() -> change(id, () -> index.remove(id)));
+        }
+    }
+
+    private void change(long courseId, Runnable change) {
+        synchronized (changedDuringLoad) {
+            change.run();
+            if (!ready) {
+                changedDuringLoad.add(courseId);
+            }
+        }
+    }
+
+    private TimetableIndex index() {
+        if (!ready) {
+            load();
+        }
+        return index;
+    }
+
+    private synchronized void load() {
+        if (ready) {
+            return;
+        }
+        long start = System.nanoTime();
+        // A course changed while we read is already in the index, newer than its row here: that row is skipped
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CourseMeeting> rows = courseRepository.streamMeetings()) {
+                rows.forEach(row -> {
+                    synchronized (changedDuringLoad) {
+                        if (!changedDuringLoad.contains(row.courseId())) {
+                            index.put(row);
+                        }
+                    }
+                });
+            }
+        });
+        synchronized (changedDuringLoad) {
+            ready = true;
+            changedDuringLoad.clear();
+        }
+        log.info("Timetable built: {} courses with a meeting time in {} ms",
+                index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static CourseMeeting meeting(Course course) {
+        if (course.getMeetingDay() == null || course.getStartTime() == null || course.getEndTime() == null) {
+            return null;
+        }
+        String room = course.getRoom() != null && !course.getRoom().isBlank() ? course.getRoom().trim() : null;
+        return new CourseMeeting(course.getId(), course.getTitle(), course.getMeetingDay(),
+                course.getStartTime(), course.getEndTime(), room);
+    }
+
+    // Rolled back changes must never show up in the timetable
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.model.Teacher;
+import com.example.student_management_system.model.User;
+import com.example.student_management_system.repository.StudentRepository;
+import com.example.student_management_system.repository.TeacherRepository;
+import com.example.student_management_system.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.Principal;
+import java.time.Duration;
+
+// Small in-memory cache of "username -> user + linked Student/Teacher id".
+// Login and almost every page need this, so we only hit the users table on a miss.
+// Entries expire after a while, and are evicted right away when a user or profile is written.
+@Service
+public class UserAccountCache {
+
+    // What we keep per user. Only plain values (no entities), so it is safe to share between requests.
+    public record CachedUser(Long userId,
+                             String username,
+                             String password,
+                             String role,
+                             Long studentId,
+                             Long teacherId) {
+    }
+
+    private final UserRepository userRepository;
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, CachedUser> cache;
+
+    public UserAccountCache(UserRepository userRepository,
+                            StudentRepository studentRepository,
+                            TeacherRepository teacherRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.user-cache.max-size:10000}") long maxSize,
+                            @Value("${app.user-cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.studentRepository = studentRepository;
+        this.teacherRepository = teacherRepository;
+        // Misses are read in a read-write transaction, i.e. from the primary database:
+        // a user who just signed up must be able to log in even if a read replica is behind
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Publishes hit/miss/eviction counts as "cache.*" metrics with tag cache=users
+    @Autowired(required = false)
+    void bindMetrics(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    // Returns null when the user does not exist (same as UserRepository.findByUsername).
+    // Unknown usernames are not cached, so a sign-up is visible right away.
+    public CachedUser get(String username) {
+        if (username == null) {
+            return null;
+        }
+        return cache.get(username, name -> transactionTemplate.execute(status -> load(name)));
+    }
+
+    public Long findStudentId(String username) {
+        CachedUser user = get(username);
+        return user != null ? user.studentId() : null;
+    }
+
+    public Long findTeacherId(String username) {
+        CachedUser user = get(username);
+        return user != null ? user.teacherId() : null;
+    }
+
+    // The logged-in user's ids. A token login (AuthTokenService) already carries them: no lookup at all.
+    public Long findStudentId(Principal principal) {
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof AuthTokenService.AuthToken token) {
+            return token.studentId();
+        }
+        return findStudentId(principal.getName());
+    }
+
+    public Long findTeacherId(Principal principal) {
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof AuthTokenService.AuthToken token) {
+            return token.teacherId();
+        }
+        return findTeacherId(principal.getName());
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    // Used when we only know the Student (e.g. it was deleted by a teacher)
+    public void evictStudent(Long studentId) {
+        cache.asMap().values().removeIf(u -> studentId != null && studentId.equals(u.studentId()));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private CachedUser load(String username) {
+        User user = userRepository.findByUsername(username);
+        if (user == null) {
+            return null;
+        }
+
+        Long studentId = null;
+        Long teacherId = null;
+        if ("ROLE_STUDENT".equals(user.getRole())) {
+            Student student = studentRepository.findByUser(user);
+            studentId = student != null ? student.getId() : null;
+        } else if ("ROLE_TEACHER".equals(user.getRole())) {
+            Teacher teacher = teacherRepository.findByUser(user);
+            teacherId = teacher != null ? teacher.getId() : null;
+        }
+
+        return new CachedUser(user.getId(), user.getUsername(), user.getPassword(), user.getRole(), studentId, teacherId);
+    }
+}
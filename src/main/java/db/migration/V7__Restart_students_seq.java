@@ -0,0 +1,45 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Moves students_seq past the student ids that already exist.
+//
+// V1 is the schema from before the migrations, where student ids came from an identity column, so
+// students_seq does not exist yet (or was created by ddl-auto at 1). A database from back then already has
+// students, and the first new student would get id 1 again.
+// Student takes ids 50 at a time (pooled): a sequence value n hands out n-49 .. n, so it has to end up at
+// least 50 above the highest id. It never moves back (another instance may be using the ids below it).
+// A Java migration because PostgreSQL only restarts a sequence at a literal, and H2 has no setval.
+public class V7__Restart_students_seq extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50; // Student's @SequenceGenerator
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create sequence if not exists students_seq start with 1 increment by " + ALLOCATION_SIZE);
+            long maxId = queryLong(statement, "select coalesce(max(id), 0) from students");
+            if (maxId == 0) {
+                return; // no students: the sequence is fine where it is
+            }
+            boolean h2 = connection.getMetaData().getDatabaseProductName().startsWith("H2");
+            long next = queryLong(statement, h2 ? "select next value for students_seq" : "select nextval('students_seq')");
+            long restart = Math.max(next, maxId) + ALLOCATION_SIZE;
+            statement.execute("alter sequence students_seq restart with " + restart);
+        }
+    }
+
+    private static long queryLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+-- The schema exactly as Hibernate created it before the migrations existed (ddl-auto=update, PostgreSQL),
+-- including its generated constraint names. A database from back then is baselined at this version,
+-- so everything added since then belongs in a later migration, never here.
+-- Written so it runs on both PostgreSQL and H2 (tests).
+
+create table courses (
+    id          bigint generated by default as identity,
+    teacher_id  bigint,
+    description varchar(255),
+    title       varchar(255),
+    primary key (id)
+);
+
+create table departments (
+    id   bigint generated by default as identity,
+    name varchar(255),
+    primary key (id)
+);
+
+create table student_courses (
+    course_id  bigint not null,
+    student_id bigint not null
+);
+
+create table students (
+    department_id bigint,
+    id            bigint generated by default as identity,
+    user_id       bigint unique,
+    email         varchar(255),
+    name          varchar(255),
+    primary key (id)
+);
+
+create table teachers (
+    department_id bigint,
+    id            bigint generated by default as identity,
+    user_id       bigint unique,
+    email         varchar(255),
+    name          varchar(255),
+    primary key (id)
+);
+
+create table users (
+    id       bigint generated by default as identity,
+    password varchar(255) not null,
+    role     varchar(255) not null,
+    username varchar(255) not null unique,
+    primary key (id)
+);
+
+alter table courses add constraint FK468oyt88pgk2a0cxrvxygadqg foreign key (teacher_id) references teachers;
+alter table student_courses add constraint FKsfpq78oyrqua1h0obpl7ulc18 foreign key (course_id) references courses;
+alter table student_courses add constraint FKwj1l0mta35u161acdl2tupoo foreign key (student_id) references students;
+alter table students add constraint FKalgc33nsolpmegw14o3h6g6rr foreign key (department_id) references departments;
+alter table students add constraint FKdt1cjx5ve5bdabmuuf3ibrwaq foreign key (user_id) references users;
+alter table teachers add constraint FKrgr03njnvpwuktc0mntf8t6o0 foreign key (department_id) references departments;
+alter table teachers add constraint FKb8dct7w2j1vl1r2bpstw5isc0 foreign key (user_id) references users;
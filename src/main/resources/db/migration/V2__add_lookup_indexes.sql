@@ -0,0 +1,14 @@
+-- Indexes for the foreign keys the app looks rows up by. The unique constraints already give
+-- users.username, students.user_id, teachers.user_id (V1), departments.name and
+-- student_courses (student_id, course_id) (V8) an index; neither database indexes foreign keys by itself.
+
+-- A teacher's courses (Teacher.courses, the course catalog join)
+create index idx_courses_teacher_id on courses (teacher_id);
+
+-- The students of a course (Course.students, enrollment counts). student_id is included,
+-- so counting and joining never has to read the table itself.
+create index idx_student_courses_course_id on student_courses (course_id, student_id);
+
+-- Students / teachers of a department (department filter on /students, Department.teachers)
+create index idx_students_department_id on students (department_id);
+create index idx_teachers_department_id on teachers (department_id);
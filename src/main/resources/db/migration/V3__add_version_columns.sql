@@ -0,0 +1,6 @@
+-- Row versions for courses and students (@Version): Hibernate adds 1 on every update of the row.
+-- They stamp the cached page fragments and the page ETags, see PageCache.
+-- Existing rows (and rows inserted with plain SQL) start at 0.
+
+alter table courses add column version bigint default 0 not null;
+alter table students add column version bigint default 0 not null;
@@ -0,0 +1,28 @@
+-- Change events of students, courses and enrollments (transactional outbox, see ChangeOutbox).
+-- A row is written in the same transaction as the change it describes, so it exists if and only if
+-- the change was committed. OutboxRelay then numbers the rows (position: 1, 2, 3, ... without gaps,
+-- in the order they were relayed) and hands them to the configured sink; GET /api/events reads by position.
+create table outbox_events (
+    id             bigint generated by default as identity,
+    aggregate_type varchar(32)   not null,
+    aggregate_id   bigint        not null,
+    event_type     varchar(32)   not null,
+    payload        varchar(4000) not null,
+    created_at     timestamp     not null,
+    position       bigint,
+    published_at   timestamp,
+    primary key (id),
+    -- Reading from an offset, and finding the rows not relayed yet (position is null)
+    constraint uk_outbox_events_position unique (position)
+);
+
+-- Removing relayed rows after app.outbox.retention
+create index idx_outbox_events_published_at on outbox_events (published_at);
+
+-- The last position handed out. The relay locks this row, so only one instance relays at a time.
+create table outbox_relay (
+    id            integer not null,
+    last_position bigint  not null,
+    primary key (id)
+);
+insert into outbox_relay (id, last_position) values (1, 0);
@@ -0,0 +1,10 @@
+-- When and where a course meets: one weekly slot (see TimetableService). All null = no fixed time.
+-- meeting_day is the java.time.DayOfWeek name (MONDAY ... SUNDAY).
+-- Overlaps (a student's courses, a room booked twice) are checked in memory, not with SQL, so no index is needed.
+
+alter table courses add column meeting_day varchar(9);
+alter table courses add column start_time time;
+alter table courses add column end_time time;
+alter table courses add column room varchar(255);
+alter table courses add constraint chk_courses_meeting_time
+    check (start_time is null or end_time is null or start_time < end_time);
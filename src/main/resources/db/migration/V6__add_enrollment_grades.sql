@@ -0,0 +1,11 @@
+-- Enrollments get a payload (see Enrollment): a letter grade (null = not graded yet) and the credits the
+-- course counts for. Rows inserted with plain SQL (enrolling, the write-behind batches) start ungraded with 3 credits.
+-- grade is the Grade enum name (A, A_MINUS ... F).
+-- version is the row's @Version: two teachers saving a grade at once can't overwrite each other unnoticed,
+-- and the in-memory aggregates (GradeBook) skip a grade older than the one they already have.
+-- GPAs, grade distributions and rankings are kept in memory, so no index is needed for them.
+
+alter table student_courses add column grade varchar(7);
+alter table student_courses add column credits integer default 3 not null;
+alter table student_courses add column version bigint default 0 not null;
+alter table student_courses add constraint chk_student_courses_credits check (credits between 1 and 20);
@@ -0,0 +1,36 @@
+-- What the app added to the V1 tables before it had migrations of its own: course capacities
+-- and the unique constraints on department names and enrollments.
+-- A database from before the migrations may break them, so it is cleaned up first.
+
+-- Maximum number of students (null = no limit) and the seats taken, kept by CourseRepository.reserveSeat
+alter table courses add column capacity integer;
+alter table courses add column seats_taken integer default 0 not null;
+
+-- The same enrollment twice (ddl-auto kept student_courses as a plain list): keep one row per pair
+create table student_courses_duplicates as
+    select student_id, course_id, max(grade) as grade, max(credits) as credits, max(version) as version
+    from student_courses
+    group by student_id, course_id
+    having count(*) > 1;
+delete from student_courses
+    where exists (select 1 from student_courses_duplicates d
+                  where d.student_id = student_courses.student_id and d.course_id = student_courses.course_id);
+insert into student_courses (student_id, course_id, grade, credits, version)
+    select student_id, course_id, grade, credits, version from student_courses_duplicates;
+drop table student_courses_duplicates;
+alter table student_courses add constraint uk_student_courses unique (student_id, course_id);
+
+update courses set seats_taken = (select count(*) from student_courses sc where sc.course_id = courses.id);
+
+-- The same department name twice: move its students and teachers to the oldest one, drop the others
+update students set department_id = (select min(k.id) from departments k join departments d on k.name = d.name
+                                     where d.id = students.department_id)
+    where department_id in (select d.id from departments d
+                            where d.id > (select min(k.id) from departments k where k.name = d.name));
+update teachers set department_id = (select min(k.id) from departments k join departments d on k.name = d.name
+                                     where d.id = teachers.department_id)
+    where department_id in (select d.id from departments d
+                            where d.id > (select min(k.id) from departments k where k.name = d.name));
+delete from departments
+    where id > (select min(k.id) from departments k where k.name = departments.name);
+alter table departments add constraint uk_departments_name unique (name);
@@ -0,0 +1,17 @@
+-- The waiting lists of full courses (see CourseWaitlist). In the database, so every instance works on the
+-- same queue and a restart doesn't lose anybody's place.
+-- position is first come, first served: the lowest position of a course gets the next free seat.
+-- A deleted student or course leaves the queue with it (on delete cascade).
+create table course_waitlist (
+    course_id  bigint not null,
+    student_id bigint not null,
+    position   bigint generated by default as identity,
+    primary key (course_id, student_id),
+    constraint fk_course_waitlist_course foreign key (course_id) references courses (id) on delete cascade,
+    constraint fk_course_waitlist_student foreign key (student_id) references students (id) on delete cascade
+);
+
+-- The front of a course's queue
+create index idx_course_waitlist_course_position on course_waitlist (course_id, position);
+-- A student's places (the courses page, deleting a student)
+create index idx_course_waitlist_student_id on course_waitlist (student_id);
@@ -0,0 +1,32 @@
+package com.example.student_management_system.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BCryptCostCalibrator Unit Tests")
+class BCryptCostCalibratorTest {
+
+    @Test
+    @DisplayName("Should never go below the minimum cost")
+    void calibrate_TinyTarget_UsesMinimum() {
+        assertEquals(4, BCryptCostCalibrator.calibrate(Duration.ofNanos(1), 4, 16));
+    }
+
+    @Test
+    @DisplayName("Should never go above the maximum cost")
+    void calibrate_HugeTarget_UsesMaximum() {
+        assertEquals(6, BCryptCostCalibrator.calibrate(Duration.ofHours(1), 4, 6));
+    }
+
+    @Test
+    @DisplayName("Should raise the cost while a hash stays within the target")
+    void calibrate_RaisesCostWithinTarget() {
+        int cost = BCryptCostCalibrator.calibrate(Duration.ofMillis(50), 4, 12);
+
+        assertTrue(cost > 4, "a cost-4 hash takes about 1 ms, so 50 ms allows a higher cost");
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.student_management_system.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BulkheadFilter Unit Tests")
+class BulkheadFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Requests over the limit should get 503 with Retry-After")
+    void doFilter_RejectsWhenFull() throws Exception {
+        BulkheadFilter filter = newFilter(1, Duration.ofMillis(50));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        // The first request holds the only permit
+        Future<?> first = pool.submit(() -> {
+            filter.doFilter(new MockHttpServletRequest("GET", "/students"), new MockHttpServletResponse(), (req, res) -> {
+                inside.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return null;
+        });
+        assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/courses"), second, (req, res) -> fail("must not run"));
+
+        assertEquals(503, second.getStatus());
+        assertEquals("1", second.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("app.bulkhead.rejected").counter().count());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // The permit is back
+        MockHttpServletResponse third = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/courses"), third, (req, res) -> { });
+        assertEquals(200, third.getStatus());
+    }
+
+    @Test
+    @DisplayName("An async request should hold its permit until it completes, not just until the thread returns")
+    void doFilter_AsyncKeepsPermitUntilComplete() throws Exception {
+        BulkheadFilter filter = newFilter(1, Duration.ZERO);
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/students/export");
+        export.setAsyncSupported(true);
+
+        filter.doFilter(export, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        // Still streaming: the next request is turned away
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/courses"), second, (req, res) -> fail("must not run"));
+        assertEquals(503, second.getStatus());
+
+        export.getAsyncContext().complete();
+
+        MockHttpServletResponse third = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/courses"), third, (req, res) -> { });
+        assertEquals(200, third.getStatus());
+    }
+
+    @Test
+    @DisplayName("Health checks should never wait for a permit")
+    void doFilter_SkipsActuator() throws Exception {
+        BulkheadFilter filter = newFilter(0, Duration.ZERO);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean[] ran = {false};
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, (req, res) -> ran[0] = true);
+
+        assertTrue(ran[0]);
+        assertEquals(200, response.getStatus());
+    }
+
+    private BulkheadFilter newFilter(int maxConcurrent, Duration maxWait) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("meterRegistry", meterRegistry);
+        return new BulkheadFilter(maxConcurrent, maxWait, beans.getBeanProvider(MeterRegistry.class));
+    }
+}
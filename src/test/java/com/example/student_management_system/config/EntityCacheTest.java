@@ -0,0 +1,203 @@
+package com.example.student_management_system.config;
+
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.model.Department;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.model.Teacher;
+import com.example.student_management_system.model.User;
+import com.example.student_management_system.repository.CourseRepository;
+import com.example.student_management_system.repository.DepartmentRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import com.example.student_management_system.repository.TeacherRepository;
+import com.example.student_management_system.repository.UserRepository;
+import com.example.student_management_system.service.EnrollmentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Counts the SQL statements of the same read done cold (empty second-level cache) and warm
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Second-level cache Integration Tests")
+class EntityCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Long courseId;
+    private Long studentId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Department department = new Department();
+        department.setName("Cache Dept");
+        departmentRepository.save(department);
+
+        User user = new User();
+        user.setUsername("cache-teacher");
+        user.setPassword("x");
+        user.setRole("ROLE_TEACHER");
+        Teacher teacher = new Teacher();
+        teacher.setName("Cache Teacher");
+        teacher.setUser(user);
+        teacher.setDepartment(department);
+        teacherRepository.save(teacher);
+
+        Course course = new Course();
+        course.setTitle("Cache Course");
+        course.setTeacher(teacher);
+        courseId = courseRepository.save(course).getId();
+
+        Student student = new Student();
+        student.setName("Cache Student");
+        student.setEmail("cache-student@example.com");
+        studentId = studentRepository.save(student).getId();
+
+        entityManagerFactory.getCache().evictAll(); // every test starts cold
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from student_courses where course_id = ?", courseId);
+        jdbcTemplate.update("delete from students where id = ?", studentId);
+        jdbcTemplate.update("delete from courses where title like 'Cache Course%'");
+        jdbcTemplate.update("delete from teachers where name = 'Cache Teacher'");
+        jdbcTemplate.update("delete from users where username = 'cache-teacher'");
+        jdbcTemplate.update("delete from departments where name like 'Cache Dept%'");
+        entityManagerFactory.getCache().evictAll(); // the rows above were deleted behind Hibernate's back
+    }
+
+    // Statements prepared while running the read in its own transaction (= one request)
+    private <T> long statements(Supplier<T> read) {
+        long before = statistics.getPrepareStatementCount();
+        transactionTemplate.execute(status -> read.get());
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    // What UserAccountCache does for a teacher on login (and CourseController needs the teacher for)
+    private String teacherLookup() {
+        User user = userRepository.findByUsername("cache-teacher");
+        return teacherRepository.findByUser(user).getDepartment().getName();
+    }
+
+    // A course page: the course, its teacher and department, and the enrolled students
+    private int coursePage() {
+        Course course = courseRepository.findById(courseId).orElseThrow();
+        course.getTeacher().getDepartment().getName();
+        return course.getEnrollments().size();
+    }
+
+    @Test
+    @DisplayName("Teacher lookup should need fewer round trips once cached")
+    void teacherLookup_Warm_FewerStatements() {
+        long cold = statements(this::teacherLookup);
+        long warm = statements(this::teacherLookup);
+
+        System.out.printf("teacher lookup: %d statements cold, %d warm%n", cold, warm);
+        assertTrue(warm < cold, "cold=" + cold + " warm=" + warm);
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Course page should need fewer round trips once cached")
+    void coursePage_Warm_FewerStatements() {
+        long cold = statements(this::coursePage);
+        long warm = statements(this::coursePage);
+
+        System.out.printf("course page: %d statements cold, %d warm%n", cold, warm);
+        assertTrue(warm < cold, "cold=" + cold + " warm=" + warm);
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Renaming a department should update the cached entity and query")
+    void renameDepartment_EvictsQueryCache() {
+        Long id = transactionTemplate.execute(status -> departmentRepository.findByName("Cache Dept").getId());
+
+        transactionTemplate.executeWithoutResult(status -> departmentRepository.findById(id).orElseThrow().setName("Cache Dept 2"));
+
+        assertNull(transactionTemplate.execute(status -> departmentRepository.findByName("Cache Dept")));
+        assertEquals(id, transactionTemplate.execute(status -> departmentRepository.findByName("Cache Dept 2").getId()));
+        assertEquals("Cache Dept 2", transactionTemplate.execute(status -> departmentRepository.findById(id).orElseThrow().getName()));
+    }
+
+    @Test
+    @DisplayName("Enrolling with native SQL should evict the cached student list")
+    void nativeEnrollment_EvictsCollection() {
+        Integer before = transactionTemplate.execute(status -> coursePage()); // now cached: no students
+        assertEquals(0, before);
+
+        studentRepository.insertEnrollment(studentId, courseId);
+
+        Integer after = transactionTemplate.execute(status -> coursePage());
+        assertEquals(1, after);
+    }
+
+    @Test
+    @DisplayName("Taking and giving back a seat should only evict that course, not the other cached courses")
+    void seatChange_EvictsOnlyThatCourse() {
+        Course other = new Course();
+        other.setTitle("Cache Course Other");
+        other.setTeacher(transactionTemplate.execute(status -> courseRepository.findById(courseId).orElseThrow().getTeacher()));
+        Long otherId = courseRepository.save(other).getId();
+        transactionTemplate.execute(status -> coursePage());
+        transactionTemplate.execute(status -> courseRepository.findById(otherId).orElseThrow().getEnrollments().size());
+
+        enrollmentService.toggle(studentId, courseId);
+
+        assertTrue(entityManagerFactory.getCache().contains(Course.class, otherId));
+        assertFalse(entityManagerFactory.getCache().contains(Course.class, courseId));
+        Integer seatsTaken = transactionTemplate.execute(status -> courseRepository.findById(courseId).orElseThrow().getSeatsTaken());
+        Integer enrolled = transactionTemplate.execute(status -> coursePage());
+        assertEquals(1, seatsTaken);
+        assertEquals(1, enrolled);
+
+        enrollmentService.toggle(studentId, courseId);
+
+        assertTrue(entityManagerFactory.getCache().contains(Course.class, otherId));
+        seatsTaken = transactionTemplate.execute(status -> courseRepository.findById(courseId).orElseThrow().getSeatsTaken());
+        enrolled = transactionTemplate.execute(status -> coursePage());
+        assertEquals(0, seatsTaken);
+        assertEquals(0, enrolled);
+    }
+}
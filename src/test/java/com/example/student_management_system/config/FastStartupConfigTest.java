@@ -0,0 +1,93 @@
+package com.example.student_management_system.config;
+
+import com.example.student_management_system.model.Department;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.DepartmentRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import com.example.student_management_system.service.EnrollmentStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.thymeleaf.cache.TemplateCacheKey;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({"test", "fast-startup"})
+@DisplayName("Fast startup profile Integration Tests")
+class FastStartupConfigTest {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EnrollmentStats enrollmentStats;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long studentId;
+    private Long departmentId;
+
+    @AfterEach
+    void tearDown() {
+        if (studentId != null) {
+            jdbcTemplate.update("delete from students where id = ?", studentId);
+        }
+        if (departmentId != null) {
+            jdbcTemplate.update("delete from departments where id = ?", departmentId);
+        }
+    }
+
+    @Test
+    @DisplayName("Hibernate listeners should be created at startup, controllers on first use")
+    void lazyInitialization_KeepsCriticalBeansEager() {
+        assertTrue(context.getEnvironment().getProperty("spring.main.lazy-initialization", Boolean.class));
+
+        assertTrue(context.getBeanFactory().containsSingleton("entityLoadCounter"));
+        assertTrue(context.getBeanFactory().containsSingleton("enrollmentStatsListener"));
+        assertFalse(context.getBeanFactory().containsSingleton("statsController"));
+    }
+
+    @Test
+    @DisplayName("A new student should be counted right away")
+    void studentSaved_CountedWithLazyInitialization() {
+        Department department = new Department();
+        department.setName("Fast Startup " + System.nanoTime());
+        departmentId = departmentRepository.save(department).getId();
+
+        Student student = new Student();
+        student.setName("Lazy Larry");
+        student.setEmail("lazy.larry@example.com");
+        student.setDepartment(department);
+        studentId = studentRepository.save(student).getId();
+
+        assertEquals(1, enrollmentStats.studentsIn(departmentId));
+    }
+
+    @Test
+    @DisplayName("Every page template should be parsed at startup")
+    void templates_PreloadedIntoCache() {
+        SpringTemplateEngine engine = context.getBean(SpringTemplateEngine.class);
+        Set<String> cached = engine.getCacheManager().getTemplateCache().keySet().stream()
+                .map(TemplateCacheKey::getTemplate)
+                .collect(Collectors.toSet());
+
+        assertTrue(cached.containsAll(Set.of("login", "students", "courses", "stats")), "cached: " + cached);
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.student_management_system.config;
+
+import com.example.student_management_system.controller.StudentController;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.model.User;
+import com.example.student_management_system.repository.CourseRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import com.example.student_management_system.service.RegistrationService;
+import com.example.student_management_system.service.StudentListingService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Two in-memory H2 databases: "primary" (the app's database) and "replica1".
+// Replication is simulated by copying the primary into the replica (H2 SCRIPT / RUNSCRIPT);
+// rows written after that exist on the primary only, which shows where each read was served from.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.datasource.replicas.enabled=true",
+        "app.datasource.replicas.urls=" + ReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.replicas.lag-query=select lag_seconds from replica_lag",
+        "app.datasource.replicas.max-lag=5s",
+        "app.datasource.replicas.check-interval=1h" // the test runs the checks itself
+})
+@ActiveProfiles("test")
+@DisplayName("Read replica routing Integration Tests")
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static final long ID_BASE = 4_000_000L;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaDataSource;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentListingService studentListingService;
+
+    @Autowired
+    private StudentController studentController;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ReadYourWritesFilter readYourWritesFilter;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+        primary.update("insert into students (id, name, email) values (?, 'Replicated', 'replicated@example.com')", ID_BASE);
+        replicate(0);
+        // Written after the "replication": only the primary has this row
+        primary.update("insert into students (id, name, email) values (?, 'Primary only', 'primary-only@example.com')", ID_BASE + 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.update("delete from students where id >= ? or email like 'replica-%'", ID_BASE);
+        primary.update("delete from users where username like 'replica-%'");
+    }
+
+    // Copies the primary into the replica and reports the given lag
+    private void replicate(double lagSeconds) {
+        List<String> script = primary.queryForList("script", String.class);
+        replica.execute("drop all objects");
+        script.forEach(replica::execute);
+        replica.execute("create table replica_lag (lag_seconds double)");
+        replica.update("insert into replica_lag values (?)", lagSeconds);
+        replicaDataSource.checkReplicas();
+    }
+
+    private void setReplicaLag(double lagSeconds) {
+        replica.update("update replica_lag set lag_seconds = ?", lagSeconds);
+        replicaDataSource.checkReplicas();
+    }
+
+    private double connections(String target) {
+        return meterRegistry.get("app.datasource.readonly.connections").tag("target", target).counter().count();
+    }
+
+    private List<Long> listedIds() {
+        return studentListingService.findPage(ID_BASE - 1, null, 10, null).students().stream()
+                .map(Student::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Read-only calls should be served by the replica")
+    void readOnly_ServedByReplica() {
+        double before = connections("replica-1");
+
+        assertEquals(List.of(ID_BASE), listedIds());                        // GET /students
+        assertFalse(studentRepository.findById(ID_BASE + 1).isPresent());   // Spring Data's read-only find
+        courseRepository.findCatalog(null);                                 // GET /courses
+
+        assertTrue(replicaDataSource.getReplicas().get(0).isAvailable());
+        assertEquals(before + 3, connections("replica-1"));
+    }
+
+    @Test
+    @DisplayName("Writes should go to the primary")
+    void writes_StayOnPrimary() {
+        Student student = new Student();
+        student.setName("New");
+        student.setEmail("replica-new@example.com");
+        studentRepository.save(student);
+
+        assertEquals(1, primary.queryForObject("select count(*) from students where email = 'replica-new@example.com'", Long.class));
+        assertEquals(0, replica.queryForObject("select count(*) from students where email = 'replica-new@example.com'", Long.class));
+    }
+
+    @Test
+    @DisplayName("Asking for a connection with other credentials should be reported as not supported")
+    void getConnectionWithCredentials_NotSupported() {
+        assertThrows(SQLFeatureNotSupportedException.class, () -> replicaDataSource.getConnection("sa", ""));
+    }
+
+    @Test
+    @DisplayName("Updating a student should read it from the primary")
+    void updateStudent_ReadsFromPrimary() {
+        Student form = new Student();
+        form.setName("Renamed");
+        form.setEmail("renamed@example.com");
+
+        // This row is not on the replica; reading it there would silently skip the update
+        studentController.updateStudent(ID_BASE + 1, form, "");
+
+        assertEquals("Renamed", primary.queryForObject("select name from students where id = ?", String.class, ID_BASE + 1));
+    }
+
+    @Test
+    @DisplayName("The list right after saving a student should come from the primary and show the new student")
+    void saveStudent_RedirectReadsFromPrimary() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(readYourWritesFilter).apply(springSecurity()).build();
+
+        MvcResult saved = mockMvc.perform(post("/students").with(user("replica-teacher").roles("TEACHER")).with(csrf())
+                .param("name", "Just Saved").param("email", "replica-saved@example.com").param("deptName", "")).andReturn();
+        assertEquals("/students", saved.getResponse().getRedirectedUrl());
+        Cookie pin = saved.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(pin);
+
+        // Another client (no cookie) reads from the replica, which does not have the student yet
+        assertFalse(listedNames(mockMvc.perform(studentList()).andReturn()).contains("Just Saved"));
+        // The one that saved it follows the redirect with the cookie and sees it
+        assertTrue(listedNames(mockMvc.perform(studentList().cookie(pin)).andReturn()).contains("Just Saved"));
+    }
+
+    private static MockHttpServletRequestBuilder studentList() {
+        return get("/students").with(user("replica-teacher").roles("TEACHER"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> listedNames(MvcResult result) {
+        return ((List<Student>) result.getModelAndView().getModel().get("students")).stream().map(Student::getName).toList();
+    }
+
+    @Test
+    @DisplayName("Registration and the first login lookup should use the primary")
+    void register_UsesPrimary() {
+        User user = new User();
+        user.setUsername("replica-signup");
+        user.setPassword("secret");
+        user.setRole("STUDENT");
+
+        registrationService.register(user).join();
+
+        assertEquals(1, primary.queryForObject("select count(*) from users where username = 'replica-signup'", Long.class));
+        assertEquals(0, replica.queryForObject("select count(*) from users where username = 'replica-signup'", Long.class));
+    }
+
+    @Test
+    @DisplayName("A lagging replica should be skipped until it catches up")
+    void laggingReplica_FallsBackToPrimary() {
+        setReplicaLag(60);
+        double primaryBefore = connections("primary");
+
+        assertFalse(replicaDataSource.getReplicas().get(0).isAvailable());
+        assertEquals(List.of(ID_BASE, ID_BASE + 1), listedIds());
+        assertEquals(primaryBefore + 1, connections("primary"));
+
+        setReplicaLag(0.5);
+        assertEquals(List.of(ID_BASE), listedIds());
+    }
+
+    @Test
+    @DisplayName("An unreachable replica should fall back to the primary")
+    void brokenReplica_FallsBackToPrimary() {
+        replica.execute("drop table replica_lag"); // the lag check now fails
+        replicaDataSource.checkReplicas();
+
+        assertEquals(List.of(ID_BASE, ID_BASE + 1), listedIds());
+    }
+}
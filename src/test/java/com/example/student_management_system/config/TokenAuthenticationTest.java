@@ -0,0 +1,152 @@
+package com.example.student_management_system.config;
+
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.model.User;
+import com.example.student_management_system.repository.StudentRepository;
+import com.example.student_management_system.repository.UserRepository;
+import com.example.student_management_system.service.AuthTokenService;
+import com.example.student_management_system.service.AuthTokenService.AuthToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Instant;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// The whole security setup with bearer tokens: POST /api/token, then requests without a session
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Token authentication Integration Tests")
+class TokenAuthenticationTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthTokenService authTokenService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+    private Long studentId;
+    private Long courseId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+
+        userRepository.save(newUser("token-teacher", "ROLE_TEACHER"));
+        Student student = new Student();
+        student.setName("Token Tom");
+        student.setEmail("token.tom@example.com");
+        studentId = studentRepository.save(student).getId();
+        Long userId = userRepository.save(newUser("token-student", "ROLE_STUDENT")).getId();
+        jdbcTemplate.update("update students set user_id = ? where id = ?", userId, studentId);
+
+        jdbcTemplate.update("insert into courses (title, description, capacity, seats_taken) values (?, ?, ?, 0)",
+                "Token Course", "Stateless", 10);
+        courseId = jdbcTemplate.queryForObject("select id from courses where title = 'Token Course'", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from student_courses where course_id = ?", courseId);
+        jdbcTemplate.update("delete from courses where id = ?", courseId);
+        jdbcTemplate.update("delete from students where id = ?", studentId);
+        jdbcTemplate.update("delete from users where username in ('token-teacher', 'token-student')");
+    }
+
+    @Test
+    @DisplayName("A token from /api/token should log in every request on its own, without a session")
+    void token_AuthenticatesWithoutSession() throws Exception {
+        String token = issueToken("token-teacher", "secret");
+
+        MvcResult stats = mockMvc.perform(get("/api/stats").header("Authorization", "Bearer " + token)).andReturn();
+
+        assertEquals(200, stats.getResponse().getStatus());
+        assertNull(stats.getRequest().getSession(false), "no session may be created");
+        assertNull(stats.getResponse().getHeader("Set-Cookie"));
+    }
+
+    @Test
+    @DisplayName("Bad credentials, changed tokens and missing roles should be refused")
+    void token_Refusals() throws Exception {
+        MvcResult badPassword = mockMvc.perform(post("/api/token")
+                .param("username", "token-teacher").param("password", "wrong")).andReturn();
+        assertEquals(401, badPassword.getResponse().getStatus());
+
+        String teacherToken = issueToken("token-teacher", "secret");
+        MvcResult forged = mockMvc.perform(get("/api/stats")
+                .header("Authorization", "Bearer " + teacherToken.replace('.', 'x') + ".abc")).andReturn();
+        assertEquals(401, forged.getResponse().getStatus());
+        assertEquals("Bearer error=\"invalid_token\"", forged.getResponse().getHeader("WWW-Authenticate"));
+
+        String studentToken = issueToken("token-student", "secret");
+        MvcResult studentStats = mockMvc.perform(get("/api/stats")
+                .header("Authorization", "Bearer " + studentToken)).andReturn();
+        assertEquals(403, studentStats.getResponse().getStatus());
+    }
+
+    @Test
+    @DisplayName("Enrolling should take the Student id from the token, without looking the user up")
+    void enrollment_UsesStudentIdFromToken() throws Exception {
+        // A username that is not in the database: only the token's Student id can make this work
+        String token = authTokenService.encode(new AuthToken("no-such-user", "ROLE_STUDENT", studentId, null,
+                Instant.now().plusSeconds(60)));
+
+        MvcResult result = mockMvc.perform(post("/courses/" + courseId + "/enrollment")
+                .header("Authorization", "Bearer " + token)).andReturn(); // no CSRF token needed
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertTrue(result.getResponse().getContentAsString().contains("\"enrolled\":true"),
+                result.getResponse().getContentAsString());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from student_courses where student_id = ? and course_id = ?", Integer.class,
+                studentId, courseId));
+    }
+
+    private String issueToken(String username, String password) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/token")
+                .param("username", username).param("password", password)).andReturn();
+        assertEquals(200, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        Matcher token = TOKEN.matcher(result.getResponse().getContentAsString());
+        assertTrue(token.find());
+        return token.group(1);
+    }
+
+    private User newUser(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(passwordEncoder.encode("secret"));
+        user.setRole(role);
+        return user;
+    }
+}
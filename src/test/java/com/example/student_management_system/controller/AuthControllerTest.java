@@ -1,9 +1,7 @@
 package com.example.student_management_system.controller;
 
 import com.example.student_management_system.model.User;
-import com.example.student_management_system.repository.StudentRepository;
-import com.example.student_management_system.repository.TeacherRepository;
-import com.example.student_management_system.repository.UserRepository;
+import com.example.student_management_system.service.RegistrationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,12 +9,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.http.ResponseEntity;
 import org.springframework.ui.Model;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -25,16 +24,7 @@ import static org.mockito.Mockito.*;
 class AuthControllerTest {
 
     @Mock
-    private UserRepository userRepository;
-
-    @Mock
-    private StudentRepository studentRepository;
-
-    @Mock
-    private TeacherRepository teacherRepository;
-
-    @Mock
-    private PasswordEncoder passwordEncoder;
+    private RegistrationService registrationService;
 
     @Mock
     private Model model;
@@ -63,45 +53,38 @@ class AuthControllerTest {
         newUser.setPassword("password");
         newUser.setRole("STUDENT");
 
-        when(passwordEncoder.encode(anyString())).thenReturn("encoded");
-        when(userRepository.save(any(User.class))).thenReturn(newUser);
+        when(registrationService.register(newUser)).thenReturn(CompletableFuture.completedFuture(newUser));
 
-        String result = authController.registerUser(newUser);
+        String result = authController.registerUser(newUser).join();
 
         assertEquals("redirect:/login", result);
-        verify(userRepository).save(any(User.class));
+        verify(registrationService).register(newUser);
     }
 
     @Test
-    @DisplayName("Should register new teacher")
-    void registerUser_Teacher_Success() {
+    @DisplayName("Should redirect only after the account is created")
+    void registerUser_WaitsForRegistration() {
         User newUser = new User();
         newUser.setUsername("teacher1");
         newUser.setPassword("password");
         newUser.setRole("TEACHER");
+        CompletableFuture<User> pending = new CompletableFuture<>();
 
-        when(passwordEncoder.encode(anyString())).thenReturn("encoded");
-        when(userRepository.save(any(User.class))).thenReturn(newUser);
+        when(registrationService.register(newUser)).thenReturn(pending);
 
-        String result = authController.registerUser(newUser);
+        CompletableFuture<String> result = authController.registerUser(newUser);
 
-        assertEquals("redirect:/login", result);
-        verify(userRepository).save(any(User.class));
+        assertFalse(result.isDone());
+        pending.complete(newUser);
+        assertEquals("redirect:/login", result.join());
     }
 
     @Test
-    @DisplayName("Should encode password during registration")
-    void registerUser_EncodesPassword() {
-        User newUser = new User();
-        newUser.setUsername("user1");
-        newUser.setPassword("rawpassword");
-        newUser.setRole("STUDENT");
-
-        when(passwordEncoder.encode("rawpassword")).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(newUser);
-
-        authController.registerUser(newUser);
+    @DisplayName("Should answer 503 with Retry-After when registrations are saturated")
+    void registrationBusy_Returns503() {
+        ResponseEntity<String> response = authController.registrationBusy();
 
-        verify(passwordEncoder).encode("rawpassword");
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals("2", response.getHeaders().getFirst("Retry-After"));
     }
 }
@@ -1,12 +1,18 @@
 package com.example.student_management_system.controller;
 
+import com.example.student_management_system.dto.CourseCard;
+import com.example.student_management_system.dto.CourseMeeting;
 import com.example.student_management_system.model.Course;
 import com.example.student_management_system.model.Teacher;
 import com.example.student_management_system.model.User;
 import com.example.student_management_system.repository.CourseRepository;
-import com.example.student_management_system.repository.StudentRepository;
 import com.example.student_management_system.repository.TeacherRepository;
-import com.example.student_management_system.repository.UserRepository;
+import com.example.student_management_system.dto.EnrollmentResult;
+import com.example.student_management_system.dto.EnrollmentState;
+import com.example.student_management_system.service.EnrollmentService;
+import com.example.student_management_system.service.PageCache;
+import com.example.student_management_system.service.TimetableService;
+import com.example.student_management_system.service.UserAccountCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,14 +20,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.ui.Model;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.security.Principal;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -33,13 +48,19 @@ class CourseControllerTest {
     private CourseRepository courseRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserAccountCache userAccountCache;
 
     @Mock
     private TeacherRepository teacherRepository;
 
     @Mock
-    private StudentRepository studentRepository;
+    private EnrollmentService enrollmentService;
+
+    @Mock
+    private PageCache pageCache;
+
+    @Mock
+    private TimetableService timetableService;
 
     @Mock
     private Model model;
@@ -47,6 +68,9 @@ class CourseControllerTest {
     @Mock
     private Principal principal;
 
+    @Mock
+    private RedirectAttributes redirectAttributes;
+
     @InjectMocks
     private CourseController courseController;
 
@@ -71,20 +95,80 @@ class CourseControllerTest {
         testCourse.setTitle("Java Programming");
         testCourse.setDescription("Learn Java");
         testCourse.setTeacher(testTeacher);
-        testCourse.setStudents(new ArrayList<>());
+        testCourse.setEnrollments(new ArrayList<>());
     }
 
     @Test
     @DisplayName("Should list all courses")
     void listCourses_Success() {
-        when(courseRepository.findAll()).thenReturn(Arrays.asList(testCourse));
+        when(courseRepository.findCatalog(null)).thenReturn(Arrays.asList(
+                new CourseCard(1L, 0L, "Java Programming", "Learn Java", "Prof. Smith", null, 0L, false)));
 
-        String viewName = courseController.listCourses(model, null);
+        String viewName = courseController.listCourses(model, null,
+                new MockHttpServletRequest(), new MockHttpServletResponse());
 
         assertEquals("courses", viewName);
         verify(model).addAttribute(eq("courses"), any());
     }
 
+    @Test
+    @DisplayName("Should not render the catalog when the browser's copy is current")
+    void listCourses_NotModified_RendersNothing() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(courseRepository.findCatalog(null)).thenReturn(Arrays.asList(
+                new CourseCard(1L, 0L, "Java Programming", "Learn Java", "Prof. Smith", null, 0L, false)));
+        when(pageCache.notModified(eq(request), eq(response), anyList())).thenReturn(true);
+
+        String viewName = courseController.listCourses(model, null, request, response);
+
+        assertNull(viewName);
+        verify(model, never()).addAttribute(eq("courses"), any());
+        verify(pageCache, never()).courseCards(any());
+    }
+
+    @Test
+    @DisplayName("Should always render the catalog right after enrolling (the message is shown once)")
+    void listCourses_AfterEnrolling_SkipsETag() {
+        when(courseRepository.findCatalog(null)).thenReturn(Arrays.asList(
+                new CourseCard(1L, 0L, "Java Programming", "Learn Java", "Prof. Smith", null, 0L, false)));
+        when(model.containsAttribute("enrollmentResult")).thenReturn(true);
+
+        String viewName = courseController.listCourses(model, null,
+                new MockHttpServletRequest(), new MockHttpServletResponse());
+
+        assertEquals("courses", viewName);
+        verify(pageCache, never()).notModified(any(), any(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should mark courses for the logged-in student")
+    void listCourses_AsStudent_PassesStudentId() {
+        when(userAccountCache.findStudentId(principal)).thenReturn(7L);
+        when(courseRepository.findCatalog(7L)).thenReturn(Arrays.asList(
+                new CourseCard(1L, 0L, "Java Programming", "Learn Java", "Prof. Smith", 30, 1L, true)));
+
+        String viewName = courseController.listCourses(model, principal,
+                new MockHttpServletRequest(), new MockHttpServletResponse());
+
+        assertEquals("courses", viewName);
+        verify(courseRepository).findCatalog(7L);
+    }
+
+    @Test
+    @DisplayName("Should mark the courses the logged-in student is waiting for")
+    void listCourses_AsStudent_MarksWaitlisted() {
+        CourseCard full = new CourseCard(1L, 0L, "Java Programming", "Learn Java", "Prof. Smith", 1, 1L, false);
+        CourseCard open = new CourseCard(2L, 0L, "Databases", "Learn SQL", "Prof. Smith", 30, 0L, false);
+        when(userAccountCache.findStudentId(principal)).thenReturn(7L);
+        when(courseRepository.findCatalog(7L)).thenReturn(Arrays.asList(full, open));
+        when(enrollmentService.waitlistedCourses(7L)).thenReturn(Set.of(1L));
+
+        courseController.listCourses(model, principal, new MockHttpServletRequest(), new MockHttpServletResponse());
+
+        verify(model).addAttribute("courses", List.of(full.withWaitlisted(true), open));
+    }
+
     @Test
     @DisplayName("Should show create course form")
     void showCreateForm_Success() {
@@ -97,14 +181,79 @@ class CourseControllerTest {
     @Test
     @DisplayName("Should save new course")
     void saveCourse_Success() {
-        when(principal.getName()).thenReturn("teacher");
-        when(userRepository.findByUsername("teacher")).thenReturn(teacherUser);
-        when(teacherRepository.findByUser(teacherUser)).thenReturn(testTeacher);
+        when(userAccountCache.findTeacherId(principal)).thenReturn(1L);
+        when(teacherRepository.getReferenceById(1L)).thenReturn(testTeacher);
         when(courseRepository.save(any(Course.class))).thenReturn(testCourse);
 
-        String result = courseController.saveCourse(testCourse, principal);
+        String result = courseController.saveCourse(testCourse, principal, model, redirectAttributes);
 
         assertEquals("redirect:/courses", result);
         verify(courseRepository).save(any(Course.class));
+        verifyNoInteractions(redirectAttributes);
+    }
+
+    @Test
+    @DisplayName("A course in a room already booked at that time should be saved and flagged")
+    void saveCourse_RoomDoubleBooked_Flagged() {
+        testCourse.setMeetingDay(DayOfWeek.MONDAY);
+        testCourse.setStartTime(LocalTime.of(9, 0));
+        testCourse.setEndTime(LocalTime.of(10, 30));
+        testCourse.setRoom("Room 101");
+        List<CourseMeeting> clashes = List.of(new CourseMeeting(2L, "Physics", DayOfWeek.MONDAY,
+                LocalTime.of(10, 0), LocalTime.of(11, 0), "Room 101"));
+        when(timetableService.roomConflicts(testCourse)).thenReturn(clashes);
+        when(userAccountCache.findTeacherId(principal)).thenReturn(1L);
+        when(teacherRepository.getReferenceById(1L)).thenReturn(testTeacher);
+
+        String result = courseController.saveCourse(testCourse, principal, model, redirectAttributes);
+
+        assertEquals("redirect:/courses", result);
+        verify(courseRepository).save(testCourse);
+        verify(redirectAttributes).addFlashAttribute("roomConflicts", clashes);
+    }
+
+    @Test
+    @DisplayName("An invalid meeting time should send the teacher back to the form")
+    void saveCourse_InvalidMeetingTime_BackToForm() {
+        when(timetableService.validate(testCourse)).thenReturn("The course has to end after it starts.");
+
+        String result = courseController.saveCourse(testCourse, principal, model, redirectAttributes);
+
+        assertEquals("create_course", result);
+        verify(model).addAttribute("meetingError", "The course has to end after it starts.");
+        verify(courseRepository, never()).save(any(Course.class));
+    }
+
+    @Test
+    @DisplayName("Should toggle enrollment for the logged-in student")
+    void toggleEnrollment_Success() {
+        when(userAccountCache.findStudentId(principal)).thenReturn(7L);
+
+        when(enrollmentService.toggle(7L, 1L)).thenReturn(EnrollmentResult.WAITLISTED);
+
+        String result = courseController.toggleEnrollment(1L, principal, redirectAttributes);
+
+        assertEquals("redirect:/courses", result);
+        verify(redirectAttributes).addFlashAttribute("enrollmentResult", EnrollmentResult.WAITLISTED);
+    }
+
+    @Test
+    @DisplayName("JSON toggle should return the new enrollment state")
+    void toggleEnrollmentJson_ReturnsState() {
+        when(userAccountCache.findStudentId(principal)).thenReturn(7L);
+        when(enrollmentService.toggle(7L, 1L)).thenReturn(EnrollmentResult.ENROLLED);
+
+        EnrollmentState state = courseController.toggleEnrollmentJson(1L, principal);
+
+        assertEquals(new EnrollmentState(1L, true, EnrollmentResult.ENROLLED), state);
+    }
+
+    @Test
+    @DisplayName("Teachers should not be able to enroll")
+    void toggleEnrollment_NotAStudent_Forbidden() {
+        when(userAccountCache.findStudentId(principal)).thenReturn(null);
+
+        assertThrows(ResponseStatusException.class, () -> courseController.toggleEnrollment(1L, principal, redirectAttributes));
+        verifyNoInteractions(enrollmentService);
     }
 }
@@ -0,0 +1,35 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.dto.SearchResults;
+import com.example.student_management_system.service.SearchService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SearchController Unit Tests")
+class SearchControllerTest {
+
+    @Mock
+    private SearchService searchService;
+
+    @InjectMocks
+    private SearchController searchController;
+
+    @Test
+    @DisplayName("Should return the search results")
+    void search_Success() {
+        SearchResults results = new SearchResults("jo", List.of(), List.of(), "index");
+        when(searchService.search("jo", 10)).thenReturn(results);
+
+        assertSame(results, searchController.search("jo", 10));
+    }
+}
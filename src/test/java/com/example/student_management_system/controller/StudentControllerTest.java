@@ -1,9 +1,17 @@
 package com.example.student_management_system.controller;
 
+import com.example.student_management_system.dto.StudentPage;
 import com.example.student_management_system.model.Department;
 import com.example.student_management_system.model.Student;
-import com.example.student_management_system.repository.DepartmentRepository;
 import com.example.student_management_system.repository.StudentRepository;
+import com.example.student_management_system.service.DepartmentRegistry;
+import com.example.student_management_system.service.EnrollmentService;
+import com.example.student_management_system.service.PageCache;
+import com.example.student_management_system.service.RosterExportService;
+import com.example.student_management_system.service.StudentImportService;
+import com.example.student_management_system.service.StudentListingService;
+import com.example.student_management_system.service.StudentService;
+import com.example.student_management_system.service.UserAccountCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,7 +19,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.ui.Model;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.exc.StreamReadException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import java.util.Arrays;
 import java.util.Optional;
@@ -29,7 +50,28 @@ class StudentControllerTest {
     private StudentRepository studentRepository;
 
     @Mock
-    private DepartmentRepository departmentRepository;
+    private DepartmentRegistry departmentRegistry;
+
+    @Mock
+    private StudentListingService studentListingService;
+
+    @Mock
+    private EnrollmentService enrollmentService;
+
+    @Mock
+    private UserAccountCache userAccountCache;
+
+    @Mock
+    private StudentService studentService;
+
+    @Mock
+    private StudentImportService studentImportService;
+
+    @Mock
+    private RosterExportService rosterExportService;
+
+    @Mock
+    private PageCache pageCache;
 
     @Mock
     private Model model;
@@ -54,14 +96,33 @@ class StudentControllerTest {
     }
 
     @Test
-    @DisplayName("Should list all students")
+    @DisplayName("Should list the first page of students")
     void listStudents_Success() {
-        when(studentRepository.findAll()).thenReturn(Arrays.asList(testStudent));
+        StudentPage page = new StudentPage(Arrays.asList(testStudent), null, null, 20, null);
+        when(studentListingService.findPage(null, null, 20, null)).thenReturn(page);
 
-        String viewName = studentController.listStudents(model);
+        String viewName = studentController.listStudents(model, null, null, 20, null,
+                new MockHttpServletRequest(), new MockHttpServletResponse());
 
         assertEquals("students", viewName);
         verify(model).addAttribute(eq("students"), any());
+        verify(model).addAttribute("page", page);
+    }
+
+    @Test
+    @DisplayName("Should not render the list when the browser's copy is current")
+    void listStudents_NotModified_RendersNothing() {
+        StudentPage page = new StudentPage(Arrays.asList(testStudent), null, null, 20, null);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(studentListingService.findPage(null, null, 20, null)).thenReturn(page);
+        when(pageCache.notModified(request, response, page)).thenReturn(true);
+
+        String viewName = studentController.listStudents(model, null, null, 20, null, request, response);
+
+        assertNull(viewName);
+        verify(pageCache, never()).studentCells(any());
+        verifyNoInteractions(model);
     }
 
     @Test
@@ -76,24 +137,24 @@ class StudentControllerTest {
     @Test
     @DisplayName("Should save new student")
     void saveStudent_Success() {
-        when(departmentRepository.findByName("CS")).thenReturn(testDepartment);
+        when(departmentRegistry.resolve("CS")).thenReturn(testDepartment);
         when(studentRepository.save(any(Student.class))).thenReturn(testStudent);
 
         String result = studentController.saveStudent(testStudent, "CS");
 
         assertEquals("redirect:/students", result);
+        assertSame(testDepartment, testStudent.getDepartment());
         verify(studentRepository).save(any(Student.class));
     }
 
     @Test
     @DisplayName("Should delete student")
     void deleteStudent_Success() {
-        doNothing().when(studentRepository).deleteById(1L);
-
         String result = studentController.deleteStudent(1L);
 
         assertEquals("redirect:/students", result);
-        verify(studentRepository).deleteById(1L);
+        verify(enrollmentService).deleteStudent(1L);
+        verify(userAccountCache).evictStudent(1L);
     }
 
     @Test
@@ -110,13 +171,41 @@ class StudentControllerTest {
     @Test
     @DisplayName("Should update student")
     void updateStudent_Success() {
-        when(studentRepository.findById(1L)).thenReturn(Optional.of(testStudent));
-        when(departmentRepository.findByName("CS")).thenReturn(testDepartment);
-        when(studentRepository.save(any(Student.class))).thenReturn(testStudent);
+        when(studentService.update(1L, "John Doe", "john@example.com", "CS")).thenReturn(true);
 
         String result = studentController.updateStudent(1L, testStudent, "CS");
 
         assertEquals("redirect:/students", result);
-        verify(studentRepository).save(any(Student.class));
+        verify(studentService).update(1L, "John Doe", "john@example.com", "CS");
+    }
+
+    @Test
+    @DisplayName("An import file that can't be parsed should be answered with 400")
+    void importStudents_Unparseable_BadRequest() throws Exception {
+        when(studentImportService.importJson(any())).thenThrow(StreamReadException.class);
+        when(studentImportService.importCsv(any())).thenThrow(new UncheckedIOException(new IOException("broken upload")));
+
+        MockMultipartFile json = new MockMultipartFile("file", "students.json", "application/json", "[{".getBytes());
+        MockMultipartFile csv = new MockMultipartFile("file", "students.csv", "text/csv", "name,email\n".getBytes());
+
+        assertEquals(HttpStatus.BAD_REQUEST,
+                assertThrows(ResponseStatusException.class, () -> studentController.importStudents(json)).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                assertThrows(ResponseStatusException.class, () -> studentController.importStudents(csv)).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should stream the roster export as a CSV attachment")
+    void exportRoster_StreamsCsv() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = studentController.exportRoster();
+
+        assertEquals("attachment; filename=\"roster.csv\"", response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals("text/csv;charset=UTF-8", response.getHeaders().getContentType().toString());
+
+        // Nothing is read until the body is written
+        verifyNoInteractions(rosterExportService);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        verify(rosterExportService).exportCsv(out);
     }
 }
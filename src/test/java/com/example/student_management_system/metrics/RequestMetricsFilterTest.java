@@ -0,0 +1,118 @@
+package com.example.student_management_system.metrics;
+
+import com.example.student_management_system.repository.StudentRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("RequestMetricsFilter Integration Tests")
+class RequestMetricsFilterTest {
+
+    private static final int STUDENTS = 5;
+
+    // High ids so the seeded rows never collide with rows created by other tests
+    private static final long ID_BASE = 4_000_000L;
+
+    @Autowired
+    private RequestMetricsFilter requestMetricsFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            rows.add(new Object[]{ID_BASE + i, "Metric " + i});
+        }
+        jdbcTemplate.batchUpdate("insert into students (id, name) values (?, ?)", rows);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from students where id >= ?", ID_BASE);
+    }
+
+    @Test
+    @DisplayName("Should record statements, SQL time and entity loads per route")
+    void doFilter_RecordsSqlPerRoute() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/metrics-test/5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        requestMetricsFilter.doFilter(request, response, (req, res) -> {
+            // what a controller would do
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/metrics-test/{id}");
+            studentRepository.findAllById(List.of(ID_BASE, ID_BASE + 1, ID_BASE + 2));
+            studentRepository.count();
+        });
+
+        DistributionSummary statements = meterRegistry.get("http.server.requests.sql.statements")
+                .tags("method", "GET", "uri", "/metrics-test/{id}").summary();
+        DistributionSummary loads = meterRegistry.get("http.server.requests.entity.loads")
+                .tags("method", "GET", "uri", "/metrics-test/{id}").summary();
+        Timer sqlTime = meterRegistry.get("http.server.requests.sql.time")
+                .tags("method", "GET", "uri", "/metrics-test/{id}").timer();
+
+        assertEquals(1, statements.count());
+        assertEquals(2, statements.totalAmount());
+        assertEquals(3, loads.totalAmount());
+        assertTrue(sqlTime.totalTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    @DisplayName("Work outside a request should not be counted")
+    void noRequest_NotCounted() {
+        studentRepository.count();
+
+        assertNull(RequestSqlStats.current());
+    }
+
+    @Test
+    @DisplayName("Breakdown should list the most expensive statements first")
+    void breakdown_SortedByTime() {
+        RequestSqlStats stats = new RequestSqlStats();
+        stats.statementPrepared("select fast");
+        stats.executeStarted();
+        stats.executeEnded();
+        stats.statementPrepared("select slow");
+        stats.executeStarted();
+        busyWait();
+        stats.executeEnded();
+
+        assertEquals(2, stats.getStatements());
+        assertTrue(stats.breakdown(5).startsWith("1x "));
+        assertTrue(stats.breakdown(5).indexOf("select slow") < stats.breakdown(5).indexOf("select fast"));
+    }
+
+    private static void busyWait() {
+        long until = System.nanoTime() + 2_000_000;
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+}
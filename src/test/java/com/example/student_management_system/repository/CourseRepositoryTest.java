@@ -0,0 +1,103 @@
+package com.example.student_management_system.repository;
+
+import com.example.student_management_system.dto.CourseCard;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("CourseRepository Integration Tests")
+class CourseRepositoryTest {
+
+    private static final int COURSES = 1_000;
+    private static final int STUDENTS = 1_000;
+    private static final int COURSES_PER_STUDENT = 10; // 10k enrollments in total
+
+    // High ids so the seeded rows never collide with rows created by other tests
+    private static final long ID_BASE = 1_000_000L;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into teachers (id, name) values (?, ?)", ID_BASE, "Prof. Bulk");
+
+        List<Object[]> courses = new ArrayList<>();
+        for (int c = 0; c < COURSES; c++) {
+            courses.add(new Object[]{ID_BASE + c, "Course " + c, "Description " + c, ID_BASE});
+        }
+        jdbcTemplate.batchUpdate("insert into courses (id, title, description, teacher_id) values (?, ?, ?, ?)", courses);
+
+        List<Object[]> students = new ArrayList<>();
+        List<Object[]> enrollments = new ArrayList<>();
+        for (int s = 0; s < STUDENTS; s++) {
+            students.add(new Object[]{ID_BASE + s, "Student " + s, "s" + s + "@example.com"});
+            for (int k = 0; k < COURSES_PER_STUDENT; k++) {
+                enrollments.add(new Object[]{ID_BASE + s, ID_BASE + (s + k * 97L) % COURSES});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into students (id, name, email) values (?, ?, ?)", students);
+        jdbcTemplate.batchUpdate("insert into student_courses (student_id, course_id) values (?, ?)", enrollments);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Catalog should be loaded with a single SQL statement")
+    void findCatalog_SingleStatement() {
+        List<CourseCard> catalog = courseRepository.findCatalog(ID_BASE);
+
+        assertTrue(catalog.size() >= COURSES);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    @DisplayName("Catalog should report enrollment counts and the viewer's enrollments")
+    void findCatalog_CountsAndEnrolledFlag() {
+        List<CourseCard> catalog = courseRepository.findCatalog(ID_BASE);
+
+        long seeded = catalog.stream().filter(c -> c.id() >= ID_BASE).count();
+        long total = catalog.stream().filter(c -> c.id() >= ID_BASE).mapToLong(CourseCard::enrolledCount).sum();
+        long enrolled = catalog.stream().filter(CourseCard::enrolled).count();
+
+        assertEquals(COURSES, seeded);
+        assertEquals((long) STUDENTS * COURSES_PER_STUDENT, total);
+        assertEquals(COURSES_PER_STUDENT, enrolled);
+        assertTrue(catalog.stream().filter(c -> c.id() >= ID_BASE).allMatch(c -> "Prof. Bulk".equals(c.teacherName())));
+    }
+
+    @Test
+    @DisplayName("Catalog without a viewer should mark nothing as enrolled")
+    void findCatalog_NoViewer() {
+        List<CourseCard> catalog = courseRepository.findCatalog(null);
+
+        assertTrue(catalog.stream().noneMatch(CourseCard::enrolled));
+    }
+}
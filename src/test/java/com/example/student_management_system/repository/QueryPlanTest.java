@@ -0,0 +1,215 @@
+package com.example.student_management_system.repository;
+
+import com.example.student_management_system.model.EnrollmentId;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the repository lookups against a few ten thousand rows, records the SQL Hibernate sends
+// (H2's QUERY_STATISTICS) and fails if the EXPLAIN of any statement reads a whole table.
+// In H2's plans every table access is a comment: "/* PUBLIC.USERS.tableScan */" is a full scan,
+// "/* PUBLIC.SOME_INDEX: USERNAME = ?1 */" an index lookup, an index without a condition a full index scan.
+// Indexes H2 only has because of a foreign key don't count (see keptByMigrations).
+//
+// Not checked: the queries that read every row on purpose (course catalog, roster export,
+// search index build and SQL fallback, timetable and grade aggregate builds, seat recount,
+// stats counts, findAll).
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Query plan Integration Tests")
+class QueryPlanTest {
+
+    private static final long ID_BASE = 5_000_000L;
+    private static final int STUDENTS = 20_000;
+    private static final int TEACHERS = 200;
+    private static final int DEPARTMENTS = 50;
+    private static final int COURSES = 500;
+
+    // "/* SCHEMA.INDEX: condition */" or "/* SCHEMA.TABLE.tableScan */" (other comments repeat the WHERE clause)
+    private static final Pattern TABLE_ACCESS = Pattern.compile("/\\* (\\w+\\.\\w+(?:\\.tableScan)?)(: [^*]*)? \\*/");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        int users = STUDENTS + TEACHERS;
+        jdbcTemplate.update("insert into users (id, username, password, role) " +
+                "select ? + x, 'plan-user-' || x, 'x', 'ROLE_STUDENT' from system_range(1, ?)", ID_BASE, users);
+        jdbcTemplate.update("insert into departments (id, name) " +
+                "select ? + x, 'Plan Dept ' || x from system_range(1, ?)", ID_BASE, DEPARTMENTS);
+        jdbcTemplate.update("insert into teachers (id, name, user_id, department_id) " +
+                "select ? + x, 'Plan Teacher ' || x, ? + ? + x, ? + 1 + mod(x, ?) from system_range(1, ?)",
+                ID_BASE, ID_BASE, STUDENTS, ID_BASE, DEPARTMENTS, TEACHERS);
+        jdbcTemplate.update("insert into courses (id, title, teacher_id, seats_taken) " +
+                "select ? + x, 'Plan Course ' || x, ? + 1 + mod(x, ?), 0 from system_range(1, ?)",
+                ID_BASE, ID_BASE, TEACHERS, COURSES);
+        jdbcTemplate.update("insert into students (id, name, email, user_id, department_id) " +
+                "select ? + x, 'Plan Student ' || x, 'plan' || x || '@example.com', ? + x, ? + 1 + mod(x, ?) " +
+                "from system_range(1, ?)", ID_BASE, ID_BASE, ID_BASE, DEPARTMENTS, STUDENTS);
+        // Three courses per student
+        jdbcTemplate.update("insert into student_courses (student_id, course_id) " +
+                "select ? + s.x, ? + 1 + mod(s.x * 7 + k.x * 13, ?) from system_range(1, ?) s, system_range(0, 2) k",
+                ID_BASE, ID_BASE, COURSES, STUDENTS);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from student_courses where student_id > ?", ID_BASE);
+        jdbcTemplate.update("delete from students where id > ?", ID_BASE);
+        jdbcTemplate.update("delete from courses where id > ?", ID_BASE);
+        jdbcTemplate.update("delete from teachers where id > ?", ID_BASE);
+        jdbcTemplate.update("delete from departments where id > ?", ID_BASE);
+        jdbcTemplate.update("delete from users where id > ?", ID_BASE);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @DisplayName("Login lookups should use an index")
+    void userLookups_UseIndexes() {
+        assertIndexed("findByUsername", () -> userRepository.findByUsername("plan-user-1234"));
+        assertIndexed("updatePassword", () -> userRepository.updatePassword("plan-user-1234", "y"));
+        assertIndexed("StudentRepository.findByUser",
+                () -> studentRepository.findByUser(userRepository.getReferenceById(ID_BASE + 1234)));
+        assertIndexed("TeacherRepository.findByUser",
+                () -> teacherRepository.findByUser(userRepository.getReferenceById(ID_BASE + STUDENTS + 12)));
+        assertIndexed("findByName", () -> departmentRepository.findByName("Plan Dept 17"));
+    }
+
+    @Test
+    @DisplayName("Loading relations should use an index")
+    void relations_UseIndexes() {
+        assertIndexed("Teacher.courses",
+                () -> teacherRepository.findById(ID_BASE + 12).orElseThrow().getCourses().size());
+        assertIndexed("Department.teachers",
+                () -> departmentRepository.findById(ID_BASE + 17).orElseThrow().getTeachers().size());
+        assertIndexed("Course.enrollments",
+                () -> courseRepository.findById(ID_BASE + 42).orElseThrow().getEnrollments().size());
+        assertIndexed("Student.enrollments",
+                () -> studentRepository.findById(ID_BASE + 1234).orElseThrow().getEnrollments().size());
+    }
+
+    @Test
+    @DisplayName("Enrollment, seat and paging queries should use an index")
+    void enrollmentAndPaging_UseIndexes() {
+        long student = ID_BASE + 1234;
+        long course = ID_BASE + 42;
+
+        assertIndexed("countEnrollment", () -> studentRepository.countEnrollment(student, course));
+        assertIndexed("deleteEnrollment", () -> studentRepository.deleteEnrollment(student, course));
+        assertIndexed("findCourseIds", () -> studentRepository.findCourseIds(student));
+        assertIndexed("EnrollmentRepository.findById",
+                () -> enrollmentRepository.findById(new EnrollmentId(student, ID_BASE + 1 + (1234 * 7) % COURSES)));
+        assertIndexed("hasFreeSeat", () -> courseRepository.hasFreeSeat(course));
+        assertIndexed("reserveSeat", () -> courseRepository.reserveSeat(course));
+        assertIndexed("releaseSeat", () -> courseRepository.releaseSeat(course));
+        assertIndexed("findPageAfter", () -> studentRepository.findPageAfter(student, null, Pageable.ofSize(20)));
+        assertIndexed("findPageAfter (department)",
+                () -> studentRepository.findPageAfter(student, "Plan Dept 3", Pageable.ofSize(20)));
+        assertIndexed("findPageBefore", () -> studentRepository.findPageBefore(student, null, Pageable.ofSize(20)));
+        assertIndexed("findSearchHits", () -> studentRepository.findSearchHits(List.of(student, student + 1)));
+    }
+
+    // Runs the call in a transaction and checks the plan of every SELECT/UPDATE/DELETE it sent
+    private void assertIndexed(String query, Runnable call) {
+        entityManagerFactory.getCache().evictAll(); // otherwise a cached entity/query result means no SQL at all
+        jdbcTemplate.execute("set query_statistics true");
+        List<String> statements;
+        try {
+            transactionTemplate.executeWithoutResult(status -> call.run());
+            statements = jdbcTemplate.queryForList(
+                    "select sql_statement from information_schema.query_statistics", String.class).stream()
+                    .filter(sql -> sql.matches("(?is)(select|update|delete)\\b.*"))
+                    .filter(sql -> !sql.toLowerCase().contains("information_schema"))
+                    .toList();
+        } finally {
+            jdbcTemplate.execute("set query_statistics false"); // also clears the recorded statements
+        }
+
+        assertFalse(statements.isEmpty(), query + " sent no SQL");
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+            String scan = findScan(plan);
+            assertNull(scan, query + " would read a whole table (" + scan + "):\n" + plan);
+        }
+    }
+
+    // The first table access without a lookup condition, or null
+    private String findScan(String plan) {
+        Matcher access = TABLE_ACCESS.matcher(plan);
+        while (access.find()) {
+            String target = access.group(1);
+            if (target.endsWith(".tableScan") || access.group(2) == null) {
+                return target;
+            }
+            if (!keptByMigrations(target.substring(target.indexOf('.') + 1))) {
+                return target + ", an index PostgreSQL would not have";
+            }
+        }
+        return null;
+    }
+
+    // H2 indexes every foreign key by itself (as <FK name>_INDEX_<n>), PostgreSQL does not. A lookup through
+    // such an index only counts if the column also leads a primary key, unique constraint or index of the
+    // migrations. (When a migration alters a table, H2 rebuilds it and lets the foreign key use a matching
+    // index of the migrations instead of its own; that one keeps its name.)
+    private boolean keptByMigrations(String index) {
+        List<String> constraints = jdbcTemplate.queryForList("select constraint_type from information_schema.table_constraints " +
+                "where index_name = ?", String.class, index);
+        if (!constraints.contains("FOREIGN KEY") || constraints.contains("PRIMARY KEY") || constraints.contains("UNIQUE")) {
+            return true;
+        }
+        Integer ownIndex = jdbcTemplate.queryForObject("select count(*) from information_schema.table_constraints " +
+                "where index_name = ? and constraint_type = 'FOREIGN KEY' and ? like constraint_name || '\\_INDEX\\_%'",
+                Integer.class, index, index);
+        if (ownIndex == null || ownIndex == 0) {
+            return true;
+        }
+        Integer others = jdbcTemplate.queryForObject("select count(*) from information_schema.index_columns fk " +
+                "join information_schema.index_columns other on other.table_name = fk.table_name " +
+                "and other.column_name = fk.column_name and other.ordinal_position = 1 " +
+                "where fk.index_name = ? and fk.ordinal_position = 1 and other.index_name <> fk.index_name " +
+                "and other.index_name not in (select index_name from information_schema.table_constraints " +
+                "where constraint_type = 'FOREIGN KEY' and index_name is not null)", Integer.class, index);
+        return others != null && others > 0;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.student_management_system.repository;
+
+import com.example.student_management_system.model.Department;
+import com.example.student_management_system.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("StudentRepository Integration Tests")
+class StudentRepositoryTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    // Ids in insert order (the sequence may skip values, so never assume id + 1)
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Department cs = new Department();
+        cs.setName("CS");
+        departmentRepository.save(cs);
+
+        Department math = new Department();
+        math.setName("Math");
+        departmentRepository.save(math);
+
+        for (int i = 0; i < 10; i++) {
+            Student s = new Student();
+            s.setName("Student " + i);
+            s.setEmail("s" + i + "@example.com");
+            s.setDepartment(i % 2 == 0 ? cs : math);
+            ids.add(studentRepository.save(s).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Keyset page should continue right after the cursor")
+    void findPageAfter_SeeksPastCursor() {
+        List<Student> page = studentRepository.findPageAfter(ids.get(2), null, Pageable.ofSize(3));
+
+        assertEquals(ids.subList(3, 6), page.stream().map(Student::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Keyset page should apply the department filter")
+    void findPageAfter_FiltersByDepartment() {
+        List<Student> page = studentRepository.findPageAfter(0L, "Math", Pageable.ofSize(100));
+
+        assertEquals(5, page.size());
+        assertTrue(page.stream().allMatch(s -> s.getDepartment().getName().equals("Math")));
+    }
+
+    @Test
+    @DisplayName("Backward keyset page should return the rows before the cursor, newest first")
+    void findPageBefore_WalksBackwards() {
+        List<Student> page = studentRepository.findPageBefore(ids.get(5), null, Pageable.ofSize(2));
+
+        assertEquals(List.of(ids.get(4), ids.get(3)), page.stream().map(Student::getId).toList());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.service.AuthTokenService.AuthToken;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AuthTokenService Unit Tests")
+class AuthTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    private final UserAccountCache.CachedUser student =
+            new UserAccountCache.CachedUser(1L, "jane:doe", "{bcrypt}x", "ROLE_STUDENT", 7L, null);
+
+    @Test
+    @DisplayName("A token should carry the username, role and profile ids")
+    void encodeDecode_RoundTrip() {
+        AuthTokenService service = new AuthTokenService(SECRET, Duration.ofMinutes(15));
+
+        AuthToken token = service.decode(service.encode(service.issue(student)));
+
+        assertEquals("jane:doe", token.username());
+        assertEquals("jane:doe", token.getName());
+        assertEquals("ROLE_STUDENT", token.role());
+        assertEquals(7L, token.studentId());
+        assertNull(token.teacherId());
+        assertTrue(token.expiresAt().isAfter(Instant.now().plus(Duration.ofMinutes(14))));
+    }
+
+    @Test
+    @DisplayName("Another instance with the same key should accept the token, one with another key should not")
+    void decode_SharedKeyOnly() {
+        String token = new AuthTokenService(SECRET, Duration.ofMinutes(15)).encode(
+                new AuthTokenService(SECRET, Duration.ofMinutes(15)).issue(student));
+
+        assertNotNull(new AuthTokenService(SECRET, Duration.ofMinutes(15)).decode(token));
+        assertNull(new AuthTokenService("", Duration.ofMinutes(15)).decode(token));
+    }
+
+    @Test
+    @DisplayName("A changed, expired or malformed token should be refused")
+    void decode_RejectsBadTokens() {
+        AuthTokenService service = new AuthTokenService(SECRET, Duration.ofMinutes(15));
+        String token = service.encode(service.issue(student));
+        String payload = token.substring(0, token.indexOf('.'));
+        String signature = token.substring(token.indexOf('.') + 1);
+
+        // Same signature, but a teacher role
+        String claims = new String(Base64.getUrlDecoder().decode(payload)).replace("ROLE_STUDENT", "ROLE_TEACHER");
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(claims.getBytes()) + "." + signature;
+        assertNull(service.decode(forged));
+
+        AuthTokenService expired = new AuthTokenService(SECRET, Duration.ofSeconds(-1));
+        assertNull(expired.decode(expired.encode(expired.issue(student))));
+
+        assertNull(service.decode("no-dot"));
+        assertNull(service.decode(payload + ".%%%"));
+        assertNull(service.decode("." + signature));
+    }
+
+    @Test
+    @DisplayName("A configured key shorter than 256 bits should be refused at startup")
+    void constructor_RejectsShortKey() {
+        String shortKey = Base64.getEncoder().encodeToString("too short".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> new AuthTokenService(shortKey, Duration.ofMinutes(15)));
+    }
+}
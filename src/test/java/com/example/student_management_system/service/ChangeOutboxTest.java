@@ -0,0 +1,157 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.ChangeEvent;
+import com.example.student_management_system.dto.ChangeEventPage;
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.CourseRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The outbox end to end: changes through the repositories, the relay into the in-memory sink, reading by offset
+@SpringBootTest(properties = {
+        "app.outbox.sink=memory",
+        "app.outbox.relay-interval=1h" // the tests relay themselves
+})
+@ActiveProfiles("test")
+@DisplayName("ChangeOutbox Integration Tests")
+class ChangeOutboxTest {
+
+    @Autowired
+    private ChangeOutbox changeOutbox;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxSink outboxSink;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> studentIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : courseIds) {
+            jdbcTemplate.update("delete from student_courses where course_id = ?", id);
+            jdbcTemplate.update("delete from courses where id = ?", id);
+        }
+        for (Long id : studentIds) {
+            jdbcTemplate.update("delete from students where id = ?", id);
+        }
+    }
+
+    @Test
+    @DisplayName("Saving, changing and deleting a student should each write one event with the change")
+    void studentChanges_WriteEvents() {
+        Student student = studentRepository.save(newStudent("Outbox Olga"));
+        student.setEmail("olga@new.example.com");
+        studentRepository.save(student);
+        studentRepository.deleteById(student.getId());
+
+        List<String[]> rows = jdbcTemplate.query("select event_type, payload from outbox_events "
+                        + "where aggregate_type = 'STUDENT' and aggregate_id = ? order by id",
+                (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)}, student.getId());
+
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"), rows.stream().map(row -> row[0]).toList());
+        assertTrue(rows.get(0)[1].contains("\"name\":\"Outbox Olga\""), rows.get(0)[1]);
+        assertTrue(rows.get(1)[1].contains("\"email\":\"olga@new.example.com\""), rows.get(1)[1]);
+        assertEquals("{\"id\":" + student.getId() + "}", rows.get(2)[1]);
+    }
+
+    @Test
+    @DisplayName("A rolled back transaction should leave no event behind")
+    void rollback_WritesNoEvent() {
+        Long id = transactionTemplate.execute(status -> {
+            Student student = studentRepository.saveAndFlush(newStudent("Outbox Rolled Back"));
+            status.setRollbackOnly();
+            return student.getId();
+        });
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from outbox_events where aggregate_type = 'STUDENT' and aggregate_id = ?",
+                Integer.class, id));
+    }
+
+    @Test
+    @DisplayName("Enrolling and unenrolling should write events for the course")
+    void enrollment_WritesCourseEvents() {
+        Long studentId = studentRepository.save(newStudent("Outbox Enrolled")).getId();
+        studentIds.add(studentId);
+        Course course = new Course();
+        course.setTitle("Outbox Course");
+        course.setCapacity(5);
+        Long courseId = courseRepository.save(course).getId();
+        courseIds.add(courseId);
+
+        enrollmentService.toggle(studentId, courseId);
+        enrollmentService.toggle(studentId, courseId);
+
+        List<String[]> rows = jdbcTemplate.query("select event_type, payload from outbox_events "
+                        + "where aggregate_type = 'COURSE' and aggregate_id = ? order by id",
+                (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)}, courseId);
+        assertEquals(List.of("CREATED", "ENROLLED", "UNENROLLED"), rows.stream().map(row -> row[0]).toList());
+        assertEquals("{\"studentId\":" + studentId + ",\"courseId\":" + courseId + "}", rows.get(1)[1]);
+    }
+
+    @Test
+    @DisplayName("The relay should number the events without gaps, publish them once, and readers continue from an offset")
+    void relay_PublishesInOrder() {
+        InMemoryOutboxSink sink = (InMemoryOutboxSink) outboxSink;
+        outboxRelay.relay();
+        sink.poll(Integer.MAX_VALUE);
+        long offset = jdbcTemplate.queryForObject("select last_position from outbox_relay", Long.class);
+
+        for (int i = 0; i < 3; i++) {
+            studentIds.add(studentRepository.save(newStudent("Outbox Relayed " + i)).getId());
+        }
+        assertEquals(0, changeOutbox.read(offset, 10).events().size(), "not relayed yet");
+
+        assertEquals(3, outboxRelay.relay());
+        assertEquals(0, outboxRelay.relay(), "nothing is relayed twice");
+
+        List<ChangeEvent> published = sink.poll(10);
+        assertEquals(List.of(offset + 1, offset + 2, offset + 3), published.stream().map(ChangeEvent::position).toList());
+        assertEquals(studentIds, published.stream().map(ChangeEvent::aggregateId).toList());
+
+        ChangeEventPage first = changeOutbox.read(offset, 2);
+        assertEquals(published.subList(0, 2), first.events());
+        assertEquals(offset + 2, first.nextOffset());
+        ChangeEventPage rest = changeOutbox.read(first.nextOffset(), 10);
+        assertEquals(published.subList(2, 3), rest.events());
+        assertEquals(offset + 3, changeOutbox.read(rest.nextOffset(), 10).nextOffset(), "nothing new");
+    }
+
+    private static Student newStudent(String name) {
+        Student student = new Student();
+        student.setName(name);
+        student.setEmail(name.toLowerCase().replace(' ', '.') + "@example.com");
+        return student;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.student_management_system.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("CustomUserDetailsService Integration Tests")
+class CustomUserDetailsServiceTest {
+
+    @Autowired
+    private DaoAuthenticationProvider authenticationProvider;
+
+    @Autowired
+    private UserAccountCache userAccountCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from users where username like 'rehash-%'");
+        userAccountCache.evictAll();
+    }
+
+    private void insertUser(String username, String passwordHash) {
+        jdbcTemplate.update("insert into users (username, password, role) values (?, ?, 'ROLE_TEACHER')", username, passwordHash);
+    }
+
+    private String storedHash(String username) {
+        return jdbcTemplate.queryForObject("select password from users where username = ?", String.class, username);
+    }
+
+    private Authentication login(String username, String password) {
+        return authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(username, password));
+    }
+
+    @Test
+    @DisplayName("Should accept a legacy hash and upgrade it on login")
+    void login_LegacyHash_IsRehashed() {
+        insertUser("rehash-legacy", new BCryptPasswordEncoder(4).encode("secret"));
+
+        assertTrue(login("rehash-legacy", "secret").isAuthenticated());
+
+        assertTrue(storedHash("rehash-legacy").startsWith("{bcrypt}$2a$04$"));
+        // The new hash works too, and the cached copy was refreshed
+        assertTrue(login("rehash-legacy", "secret").isAuthenticated());
+    }
+
+    @Test
+    @DisplayName("Should leave an up-to-date hash alone")
+    void login_CurrentHash_IsKept() {
+        String current = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret");
+        insertUser("rehash-current", current);
+
+        assertTrue(login("rehash-current", "secret").isAuthenticated());
+
+        assertEquals(current, storedHash("rehash-current"));
+    }
+
+    @Test
+    @DisplayName("Should not touch the hash when the password is wrong")
+    void login_WrongPassword_KeepsHash() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        insertUser("rehash-wrong", legacy);
+
+        assertThrows(BadCredentialsException.class, () -> login("rehash-wrong", "nope"));
+
+        assertEquals(legacy, storedHash("rehash-wrong"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.repository.DepartmentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("DepartmentRegistry Integration Tests")
+class DepartmentRegistryTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private DepartmentRegistry departmentRegistry;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from departments where name like 'Registry %'");
+        departmentRegistry.evictAll();
+        entityManagerFactory.getCache().evictAll(); // and not in Hibernate's second-level/query cache either
+    }
+
+    @Test
+    @DisplayName("Many threads on two app nodes creating the same new department should get one row")
+    void resolveId_RaceCreatesOneRow() throws Exception {
+        // Two registries = two app nodes with their own memory, sharing only the database
+        DepartmentRegistry otherNode = new DepartmentRegistry(departmentRepository, transactionManager);
+
+        for (int round = 0; round < 10; round++) {
+            String name = "Registry Race " + round;
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            List<Future<Long>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                DepartmentRegistry node = t % 2 == 0 ? departmentRegistry : otherNode;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return node.resolveId(name);
+                }));
+            }
+            start.countDown();
+
+            Set<Long> ids = new HashSet<>();
+            for (Future<Long> result : results) {
+                ids.add(result.get());
+            }
+            pool.shutdown();
+
+            assertEquals(1, ids.size(), "all threads must get the same department");
+            assertEquals(1, jdbcTemplate.queryForObject("select count(*) from departments where name = ?", Long.class, name));
+        }
+    }
+
+    @Test
+    @DisplayName("A known department should be resolved without a query")
+    void resolveId_CachedAfterFirstUse() {
+        Long id = departmentRegistry.resolveId("Registry Cached");
+
+        // Renaming it behind the registry's back proves the second call never asks the database
+        jdbcTemplate.update("update departments set name = 'Registry Renamed' where id = ?", id);
+
+        assertEquals(id, departmentRegistry.resolveId("  Registry Cached "));
+    }
+
+    @Test
+    @DisplayName("Empty names should mean no department")
+    void resolveId_Blank() {
+        assertNull(departmentRegistry.resolveId(null));
+        assertNull(departmentRegistry.resolveId("   "));
+    }
+
+    @Test
+    @DisplayName("The database should reject a duplicate department name")
+    void uniqueConstraint_RejectsDuplicates() {
+        jdbcTemplate.update("insert into departments (name) values ('Registry Unique')");
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update("insert into departments (name) values ('Registry Unique')"));
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.EnrollmentResult;
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.CourseRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("EnrollmentService Concurrency Tests")
+class EnrollmentServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int STUDENTS = 4;
+    private static final int COURSES = 3;
+    private static final int TOGGLES_PER_PAIR = 401; // odd -> every pair must end up enrolled
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> studentIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setName("Racer " + i);
+            studentIds.add(studentRepository.save(student).getId());
+        }
+        for (int i = 0; i < COURSES; i++) {
+            Course course = new Course();
+            course.setTitle("Hot Course " + i);
+            courseIds.add(courseRepository.save(course).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Long studentId : studentIds) {
+            jdbcTemplate.update("delete from student_courses where student_id = ?", studentId);
+        }
+        studentRepository.deleteAllById(studentIds);
+        courseRepository.deleteAllById(courseIds);
+    }
+
+    @Test
+    @DisplayName("Thousands of parallel toggles should leave exactly one row per odd toggle count")
+    void parallelToggles_FinalStateMatchesParity() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<EnrollmentResult>> results = new ArrayList<>();
+        for (int t = 0; t < TOGGLES_PER_PAIR; t++) {
+            for (Long studentId : studentIds) {
+                for (Long courseId : courseIds) {
+                    results.add(pool.submit(() -> enrollmentService.toggle(studentId, courseId)));
+                }
+            }
+        }
+
+        long enrolls = 0;
+        for (Future<EnrollmentResult> result : results) {
+            if (result.get() == EnrollmentResult.ENROLLED) {
+                enrolls++;
+            }
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        for (Long studentId : studentIds) {
+            for (Long courseId : courseIds) {
+                assertEquals(1, studentRepository.countEnrollment(studentId, courseId),
+                        "student " + studentId + " / course " + courseId);
+            }
+        }
+        // Each pair flipped an odd number of times starting from "not enrolled":
+        // one more enroll than unenroll per pair
+        long pairs = (long) STUDENTS * COURSES;
+        assertEquals((TOGGLES_PER_PAIR * pairs + pairs) / 2, enrolls);
+    }
+
+    @Test
+    @DisplayName("Toggling twice should return to the original state")
+    void toggleTwice_RoundTrips() {
+        Long studentId = studentIds.get(0);
+        Long courseId = courseIds.get(0);
+
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.toggle(studentId, courseId));
+        assertTrue(enrollmentService.isEnrolled(studentId, courseId));
+        assertEquals(EnrollmentResult.UNENROLLED, enrollmentService.toggle(studentId, courseId));
+        assertFalse(enrollmentService.isEnrolled(studentId, courseId));
+    }
+
+    @Test
+    @DisplayName("A full course should waitlist students and promote them in order")
+    void fullCourse_WaitlistsAndPromotesInOrder() {
+        Course small = courseRepository.findById(courseIds.get(0)).orElseThrow();
+        small.setCapacity(2);
+        courseRepository.save(small);
+        Long courseId = small.getId();
+
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.toggle(studentIds.get(0), courseId));
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.toggle(studentIds.get(1), courseId));
+        assertEquals(EnrollmentResult.WAITLISTED, enrollmentService.toggle(studentIds.get(2), courseId));
+        assertEquals(EnrollmentResult.WAITLISTED, enrollmentService.toggle(studentIds.get(3), courseId));
+
+        // A seat frees up -> the first student in line gets it, the second keeps waiting
+        assertEquals(EnrollmentResult.UNENROLLED, enrollmentService.toggle(studentIds.get(0), courseId));
+        assertTrue(enrollmentService.isEnrolled(studentIds.get(2), courseId));
+        assertTrue(enrollmentService.isWaitlisted(studentIds.get(3), courseId));
+        // The queue is a table: another instance (or this one after a restart) sees the same one
+        CourseWaitlist otherInstance = new CourseWaitlist(jdbcTemplate, 200);
+        assertEquals(studentIds.get(3), otherInstance.peek(courseId));
+
+        // Clicking again while waiting leaves the queue
+        assertEquals(EnrollmentResult.LEFT_WAITLIST, enrollmentService.toggle(studentIds.get(3), courseId));
+        assertFalse(enrollmentService.isWaitlisted(studentIds.get(3), courseId));
+
+        assertEquals(2, courseRepository.findById(courseId).orElseThrow().getSeatsTaken());
+    }
+
+    @Test
+    @DisplayName("Deleting a student should give their seat to the next waiting student, not keep it taken")
+    void deleteStudent_FreesSeatForWaitlist() {
+        Course single = courseRepository.findById(courseIds.get(0)).orElseThrow();
+        single.setCapacity(1);
+        courseRepository.save(single);
+        Long courseId = single.getId();
+
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.toggle(studentIds.get(0), courseId));
+        assertEquals(EnrollmentResult.WAITLISTED, enrollmentService.toggle(studentIds.get(1), courseId));
+        assertEquals(EnrollmentResult.WAITLISTED, enrollmentService.toggle(studentIds.get(2), courseId));
+
+        // A deleted student leaves the queue and is never promoted
+        enrollmentService.deleteStudent(studentIds.get(1));
+        assertFalse(enrollmentService.isWaitlisted(studentIds.get(1), courseId));
+
+        // The enrolled student is deleted -> the seat goes to the next one in line
+        enrollmentService.deleteStudent(studentIds.get(0));
+        assertTrue(enrollmentService.isEnrolled(studentIds.get(2), courseId));
+        assertEquals(1, courseRepository.findById(courseId).orElseThrow().getSeatsTaken());
+
+        // And once that one leaves, a new student can have it
+        assertEquals(EnrollmentResult.UNENROLLED, enrollmentService.toggle(studentIds.get(2), courseId));
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.toggle(studentIds.get(3), courseId));
+        assertEquals(1, courseRepository.findById(courseId).orElseThrow().getSeatsTaken());
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.model.Department;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.CourseRepository;
+import com.example.student_management_system.repository.DepartmentRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("EnrollmentStats Integration Tests")
+class EnrollmentStatsTest {
+
+    private static final int THREADS = 8;
+    private static final int COURSES = 4;
+    private static final int CHURN_STUDENTS = 30;
+    private static final int MOVERS = 10;
+    private static final int LEAVERS = 6;
+    private static final int NEWCOMERS = 12;
+    private static final int TOGGLES = 600;
+
+    @Autowired
+    private EnrollmentStats enrollmentStats;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> departmentIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+    private final List<Long> churners = new ArrayList<>();
+    private final List<Long> movers = new ArrayList<>();
+    private final List<Long> leavers = new ArrayList<>();
+    private final List<Long> newcomers = new ArrayList<>();
+
+    // Everything is created through the repositories, so the counters hear about it like in production
+    @BeforeEach
+    void setUp() {
+        for (String name : List.of("Stats Physics", "Stats Biology")) {
+            Department department = new Department();
+            department.setName(name + " " + System.nanoTime());
+            departmentIds.add(departmentRepository.save(department).getId());
+        }
+        for (int i = 0; i < COURSES; i++) {
+            Course course = new Course();
+            course.setTitle("Stats Course " + i);
+            course.setCapacity(i == 0 ? 5 : null); // one small course, so the waiting list is used too
+            courseIds.add(courseRepository.save(course).getId());
+        }
+        for (int i = 0; i < CHURN_STUDENTS; i++) {
+            churners.add(saveStudent("Churner " + i, departmentIds.get(i % 2)));
+        }
+        for (int i = 0; i < MOVERS; i++) {
+            movers.add(saveStudent("Mover " + i, departmentIds.get(0)));
+        }
+        for (int i = 0; i < LEAVERS; i++) {
+            Long id = saveStudent("Leaver " + i, i % 3 == 0 ? null : departmentIds.get(1));
+            enrollmentService.toggle(id, courseIds.get(1));
+            enrollmentService.toggle(id, courseIds.get(2));
+            leavers.add(id);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<Long> students = new ArrayList<>(churners);
+        students.addAll(movers);
+        students.addAll(leavers);
+        students.addAll(newcomers);
+        for (Long courseId : courseIds) {
+            jdbcTemplate.update("delete from student_courses where course_id = ?", courseId);
+        }
+        for (Long studentId : students) {
+            jdbcTemplate.update("delete from students where id = ?", studentId);
+        }
+        for (Long courseId : courseIds) {
+            jdbcTemplate.update("delete from courses where id = ?", courseId);
+        }
+        for (Long departmentId : departmentIds) {
+            jdbcTemplate.update("delete from departments where id = ?", departmentId);
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @DisplayName("Counters should match the database after heavy concurrent churn")
+    void concurrentChurn_CountersMatchDatabase() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> tasks = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < TOGGLES; i++) {
+            Long studentId = churners.get(random.nextInt(churners.size()));
+            Long courseId = courseIds.get(random.nextInt(courseIds.size()));
+            tasks.add(pool.submit(() -> enrollmentService.toggle(studentId, courseId)));
+        }
+        // Each mover hops between the two departments (and sometimes to none) a few times
+        for (int i = 0; i < MOVERS; i++) {
+            Long studentId = movers.get(i);
+            int hops = 3 + i % 3;
+            tasks.add(pool.submit(() -> {
+                for (int hop = 1; hop <= hops; hop++) {
+                    moveStudent(studentId, hop % 3 == 0 ? null : departmentIds.get(hop % 2));
+                }
+            }));
+        }
+        for (Long studentId : leavers) {
+            tasks.add(pool.submit(() -> studentRepository.deleteById(studentId)));
+        }
+        for (int i = 0; i < NEWCOMERS; i++) {
+            Long departmentId = departmentIds.get(i % 2);
+            String name = "Newcomer " + i;
+            tasks.add(pool.submit(() -> {
+                Long id = saveStudent(name, departmentId);
+                synchronized (newcomers) {
+                    newcomers.add(id);
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        for (Long courseId : courseIds) {
+            Long enrolled = jdbcTemplate.queryForObject(
+                    "select count(*) from student_courses where course_id = ?", Long.class, courseId);
+            assertEquals(enrolled, enrollmentStats.enrolledIn(courseId), "course " + courseId);
+        }
+        for (Long departmentId : departmentIds) {
+            Long students = jdbcTemplate.queryForObject(
+                    "select count(*) from students where department_id = ?", Long.class, departmentId);
+            assertEquals(students, enrollmentStats.studentsIn(departmentId), "department " + departmentId);
+        }
+        // The churn really happened: leavers (and their enrollments) are gone, some students are enrolled
+        assertEquals(0, studentRepository.findAllById(leavers).size());
+        assertTrue(courseIds.stream().mapToLong(enrollmentStats::enrolledIn).sum() > 0);
+    }
+
+    @Test
+    @DisplayName("Rolled back changes should not be counted")
+    void rolledBackEnrollment_NotCounted() {
+        Long courseId = courseIds.get(3);
+        Long studentId = churners.get(0);
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            studentRepository.insertEnrollment(studentId, courseId);
+            enrollmentStats.enrolled(courseId);
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertEquals(0, enrollmentStats.enrolledIn(courseId));
+    }
+
+    @Test
+    @DisplayName("A counter that drifted should be corrected on the second check, not the first")
+    void reconcile_CorrectsPersistentDrift() {
+        Long courseId = courseIds.get(3);
+        // Written behind the app's back, so no counter hears about it
+        jdbcTemplate.update("insert into student_courses (student_id, course_id) values (?, ?)", churners.get(0), courseId);
+
+        enrollmentStats.reconcile();
+        assertEquals(0, enrollmentStats.enrolledIn(courseId));
+
+        enrollmentStats.reconcile();
+        assertEquals(1, enrollmentStats.enrolledIn(courseId));
+        assertEquals("Stats Course 3", enrollmentStats.course(courseId).name());
+    }
+
+    private Long saveStudent(String name, Long departmentId) {
+        Student student = new Student();
+        student.setName(name);
+        student.setEmail(name.replace(' ', '.').toLowerCase() + "@example.com");
+        student.setDepartment(departmentId != null ? departmentRepository.getReferenceById(departmentId) : null);
+        return studentRepository.save(student).getId();
+    }
+
+    private void moveStudent(Long studentId, Long departmentId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Student student = studentRepository.findById(studentId).orElseThrow();
+            student.setDepartment(departmentId != null ? departmentRepository.getReferenceById(departmentId) : null);
+        });
+    }
+}
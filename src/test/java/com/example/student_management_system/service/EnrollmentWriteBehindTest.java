@@ -0,0 +1,276 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.EnrollmentResult;
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.CourseRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Write-behind mode end to end: clicks answered from memory, coalesced, written in batches, and the journal
+@SpringBootTest(properties = {
+        "app.enrollment.write-behind.enabled=true",
+        "app.enrollment.write-behind.flush-interval=20ms",
+        "app.enrollment.write-behind.journal-dir=target/test-enrollment-journal"
+})
+@ActiveProfiles("test")
+@DisplayName("EnrollmentWriteBehind Integration Tests")
+class EnrollmentWriteBehindTest {
+
+    private static final int THREADS = 8;
+    private static final int STUDENTS = 6;
+    private static final int COURSES = 3;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentStats enrollmentStats;
+
+    @Autowired
+    private ChangeOutbox changeOutbox;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> studentIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        enrollmentService.flushPendingEnrollments();
+        for (Long studentId : studentIds) {
+            jdbcTemplate.update("delete from student_courses where student_id = ?", studentId);
+        }
+        studentRepository.deleteAllById(studentIds);
+        courseRepository.deleteAllById(courseIds);
+    }
+
+    @Test
+    @DisplayName("A click should be visible to the student right away and reach the database with the next batch")
+    void toggle_ReadYourWrites() {
+        Long studentId = newStudent("Behind Bea");
+        Long courseId = newCourse("Behind Course", null);
+
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.toggle(studentId, courseId));
+        assertTrue(enrollmentService.isEnrolled(studentId, courseId));
+        assertEquals(Map.of(courseId, true), enrollmentService.pendingEnrollments(studentId));
+
+        enrollmentService.flushPendingEnrollments();
+        assertEquals(1, rows(studentId, courseId));
+        assertEquals(1, seatsTaken(courseId));
+        assertTrue(enrollmentService.pendingEnrollments(studentId).isEmpty());
+        assertTrue(enrollmentService.isEnrolled(studentId, courseId));
+
+        assertEquals(EnrollmentResult.UNENROLLED, enrollmentService.toggle(studentId, courseId));
+        assertFalse(enrollmentService.isEnrolled(studentId, courseId));
+        enrollmentService.flushPendingEnrollments();
+        assertEquals(0, rows(studentId, courseId));
+        assertEquals(0, seatsTaken(courseId));
+    }
+
+    @Test
+    @DisplayName("Clicking twice before the batch is written should write nothing")
+    void toggleTwice_Coalesced() {
+        Long studentId = newStudent("Behind Ben");
+        Long courseId = newCourse("Behind Twice", null);
+
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.toggle(studentId, courseId));
+        assertEquals(EnrollmentResult.UNENROLLED, enrollmentService.toggle(studentId, courseId));
+        assertTrue(enrollmentService.pendingEnrollments(studentId).isEmpty());
+
+        enrollmentService.flushPendingEnrollments();
+        assertEquals(0, rows(studentId, courseId));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from outbox_events "
+                + "where aggregate_type = 'COURSE' and aggregate_id = ? and event_type <> 'CREATED'", Integer.class, courseId));
+    }
+
+    @Test
+    @DisplayName("Parallel clicks should leave the same rows, seat counts and events as written one by one")
+    void parallelToggles_FinalStateMatchesParity() throws Exception {
+        for (int i = 0; i < STUDENTS; i++) {
+            newStudent("Behind Racer " + i);
+        }
+        for (int i = 0; i < COURSES; i++) {
+            newCourse("Behind Hot " + i, null);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<EnrollmentResult>> results = new ArrayList<>();
+        for (int s = 0; s < STUDENTS; s++) {
+            for (int c = 0; c < COURSES; c++) {
+                Long studentId = studentIds.get(s);
+                Long courseId = courseIds.get(c);
+                int clicks = 1 + s + c; // odd total -> enrolled
+                results.add(pool.submit(() -> {
+                    EnrollmentResult last = null;
+                    for (int i = 0; i < clicks; i++) {
+                        last = enrollmentService.toggle(studentId, courseId);
+                    }
+                    return last;
+                }));
+            }
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        for (Future<EnrollmentResult> result : results) {
+            assertNotEquals(EnrollmentResult.BUSY, result.get());
+        }
+        enrollmentService.flushPendingEnrollments();
+
+        for (int s = 0; s < STUDENTS; s++) {
+            for (int c = 0; c < COURSES; c++) {
+                boolean enrolled = (1 + s + c) % 2 == 1;
+                assertEquals(enrolled ? 1 : 0, rows(studentIds.get(s), courseIds.get(c)), "student " + s + ", course " + c);
+                assertEquals(enrolled, enrollmentService.isEnrolled(studentIds.get(s), courseIds.get(c)));
+            }
+        }
+        for (Long courseId : courseIds) {
+            int enrolled = jdbcTemplate.queryForObject(
+                    "select count(*) from student_courses where course_id = ?", Integer.class, courseId);
+            assertEquals(enrolled, seatsTaken(courseId));
+            assertEquals(enrolled, enrollmentStats.enrolledIn(courseId));
+            int events = jdbcTemplate.queryForObject("select coalesce(sum(case event_type when 'ENROLLED' then 1 "
+                    + "when 'UNENROLLED' then -1 else 0 end), 0) from outbox_events "
+                    + "where aggregate_type = 'COURSE' and aggregate_id = ?", Integer.class, courseId);
+            assertEquals(enrolled, events, "ENROLLED minus UNENROLLED events = rows written");
+        }
+    }
+
+    @Test
+    @DisplayName("A click that may not find a seat should wait for the batch and go to the waiting list")
+    void lastSeat_GoesSynchronous() {
+        Long first = newStudent("Behind First");
+        Long second = newStudent("Behind Second");
+        Long courseId = newCourse("Behind Small", 1);
+
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.toggle(first, courseId));
+        assertEquals(EnrollmentResult.WAITLISTED, enrollmentService.toggle(second, courseId));
+        assertEquals(1, rows(first, courseId), "the pending enrollment was written before the seat was checked");
+        assertEquals(1, seatsTaken(courseId));
+
+        // The seat freed by the batch goes to the student waiting
+        assertEquals(EnrollmentResult.UNENROLLED, enrollmentService.toggle(first, courseId));
+        enrollmentService.flushPendingEnrollments();
+        assertEquals(0, rows(first, courseId));
+        assertEquals(1, rows(second, courseId));
+        assertFalse(enrollmentService.isWaitlisted(second, courseId));
+        assertEquals(1, seatsTaken(courseId));
+    }
+
+    @Test
+    @DisplayName("Clicks left in the journal should be written at startup, last click per student and course wins")
+    void journal_RecoveredAtStartup(@TempDir Path journal) throws Exception {
+        Long studentId = newStudent("Behind Crashed");
+        Long kept = newCourse("Behind Kept", null);
+        Long undone = newCourse("Behind Undone", null);
+        Files.writeString(journal.resolve("enrollments-0000000000000000007.journal"),
+                studentId + " " + kept + " 1\n"
+                        + studentId + " " + undone + " 1\n"
+                        + studentId + " " + undone + " 0\n"
+                        + studentId + " " + kept); // cut short by the crash
+
+        EnrollmentWriteBehind writeBehind = new EnrollmentWriteBehind(enrollmentService, jdbcTemplate,
+                transactionTemplate, enrollmentStats, changeOutbox, gradeService, entityManagerFactory, 2, Duration.ofMillis(5),
+                100, Duration.ofSeconds(2), journal, false);
+        writeBehind.start();
+        writeBehind.flush();
+        writeBehind.close();
+
+        assertEquals(1, rows(studentId, kept));
+        assertEquals(0, rows(studentId, undone));
+        assertEquals(1, seatsTaken(kept));
+        try (Stream<Path> files = Files.list(journal)) {
+            for (Path file : files.toList()) {
+                assertEquals(0, Files.size(file), "written changes are not in the journal any more: " + file);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A second instance should refuse to start on a journal that is in use")
+    void journal_InUse_RefusesToStart(@TempDir Path journal) {
+        EnrollmentWriteBehind first = newWriteBehind(journal);
+        first.start();
+        try {
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> newWriteBehind(journal).start());
+            assertTrue(e.getMessage().contains("app.enrollment.write-behind.journal-dir"));
+        } finally {
+            first.close();
+        }
+
+        EnrollmentWriteBehind next = newWriteBehind(journal);
+        next.start(); // released on close
+        next.close();
+    }
+
+    private EnrollmentWriteBehind newWriteBehind(Path journal) {
+        return new EnrollmentWriteBehind(enrollmentService, jdbcTemplate, transactionTemplate, enrollmentStats,
+                changeOutbox, gradeService, entityManagerFactory, 2, Duration.ofMillis(5), 100, Duration.ofSeconds(2),
+                journal, false);
+    }
+
+    private Long newStudent(String name) {
+        Student student = new Student();
+        student.setName(name);
+        Long id = studentRepository.save(student).getId();
+        studentIds.add(id);
+        return id;
+    }
+
+    private Long newCourse(String title, Integer capacity) {
+        Course course = new Course();
+        course.setTitle(title);
+        course.setCapacity(capacity);
+        Long id = courseRepository.save(course).getId();
+        courseIds.add(id);
+        return id;
+    }
+
+    private int rows(Long studentId, Long courseId) {
+        return jdbcTemplate.queryForObject("select count(*) from student_courses where student_id = ? and course_id = ?",
+                Integer.class, studentId, courseId);
+    }
+
+    private int seatsTaken(Long courseId) {
+        return jdbcTemplate.queryForObject("select seats_taken from courses where id = ?", Integer.class, courseId);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.GradeDistribution;
+import com.example.student_management_system.dto.GradeRow;
+import com.example.student_management_system.dto.StudentGpa;
+import com.example.student_management_system.model.Grade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GradeBook Unit Tests")
+class GradeBookTest {
+
+    private static final int STUDENTS = 200;
+    private static final int COURSES = 30;
+    private static final long[] DEPARTMENTS = {1L, 2L, 3L};
+
+    private GradeBook book;
+
+    @BeforeEach
+    void setUp() {
+        book = new GradeBook();
+    }
+
+    @Test
+    @DisplayName("A GPA should be weighted by credits")
+    void gpa_WeightedByCredits() {
+        book.grade(new GradeRow(1L, 7L, 10L, Grade.A, 4, 1));
+        book.grade(new GradeRow(1L, 7L, 11L, Grade.C, 2, 1));
+
+        // (4.0 x 4 + 2.0 x 2) / 6
+        assertEquals(new StudentGpa(1L, 20.0 / 6, 6, 2), book.gpa(1L));
+        assertEquals(new StudentGpa(2L, null, 0, 0), book.gpa(2L));
+    }
+
+    @Test
+    @DisplayName("Changing or taking back a grade should move the counts, an older version should be ignored")
+    void grade_ReplacedByVersion() {
+        book.grade(new GradeRow(1L, 7L, 10L, Grade.B, 3, 1));
+        book.grade(new GradeRow(1L, 7L, 10L, Grade.A, 3, 2));
+        book.grade(new GradeRow(1L, 7L, 10L, Grade.F, 3, 1)); // committed earlier, applied later
+
+        GradeDistribution distribution = book.distribution(10L);
+        assertEquals(1L, distribution.grades().get("A"));
+        assertEquals(0L, distribution.grades().get("B"));
+        assertEquals(1, distribution.graded());
+        assertEquals(4.0, book.gpa(1L).gpa());
+
+        book.grade(new GradeRow(1L, 7L, 10L, null, 3, 3));
+        assertEquals(0, book.distribution(10L).graded());
+        assertNull(book.distribution(10L).average());
+        assertEquals(new StudentGpa(1L, null, 0, 0), book.gpa(1L));
+        assertEquals(List.of(), book.top(7L, 10));
+
+        book.grade(new GradeRow(1L, 7L, 10L, Grade.B, 3, 2)); // older than the taking back
+        assertEquals(0, book.distribution(10L).graded());
+    }
+
+    @Test
+    @DisplayName("The ranking should list the best GPA first and follow department moves")
+    void top_BestFirst() {
+        book.grade(new GradeRow(1L, 7L, 10L, Grade.B, 3, 0));
+        book.grade(new GradeRow(2L, 7L, 10L, Grade.A, 3, 0));
+        book.grade(new GradeRow(3L, 7L, 10L, Grade.A_MINUS, 3, 0));
+        book.grade(new GradeRow(4L, null, 10L, Grade.C, 3, 0));
+        // Same GPA as student 2, more credits
+        book.grade(new GradeRow(5L, 7L, 10L, Grade.A, 3, 0));
+        book.grade(new GradeRow(5L, 7L, 11L, Grade.A, 4, 0));
+
+        assertEquals(List.of(5L, 2L, 3L, 1L), ids(book.top(7L, 10)));
+        assertEquals(List.of(5L, 2L), ids(book.top(7L, 2)));
+        assertEquals(List.of(4L), ids(book.top(null, 10)));
+
+        book.moveStudent(2L, null);
+        assertEquals(List.of(5L, 3L, 1L), ids(book.top(7L, 10)));
+        assertEquals(List.of(2L, 4L), ids(book.top(null, 10)));
+
+        book.remove(5L, 11L);
+        book.removeStudent(3L);
+        assertEquals(List.of(5L, 1L), ids(book.top(7L, 10)));
+        assertEquals(2, book.ranked(7L));
+        assertEquals(4, book.distribution(10L).graded(), "students 1, 2, 4 and 5 keep course 10");
+        assertEquals(List.of(), ids(book.top(8L, 10)));
+    }
+
+    @Test
+    @DisplayName("After random grade changes every aggregate should equal a full recomputation")
+    void randomUpdates_MatchRecomputation() {
+        SplittableRandom random = new SplittableRandom(42);
+        Map<Long, Long> departments = new HashMap<>();
+        // (student, course) -> the latest row; a missing key = not enrolled
+        Map<List<Long>, GradeRow> rows = new HashMap<>();
+        Map<List<Long>, Long> versions = new HashMap<>();
+        Grade[] grades = Grade.values();
+
+        for (long s = 1; s <= STUDENTS; s++) {
+            departments.put(s, random.nextInt(10) == 0 ? null : DEPARTMENTS[random.nextInt(DEPARTMENTS.length)]);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            long studentId = 1 + random.nextInt(STUDENTS);
+            long courseId = 1 + random.nextInt(COURSES);
+            List<Long> key = List.of(studentId, courseId);
+            int action = random.nextInt(20);
+            if (action == 0) {
+                rows.remove(key);
+                book.remove(studentId, courseId);
+            } else if (action == 1) {
+                Long department = random.nextBoolean() ? null : DEPARTMENTS[random.nextInt(DEPARTMENTS.length)];
+                departments.put(studentId, department);
+                book.moveStudent(studentId, department);
+            } else if (action == 2 && rows.containsKey(key)) {
+                // A stale write arriving late: must change nothing
+                book.grade(new GradeRow(studentId, departments.get(studentId), courseId,
+                        grades[random.nextInt(grades.length)], 1 + random.nextInt(5), versions.get(key) - 1));
+            } else {
+                long version = versions.merge(key, 1L, Long::sum);
+                Grade grade = random.nextInt(8) == 0 ? null : grades[random.nextInt(grades.length)];
+                GradeRow row = new GradeRow(studentId, departments.get(studentId), courseId, grade, 1 + random.nextInt(5), version);
+                rows.put(key, row);
+                book.grade(row);
+            }
+        }
+
+        // Recompute everything from the rows, the slow way
+        Map<Long, Long> points = new HashMap<>();
+        for (long s = 1; s <= STUDENTS; s++) {
+            long sum = 0;
+            long credits = 0;
+            int graded = 0;
+            for (GradeRow row : rows.values()) {
+                if (row.studentId() == s && row.grade() != null) {
+                    sum += (long) row.grade().tenths() * row.credits();
+                    credits += row.credits();
+                    graded++;
+                }
+            }
+            points.put(s, sum);
+            StudentGpa expected = new StudentGpa(s, credits > 0 ? sum / (credits * 10.0) : null, (int) credits, graded);
+            assertEquals(expected, book.gpa(s), "student " + s);
+        }
+        for (long c = 1; c <= COURSES; c++) {
+            for (Grade grade : grades) {
+                long courseId = c;
+                long expected = rows.values().stream()
+                        .filter(row -> row.courseId() == courseId && row.grade() == grade).count();
+                assertEquals(expected, book.distribution(c).grades().get(grade.label()), "course " + c + ", " + grade);
+            }
+        }
+        // GPAs compared as fractions (points x other credits), like the ranking does
+        Comparator<StudentGpa> bestFirst = (a, b) -> Long.compare(
+                points.get(b.studentId()) * a.credits(), points.get(a.studentId()) * b.credits());
+        List<Long> keys = new ArrayList<>();
+        for (long department : DEPARTMENTS) {
+            keys.add(department);
+        }
+        keys.add(null);
+        for (Long department : keys) {
+            List<StudentGpa> expected = new ArrayList<>();
+            for (long s = 1; s <= STUDENTS; s++) {
+                StudentGpa gpa = book.gpa(s);
+                if (gpa.gpa() != null && Objects.equals(departments.get(s), department)) {
+                    expected.add(gpa);
+                }
+            }
+            expected.sort(bestFirst
+                    .thenComparing(Comparator.comparingInt(StudentGpa::credits).reversed())
+                    .thenComparing(StudentGpa::studentId));
+            assertEquals(expected.subList(0, Math.min(10, expected.size())), book.top(department, 10), "department " + department);
+            assertEquals(expected.size(), book.ranked(department));
+        }
+    }
+
+    private static List<Long> ids(List<StudentGpa> ranking) {
+        return ranking.stream().map(StudentGpa::studentId).toList();
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.GradeDistribution;
+import com.example.student_management_system.dto.RankedStudent;
+import com.example.student_management_system.dto.StudentGpa;
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.model.Department;
+import com.example.student_management_system.model.Grade;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.CourseRepository;
+import com.example.student_management_system.repository.DepartmentRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Grades end to end: saved on the enrollment rows, aggregated in memory, checked against the database
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("GradeService Integration Tests")
+class GradeServiceTest {
+
+    private static final int THREADS = 4;
+    private static final int STUDENTS = 24;
+    private static final int COURSES = 5;
+    private static final int GRADE_WRITES = 400;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> departmentIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+    private final List<Long> studentIds = new ArrayList<>();
+
+    // Every student takes three courses, enrolled the way the app does it
+    @BeforeEach
+    void setUp() {
+        for (String name : List.of("Grades Physics", "Grades Biology")) {
+            Department department = new Department();
+            department.setName(name + " " + System.nanoTime());
+            departmentIds.add(departmentRepository.save(department).getId());
+        }
+        for (int i = 0; i < COURSES; i++) {
+            Course course = new Course();
+            course.setTitle("Grades Course " + i);
+            courseIds.add(courseRepository.save(course).getId());
+        }
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setName("Graded " + i);
+            student.setDepartment(i % 5 == 0 ? null : departmentRepository.getReferenceById(departmentIds.get(i % 2)));
+            Long id = studentRepository.save(student).getId();
+            studentIds.add(id);
+            for (int k = 0; k < 3; k++) {
+                enrollmentService.toggle(id, courseIds.get((i + k) % COURSES));
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Long courseId : courseIds) {
+            jdbcTemplate.update("delete from student_courses where course_id = ?", courseId);
+        }
+        for (Long studentId : studentIds) {
+            jdbcTemplate.update("delete from students where id = ?", studentId);
+        }
+        for (Long courseId : courseIds) {
+            jdbcTemplate.update("delete from courses where id = ?", courseId);
+        }
+        for (Long departmentId : departmentIds) {
+            jdbcTemplate.update("delete from departments where id = ?", departmentId);
+        }
+        // Rows deleted behind the app's back: take them out of the aggregates too
+        for (Long studentId : studentIds) {
+            gradeService.gradeBook().removeStudent(studentId);
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @DisplayName("After random grade writes, unenrollments, moves and deletes the aggregates should equal a recomputation")
+    void randomGrades_MatchRecomputation() throws Exception {
+        Random random = new Random(7);
+        Grade[] grades = Grade.values();
+
+        // Grade writes from several teachers at once (two on the same enrollment: one may get a conflict)
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> writes = new ArrayList<>();
+        for (int i = 0; i < GRADE_WRITES; i++) {
+            int s = random.nextInt(STUDENTS);
+            Long studentId = studentIds.get(s);
+            Long courseId = courseIds.get((s + random.nextInt(3)) % COURSES);
+            Grade grade = random.nextInt(10) == 0 ? null : grades[random.nextInt(grades.length)];
+            Integer credits = random.nextInt(3) == 0 ? null : 1 + random.nextInt(6);
+            writes.add(pool.submit(() -> {
+                try {
+                    gradeService.setGrade(studentId, courseId, grade, credits);
+                } catch (OptimisticLockingFailureException e) {
+                    // The other write won, as it would for a teacher
+                }
+            }));
+        }
+        for (Future<?> write : writes) {
+            write.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Some students drop a graded course, move to another department or leave
+        for (int s = 0; s < STUDENTS; s += 4) {
+            enrollmentService.toggle(studentIds.get(s), courseIds.get(s % COURSES));
+        }
+        for (int s = 1; s < STUDENTS; s += 6) {
+            moveStudent(studentIds.get(s), s % 4 == 1 ? null : departmentIds.get(0));
+        }
+        for (int s = 2; s < STUDENTS; s += 11) {
+            studentRepository.deleteById(studentIds.get(s));
+        }
+
+        GradeBook recomputed = gradeService.recompute();
+        Map<Long, StudentGpa> fromRows = gpaFromRows();
+        int graded = 0;
+        for (Long studentId : studentIds) {
+            StudentGpa live = gradeService.gpa(studentId);
+            assertEquals(recomputed.gpa(studentId), live, "student " + studentId);
+            assertEquals(fromRows.getOrDefault(studentId, new StudentGpa(studentId, null, 0, 0)), live, "student " + studentId);
+            graded += live.gradedCourses();
+        }
+        for (Long courseId : courseIds) {
+            GradeDistribution live = gradeService.distribution(courseId);
+            assertEquals(recomputed.distribution(courseId), live, "course " + courseId);
+            Long rows = jdbcTemplate.queryForObject(
+                    "select count(*) from student_courses where course_id = ? and grade is not null", Long.class, courseId);
+            assertEquals(rows, live.graded(), "course " + courseId);
+        }
+        List<Long> departments = new ArrayList<>(departmentIds);
+        departments.add(EnrollmentStats.NO_DEPARTMENT);
+        for (Long departmentId : departments) {
+            Long key = departmentId == EnrollmentStats.NO_DEPARTMENT ? null : departmentId;
+            List<StudentGpa> expected = recomputed.top(key, GradeService.MAX_TOP).stream()
+                    .filter(gpa -> studentIds.contains(gpa.studentId())).toList();
+            List<StudentGpa> live = gradeService.gradeBook().top(key, GradeService.MAX_TOP).stream()
+                    .filter(gpa -> studentIds.contains(gpa.studentId())).toList();
+            assertEquals(expected, live, "department " + departmentId);
+        }
+        assertTrue(graded > STUDENTS, "grades were really written: " + graded);
+    }
+
+    @Test
+    @DisplayName("The ranking should list a department's students by GPA, with their names")
+    void topStudents_ByGpa() {
+        Long first = studentIds.get(1);  // department 1
+        Long second = studentIds.get(3); // department 1
+        Long other = studentIds.get(2);  // department 0
+        gradeService.setGrade(first, courseIds.get(1), Grade.A, 4);
+        gradeService.setGrade(first, courseIds.get(2), Grade.C, 2);
+        gradeService.setGrade(second, courseIds.get(3), Grade.B_PLUS, null);
+        gradeService.setGrade(other, courseIds.get(2), Grade.A, null);
+
+        assertEquals(new StudentGpa(first, 20.0 / 6, 6, 2), gradeService.gpa(first));
+        assertEquals(List.of(new RankedStudent(1, first, "Graded 1", 20.0 / 6, 6), new RankedStudent(2, second, "Graded 3", 3.3, 3)),
+                gradeService.topStudents(departmentIds.get(1), 10));
+        assertEquals(1, gradeService.topStudents(departmentIds.get(1), 1).size());
+        assertEquals(1L, gradeService.distribution(courseIds.get(2)).grades().get("A"));
+        assertEquals(1L, gradeService.distribution(courseIds.get(2)).grades().get("C"));
+    }
+
+    @Test
+    @DisplayName("Grades for a course the student doesn't take, bad credits and rolled back grades should change nothing")
+    void invalidAndRolledBackGrades_NotCounted() {
+        Long studentId = studentIds.get(1);
+        Long notTaken = courseIds.get(0); // student 1 takes courses 1, 2 and 3
+
+        assertThrows(NoSuchElementException.class, () -> gradeService.setGrade(studentId, notTaken, Grade.A, null));
+        assertThrows(IllegalArgumentException.class, () -> gradeService.setGrade(studentId, courseIds.get(1), Grade.A, 0));
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            gradeService.setGrade(studentId, courseIds.get(1), Grade.A, null);
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertEquals(new StudentGpa(studentId, null, 0, 0), gradeService.gpa(studentId));
+        assertEquals(0, gradeService.distribution(courseIds.get(1)).graded());
+        assertNull(jdbcTemplate.queryForObject("select grade from student_courses where student_id = ? and course_id = ?",
+                String.class, studentId, courseIds.get(1)));
+    }
+
+    // The GPAs straight from the rows, without GradeBook
+    private Map<Long, StudentGpa> gpaFromRows() {
+        Map<Long, long[]> sums = new HashMap<>(); // points, credits, graded courses
+        for (Long studentId : studentIds) {
+            jdbcTemplate.query("select grade, credits from student_courses where student_id = ? and grade is not null",
+                    rs -> {
+                        long[] sum = sums.computeIfAbsent(studentId, id -> new long[3]);
+                        sum[0] += (long) Grade.valueOf(rs.getString("grade")).tenths() * rs.getInt("credits");
+                        sum[1] += rs.getInt("credits");
+                        sum[2]++;
+                    }, studentId);
+        }
+        Map<Long, StudentGpa> gpas = new HashMap<>();
+        sums.forEach((studentId, sum) ->
+                gpas.put(studentId, new StudentGpa(studentId, sum[0] / (sum[1] * 10.0), (int) sum[1], (int) sum[2])));
+        return gpas;
+    }
+
+    private void moveStudent(Long studentId, Long departmentId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Student student = studentRepository.findById(studentId).orElseThrow();
+            student.setDepartment(departmentId != null ? departmentRepository.getReferenceById(departmentId) : null);
+        });
+    }
+}
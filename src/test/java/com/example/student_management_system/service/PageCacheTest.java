@@ -0,0 +1,121 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.CourseCard;
+import com.example.student_management_system.dto.StudentPage;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("PageCache Integration Tests")
+class PageCacheTest {
+
+    @Autowired
+    private PageCache pageCache;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long studentId;
+
+    @AfterEach
+    void tearDown() {
+        if (studentId != null) {
+            jdbcTemplate.update("delete from students where id = ?", studentId);
+        }
+    }
+
+    @Test
+    @DisplayName("A student's cells should be rendered once per version")
+    void studentCells_RenderedOncePerVersion() {
+        Student student = new Student();
+        student.setName("Cache Carl");
+        student.setEmail("carl@example.com");
+        student = studentRepository.save(student);
+        studentId = student.getId();
+
+        String first = pageCache.studentCells(List.of(student)).get(studentId);
+        String again = pageCache.studentCells(List.of(studentRepository.findById(studentId).orElseThrow())).get(studentId);
+
+        assertTrue(first.contains("<td>Cache Carl</td>"), first);
+        assertSame(first, again, "same version -> the cached markup");
+
+        transactionTemplate.executeWithoutResult(status ->
+                studentRepository.findById(studentId).orElseThrow().setName("Cache Carla"));
+        Student renamed = studentRepository.findById(studentId).orElseThrow();
+
+        assertEquals(student.getVersion() + 1, renamed.getVersion());
+        assertTrue(pageCache.studentCells(List.of(renamed)).get(studentId).contains("<td>Cache Carla</td>"));
+    }
+
+    @Test
+    @DisplayName("A course card should show the current enrollment count and escape its text")
+    void courseCards_KeyedOnVersionAndCount() {
+        CourseCard card = new CourseCard(9_100_001L, 3L, "<b>Chemistry</b>", "Labs", "Dr. Who", 30, 4L, false);
+        CourseCard oneMore = new CourseCard(9_100_001L, 3L, "<b>Chemistry</b>", "Labs", "Dr. Who", 30, 5L, true);
+
+        String html = pageCache.courseCards(List.of(card)).get(card.id());
+        String afterEnrolling = pageCache.courseCards(List.of(oneMore)).get(card.id());
+
+        assertTrue(html.contains("&lt;b&gt;Chemistry&lt;/b&gt;"), html);
+        assertTrue(html.contains("4 / 30 seats taken"), html);
+        assertTrue(afterEnrolling.contains("5 / 30 seats taken"), afterEnrolling);
+        // The viewer's "enrolled" flag is not part of the cached markup
+        assertSame(afterEnrolling, pageCache.courseCards(List.of(
+                new CourseCard(9_100_001L, 3L, "<b>Chemistry</b>", "Labs", "Dr. Who", 30, 5L, false))).get(card.id()));
+    }
+
+    @Test
+    @DisplayName("An unchanged page should get a 304, a changed one or another viewer a new ETag")
+    void notModified_ComparesETags() {
+        Student student = new Student();
+        student.setId(9_100_002L);
+        student.setVersion(0L);
+        StudentPage page = new StudentPage(List.of(student), null, null, 20, null);
+
+        MockHttpServletRequest first = request("alice", null);
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        assertFalse(pageCache.notModified(first, firstResponse, page));
+        String etag = firstResponse.getHeader("ETag");
+        assertTrue(etag.startsWith("W/\""), etag);
+        assertEquals("private, no-cache", firstResponse.getHeader("Cache-Control"));
+
+        MockHttpServletResponse sameResponse = new MockHttpServletResponse();
+        assertTrue(pageCache.notModified(request("alice", etag), sameResponse, page));
+        assertEquals(304, sameResponse.getStatus());
+
+        assertFalse(pageCache.notModified(request("bob", etag), new MockHttpServletResponse(), page));
+
+        student.setVersion(1L);
+        assertFalse(pageCache.notModified(request("alice", etag), new MockHttpServletResponse(), page));
+    }
+
+    private static MockHttpServletRequest request(String user, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students");
+        request.setRemoteUser(user);
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.model.Teacher;
+import com.example.student_management_system.model.User;
+import com.example.student_management_system.repository.StudentRepository;
+import com.example.student_management_system.repository.TeacherRepository;
+import com.example.student_management_system.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RegistrationService Unit Tests")
+class RegistrationServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private TeacherRepository teacherRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserAccountCache userAccountCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private RegistrationService registrationService;
+
+    private RegistrationService service(int threads, int queueSize) {
+        registrationService = new RegistrationService(userRepository, studentRepository, teacherRepository,
+                passwordEncoder, userAccountCache, transactionTemplate, threads, queueSize);
+        return registrationService;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        registrationService.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<User>) invocation.getArgument(0)).doInTransaction(null));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private User newUser(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("rawpassword");
+        user.setRole(role);
+        return user;
+    }
+
+    @Test
+    @DisplayName("Should encode the password and save user and student in one transaction")
+    void register_Student_Success() {
+        runTransactionsInline();
+        when(passwordEncoder.encode("rawpassword")).thenReturn("encodedPassword");
+
+        User saved = service(1, 10).register(newUser("student1", "STUDENT")).join();
+
+        assertEquals("encodedPassword", saved.getPassword());
+        assertEquals("ROLE_STUDENT", saved.getRole());
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(userRepository).save(saved);
+        verify(studentRepository).save(any(Student.class));
+        verify(teacherRepository, never()).save(any());
+        verify(userAccountCache).evict("student1");
+    }
+
+    @Test
+    @DisplayName("Should create a teacher profile for teachers")
+    void register_Teacher_Success() {
+        runTransactionsInline();
+        when(passwordEncoder.encode(anyString())).thenReturn("encoded");
+
+        User saved = service(1, 10).register(newUser("teacher1", "ROLE_TEACHER")).join();
+
+        assertEquals("ROLE_TEACHER", saved.getRole());
+        verify(teacherRepository).save(any(Teacher.class));
+        verify(studentRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should hash off the caller's thread")
+    void register_HashesOnRegistrationPool() {
+        runTransactionsInline();
+        List<String> hashingThreads = new ArrayList<>();
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            hashingThreads.add(Thread.currentThread().getName());
+            return "encoded";
+        });
+
+        service(1, 10).register(newUser("user1", "STUDENT")).join();
+
+        assertEquals(1, hashingThreads.size());
+        assertTrue(hashingThreads.get(0).startsWith("registration-"));
+    }
+
+    @Test
+    @DisplayName("Should reject right away when the queue is full")
+    void register_QueueFull_Rejects() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "encoded";
+        });
+        runTransactionsInline();
+        RegistrationService service = service(1, 1);
+
+        CompletableFuture<User> running = service.register(newUser("a", "STUDENT"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<User> queued = service.register(newUser("b", "STUDENT"));
+
+        assertThrows(RejectedExecutionException.class, () -> service.register(newUser("c", "STUDENT")));
+
+        release.countDown();
+        running.join();
+        queued.join();
+        verify(userRepository, never()).save(argThat(u -> u.getUsername().equals("c")));
+    }
+}
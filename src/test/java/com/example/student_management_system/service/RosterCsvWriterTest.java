@@ -0,0 +1,105 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.RosterRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RosterCsvWriter Unit Tests")
+class RosterCsvWriterTest {
+
+    // 1M students x 3 courses. Try it with a tiny heap:
+    //   mvn test -Dtest=RosterCsvWriterTest -DargLine=-Xmx16m
+    private static final long STUDENTS = Long.getLong("export.rows", 1_000_000L);
+    private static final int COURSES_PER_STUDENT = 3;
+
+    @Test
+    @DisplayName("Writer should stream a million students without holding them in memory")
+    void write_MillionRows() throws Exception {
+        // Rows are generated on demand, like a database cursor
+        Iterator<RosterRow> rows = LongStream.range(0, STUDENTS * COURSES_PER_STUDENT)
+                .mapToObj(i -> new RosterRow(i / COURSES_PER_STUDENT, "Student " + i / COURSES_PER_STUDENT,
+                        "s" + i / COURSES_PER_STUDENT + "@example.com", "Dept", "Course " + i % COURSES_PER_STUDENT))
+                .iterator();
+        CountingOutputStream counter = new CountingOutputStream();
+        Writer out = new BufferedWriter(new OutputStreamWriter(counter, StandardCharsets.UTF_8), 64 * 1024);
+
+        long start = System.nanoTime();
+        long written = RosterCsvWriter.write(rows, out);
+        out.flush();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("exported %d students (%d MB) in %d ms, heap max %d MB%n",
+                written, counter.bytes >> 20, millis, runtime.maxMemory() >> 20);
+        assertEquals(STUDENTS, written);
+        assertTrue(counter.bytes > STUDENTS * 50);
+    }
+
+    @Test
+    @DisplayName("Writer should group courses per student and quote special characters")
+    void write_GroupsAndEscapes() throws Exception {
+        List<RosterRow> rows = List.of(
+                new RosterRow(1L, "Doe, Jane", "jane@example.com", "CS", "Algebra"),
+                new RosterRow(1L, "Doe, Jane", "jane@example.com", "CS", "The \"Best\" Course"),
+                new RosterRow(2L, "Bob", null, null, null));
+        StringWriter out = new StringWriter();
+
+        long written = RosterCsvWriter.write(rows.iterator(), out);
+
+        assertEquals(2, written);
+        assertEquals(RosterCsvWriter.HEADER + "\n"
+                + "1,\"Doe, Jane\",jane@example.com,CS,\"Algebra; The \"\"Best\"\" Course\"\n"
+                + "2,Bob,,,\n", out.toString());
+    }
+
+    @Test
+    @DisplayName("Writer should neutralize fields a spreadsheet would run as a formula")
+    void write_FormulaPrefixed() throws Exception {
+        List<RosterRow> rows = List.of(
+                new RosterRow(1L, "=HYPERLINK(\"http://evil.example\",\"Jane\")", "+1@example.com", "-CS", "@SUM(A1:A9)"),
+                new RosterRow(2L, "Bob-Smith", "\t=1+1", "Math", "A = B"));
+        StringWriter out = new StringWriter();
+
+        RosterCsvWriter.write(rows.iterator(), out);
+
+        assertEquals(RosterCsvWriter.HEADER + "\n"
+                + "1,\"'=HYPERLINK(\"\"http://evil.example\"\",\"\"Jane\"\")\",'+1@example.com,'-CS,'@SUM(A1:A9)\n"
+                + "2,Bob-Smith,'\t=1+1,Math,A = B\n", out.toString());
+    }
+
+    @Test
+    @DisplayName("Empty roster should only contain the header")
+    void write_Empty() throws Exception {
+        StringWriter out = new StringWriter();
+
+        assertEquals(0, RosterCsvWriter.write(List.<RosterRow>of().iterator(), out));
+        assertEquals(RosterCsvWriter.HEADER + "\n", out.toString());
+    }
+
+    // Throws the bytes away, only counts them
+    private static class CountingOutputStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
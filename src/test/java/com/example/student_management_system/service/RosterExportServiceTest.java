@@ -0,0 +1,93 @@
+package com.example.student_management_system.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("RosterExportService Integration Tests")
+class RosterExportServiceTest {
+
+    private static final int STUDENTS = 2_000;
+
+    // High ids so the seeded rows never collide with rows created by other tests
+    private static final long ID_BASE = 3_000_000L;
+
+    @Autowired
+    private RosterExportService rosterExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into departments (id, name) values (?, ?)", ID_BASE, "Export Dept");
+        jdbcTemplate.update("insert into courses (id, title) values (?, ?)", ID_BASE, "Algebra");
+        jdbcTemplate.update("insert into courses (id, title) values (?, ?)", ID_BASE + 1, "Biology, Intro");
+
+        List<Object[]> students = new ArrayList<>();
+        List<Object[]> enrollments = new ArrayList<>();
+        for (int s = 0; s < STUDENTS; s++) {
+            students.add(new Object[]{ID_BASE + s, "Student " + s, "e" + s + "@example.com", ID_BASE});
+            // even students take both courses, odd students none
+            if (s % 2 == 0) {
+                enrollments.add(new Object[]{ID_BASE + s, ID_BASE});
+                enrollments.add(new Object[]{ID_BASE + s, ID_BASE + 1});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into students (id, name, email, department_id) values (?, ?, ?, ?)", students);
+        jdbcTemplate.batchUpdate("insert into student_courses (student_id, course_id) values (?, ?)", enrollments);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Export should write one CSV line per student with the course titles joined")
+    void exportCsv_OneLinePerStudent() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = rosterExportService.exportCsv(out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        List<String> seeded = csv.lines().filter(l -> l.matches("\\d+,.*") && Long.parseLong(l.substring(0, l.indexOf(','))) >= ID_BASE).toList();
+        assertTrue(csv.startsWith("\uFEFF" + RosterCsvWriter.HEADER));
+        assertTrue(exported >= STUDENTS);
+        assertEquals(STUDENTS, seeded.size());
+        assertEquals(ID_BASE + ",Student 0,e0@example.com,Export Dept,\"Algebra; Biology, Intro\"", seeded.get(0));
+        assertEquals((ID_BASE + 1) + ",Student 1,e1@example.com,Export Dept,", seeded.get(1));
+    }
+
+    @Test
+    @DisplayName("Export should run as a single query without loading entities")
+    void exportCsv_SingleStatementNoEntities() throws Exception {
+        rosterExportService.exportCsv(OutputStream.nullOutputStream());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.student_management_system.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SearchIndex Unit Tests")
+class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+        index.put(1, "John Smith", "john.smith@example.com", "Computer Science");
+        index.put(2, "Joanna Smithers", "jo@example.com", "Mathematics");
+        index.put(3, "Bob Stone", "bob@example.com", "Computer Science");
+    }
+
+    @Test
+    @DisplayName("Should split text into lower-case words")
+    void tokenize_Words() {
+        assertEquals(List.of("anna", "smith", "example", "com"), SearchIndex.tokenize("Anna.Smith@Example.com"));
+        assertEquals(List.of(), SearchIndex.tokenize("  -- "));
+        assertEquals(List.of(), SearchIndex.tokenize(null));
+    }
+
+    @Test
+    @DisplayName("A prefix should find every word starting with it, exact words first")
+    void search_Prefix() {
+        assertEquals(List.of(1L, 2L), index.search("smith", 10));
+        assertEquals(List.of(2L, 1L), index.search("jo", 10)); // "jo" (exact, in the email) before "joanna" / "john"
+        assertEquals(List.of(1L, 3L), index.search("COMP", 10));
+    }
+
+    @Test
+    @DisplayName("Several words should all have to match")
+    void search_AllTerms() {
+        assertEquals(List.of(1L), index.search("jo smith comp", 10));
+        assertEquals(List.of(), index.search("bob math", 10));
+    }
+
+    @Test
+    @DisplayName("Should stop at the limit")
+    void search_Limit() {
+        assertEquals(1, index.search("example", 1).size());
+        assertEquals(List.of(), index.search("", 10));
+    }
+
+    @Test
+    @DisplayName("Saving a document again should replace its words")
+    void put_ReplacesWords() {
+        index.put(3, "Bob Marley", "bob@example.com", "Music");
+
+        assertEquals(List.of(), index.search("stone", 10));
+        assertEquals(List.of(3L), index.search("marl", 10));
+        assertEquals(List.of(1L), index.search("computer", 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("Removed documents should not be found")
+    void remove_Document() {
+        index.remove(1);
+
+        assertEquals(List.of(2L), index.search("smith", 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Ids added out of order should still be found once")
+    void put_OutOfOrderIds() {
+        index.put(10, "Zed");
+        index.put(5, "Zed");
+        index.put(7, "Zed");
+        index.put(5, "Zed");
+
+        assertEquals(List.of(5L, 7L, 10L), index.search("zed", 10));
+    }
+}
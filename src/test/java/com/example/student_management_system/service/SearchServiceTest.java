@@ -0,0 +1,165 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.SearchDocument;
+import com.example.student_management_system.dto.SearchHit;
+import com.example.student_management_system.dto.SearchResults;
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.CourseRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("SearchService Integration Tests")
+class SearchServiceTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private DepartmentRegistry departmentRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> studentIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAllById(studentIds);
+        courseRepository.deleteAllById(courseIds);
+    }
+
+    @Test
+    @DisplayName("Saved students and courses should be searchable right away")
+    void search_FindsSavedEntities() {
+        Student student = saveStudent("Quentin Zyxwv", "qzyxwv@example.com", "Search Dept");
+        Course course = new Course();
+        course.setTitle("Zyxwv Studies");
+        course.setDescription("Everything about zyxwv");
+        courseIds.add(courseRepository.save(course).getId());
+
+        SearchResults results = searchService.search("zyx", 10);
+
+        assertTrue(searchService.isReady());
+        assertEquals("index", results.source());
+        assertEquals(List.of(new SearchHit(student.getId(), "Quentin Zyxwv", "qzyxwv@example.com")), results.students());
+        assertEquals(List.of(course.getId()), results.courses().stream().map(SearchHit::id).toList());
+        assertEquals(1, searchService.search("quen search", 10).students().size()); // name + department
+    }
+
+    @Test
+    @DisplayName("Updates and deletes should be reflected in the index")
+    void search_FollowsUpdatesAndDeletes() {
+        Student student = saveStudent("Ursula Qwpl", "uq@example.com", null);
+
+        student.setName("Ursula Vbnm");
+        studentRepository.save(student);
+        assertEquals(List.of(), searchService.search("qwpl", 10).students());
+        assertEquals(1, searchService.search("vbnm", 10).students().size());
+
+        studentRepository.deleteById(student.getId());
+        assertEquals(List.of(), searchService.search("vbnm", 10).students());
+    }
+
+    @Test
+    @DisplayName("Rolled back saves should never be found")
+    void search_IgnoresRollback() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Student student = new Student();
+            student.setName("Rollback Jklh");
+            studentRepository.saveAndFlush(student);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(), searchService.search("jklh", 10).students());
+    }
+
+    @Test
+    @DisplayName("Without the index, search should fall back to SQL")
+    void search_SqlFallback() {
+        saveStudent("Fallback Mnbv", "fb_mnbv@example.com", null);
+        ReflectionTestUtils.setField(searchService, "ready", false);
+        try {
+            SearchResults results = searchService.search("NBV", 10);
+
+            assertEquals("sql", results.source());
+            assertEquals(1, results.students().size());
+            assertEquals(List.of(), searchService.search("fb%", 10).students()); // % is not a wildcard
+        } finally {
+            ReflectionTestUtils.setField(searchService, "ready", true);
+        }
+    }
+
+    @Test
+    @DisplayName("A course renamed or a student deleted while the index is built should not come back with the row read before")
+    @SuppressWarnings("unchecked")
+    void buildIndex_ChangedMeanwhile_KeepsNewState() {
+        SearchService loading = new SearchService();
+        StudentRepository students = mock(StudentRepository.class);
+        CourseRepository courses = mock(CourseRepository.class);
+        TransactionTemplate transactions = mock(TransactionTemplate.class);
+        ReflectionTestUtils.setField(loading, "studentRepository", students);
+        ReflectionTestUtils.setField(loading, "courseRepository", courses);
+        ReflectionTestUtils.setField(loading, "departmentRegistry", departmentRegistry);
+        ReflectionTestUtils.setField(loading, "transactionTemplate", transactions);
+        ReflectionTestUtils.setField(loading, "indexEnabled", true);
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactions).executeWithoutResult(any());
+
+        Student deleted = new Student();
+        deleted.setId(1L);
+        Course renamed = new Course();
+        renamed.setId(2L);
+        renamed.setTitle("Load Qwertz Renamed");
+        // The change commits after the row was read, before the load gets to it
+        when(students.streamSearchDocuments()).thenReturn(Stream.of(new SearchDocument(1L, "Load Asdfg", null, null))
+                .peek(row -> loading.studentRemoved(deleted)));
+        when(courses.streamSearchDocuments()).thenReturn(Stream.of(new SearchDocument(2L, "Load Yxcvb", null))
+                .peek(row -> loading.courseSaved(renamed)));
+        loading.buildIndex();
+
+        SearchIndex studentIndex = (SearchIndex) ReflectionTestUtils.getField(loading, "students");
+        SearchIndex courseIndex = (SearchIndex) ReflectionTestUtils.getField(loading, "courses");
+        assertEquals(List.of(), studentIndex.search("asdfg", 10));
+        assertEquals(List.of(), courseIndex.search("yxcvb", 10));
+        assertEquals(List.of(2L), courseIndex.search("qwertz", 10));
+    }
+
+    private Student saveStudent(String name, String email, String department) {
+        Student student = new Student();
+        student.setName(name);
+        student.setEmail(email);
+        student.setDepartment(departmentRegistry.resolve(department));
+        studentRepository.save(student);
+        studentIds.add(student.getId());
+        return student;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.EnrollmentResult;
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.repository.CourseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Registration-day simulation: many students hammering the same few capped courses at once.
+// Prints throughput, latency percentiles and the oversell count (which must be zero).
+// Takes a while, so it only runs when asked for:
+//   mvn test -Dtest=SeatReservationLoadTest -Dload.test=true
+// Change the load with e.g. -Dload.students=50000 -Dload.threads=128.
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Seat Reservation Load Test")
+@EnabledIfSystemProperty(named = "load.test", matches = "true")
+class SeatReservationLoadTest {
+
+    private static final int STUDENTS = Integer.getInteger("load.students", 10_000);
+    private static final int COURSES = Integer.getInteger("load.courses", 50);
+    private static final int CAPACITY = Integer.getInteger("load.capacity", 50);
+    private static final int COURSES_PER_STUDENT = Integer.getInteger("load.coursesPerStudent", 1);
+    private static final int THREADS = Integer.getInteger("load.threads", 64);
+
+    // Students are inserted with explicit ids far above anything the sequence hands out
+    private static final long ID_BASE = 2_000_000L;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> studentIds;
+    private final List<Long> courseIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            rows.add(new Object[]{ID_BASE + i, "load-" + i, "load-" + i + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("insert into students (id, name, email) values (?, ?, ?)", rows);
+        studentIds = jdbcTemplate.queryForList("select id from students where id >= ?", Long.class, ID_BASE);
+
+        for (int i = 0; i < COURSES; i++) {
+            Course course = new Course();
+            course.setTitle("Popular " + i);
+            course.setCapacity(CAPACITY);
+            courseIds.add(courseRepository.save(course).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        // The waiting lists go with the courses (on delete cascade)
+        for (Long courseId : courseIds) {
+            jdbcTemplate.update("delete from student_courses where course_id = ?", courseId);
+        }
+        courseRepository.deleteAllById(courseIds);
+        jdbcTemplate.update("delete from students where id >= ?", ID_BASE);
+    }
+
+    @Test
+    @DisplayName("Stampede on capped courses should never oversell")
+    void stampede_NeverOversells() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<long[]>> results = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (Long studentId : studentIds) {
+            // Each student picks a few different courses at random
+            int first = ThreadLocalRandom.current().nextInt(courseIds.size());
+            for (int k = 0; k < COURSES_PER_STUDENT; k++) {
+                Long courseId = courseIds.get((first + k) % courseIds.size());
+                results.add(pool.submit(() -> {
+                    long t0 = System.nanoTime();
+                    EnrollmentResult result = enrollmentService.toggle(studentId, courseId);
+                    return new long[]{System.nanoTime() - t0, result.ordinal()};
+                }));
+            }
+        }
+
+        long[] latencies = new long[results.size()];
+        Map<EnrollmentResult, Integer> outcomes = new EnumMap<>(EnrollmentResult.class);
+        for (int i = 0; i < results.size(); i++) {
+            long[] r = results.get(i).get();
+            latencies[i] = r[0];
+            outcomes.merge(EnrollmentResult.values()[(int) r[1]], 1, Integer::sum);
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        long oversold = 0;
+        long seatsTakenMismatch = 0;
+        for (Long courseId : courseIds) {
+            long enrolled = jdbcTemplate.queryForObject(
+                    "select count(*) from student_courses where course_id = ?", Long.class, courseId);
+            int seatsTaken = courseRepository.findById(courseId).orElseThrow().getSeatsTaken();
+            oversold += Math.max(0, enrolled - CAPACITY);
+            if (seatsTaken != enrolled) {
+                seatsTakenMismatch++;
+            }
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("%n=== Seat reservation load test ===%n");
+        System.out.printf("students=%d courses=%d capacity=%d requests=%d threads=%d%n",
+                STUDENTS, COURSES, CAPACITY, latencies.length, THREADS);
+        System.out.printf("throughput=%.0f req/s  p50=%.2f ms  p99=%.2f ms  max=%.2f ms%n",
+                latencies.length / (elapsed / 1e9),
+                percentile(latencies, 50) / 1e6, percentile(latencies, 99) / 1e6,
+                latencies[latencies.length - 1] / 1e6);
+        System.out.printf("outcomes=%s  oversold=%d%n%n", outcomes, oversold);
+
+        assertEquals(0, oversold, "courses must never be oversold");
+        assertEquals(0, seatsTakenMismatch, "seats_taken must match the enrollment rows");
+        assertFalse(outcomes.containsKey(EnrollmentResult.UNENROLLED), "nobody was enrolled before");
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
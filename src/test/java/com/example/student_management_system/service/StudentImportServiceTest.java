@@ -0,0 +1,131 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.ImportReport;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Also a small throughput check: run with -Dimport.rows=500000 for a bigger file
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("StudentImportService Integration Tests")
+class StudentImportServiceTest {
+
+    private static final int ROWS = Integer.getInteger("import.rows", 20_000);
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private DepartmentRegistry departmentRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from students where email like 'import-%'");
+        jdbcTemplate.update("delete from departments where name like 'Import %'");
+        departmentRegistry.evictAll(); // the deleted departments must not stay cached
+        entityManagerFactory.getCache().evictAll(); // and not in Hibernate's second-level/query cache either
+    }
+
+    @Test
+    @DisplayName("Large CSV should be imported completely")
+    void importCsv_LargeFile() {
+        StringBuilder csv = new StringBuilder("name,email,department\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("Student ").append(i).append(",import-").append(i).append("@example.com,Import Dept ").append(i % 10).append('\n');
+        }
+
+        ImportReport report = studentImportService.importCsv(stream(csv.toString()));
+
+        System.out.printf("imported %d rows in %d ms, %.0f rows/s%n", report.imported(), report.elapsedMillis(), report.rowsPerSecond());
+        assertEquals(ROWS, report.rowsRead());
+        assertEquals(ROWS, report.imported());
+        assertEquals(0, report.failed());
+        assertEquals(ROWS, jdbcTemplate.queryForObject("select count(*) from students where email like 'import-%'", Long.class));
+        assertEquals(10, jdbcTemplate.queryForObject("select count(*) from departments where name like 'Import %'", Long.class));
+    }
+
+    @Test
+    @DisplayName("Bad CSV rows should be skipped and reported with their line number")
+    void importCsv_ReportsBadRows() {
+        String csv = """
+                email,name
+                import-a@example.com,"Doe, Jane"
+                not-an-email,Bob
+
+                import-c@example.com,
+                """;
+
+        ImportReport report = studentImportService.importCsv(stream(csv));
+
+        assertEquals(3, report.rowsRead());
+        assertEquals(1, report.imported());
+        assertEquals(2, report.failed());
+        assertEquals(3, report.errors().get(0).line());
+        assertEquals(5, report.errors().get(1).line());
+        assertEquals("Doe, Jane", jdbcTemplate.queryForObject(
+                "select name from students where email = 'import-a@example.com'", String.class));
+    }
+
+    @Test
+    @DisplayName("A row the database rejects should be reported by its line, and the rest of its chunk saved")
+    void importCsv_ChunkFails_SavesOtherRows() {
+        String csv = "name,email\n"
+                + "Ann,import-row-a@example.com\n"
+                + "N" + "o".repeat(300) + ",import-row-b@example.com\n" // longer than the name column
+                + "Cat,import-row-c@example.com\n";
+
+        ImportReport report = studentImportService.importCsv(stream(csv));
+
+        assertEquals(3, report.rowsRead());
+        assertEquals(2, report.imported());
+        assertEquals(1, report.failed());
+        assertEquals(1, report.errors().size());
+        assertEquals(3, report.errors().get(0).line());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "select count(*) from students where email like 'import-row-%'", Long.class));
+    }
+
+    @Test
+    @DisplayName("CSV without the required header should be rejected")
+    void importCsv_MissingHeader() {
+        assertThrows(IllegalArgumentException.class, () -> studentImportService.importCsv(stream("foo,bar\n1,2\n")));
+    }
+
+    @Test
+    @DisplayName("JSON array should be imported")
+    void importJson_Array() {
+        String json = """
+                [{"name": "Ann", "email": "import-ann@example.com", "department": "Import Physics"},
+                 {"name": "Ben", "email": "import-ben@example.com"}]
+                """;
+
+        ImportReport report = studentImportService.importJson(stream(json));
+
+        assertEquals(2, report.imported());
+        assertEquals("Import Physics", jdbcTemplate.queryForObject(
+                "select d.name from students s join departments d on d.id = s.department_id where s.email = 'import-ann@example.com'",
+                String.class));
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
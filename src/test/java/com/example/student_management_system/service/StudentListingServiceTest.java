@@ -0,0 +1,89 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.StudentPage;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.StudentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StudentListingService Unit Tests")
+class StudentListingServiceTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @InjectMocks
+    private StudentListingService studentListingService;
+
+    private static List<Student> students(long... ids) {
+        List<Student> list = new ArrayList<>();
+        for (long id : ids) {
+            Student s = new Student();
+            s.setId(id);
+            list.add(s);
+        }
+        return list;
+    }
+
+    @Test
+    @DisplayName("First page should have a next cursor but no previous cursor")
+    void firstPage_HasNextCursor() {
+        when(studentRepository.findPageAfter(0L, null, Pageable.ofSize(3))).thenReturn(students(1, 2, 3));
+
+        StudentPage page = studentListingService.findPage(null, null, 2, null);
+
+        assertEquals(2, page.students().size());
+        assertNull(page.prevCursor());
+        assertEquals(2L, page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Last page should have no next cursor")
+    void lastPage_NoNextCursor() {
+        when(studentRepository.findPageAfter(2L, null, Pageable.ofSize(3))).thenReturn(students(3));
+
+        StudentPage page = studentListingService.findPage(2L, null, 2, null);
+
+        assertEquals(1, page.students().size());
+        assertEquals(3L, page.prevCursor());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Previous page should come back in ascending order")
+    void previousPage_ReversedToAscending() {
+        when(studentRepository.findPageBefore(5L, "CS", Pageable.ofSize(3))).thenReturn(students(4, 3, 2));
+
+        StudentPage page = studentListingService.findPage(null, 5L, 2, " CS ");
+
+        assertEquals(List.of(3L, 4L), page.students().stream().map(Student::getId).toList());
+        assertEquals(3L, page.prevCursor());
+        assertEquals(4L, page.nextCursor());
+        assertEquals("CS", page.deptName());
+    }
+
+    @Test
+    @DisplayName("Page size should be clamped to the maximum")
+    void pageSize_Clamped() {
+        when(studentRepository.findPageAfter(eq(0L), eq(null), eq(Pageable.ofSize(StudentListingService.MAX_PAGE_SIZE + 1))))
+                .thenReturn(students());
+
+        StudentPage page = studentListingService.findPage(null, null, 10_000, "");
+
+        assertEquals(StudentListingService.MAX_PAGE_SIZE, page.size());
+        assertNull(page.deptName());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.Department;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.model.User;
+import com.example.student_management_system.repository.StudentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StudentService Unit Tests")
+class StudentServiceTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private DepartmentRegistry departmentRegistry;
+
+    @Mock
+    private UserAccountCache userAccountCache;
+
+    @InjectMocks
+    private StudentService studentService;
+
+    @Test
+    @DisplayName("Should update the student and evict its login from the account cache")
+    void update_SavesAndEvictsLogin() {
+        User user = new User();
+        user.setUsername("john");
+        Student student = new Student();
+        student.setId(1L);
+        student.setUser(user);
+        Department department = new Department();
+        department.setName("CS");
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(departmentRegistry.resolve("CS")).thenReturn(department);
+
+        assertTrue(studentService.update(1L, "John Doe", "john@example.com", "CS"));
+
+        assertEquals("John Doe", student.getName());
+        assertEquals("john@example.com", student.getEmail());
+        assertSame(department, student.getDepartment());
+        verify(studentRepository).save(student);
+        verify(userAccountCache).evict("john");
+    }
+
+    @Test
+    @DisplayName("Should change nothing for a student that does not exist")
+    void update_UnknownStudent_ReturnsFalse() {
+        when(studentRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertFalse(studentService.update(1L, "John Doe", "john@example.com", "CS"));
+
+        verify(studentRepository, never()).save(any());
+        verifyNoInteractions(departmentRegistry, userAccountCache);
+    }
+}
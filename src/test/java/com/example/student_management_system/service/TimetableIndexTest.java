@@ -0,0 +1,105 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.CourseMeeting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TimetableIndex Unit Tests")
+class TimetableIndexTest {
+
+    private TimetableIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TimetableIndex();
+        index.put(meeting(1, DayOfWeek.MONDAY, "09:00", "10:30", "Room 101"));
+        index.put(meeting(2, DayOfWeek.MONDAY, "10:30", "12:00", "Room 101"));
+        index.put(meeting(3, DayOfWeek.TUESDAY, "09:00", "10:30", "Room 101"));
+        index.put(meeting(4, DayOfWeek.MONDAY, "10:00", "11:00", "Lab"));
+    }
+
+    @Test
+    @DisplayName("Courses overlapping the new one should clash, back to back ones should not")
+    void conflicts_Overlap() {
+        assertEquals(List.of(4L), ids(index.conflicts(List.of(2L, 3L, 4L), 1)));
+        assertEquals(List.of(4L), ids(index.conflicts(List.of(1L, 3L, 4L), 2)));
+        assertEquals(List.of(), ids(index.conflicts(List.of(1L, 2L, 4L), 3)), "other day");
+        assertEquals(List.of(), ids(index.conflicts(List.of(1L, 4L), 99)), "no meeting time");
+        assertEquals(List.of(), ids(index.conflicts(List.of(1L), 1)), "the course itself");
+    }
+
+    @Test
+    @DisplayName("A room should clash only with its own bookings, whatever the spelling of its name")
+    void roomConflicts_SameRoom() {
+        assertEquals(List.of(1L, 2L), ids(index.roomConflicts(meeting(9, DayOfWeek.MONDAY, "10:15", "10:45", " room 101"))));
+        assertEquals(List.of(), ids(index.roomConflicts(meeting(9, DayOfWeek.MONDAY, "12:00", "13:00", "Room 101"))));
+        assertEquals(List.of(), ids(index.roomConflicts(meeting(9, DayOfWeek.MONDAY, "09:00", "10:00", "Room 202"))));
+        assertEquals(List.of(), ids(index.roomConflicts(meeting(9, DayOfWeek.MONDAY, "09:00", "10:00", null))));
+        // A course is never in its own way (e.g. when it is saved again)
+        assertEquals(List.of(2L), ids(index.roomConflicts(meeting(1, DayOfWeek.MONDAY, "09:00", "11:00", "Room 101"))));
+    }
+
+    @Test
+    @DisplayName("Times between two 5-minute slots should still be compared exactly")
+    void roomConflicts_InsideOneSlot() {
+        index.put(meeting(5, DayOfWeek.FRIDAY, "08:00", "08:02", "Hall"));
+        assertEquals(List.of(), ids(index.roomConflicts(meeting(9, DayOfWeek.FRIDAY, "08:03", "09:00", "Hall"))));
+        assertEquals(List.of(5L), ids(index.roomConflicts(meeting(9, DayOfWeek.FRIDAY, "08:01", "09:00", "Hall"))));
+    }
+
+    @Test
+    @DisplayName("Moving or removing a course should free its old slot")
+    void putAndRemove_UpdateRooms() {
+        index.put(meeting(1, DayOfWeek.WEDNESDAY, "09:00", "10:30", "Room 101"));
+        assertEquals(List.of(), ids(index.roomConflicts(meeting(9, DayOfWeek.MONDAY, "09:00", "10:00", "Room 101"))));
+        assertEquals(List.of(1L), ids(index.roomConflicts(meeting(9, DayOfWeek.WEDNESDAY, "10:00", "11:00", "Room 101"))));
+
+        index.remove(1);
+        assertNull(index.get(1));
+        assertEquals(List.of(), ids(index.roomConflicts(meeting(9, DayOfWeek.WEDNESDAY, "10:00", "11:00", "Room 101"))));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("The index should find the same room clashes as comparing every pair")
+    void roomConflicts_MatchPairwise() {
+        SplittableRandom random = new SplittableRandom(3);
+        List<CourseMeeting> all = new ArrayList<>();
+        index = new TimetableIndex();
+        for (int id = 1; id <= 2_000; id++) {
+            CourseMeeting m = randomMeeting(random, id);
+            all.add(m);
+            index.put(m);
+        }
+        for (int i = 0; i < 500; i++) {
+            CourseMeeting probe = randomMeeting(random, 100_000 + i);
+            List<Long> expected = all.stream()
+                    .filter(m -> m.room().equals(probe.room()) && m.overlaps(probe))
+                    .map(CourseMeeting::courseId).toList();
+            assertEquals(expected, ids(index.roomConflicts(probe)), probe.toString());
+        }
+    }
+
+    private static CourseMeeting randomMeeting(SplittableRandom random, long id) {
+        LocalTime start = LocalTime.of(7, 0).plusMinutes(random.nextInt(13 * 60));
+        return new CourseMeeting(id, "Course " + id, DayOfWeek.of(1 + random.nextInt(7)),
+                start, start.plusMinutes(20 + random.nextInt(160)), "Room " + random.nextInt(40));
+    }
+
+    private static CourseMeeting meeting(long id, DayOfWeek day, String start, String end, String room) {
+        return new CourseMeeting(id, "Course " + id, day, LocalTime.parse(start), LocalTime.parse(end), room);
+    }
+
+    private static List<Long> ids(List<CourseMeeting> meetings) {
+        return meetings.stream().map(CourseMeeting::courseId).sorted().toList();
+    }
+}
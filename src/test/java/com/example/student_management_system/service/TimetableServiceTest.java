@@ -0,0 +1,168 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.dto.CourseMeeting;
+import com.example.student_management_system.dto.EnrollmentResult;
+import com.example.student_management_system.model.Course;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repository.CourseRepository;
+import com.example.student_management_system.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Meeting times end to end: saved courses reach the index, clashing enrollments are refused
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("TimetableService Integration Tests")
+class TimetableServiceTest {
+
+    @Autowired
+    private TimetableService timetableService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> studentIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long studentId : studentIds) {
+            jdbcTemplate.update("delete from student_courses where student_id = ?", studentId);
+        }
+        studentRepository.deleteAllById(studentIds);
+        courseRepository.deleteAllById(courseIds);
+    }
+
+    @Test
+    @DisplayName("Enrolling in a course at the same time as one of the student's courses should be refused")
+    void toggle_Overlapping_Conflict() {
+        Long studentId = newStudent("Timetable Tim");
+        Long morning = newCourse("Clash Morning", DayOfWeek.MONDAY, "09:00", "10:30", null).getId();
+        Long overlapping = newCourse("Clash Overlap", DayOfWeek.MONDAY, "10:00", "11:00", null).getId();
+        Long afterwards = newCourse("Clash Afterwards", DayOfWeek.MONDAY, "10:30", "12:00", null).getId();
+        Long anyTime = newCourse("Clash Any Time", null, null, null, null).getId();
+
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.toggle(studentId, morning));
+        assertEquals(EnrollmentResult.CONFLICT, enrollmentService.toggle(studentId, overlapping));
+        assertFalse(enrollmentService.isEnrolled(studentId, overlapping));
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.toggle(studentId, afterwards), "back to back is fine");
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.toggle(studentId, anyTime));
+
+        // Once the clashing course is dropped, the other one is free
+        assertEquals(EnrollmentResult.UNENROLLED, enrollmentService.toggle(studentId, morning));
+        assertEquals(EnrollmentResult.CONFLICT, enrollmentService.toggle(studentId, overlapping), "still clashes with the 10:30 one");
+        assertEquals(EnrollmentResult.UNENROLLED, enrollmentService.toggle(studentId, afterwards));
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.toggle(studentId, overlapping));
+    }
+
+    @Test
+    @DisplayName("Saving, moving and deleting a course should keep the room bookings up to date")
+    void roomConflicts_FollowSavedCourses() {
+        Course booked = newCourse("Room Booked", DayOfWeek.THURSDAY, "14:00", "15:30", "Hall 7");
+        Course probe = course("Room Probe", DayOfWeek.THURSDAY, "15:00", "16:00", " hall 7");
+
+        assertEquals(List.of(booked.getId()), ids(timetableService.roomConflicts(probe)));
+
+        booked.setMeetingDay(DayOfWeek.FRIDAY);
+        courseRepository.save(booked);
+        assertEquals(List.of(), ids(timetableService.roomConflicts(probe)));
+
+        probe.setMeetingDay(DayOfWeek.FRIDAY);
+        assertEquals(List.of(booked.getId()), ids(timetableService.roomConflicts(probe)));
+        courseRepository.deleteById(booked.getId());
+        assertEquals(List.of(), ids(timetableService.roomConflicts(probe)));
+        assertFalse(timetableService.hasMeetingTime(booked.getId()));
+    }
+
+    @Test
+    @DisplayName("A course moved while the timetable loads should keep its new time, not the row read before")
+    @SuppressWarnings("unchecked")
+    void load_CourseChangedMeanwhile_KeepsNewTime() {
+        TimetableService loading = new TimetableService();
+        CourseRepository repository = mock(CourseRepository.class);
+        TransactionTemplate transactions = mock(TransactionTemplate.class);
+        ReflectionTestUtils.setField(loading, "courseRepository", repository);
+        ReflectionTestUtils.setField(loading, "transactionTemplate", transactions);
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactions).executeWithoutResult(any());
+
+        Course moved = course("Load Moved", DayOfWeek.TUESDAY, "14:00", "15:00", "Lab 3");
+        moved.setId(1L);
+        CourseMeeting before = new CourseMeeting(1L, "Load Moved", DayOfWeek.MONDAY,
+                LocalTime.parse("09:00"), LocalTime.parse("10:00"), "Lab 3");
+        // The move commits after the row was read, before the load gets to it
+        when(repository.streamMeetings()).thenReturn(Stream.of(before).peek(row -> loading.courseSaved(moved)));
+        loading.buildIndex();
+
+        assertEquals(List.of(), ids(loading.roomConflicts(course("Old Slot", DayOfWeek.MONDAY, "09:30", "10:30", "Lab 3"))));
+        assertEquals(List.of(1L), ids(loading.roomConflicts(course("New Slot", DayOfWeek.TUESDAY, "14:30", "15:30", "Lab 3"))));
+    }
+
+    @Test
+    @DisplayName("A half-filled meeting time or one ending before it starts should be rejected")
+    void validate_MeetingTime() {
+        assertNull(timetableService.validate(course("Valid", DayOfWeek.MONDAY, "09:00", "10:00", "Room 1")));
+        assertNull(timetableService.validate(course("No time", null, null, null, null)));
+        assertNotNull(timetableService.validate(course("No end", DayOfWeek.MONDAY, "09:00", null, null)));
+        assertNotNull(timetableService.validate(course("Backwards", DayOfWeek.MONDAY, "10:00", "09:00", null)));
+        assertNotNull(timetableService.validate(course("Room only", null, null, null, "Room 1")));
+    }
+
+    private Long newStudent(String name) {
+        Student student = new Student();
+        student.setName(name);
+        Long id = studentRepository.save(student).getId();
+        studentIds.add(id);
+        return id;
+    }
+
+    private Course newCourse(String title, DayOfWeek day, String start, String end, String room) {
+        Course course = courseRepository.save(course(title, day, start, end, room));
+        courseIds.add(course.getId());
+        return course;
+    }
+
+    private static Course course(String title, DayOfWeek day, String start, String end, String room) {
+        Course course = new Course();
+        course.setTitle(title);
+        course.setMeetingDay(day);
+        course.setStartTime(start != null ? LocalTime.parse(start) : null);
+        course.setEndTime(end != null ? LocalTime.parse(end) : null);
+        course.setRoom(room);
+        return course;
+    }
+
+    private static List<Long> ids(List<CourseMeeting> meetings) {
+        return meetings.stream().map(CourseMeeting::courseId).sorted().toList();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.model.User;
+import com.example.student_management_system.repository.StudentRepository;
+import com.example.student_management_system.repository.TeacherRepository;
+import com.example.student_management_system.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserAccountCache Unit Tests")
+class UserAccountCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private TeacherRepository teacherRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserAccountCache userAccountCache;
+    private User studentUser;
+
+    @BeforeEach
+    void setUp() {
+        userAccountCache = new UserAccountCache(userRepository, studentRepository, teacherRepository,
+                transactionManager, 100, Duration.ofMinutes(10));
+
+        studentUser = new User();
+        studentUser.setId(1L);
+        studentUser.setUsername("student1");
+        studentUser.setPassword("hash");
+        studentUser.setRole("ROLE_STUDENT");
+    }
+
+    private void stubStudent(long studentId) {
+        Student student = new Student();
+        student.setId(studentId);
+        when(userRepository.findByUsername("student1")).thenReturn(studentUser);
+        when(studentRepository.findByUser(studentUser)).thenReturn(student);
+    }
+
+    @Test
+    @DisplayName("Second lookup should be served from the cache")
+    void get_CachesUser() {
+        stubStudent(5L);
+
+        assertEquals(5L, userAccountCache.findStudentId("student1"));
+        assertEquals(5L, userAccountCache.findStudentId("student1"));
+
+        verify(userRepository, times(1)).findByUsername("student1");
+        verify(studentRepository, times(1)).findByUser(studentUser);
+        verifyNoInteractions(teacherRepository);
+    }
+
+    @Test
+    @DisplayName("Unknown users should return null and not be cached")
+    void get_UnknownUser() {
+        when(userRepository.findByUsername("ghost")).thenReturn(null);
+
+        assertNull(userAccountCache.get("ghost"));
+        assertNull(userAccountCache.get("ghost"));
+
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    @DisplayName("Evicting a username should force a reload")
+    void evict_ReloadsUser() {
+        stubStudent(5L);
+
+        userAccountCache.get("student1");
+        userAccountCache.evict("student1");
+        userAccountCache.get("student1");
+
+        verify(userRepository, times(2)).findByUsername("student1");
+    }
+
+    @Test
+    @DisplayName("Evicting a student id should drop the linked login")
+    void evictStudent_DropsLinkedUser() {
+        stubStudent(5L);
+
+        userAccountCache.get("student1");
+        userAccountCache.evictStudent(5L);
+        userAccountCache.get("student1");
+
+        verify(userRepository, times(2)).findByUsername("student1");
+    }
+}
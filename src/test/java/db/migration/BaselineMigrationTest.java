@@ -0,0 +1,103 @@
+package db.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A database that already has data is baselined at version 1 (like production) and migrated:
+// the next ids Hibernate takes from students_seq must all be new, and the later tables and constraints must fit its rows
+@DisplayName("Baseline migration Tests")
+class BaselineMigrationTest {
+
+    private static final int ALLOCATION_SIZE = 50; // Student's @SequenceGenerator
+
+    @Test
+    @DisplayName("A pre-migration database without students_seq should get one above its highest student id")
+    void baseline_WithoutSequence_StartsAboveMaxId() {
+        JdbcTemplate jdbc = preMigrationDatabase("noseq"); // ids came from an identity column back then
+
+        migrate(jdbc);
+
+        assertFirstIdAbove(jdbc, 120);
+    }
+
+    @Test
+    @DisplayName("A sequence left at 1 by ddl-auto should be moved past the existing ids")
+    void baseline_SequenceAtStart_MovedPastMaxId() {
+        JdbcTemplate jdbc = preMigrationDatabase("seqatone");
+        jdbc.execute("create sequence students_seq start with 1 increment by 50");
+
+        migrate(jdbc);
+
+        assertFirstIdAbove(jdbc, 120);
+    }
+
+    @Test
+    @DisplayName("A sequence already ahead of the ids should never be moved back")
+    void baseline_SequenceAhead_NotMovedBack() {
+        JdbcTemplate jdbc = preMigrationDatabase("seqahead");
+        jdbc.execute("create sequence students_seq start with 10000 increment by 50");
+
+        migrate(jdbc);
+
+        assertFirstIdAbove(jdbc, 10_000);
+    }
+
+    @Test
+    @DisplayName("Duplicate enrollments and department names should be merged, seats counted and the constraints added")
+    void baseline_Duplicates_MergedAndConstrained() {
+        JdbcTemplate jdbc = preMigrationDatabase("duplicates");
+        jdbc.update("insert into departments (id, name) values (1, 'Physics'), (2, 'Physics'), (3, 'Biology'), (4, null), (5, null)");
+        jdbc.update("update students set department_id = 2 where id <= 10");
+        jdbc.update("insert into courses (id, title) values (1, 'Optics'), (2, 'Genetics')");
+        jdbc.update("insert into student_courses (student_id, course_id) values (1, 1), (1, 1), (2, 1), (1, 2)");
+
+        migrate(jdbc);
+
+        assertEquals(4, jdbc.queryForObject("select count(*) from departments", Integer.class));
+        assertEquals(10, jdbc.queryForObject("select count(*) from students where department_id = 1", Integer.class));
+        assertEquals(3, jdbc.queryForObject("select count(*) from student_courses", Integer.class));
+        assertEquals(2, jdbc.queryForObject("select seats_taken from courses where id = 1", Integer.class));
+        assertEquals(1, jdbc.queryForObject("select seats_taken from courses where id = 2", Integer.class));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbc.update("insert into student_courses (student_id, course_id) values (2, 1)"));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbc.update("insert into departments (name) values ('Biology')"));
+    }
+
+    // The V1 tables, as ddl-auto=update created them, with 120 students in them
+    private static JdbcTemplate preMigrationDatabase(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__create_schema.sql")).execute(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        for (long id = 1; id <= 120; id++) {
+            jdbc.update("insert into students (id, name) values (?, ?)", id, "Existing " + id);
+        }
+        return jdbc;
+    }
+
+    private static void migrate(JdbcTemplate jdbc) {
+        Flyway.configure()
+                .dataSource(jdbc.getDataSource())
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    // Hibernate's pooled optimizer hands out value - 49 .. value for each sequence value
+    private static void assertFirstIdAbove(JdbcTemplate jdbc, long id) {
+        Long value = jdbc.queryForObject("select next value for students_seq", Long.class);
+        assertTrue(value - ALLOCATION_SIZE + 1 > id, "next block starts at " + (value - ALLOCATION_SIZE + 1));
+        assertEquals(1, jdbc.queryForObject(
+                "select count(*) from \"flyway_schema_history\" where \"version\" = '7' and \"success\"", Integer.class));
+    }
+}